@@ -0,0 +1,65 @@
+package com.shipping.freightops.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.util.List;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches. Each cache records statistics, which Actuator publishes as {@code cache.gets},
+ * {@code cache.puts} and {@code cache.evictions} metrics tagged with the cache name. Sizes and
+ * expiries come from {@link CacheProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+  public static final String VOYAGE_PRICES = "voyagePrices";
+  public static final String IDEMPOTENCY_KEYS = "idempotencyKeys";
+  public static final String BOOKING_TICKETS = "bookingTickets";
+  public static final String VOYAGE_COMMISSIONS = "voyageCommissions";
+  public static final String ROUTE_PRICE_MODELS = "routePriceModels";
+
+  /** Caches registered by {@link #cacheManager}, each sized from its {@link CacheProperties}. */
+  private static final List<String> CACHE_NAMES =
+      List.of(
+          VOYAGE_PRICES, IDEMPOTENCY_KEYS, BOOKING_TICKETS, VOYAGE_COMMISSIONS, ROUTE_PRICE_MODELS);
+
+  @Bean
+  public CacheManager cacheManager(CacheProperties properties) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    for (String name : CACHE_NAMES) {
+      CacheProperties.Spec spec = properties.spec(name);
+      cacheManager.registerCustomCache(
+          name,
+          Caffeine.newBuilder()
+              .maximumSize(spec.getMaxSize())
+              .expireAfterWrite(spec.getTtl())
+              .recordStats()
+              .build());
+    }
+    return cacheManager;
+  }
+
+  /** Regions for the Hibernate second-level and query caches. */
+  @Bean(destroyMethod = "close")
+  public javax.cache.CacheManager hibernateCacheManager() {
+    return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(
+            URI.create("classpath:hibernate-cache.conf"), CacheConfig.class.getClassLoader());
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(
+      javax.cache.CacheManager hibernateCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+  }
+}
@@ -0,0 +1,49 @@
+package com.shipping.freightops.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and expiry of each in-process cache, bound from {@code app.cache.specs.<cache>.max-size} and
+ * {@code app.cache.specs.<cache>.ttl}, where {@code <cache>} is the cache name in kebab case, e.g.
+ * {@code app.cache.specs.voyage-prices.ttl} for {@link CacheConfig#VOYAGE_PRICES}. A cache without
+ * properties gets the {@link Spec} defaults.
+ */
+@ConfigurationProperties("app.cache")
+public class CacheProperties {
+
+  private final Map<String, Spec> specs = new LinkedHashMap<>();
+
+  public Map<String, Spec> getSpecs() {
+    return specs;
+  }
+
+  /** The spec of the cache named {@code cacheName}, e.g. {@code voyagePrices}. */
+  public Spec spec(String cacheName) {
+    String key = cacheName.replaceAll("([A-Z])", "-$1").toLowerCase();
+    return specs.getOrDefault(key, new Spec());
+  }
+
+  public static class Spec {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofHours(1);
+
+    public long getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+  }
+}
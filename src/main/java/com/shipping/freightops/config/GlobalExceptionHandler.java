@@ -1,9 +1,15 @@
 package com.shipping.freightops.config;
 
+import com.shipping.freightops.entity.FreightOrder;
 import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.exception.ServiceUnavailableException;
+import com.shipping.freightops.exception.VersionConflictException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -24,6 +30,39 @@ public class GlobalExceptionHandler {
     return buildError(HttpStatus.CONFLICT, ex.getMessage());
   }
 
+  /** Constraints the in-memory checks could not see, e.g. a booking committed by another node. */
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<Map<String, Object>> handleDataIntegrity(
+      DataIntegrityViolationException ex) {
+    String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+    if (cause.contains(FreightOrder.CONTAINER_OCCUPANCY_CONSTRAINT)) {
+      return buildError(
+          HttpStatus.CONFLICT, "Container is already booked for an overlapping voyage");
+    }
+    return buildError(HttpStatus.CONFLICT, "Request conflicts with existing data");
+  }
+
+  /**
+   * A conditional update lost to a newer version: 409 with the current representation in {@code
+   * current} and its version as the ETag, so the client can re-apply its change and retry.
+   */
+  @ExceptionHandler(VersionConflictException.class)
+  public ResponseEntity<Map<String, Object>> handleVersionConflict(VersionConflictException ex) {
+    Map<String, Object> body = errorBody(HttpStatus.CONFLICT, ex.getMessage());
+    body.put("current", ex.getCurrent());
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .eTag(String.valueOf(ex.getCurrentVersion()))
+        .body(body);
+  }
+
+  /** Optimistic lock failures outside a conditional endpoint, e.g. a batch racing a cutoff. */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleOptimisticLock(
+      OptimisticLockingFailureException ex) {
+    return buildError(
+        HttpStatus.CONFLICT, "Data was modified by a concurrent request, please retry");
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
     String message =
@@ -39,12 +78,24 @@ public class GlobalExceptionHandler {
     return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 
+  /** Load shedding: 503 with a hint to retry shortly. */
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<Map<String, Object>> handleUnavailable(ServiceUnavailableException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(errorBody(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+  }
+
   private ResponseEntity<Map<String, Object>> buildError(HttpStatus status, String message) {
+    return ResponseEntity.status(status).body(errorBody(status, message));
+  }
+
+  private Map<String, Object> errorBody(HttpStatus status, String message) {
     Map<String, Object> body = new LinkedHashMap<>();
     body.put("timestamp", LocalDateTime.now().toString());
     body.put("status", status.value());
     body.put("error", status.getReasonPhrase());
     body.put("message", message);
-    return ResponseEntity.status(status).body(body);
+    return body;
   }
 }
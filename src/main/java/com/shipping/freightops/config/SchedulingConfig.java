@@ -0,0 +1,9 @@
+package com.shipping.freightops.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} background jobs such as capacity reconciliation. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -1,15 +1,25 @@
 package com.shipping.freightops.controller;
 
+import com.shipping.freightops.dto.AgentCommissionStatement;
+import com.shipping.freightops.dto.AgentCommissionTotalResponse;
 import com.shipping.freightops.dto.AgentCreateRequest;
 import com.shipping.freightops.dto.AgentResponse;
 import com.shipping.freightops.dto.AgentUpdateRequest;
+import com.shipping.freightops.dto.PageResponse;
 import com.shipping.freightops.entity.Agent;
 import com.shipping.freightops.enums.AgentType;
+import com.shipping.freightops.service.AgentCommissionService;
 import com.shipping.freightops.service.AgentService;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -25,9 +35,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class AgentController {
 
   private final AgentService agentService;
+  private final AgentCommissionService commissionService;
 
-  public AgentController(AgentService agentService) {
+  public AgentController(AgentService agentService, AgentCommissionService commissionService) {
     this.agentService = agentService;
+    this.commissionService = commissionService;
   }
 
   /** Create a new agent. */
@@ -39,14 +51,14 @@ public class AgentController {
     return ResponseEntity.created(location).body(body);
   }
 
-  /** List all agents, with optional type and active filters. */
+  /** List agents page by page, with optional type and active filters. */
   @GetMapping
-  public ResponseEntity<List<AgentResponse>> list(
+  public ResponseEntity<PageResponse<AgentResponse>> list(
       @RequestParam(required = false) AgentType type,
-      @RequestParam(required = false) Boolean active) {
-    List<Agent> agents = agentService.listAgents(type, active);
-    List<AgentResponse> body = agents.stream().map(this::toResponse).toList();
-    return ResponseEntity.ok(body);
+      @RequestParam(required = false) Boolean active,
+      @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+    Page<Agent> agents = agentService.listAgents(type, active, pageable);
+    return ResponseEntity.ok(PageResponse.from(agents.map(this::toResponse)));
   }
 
   /** Get a single agent by ID. */
@@ -64,6 +76,33 @@ public class AgentController {
     return ResponseEntity.ok(toResponse(agent));
   }
 
+  /** Delete an agent without orders; agents with commission history can only be deactivated. */
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> delete(@PathVariable Long id) {
+    agentService.deleteAgent(id);
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Commission statement of one agent: a line per completed voyage arriving from {@code from}
+   * (inclusive) to {@code to} (exclusive).
+   */
+  @GetMapping("/{id}/commission-statement")
+  public ResponseEntity<AgentCommissionStatement> commissionStatement(
+      @PathVariable Long id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return ResponseEntity.ok(commissionService.getStatement(id, from, to));
+  }
+
+  /** Commission totals of every agent over a period, e.g. for the month-end run. */
+  @GetMapping("/commissions")
+  public ResponseEntity<List<AgentCommissionTotalResponse>> commissionTotals(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return ResponseEntity.ok(commissionService.getTotals(from, to));
+  }
+
   private AgentResponse toResponse(Agent agent) {
     AgentResponse dto = new AgentResponse();
     dto.setId(agent.getId());
@@ -2,11 +2,14 @@ package com.shipping.freightops.controller;
 
 import com.shipping.freightops.dto.CreateCustomerRequest;
 import com.shipping.freightops.dto.CustomerResponse;
+import com.shipping.freightops.dto.PageResponse;
 import com.shipping.freightops.entity.Customer;
 import com.shipping.freightops.service.CustomerService;
 import jakarta.validation.Valid;
 import java.net.URI;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,10 +39,10 @@ public class CustomerController {
   }
 
   @GetMapping
-  public ResponseEntity<List<CustomerResponse>> list() {
-    List<Customer> customers = service.getAllCustomers();
-
-    List<CustomerResponse> body = customers.stream().map(CustomerResponse::fromEntity).toList();
-    return ResponseEntity.ok(body);
+  public ResponseEntity<PageResponse<CustomerResponse>> list(
+      @RequestParam(required = false) String name,
+      @PageableDefault(size = 20, sort = "companyName") Pageable pageable) {
+    Page<Customer> customers = service.getAllCustomers(name, pageable);
+    return ResponseEntity.ok(PageResponse.from(customers.map(CustomerResponse::fromEntity)));
   }
 }
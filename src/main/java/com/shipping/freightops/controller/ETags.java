@@ -0,0 +1,33 @@
+package com.shipping.freightops.controller;
+
+import com.shipping.freightops.exception.BadRequestException;
+
+/**
+ * Reads entity versions out of {@code If-Match} headers. Responses carry the version as a strong
+ * ETag ({@code "3"}), which clients echo back to make a PATCH conditional.
+ */
+final class ETags {
+
+  private ETags() {}
+
+  /**
+   * The version an {@code If-Match} header requires, or {@code null} when the header is absent or
+   * {@code *} and the update is unconditional.
+   *
+   * @throws BadRequestException if the header is not a single strong ETag of a version
+   */
+  static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.valueOf(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException ignored) {
+        // fall through to the error below
+      }
+    }
+    throw new BadRequestException("If-Match must be a single ETag from a previous response");
+  }
+}
@@ -1,19 +1,36 @@
 package com.shipping.freightops.controller;
 
+import com.shipping.freightops.dto.BatchFreightOrderRequest;
+import com.shipping.freightops.dto.BatchFreightOrderResponse;
+import com.shipping.freightops.dto.BookingTicketResponse;
+import com.shipping.freightops.dto.BulkDiscountRequest;
+import com.shipping.freightops.dto.BulkDiscountResponse;
 import com.shipping.freightops.dto.CreateFreightOrderRequest;
+import com.shipping.freightops.dto.CursorResponse;
 import com.shipping.freightops.dto.FreightOrderResponse;
+import com.shipping.freightops.dto.FreightOrderSearchRequest;
 import com.shipping.freightops.dto.PageResponse;
+import com.shipping.freightops.dto.SliceResponse;
 import com.shipping.freightops.dto.UpdateDiscountRequest;
 import com.shipping.freightops.entity.FreightOrder;
+import com.shipping.freightops.exception.VersionConflictException;
+import com.shipping.freightops.service.BookingIntake;
 import com.shipping.freightops.service.FreightOrderService;
+import com.shipping.freightops.service.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.util.Optional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,27 +44,111 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/freight-orders")
 public class FreightOrderController {
 
+  /** Request header that makes a booking safe to retry. */
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  /** Response header set when the body is the stored response of an earlier request. */
+  static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
   private final FreightOrderService service;
+  private final IdempotencyStore idempotencyStore;
+  private final BookingIntake bookingIntake;
 
-  public FreightOrderController(FreightOrderService service) {
+  public FreightOrderController(
+      FreightOrderService service, IdempotencyStore idempotencyStore, BookingIntake bookingIntake) {
     this.service = service;
+    this.idempotencyStore = idempotencyStore;
+    this.bookingIntake = bookingIntake;
   }
 
   /** Create a new freight order. */
-  @Operation(summary = "Create a new freight order")
+  @Operation(
+      summary = "Create a new freight order",
+      description =
+          "With an Idempotency-Key header, retries of the same request within 24 hours return the"
+              + " first response (marked Idempotent-Replayed: true) instead of booking again.")
   @ApiResponses({
     @ApiResponse(responseCode = "201", description = "Freight order successfully created"),
-    @ApiResponse(responseCode = "400", description = "Invalid request data"),
+    @ApiResponse(responseCode = "400", description = "Invalid request data or Idempotency-Key"),
     @ApiResponse(responseCode = "404", description = "Voyage or Container not found"),
-    @ApiResponse(responseCode = "409", description = "Cannot book freight on a cancelled voyage")
+    @ApiResponse(
+        responseCode = "409",
+        description =
+            "Voyage is cancelled, closed for booking or out of capacity, or the Idempotency-Key"
+                + " was used for a different request")
   })
   @PostMapping
   public ResponseEntity<FreightOrderResponse> create(
+      @Valid @RequestBody CreateFreightOrderRequest request,
+      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    if (idempotencyKey == null) {
+      return created(service.bookOrder(request));
+    }
+    Optional<FreightOrderResponse> stored =
+        idempotencyStore.find(idempotencyKey, request, FreightOrderResponse.class);
+    if (stored.isPresent()) {
+      return replayed(stored.get());
+    }
+    try {
+      return created(service.bookOrder(request, idempotencyKey));
+    } catch (DataIntegrityViolationException ex) {
+      // A concurrent request with the same key committed first
+      return idempotencyStore
+          .find(idempotencyKey, request, FreightOrderResponse.class)
+          .map(FreightOrderController::replayed)
+          .orElseThrow(() -> ex);
+    }
+  }
+
+  /** Queue a booking and return a ticket to poll instead of waiting for the order. */
+  @Operation(
+      summary = "Submit a freight order for asynchronous booking",
+      description =
+          "Returns a ticket right away; the order is booked within a moment together with other"
+              + " queued orders of the same voyage. Poll the ticket (Location header) until its"
+              + " status is CREATED or REJECTED.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "202", description = "Booking stored and queued"),
+    @ApiResponse(responseCode = "400", description = "Invalid request data"),
+    @ApiResponse(
+        responseCode = "503",
+        description = "Intake queue is full or the node is shutting down, retry later")
+  })
+  @PostMapping("/async")
+  public ResponseEntity<BookingTicketResponse> submit(
       @Valid @RequestBody CreateFreightOrderRequest request) {
-    FreightOrder order = service.createOrder(request);
-    FreightOrderResponse body = FreightOrderResponse.fromEntity(order);
-    URI location = URI.create("/api/v1/freight-orders/" + order.getId());
-    return ResponseEntity.created(location).body(body);
+    BookingTicketResponse ticket = bookingIntake.submit(request);
+    URI location = URI.create("/api/v1/freight-orders/tickets/" + ticket.getTicketId());
+    return ResponseEntity.accepted().location(location).body(ticket);
+  }
+
+  /** State of an asynchronously submitted booking. */
+  @Operation(summary = "Get the state of an asynchronous booking")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Ticket found"),
+    @ApiResponse(responseCode = "404", description = "Unknown or expired ticket")
+  })
+  @GetMapping("/tickets/{ticketId}")
+  public ResponseEntity<BookingTicketResponse> getTicket(@PathVariable String ticketId) {
+    return ResponseEntity.ok(
+        bookingIntake
+            .find(ticketId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Booking ticket not found: " + ticketId)));
+  }
+
+  /** Book many containers in one call, reporting the outcome of each line. */
+  @Operation(summary = "Create freight orders in bulk")
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Batch processed; each line is reported as CREATED or REJECTED"),
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+  })
+  @PostMapping("/batch")
+  public ResponseEntity<BatchFreightOrderResponse> createBatch(
+      @Valid @RequestBody BatchFreightOrderRequest request) {
+    return ResponseEntity.ok(service.createOrders(request.getOrders()));
   }
 
   /** Get a single freight order by ID. */
@@ -58,19 +159,29 @@ public class FreightOrderController {
   })
   @GetMapping("/{id}")
   public ResponseEntity<FreightOrderResponse> getById(@PathVariable Long id) {
-    FreightOrder order = service.getOrder(id);
-    return ResponseEntity.ok(FreightOrderResponse.fromEntity(order));
+    return withETag(service.getOrder(id));
   }
 
   /** List all freight orders, optionally filtered by voyage. */
-  @Operation(summary = "List all freight orders with optional voyage filter")
+  @Operation(
+      summary = "List all freight orders with optional voyage filter",
+      description = "Pass count=false to skip the total count; the response then only has hasNext")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Paged list of freight orders returned")
   })
   @GetMapping
-  public ResponseEntity<PageResponse<FreightOrderResponse>> list(
+  public ResponseEntity<SliceResponse<FreightOrderResponse>> list(
       @RequestParam(required = false) Long voyageId,
+      @RequestParam(defaultValue = "true") boolean count,
       @PageableDefault(size = 20) Pageable pageable) {
+    if (!count) {
+      Slice<FreightOrder> orders =
+          (voyageId != null)
+              ? service.getOrdersByVoyageSlice(voyageId, pageable)
+              : service.getAllOrdersSlice(pageable);
+      return ResponseEntity.ok(SliceResponse.from(orders.map(FreightOrderResponse::fromEntity)));
+    }
+
     Page<FreightOrder> orders =
         (voyageId != null)
             ? service.getOrdersByVoyage(voyageId, pageable)
@@ -80,16 +191,126 @@ public class FreightOrderController {
     return ResponseEntity.ok(PageResponse.from(mapped));
   }
 
-  @Operation(summary = "Update discount for a freight order")
+  /** Search freight orders by any combination of filters. */
+  @Operation(
+      summary = "Search freight orders",
+      description =
+          "Filters by status, voyage, agent, customer, container code, creation window"
+              + " [createdFrom, createdTo) and final price range; newest orders first by default")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Paged list of matching orders returned"),
+    @ApiResponse(responseCode = "400", description = "Empty creation window or price range")
+  })
+  @GetMapping("/search")
+  public ResponseEntity<PageResponse<FreightOrderResponse>> search(
+      FreightOrderSearchRequest criteria,
+      @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+          Pageable pageable) {
+    Page<FreightOrder> orders = service.searchOrders(criteria, pageable);
+    return ResponseEntity.ok(PageResponse.from(orders.map(FreightOrderResponse::fromEntity)));
+  }
+
+  /** List freight orders by keyset, for deep or frequently polled listings. */
+  @Operation(summary = "Scroll through freight orders by cursor, without a total count")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Orders after the cursor returned"),
+    @ApiResponse(responseCode = "400", description = "Malformed cursor"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @GetMapping("/scroll")
+  public ResponseEntity<CursorResponse<FreightOrderResponse>> scroll(
+      @RequestParam(required = false) Long voyageId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    Slice<FreightOrder> orders =
+        service.scrollOrders(voyageId, CursorResponse.decode(cursor), size);
+    return ResponseEntity.ok(
+        CursorResponse.from(orders, FreightOrder::getId, FreightOrderResponse::fromEntity));
+  }
+
+  @Operation(
+      summary = "Update discount for a freight order",
+      description = "Send the order's ETag in If-Match to apply the discount only if unchanged")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Freight order updated successfully"),
     @ApiResponse(responseCode = "400", description = "Invalid request"),
-    @ApiResponse(responseCode = "404", description = "Freight order not found")
+    @ApiResponse(responseCode = "404", description = "Freight order not found"),
+    @ApiResponse(
+        responseCode = "409",
+        description = "Order changed since If-Match, or cancelled or delivered")
   })
   @PatchMapping("/{id}/discount")
   public ResponseEntity<FreightOrderResponse> updateDiscount(
-      @PathVariable Long id, @Valid @RequestBody UpdateDiscountRequest request) {
-    FreightOrder order = service.updateDiscount(id, request);
-    return ResponseEntity.ok(FreightOrderResponse.fromEntity(order));
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody UpdateDiscountRequest request) {
+    Long expectedVersion = ETags.expectedVersion(ifMatch);
+    try {
+      return withETag(service.updateDiscount(id, expectedVersion, request));
+    } catch (OptimisticLockingFailureException ex) {
+      throw concurrentUpdate(id);
+    }
+  }
+
+  @Operation(
+      summary = "Apply one discount to all active orders of a customer, agent and/or voyage",
+      description =
+          "Runs as a single UPDATE; cancelled and delivered orders are skipped. Returns how many"
+              + " orders were updated.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Discount applied"),
+    @ApiResponse(responseCode = "400", description = "Invalid discount or no filter given")
+  })
+  @PatchMapping("/discount")
+  public ResponseEntity<BulkDiscountResponse> applyBulkDiscount(
+      @Valid @RequestBody BulkDiscountRequest request) {
+    return ResponseEntity.ok(BulkDiscountResponse.of(service.applyBulkDiscount(request)));
+  }
+
+  @Operation(
+      summary = "Cancel a freight order",
+      description = "Send the order's ETag in If-Match to cancel only if unchanged")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Freight order cancelled"),
+    @ApiResponse(responseCode = "404", description = "Freight order not found"),
+    @ApiResponse(
+        responseCode = "409",
+        description = "Order changed since If-Match, or already cancelled or delivered")
+  })
+  @PatchMapping("/{id}/cancel")
+  public ResponseEntity<FreightOrderResponse> cancel(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = ETags.expectedVersion(ifMatch);
+    try {
+      return withETag(service.cancelOrder(id, expectedVersion));
+    } catch (OptimisticLockingFailureException ex) {
+      throw concurrentUpdate(id);
+    }
+  }
+
+  private static ResponseEntity<FreightOrderResponse> created(FreightOrderResponse body) {
+    URI location = URI.create("/api/v1/freight-orders/" + body.getId());
+    return ResponseEntity.created(location).body(body);
+  }
+
+  private static ResponseEntity<FreightOrderResponse> replayed(FreightOrderResponse body) {
+    URI location = URI.create("/api/v1/freight-orders/" + body.getId());
+    return ResponseEntity.created(location).header(IDEMPOTENT_REPLAYED, "true").body(body);
+  }
+
+  private static ResponseEntity<FreightOrderResponse> withETag(FreightOrder order) {
+    return ResponseEntity.ok()
+        .eTag(String.valueOf(order.getVersion()))
+        .body(FreightOrderResponse.fromEntity(order));
+  }
+
+  /** Another transaction committed first; answers with the order as it now stands. */
+  private VersionConflictException concurrentUpdate(Long id) {
+    FreightOrder current = service.getOrder(id);
+    return new VersionConflictException(
+        "Freight order " + id + " was modified concurrently",
+        FreightOrderResponse.fromEntity(current),
+        current.getVersion());
   }
 }
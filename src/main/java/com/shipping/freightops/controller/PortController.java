@@ -1,18 +1,22 @@
 package com.shipping.freightops.controller;
 
 import com.shipping.freightops.dto.CreatePortRequest;
+import com.shipping.freightops.dto.PageResponse;
 import com.shipping.freightops.dto.PortResponse;
 import com.shipping.freightops.entity.Port;
 import com.shipping.freightops.service.PortService;
 import jakarta.validation.Valid;
 import java.net.URI;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /** REST controller for managing ports. */
@@ -42,11 +46,12 @@ public class PortController {
     return ResponseEntity.ok(PortResponse.fromEntity(port));
   }
 
-  /** List all ports. */
+  /** List ports page by page, optionally only those in one country. */
   @GetMapping
-  public ResponseEntity<List<PortResponse>> list() {
-    List<Port> ports = service.getAllPorts();
-    List<PortResponse> body = ports.stream().map(PortResponse::fromEntity).toList();
-    return ResponseEntity.ok(body);
+  public ResponseEntity<PageResponse<PortResponse>> list(
+      @RequestParam(required = false) String country,
+      @PageableDefault(size = 20, sort = "unlocode") Pageable pageable) {
+    Page<Port> ports = service.getAllPorts(country, pageable);
+    return ResponseEntity.ok(PageResponse.from(ports.map(PortResponse::fromEntity)));
   }
 }
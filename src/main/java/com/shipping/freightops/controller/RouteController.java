@@ -0,0 +1,39 @@
+package com.shipping.freightops.controller;
+
+import com.shipping.freightops.dto.RoutePriceStatsResponse;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.service.RoutePriceHistory;
+import java.time.YearMonth;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for statistics of routes, i.e. departure and arrival port pairs. */
+@RestController
+@RequestMapping("/api/v1/routes")
+public class RouteController {
+
+  private final RoutePriceHistory priceHistory;
+
+  public RouteController(RoutePriceHistory priceHistory) {
+    this.priceHistory = priceHistory;
+  }
+
+  /**
+   * Voyage price statistics of a route over the departure months {@code from} to {@code to}
+   * (inclusive, {@code yyyy-MM}), for one container size or all of them.
+   */
+  @GetMapping("/price-stats")
+  public ResponseEntity<RoutePriceStatsResponse> priceStats(
+      @RequestParam Long departurePortId,
+      @RequestParam Long arrivalPortId,
+      @RequestParam(required = false) ContainerSize containerSize,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+    return ResponseEntity.ok(
+        priceHistory.getStats(departurePortId, arrivalPortId, containerSize, from, to));
+  }
+}
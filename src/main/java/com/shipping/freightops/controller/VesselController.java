@@ -1,12 +1,19 @@
 package com.shipping.freightops.controller;
 
 import com.shipping.freightops.dto.CreateVesselRequest;
+import com.shipping.freightops.dto.PageResponse;
+import com.shipping.freightops.dto.VesselOwnerRequest;
+import com.shipping.freightops.dto.VesselOwnerResponse;
 import com.shipping.freightops.dto.VesselResponse;
 import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.VesselOwner;
 import com.shipping.freightops.service.VesselService;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,13 +36,13 @@ public class VesselController {
     return ResponseEntity.created(location).body(body);
   }
 
-  /** List all vessels. */
+  /** List vessels page by page, optionally only those whose name starts with {@code name}. */
   @GetMapping
-  public ResponseEntity<List<VesselResponse>> list() {
-    List<Vessel> vessels = service.getAllVessels();
-
-    List<VesselResponse> body = vessels.stream().map(VesselResponse::fromEntity).toList();
-    return ResponseEntity.ok(body);
+  public ResponseEntity<PageResponse<VesselResponse>> list(
+      @RequestParam(required = false) String name,
+      @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+    Page<Vessel> vessels = service.getAllVessels(name, pageable);
+    return ResponseEntity.ok(PageResponse.from(vessels.map(VesselResponse::fromEntity)));
   }
 
   /** Get a vessel by its ID. */
@@ -44,4 +51,27 @@ public class VesselController {
     Vessel vessel = service.getVessel(id);
     return ResponseEntity.ok(VesselResponse.fromEntity(vessel));
   }
+
+  /** Add a part owner to a vessel; 409 if the owners' shares would exceed 100 %. */
+  @PostMapping("/{id}/owners")
+  public ResponseEntity<VesselOwnerResponse> addOwner(
+      @PathVariable Long id, @Valid @RequestBody VesselOwnerRequest request) {
+    VesselOwner owner = service.addOwner(id, request);
+    URI location = URI.create("/api/v1/vessels/" + id + "/owners/" + owner.getId());
+    return ResponseEntity.created(location).body(VesselOwnerResponse.fromEntity(owner));
+  }
+
+  /** List a vessel's owners with their shares. */
+  @GetMapping("/{id}/owners")
+  public ResponseEntity<List<VesselOwnerResponse>> listOwners(@PathVariable Long id) {
+    return ResponseEntity.ok(
+        service.getOwners(id).stream().map(VesselOwnerResponse::fromEntity).toList());
+  }
+
+  /** Remove an owner from a vessel. */
+  @DeleteMapping("/{id}/owners/{ownerId}")
+  public ResponseEntity<Void> removeOwner(@PathVariable Long id, @PathVariable Long ownerId) {
+    service.removeOwner(id, ownerId);
+    return ResponseEntity.noContent().build();
+  }
 }
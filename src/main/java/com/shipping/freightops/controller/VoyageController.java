@@ -3,19 +3,30 @@ package com.shipping.freightops.controller;
 import com.shipping.freightops.dto.*;
 import com.shipping.freightops.entity.FreightOrder;
 import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageCost;
 import com.shipping.freightops.entity.VoyagePrice;
+import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.exception.VersionConflictException;
+import com.shipping.freightops.service.AgentCommissionService;
 import com.shipping.freightops.service.FreightOrderService;
+import com.shipping.freightops.service.PriceSuggestionService;
+import com.shipping.freightops.service.VoyageFinanceService;
 import com.shipping.freightops.service.VoyageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,20 +36,42 @@ import org.springframework.web.bind.annotation.*;
 public class VoyageController {
   private final VoyageService voyageService;
   private final FreightOrderService freightOrderService;
+  private final VoyageFinanceService financeService;
+  private final AgentCommissionService commissionService;
+  private final PriceSuggestionService priceSuggestionService;
 
-  public VoyageController(VoyageService voyageService, FreightOrderService freightOrderService) {
+  public VoyageController(
+      VoyageService voyageService,
+      FreightOrderService freightOrderService,
+      VoyageFinanceService financeService,
+      AgentCommissionService commissionService,
+      PriceSuggestionService priceSuggestionService) {
     this.voyageService = voyageService;
     this.freightOrderService = freightOrderService;
+    this.financeService = financeService;
+    this.commissionService = commissionService;
+    this.priceSuggestionService = priceSuggestionService;
   }
 
-  @Operation(summary = "Get all voyages")
+  @Operation(summary = "List voyages (paginated) with optional filters")
   @ApiResponses({
-    @ApiResponse(responseCode = "200", description = "List of voyages retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Page of voyages retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid departure window")
   })
   @GetMapping()
-  public ResponseEntity<List<VoyageResponse>> getAll() {
-    List<Voyage> voyages = voyageService.getAll();
-    return ResponseEntity.ok(VoyageResponse.VoyageResponses(voyages));
+  public ResponseEntity<PageResponse<VoyageResponse>> getAll(
+      @RequestParam(required = false) VoyageStatus status,
+      @RequestParam(required = false) Long departurePortId,
+      @RequestParam(required = false) Long arrivalPortId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime departureFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime departureTo,
+      @PageableDefault(size = 20, sort = "departureTime") Pageable pageable) {
+    Page<Voyage> voyages =
+        voyageService.search(
+            status, departurePortId, arrivalPortId, departureFrom, departureTo, pageable);
+    return ResponseEntity.ok(PageResponse.from(voyages.map(VoyageResponse::new)));
   }
 
   @Operation(summary = "Get voyage by ID")
@@ -48,25 +81,62 @@ public class VoyageController {
   })
   @GetMapping("/{voyageId}")
   public ResponseEntity<VoyageResponse> getById(@PathVariable Long voyageId) {
-    Voyage voyage = voyageService.getById(voyageId);
-    VoyageResponse response = new VoyageResponse(voyage);
-    return ResponseEntity.ok(response);
+    return withETag(voyageService.getById(voyageId));
+  }
+
+  @Operation(
+      summary = "Get a voyage's booked load",
+      description =
+          "TEU and containers of the voyage's pending, confirmed and in-transit orders, read from"
+              + " a summary row kept up to date on every booking and cancellation.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Voyage load retrieved"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @GetMapping("/{voyageId}/load")
+  public ResponseEntity<VoyageLoadResponse> getLoad(@PathVariable Long voyageId) {
+    return ResponseEntity.ok(voyageService.getLoad(voyageId));
   }
 
-  @Operation(summary = "Get all containers booked on a voyage (paginated)")
+  @Operation(
+      summary = "Get all containers booked on a voyage (paginated)",
+      description = "Pass count=false to skip the total count; the response then only has hasNext")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Voyage found and containers retrieved"),
     @ApiResponse(responseCode = "404", description = "Voyage not found")
   })
   @GetMapping("/{voyageId}/containers")
-  public ResponseEntity<PageResponse<VoyageContainerResponse>> getAllContainersByVoyageId(
-      @PathVariable Long voyageId, @PageableDefault(size = 20) Pageable pageable) {
+  public ResponseEntity<SliceResponse<VoyageContainerResponse>> getAllContainersByVoyageId(
+      @PathVariable Long voyageId,
+      @RequestParam(defaultValue = "true") boolean count,
+      @PageableDefault(size = 20) Pageable pageable) {
+    if (!count) {
+      Slice<FreightOrder> orders = freightOrderService.getOrdersByVoyageSlice(voyageId, pageable);
+      return ResponseEntity.ok(SliceResponse.from(orders.map(VoyageContainerResponse::fromEntity)));
+    }
 
     Page<FreightOrder> order = freightOrderService.getOrdersByVoyage(voyageId, pageable);
     Page<VoyageContainerResponse> containers = order.map(VoyageContainerResponse::fromEntity);
     return ResponseEntity.ok(PageResponse.from(containers));
   }
 
+  @Operation(summary = "Scroll through a voyage's containers by cursor, without a total count")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Containers after the cursor returned"),
+    @ApiResponse(responseCode = "400", description = "Malformed cursor"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @GetMapping("/{voyageId}/containers/scroll")
+  public ResponseEntity<CursorResponse<VoyageContainerResponse>> scrollContainersByVoyageId(
+      @PathVariable Long voyageId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    Slice<FreightOrder> orders =
+        freightOrderService.scrollOrders(voyageId, CursorResponse.decode(cursor), size);
+    return ResponseEntity.ok(
+        CursorResponse.from(orders, FreightOrder::getId, VoyageContainerResponse::fromEntity));
+  }
+
   @Operation(summary = "Create a new voyage")
   @ApiResponses({
     @ApiResponse(responseCode = "201", description = "Voyage successfully created"),
@@ -80,25 +150,55 @@ public class VoyageController {
     return ResponseEntity.created(URI.create("/api/v1/voyages")).body(response);
   }
 
-  @Operation(summary = "Update voyage status")
+  @Operation(
+      summary = "Update voyage status",
+      description =
+          "Active orders follow: IN_PROGRESS moves them to IN_TRANSIT, COMPLETED to DELIVERED and"
+              + " CANCELLED to CANCELLED. Send the voyage's ETag in If-Match to update only if"
+              + " unchanged.")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Voyage status updated"),
-    @ApiResponse(responseCode = "404", description = "Voyage not found")
+    @ApiResponse(responseCode = "404", description = "Voyage not found"),
+    @ApiResponse(
+        responseCode = "409",
+        description =
+            "Voyage changed since If-Match, or it cannot move to the status, e.g. out of"
+                + " COMPLETED or CANCELLED")
   })
   @PatchMapping("/{voyageId}/{status}")
-  public ResponseEntity<VoyageResponse> updateVoyage(
-      @PathVariable Long voyageId, @PathVariable VoyageStatus status) {
-    Voyage updatedVoyage = voyageService.updateStatus(status, voyageId);
-    VoyageResponse response = new VoyageResponse(updatedVoyage);
-    return ResponseEntity.ok(response);
+  public ResponseEntity<VoyageStatusChangeResponse> updateVoyage(
+      @PathVariable Long voyageId,
+      @PathVariable VoyageStatus status,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = ETags.expectedVersion(ifMatch);
+    try {
+      VoyageStatusChangeResponse response =
+          voyageService.updateStatus(status, voyageId, expectedVersion);
+      return ResponseEntity.ok().eTag(String.valueOf(response.getVersion())).body(response);
+    } catch (OptimisticLockingFailureException ex) {
+      throw concurrentUpdate(voyageId);
+    }
   }
 
-  @Operation(summary = "Get voyages by status")
-  @ApiResponses({@ApiResponse(responseCode = "200", description = "Filtered voyages retrieved")})
-  @GetMapping(params = "status")
-  public ResponseEntity<List<VoyageResponse>> getAllByStatus(@RequestParam VoyageStatus status) {
-    List<Voyage> voyages = voyageService.getAllByStatus(status);
-    return ResponseEntity.ok(VoyageResponse.VoyageResponses(voyages));
+  @Operation(
+      summary = "Open or close bookings on a voyage",
+      description = "Send the voyage's ETag in If-Match to update only if unchanged")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Booking status updated"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found"),
+    @ApiResponse(responseCode = "409", description = "Voyage changed since If-Match")
+  })
+  @PatchMapping("/{voyageId}/booking-status")
+  public ResponseEntity<VoyageResponse> updateBookingStatus(
+      @PathVariable Long voyageId,
+      @RequestParam boolean open,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = ETags.expectedVersion(ifMatch);
+    try {
+      return withETag(voyageService.updateBookingOpen(voyageId, open, expectedVersion));
+    } catch (OptimisticLockingFailureException ex) {
+      throw concurrentUpdate(voyageId);
+    }
   }
 
   @Operation(summary = "Create price for a voyage and container size")
@@ -116,16 +216,110 @@ public class VoyageController {
         .body(VoyagePriceResponse.fromEntity(voyagePrice));
   }
 
-  @Operation(summary = "Get all prices for a voyage (paginated)")
+  @Operation(
+      summary = "Get all prices for a voyage (paginated)",
+      description = "Pass count=false to omit the totals; the response then only has hasNext")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Voyage prices retrieved"),
     @ApiResponse(responseCode = "404", description = "Voyage not found")
   })
   @GetMapping("/{voyageId}/prices")
-  public ResponseEntity<PageResponse<VoyagePriceResponse>> getVoyagePrices(
-      @PathVariable Long voyageId, @PageableDefault(size = 20) Pageable pageable) {
-    Page<VoyagePrice> voyagePrices = voyageService.getAllPricesByVoyageId(voyageId, pageable);
-    Page<VoyagePriceResponse> mapped = voyagePrices.map(VoyagePriceResponse::fromEntity);
-    return ResponseEntity.ok(PageResponse.from(mapped));
+  public ResponseEntity<SliceResponse<VoyagePriceResponse>> getVoyagePrices(
+      @PathVariable Long voyageId,
+      @RequestParam(defaultValue = "true") boolean count,
+      @PageableDefault(size = 20) Pageable pageable) {
+    Page<VoyagePriceResponse> voyagePrices =
+        voyageService.getAllPricesByVoyageId(voyageId, pageable);
+    // Prices come from the cache, so the totals cost nothing; count=false only changes the shape
+    return ResponseEntity.ok(
+        count ? PageResponse.from(voyagePrices) : SliceResponse.from(voyagePrices));
+  }
+
+  private static ResponseEntity<VoyageResponse> withETag(Voyage voyage) {
+    return ResponseEntity.ok()
+        .eTag(String.valueOf(voyage.getVersion()))
+        .body(new VoyageResponse(voyage));
+  }
+
+  /** Another transaction committed first; answers with the voyage as it now stands. */
+  private VersionConflictException concurrentUpdate(Long voyageId) {
+    Voyage current = voyageService.getById(voyageId);
+    return new VersionConflictException(
+        "Voyage " + voyageId + " was modified concurrently",
+        new VoyageResponse(current),
+        current.getVersion());
+  }
+
+  @Operation(
+      summary = "Add a cost line to a voyage",
+      description = "A cost added to a completed voyage recomputes its financial summary")
+  @ApiResponses({
+    @ApiResponse(responseCode = "201", description = "Voyage cost added"),
+    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @PostMapping("/{voyageId}/costs")
+  public ResponseEntity<VoyageCostResponse> addCost(
+      @PathVariable Long voyageId, @Valid @RequestBody VoyageCostRequest request) {
+    VoyageCost cost = financeService.addCost(voyageId, request);
+    return ResponseEntity.created(URI.create("/api/v1/voyages/" + voyageId + "/costs"))
+        .body(VoyageCostResponse.fromEntity(cost));
+  }
+
+  @Operation(summary = "List the cost lines of a voyage")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Voyage costs retrieved"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @GetMapping("/{voyageId}/costs")
+  public ResponseEntity<List<VoyageCostResponse>> getCosts(@PathVariable Long voyageId) {
+    return ResponseEntity.ok(
+        financeService.getCosts(voyageId).stream().map(VoyageCostResponse::fromEntity).toList());
+  }
+
+  @Operation(
+      summary = "Get the financial summary of a completed voyage",
+      description =
+          "Revenue from delivered orders, costs and the profit split per vessel owner, as computed"
+              + " when the voyage completed or a late cost was added")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Financial summary retrieved"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found"),
+    @ApiResponse(responseCode = "409", description = "Voyage is not completed")
+  })
+  @GetMapping("/{voyageId}/financial-summary")
+  public ResponseEntity<VoyageFinancialSummaryResponse> getFinancialSummary(
+      @PathVariable Long voyageId) {
+    return ResponseEntity.ok(financeService.getSummary(voyageId));
+  }
+
+  @Operation(
+      summary = "Get the agent commissions of a completed voyage",
+      description =
+          "Commission per agent on the voyage's delivered orders, at the agents' rates when the"
+              + " voyage completed")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Commission report retrieved"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found"),
+    @ApiResponse(responseCode = "409", description = "Voyage is not completed")
+  })
+  @GetMapping("/{voyageId}/commissions")
+  public ResponseEntity<VoyageCommissionReport> getCommissions(@PathVariable Long voyageId) {
+    return ResponseEntity.ok(commissionService.getVoyageReport(voyageId));
+  }
+
+  @Operation(
+      summary = "Suggest a price range for a voyage",
+      description =
+          "Forecast from the route's price history with monthly seasonality, adjusted for how full"
+              + " the voyage is booked; computed locally from cached route models")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Price suggestion computed"),
+    @ApiResponse(responseCode = "404", description = "Voyage not found")
+  })
+  @GetMapping("/{voyageId}/price-suggestion")
+  public ResponseEntity<PriceSuggestionResponse> getPriceSuggestion(
+      @PathVariable Long voyageId, @RequestParam ContainerSize containerSize) {
+    return ResponseEntity.ok(priceSuggestionService.suggest(voyageId, containerSize));
   }
 }
@@ -0,0 +1,60 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.enums.AgentType;
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+
+/** One agent's line in a {@link VoyageCommissionReport}. */
+public class AgentCommissionResponse {
+  private Long agentId;
+  private String agentName;
+  private AgentType type;
+  private BigDecimal commissionPercent;
+  private long orderCount;
+  private BigDecimal totalOrderValueUsd;
+  private BigDecimal commissionEarnedUsd;
+
+  public static AgentCommissionResponse fromEntity(VoyageAgentCommission commission) {
+    Agent agent = commission.getAgent();
+    AgentCommissionResponse dto = new AgentCommissionResponse();
+    dto.agentId = agent.getId();
+    dto.agentName = agent.getName();
+    dto.type = agent.getType();
+    dto.commissionPercent = Money.toPercent(commission.getCommissionBasisPoints());
+    dto.orderCount = commission.getOrderCount();
+    dto.totalOrderValueUsd = commission.getOrderValue().toBigDecimal();
+    dto.commissionEarnedUsd = commission.getCommission().toBigDecimal();
+    return dto;
+  }
+
+  public Long getAgentId() {
+    return agentId;
+  }
+
+  public String getAgentName() {
+    return agentName;
+  }
+
+  public AgentType getType() {
+    return type;
+  }
+
+  /** The agent's rate when the voyage completed. */
+  public BigDecimal getCommissionPercent() {
+    return commissionPercent;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public BigDecimal getTotalOrderValueUsd() {
+    return totalOrderValueUsd;
+  }
+
+  public BigDecimal getCommissionEarnedUsd() {
+    return commissionEarnedUsd;
+  }
+}
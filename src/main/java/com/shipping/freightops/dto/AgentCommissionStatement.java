@@ -0,0 +1,74 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Commission an agent earned on the completed voyages arriving in {@code [from, to)}. */
+public class AgentCommissionStatement {
+  private Long agentId;
+  private String agentName;
+  private LocalDate from;
+  private LocalDate to;
+  private List<AgentVoyageCommissionResponse> voyages;
+  private long orderCount;
+  private BigDecimal totalOrderValueUsd;
+  private BigDecimal totalCommissionUsd;
+
+  public static AgentCommissionStatement of(
+      Agent agent, LocalDate from, LocalDate to, List<VoyageAgentCommission> commissions) {
+    long orderCount = 0;
+    Money orderValue = Money.ZERO;
+    Money commission = Money.ZERO;
+    for (VoyageAgentCommission line : commissions) {
+      orderCount += line.getOrderCount();
+      orderValue = orderValue.plus(line.getOrderValue());
+      commission = commission.plus(line.getCommission());
+    }
+    AgentCommissionStatement dto = new AgentCommissionStatement();
+    dto.agentId = agent.getId();
+    dto.agentName = agent.getName();
+    dto.from = from;
+    dto.to = to;
+    dto.voyages = commissions.stream().map(AgentVoyageCommissionResponse::fromEntity).toList();
+    dto.orderCount = orderCount;
+    dto.totalOrderValueUsd = orderValue.toBigDecimal();
+    dto.totalCommissionUsd = commission.toBigDecimal();
+    return dto;
+  }
+
+  public Long getAgentId() {
+    return agentId;
+  }
+
+  public String getAgentName() {
+    return agentName;
+  }
+
+  public LocalDate getFrom() {
+    return from;
+  }
+
+  public LocalDate getTo() {
+    return to;
+  }
+
+  public List<AgentVoyageCommissionResponse> getVoyages() {
+    return voyages;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public BigDecimal getTotalOrderValueUsd() {
+    return totalOrderValueUsd;
+  }
+
+  public BigDecimal getTotalCommissionUsd() {
+    return totalCommissionUsd;
+  }
+}
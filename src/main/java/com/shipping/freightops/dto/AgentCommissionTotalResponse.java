@@ -0,0 +1,50 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.AgentCommissionTotals;
+import java.math.BigDecimal;
+
+/** One agent's commission over a period, for the month-end run across all agents. */
+public class AgentCommissionTotalResponse {
+  private Long agentId;
+  private String agentName;
+  private long voyageCount;
+  private long orderCount;
+  private BigDecimal totalOrderValueUsd;
+  private BigDecimal totalCommissionUsd;
+
+  public static AgentCommissionTotalResponse of(AgentCommissionTotals totals) {
+    AgentCommissionTotalResponse dto = new AgentCommissionTotalResponse();
+    dto.agentId = totals.getAgentId();
+    dto.agentName = totals.getAgentName();
+    dto.voyageCount = totals.getVoyageCount();
+    dto.orderCount = totals.getOrderCount();
+    dto.totalOrderValueUsd = Money.ofCents(totals.getOrderValueCents()).toBigDecimal();
+    dto.totalCommissionUsd = Money.ofCents(totals.getCommissionCents()).toBigDecimal();
+    return dto;
+  }
+
+  public Long getAgentId() {
+    return agentId;
+  }
+
+  public String getAgentName() {
+    return agentName;
+  }
+
+  public long getVoyageCount() {
+    return voyageCount;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public BigDecimal getTotalOrderValueUsd() {
+    return totalOrderValueUsd;
+  }
+
+  public BigDecimal getTotalCommissionUsd() {
+    return totalCommissionUsd;
+  }
+}
@@ -0,0 +1,59 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** One voyage's line in an {@link AgentCommissionStatement}. */
+public class AgentVoyageCommissionResponse {
+  private Long voyageId;
+  private String voyageNumber;
+  private LocalDateTime arrivalTime;
+  private BigDecimal commissionPercent;
+  private long orderCount;
+  private BigDecimal totalOrderValueUsd;
+  private BigDecimal commissionEarnedUsd;
+
+  public static AgentVoyageCommissionResponse fromEntity(VoyageAgentCommission commission) {
+    Voyage voyage = commission.getVoyage();
+    AgentVoyageCommissionResponse dto = new AgentVoyageCommissionResponse();
+    dto.voyageId = voyage.getId();
+    dto.voyageNumber = voyage.getVoyageNumber();
+    dto.arrivalTime = voyage.getArrivalTime();
+    dto.commissionPercent = Money.toPercent(commission.getCommissionBasisPoints());
+    dto.orderCount = commission.getOrderCount();
+    dto.totalOrderValueUsd = commission.getOrderValue().toBigDecimal();
+    dto.commissionEarnedUsd = commission.getCommission().toBigDecimal();
+    return dto;
+  }
+
+  public Long getVoyageId() {
+    return voyageId;
+  }
+
+  public String getVoyageNumber() {
+    return voyageNumber;
+  }
+
+  public LocalDateTime getArrivalTime() {
+    return arrivalTime;
+  }
+
+  public BigDecimal getCommissionPercent() {
+    return commissionPercent;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public BigDecimal getTotalOrderValueUsd() {
+    return totalOrderValueUsd;
+  }
+
+  public BigDecimal getCommissionEarnedUsd() {
+    return commissionEarnedUsd;
+  }
+}
@@ -0,0 +1,45 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.FreightOrder;
+import com.shipping.freightops.enums.BookingResultStatus;
+
+/** Result of a single line of a batch booking, in the same position as the request line. */
+public class BatchFreightOrderItemResult {
+
+  private int index;
+  private BookingResultStatus status;
+  private FreightOrderResponse order;
+  private String message;
+
+  public static BatchFreightOrderItemResult created(int index, FreightOrder order) {
+    BatchFreightOrderItemResult dto = new BatchFreightOrderItemResult();
+    dto.index = index;
+    dto.status = BookingResultStatus.CREATED;
+    dto.order = FreightOrderResponse.fromEntity(order);
+    return dto;
+  }
+
+  public static BatchFreightOrderItemResult rejected(int index, String message) {
+    BatchFreightOrderItemResult dto = new BatchFreightOrderItemResult();
+    dto.index = index;
+    dto.status = BookingResultStatus.REJECTED;
+    dto.message = message;
+    return dto;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public BookingResultStatus getStatus() {
+    return status;
+  }
+
+  public FreightOrderResponse getOrder() {
+    return order;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
@@ -0,0 +1,28 @@
+package com.shipping.freightops.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Payload for booking many containers in one call.
+ *
+ * <p>Individual lines are validated by the service so that a bad line is reported in the response
+ * instead of rejecting the whole upload.
+ */
+public class BatchFreightOrderRequest {
+
+  public static final int MAX_ORDERS = 500;
+
+  @NotEmpty(message = "orders must not be empty")
+  @Size(max = MAX_ORDERS, message = "at most " + MAX_ORDERS + " orders per batch")
+  private List<CreateFreightOrderRequest> orders;
+
+  public List<CreateFreightOrderRequest> getOrders() {
+    return orders;
+  }
+
+  public void setOrders(List<CreateFreightOrderRequest> orders) {
+    this.orders = orders;
+  }
+}
@@ -0,0 +1,39 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.enums.BookingResultStatus;
+import java.util.List;
+
+/** Summary and per-line results of a batch booking. */
+public class BatchFreightOrderResponse {
+
+  private int requested;
+  private int created;
+  private int rejected;
+  private List<BatchFreightOrderItemResult> results;
+
+  public static BatchFreightOrderResponse of(List<BatchFreightOrderItemResult> results) {
+    BatchFreightOrderResponse dto = new BatchFreightOrderResponse();
+    dto.requested = results.size();
+    dto.created =
+        (int) results.stream().filter(r -> r.getStatus() == BookingResultStatus.CREATED).count();
+    dto.rejected = dto.requested - dto.created;
+    dto.results = results;
+    return dto;
+  }
+
+  public int getRequested() {
+    return requested;
+  }
+
+  public int getCreated() {
+    return created;
+  }
+
+  public int getRejected() {
+    return rejected;
+  }
+
+  public List<BatchFreightOrderItemResult> getResults() {
+    return results;
+  }
+}
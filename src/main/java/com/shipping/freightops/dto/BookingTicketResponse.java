@@ -0,0 +1,57 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.enums.BookingResultStatus;
+import com.shipping.freightops.enums.BookingTicketStatus;
+
+/** State of an asynchronously submitted booking; {@code order} is set once it is created. */
+public class BookingTicketResponse {
+
+  private String ticketId;
+  private BookingTicketStatus status;
+  private FreightOrderResponse order;
+  private String message;
+
+  public static BookingTicketResponse queued(String ticketId) {
+    BookingTicketResponse dto = new BookingTicketResponse();
+    dto.ticketId = ticketId;
+    dto.status = BookingTicketStatus.QUEUED;
+    return dto;
+  }
+
+  /** The ticket as settled by the line that booked it. */
+  public static BookingTicketResponse of(String ticketId, BatchFreightOrderItemResult result) {
+    BookingTicketResponse dto = new BookingTicketResponse();
+    dto.ticketId = ticketId;
+    dto.status =
+        result.getStatus() == BookingResultStatus.CREATED
+            ? BookingTicketStatus.CREATED
+            : BookingTicketStatus.REJECTED;
+    dto.order = result.getOrder();
+    dto.message = result.getMessage();
+    return dto;
+  }
+
+  public static BookingTicketResponse rejected(String ticketId, String message) {
+    BookingTicketResponse dto = new BookingTicketResponse();
+    dto.ticketId = ticketId;
+    dto.status = BookingTicketStatus.REJECTED;
+    dto.message = message;
+    return dto;
+  }
+
+  public String getTicketId() {
+    return ticketId;
+  }
+
+  public BookingTicketStatus getStatus() {
+    return status;
+  }
+
+  public FreightOrderResponse getOrder() {
+    return order;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
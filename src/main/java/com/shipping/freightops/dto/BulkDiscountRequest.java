@@ -0,0 +1,36 @@
+package com.shipping.freightops.dto;
+
+/**
+ * A discount for every active order of a customer, agent and/or voyage. At least one filter is
+ * required; filters that are set are combined with AND.
+ */
+public class BulkDiscountRequest extends UpdateDiscountRequest {
+
+  private Long customerId;
+  private Long agentId;
+  private Long voyageId;
+
+  public Long getCustomerId() {
+    return customerId;
+  }
+
+  public void setCustomerId(Long customerId) {
+    this.customerId = customerId;
+  }
+
+  public Long getAgentId() {
+    return agentId;
+  }
+
+  public void setAgentId(Long agentId) {
+    this.agentId = agentId;
+  }
+
+  public Long getVoyageId() {
+    return voyageId;
+  }
+
+  public void setVoyageId(Long voyageId) {
+    this.voyageId = voyageId;
+  }
+}
@@ -0,0 +1,18 @@
+package com.shipping.freightops.dto;
+
+/** Outcome of a bulk discount. */
+public class BulkDiscountResponse {
+
+  private int updated;
+
+  public static BulkDiscountResponse of(int updated) {
+    BulkDiscountResponse dto = new BulkDiscountResponse();
+    dto.updated = updated;
+    return dto;
+  }
+
+  /** Orders whose discount and final price were changed. */
+  public int getUpdated() {
+    return updated;
+  }
+}
@@ -0,0 +1,76 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is {@code null} on the last page. No total count is computed.
+ */
+public class CursorResponse<T> {
+
+  private static final String PREFIX = "id:";
+
+  private List<T> content;
+  private int size;
+  private String nextCursor;
+
+  public CursorResponse(List<T> content, int size, String nextCursor) {
+    this.content = content;
+    this.size = size;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Builds the response from a slice ordered by id, using the id of its last element as the next
+   * cursor.
+   */
+  public static <E, T> CursorResponse<T> from(
+      Slice<E> slice, Function<E, Long> idOf, Function<E, T> mapper) {
+    List<E> content = slice.getContent();
+    String nextCursor =
+        slice.hasNext() && !content.isEmpty()
+            ? encode(idOf.apply(content.get(content.size() - 1)))
+            : null;
+    return new CursorResponse<>(content.stream().map(mapper).toList(), slice.getSize(), nextCursor);
+  }
+
+  /** Opaque cursor pointing after the given id. */
+  public static String encode(long id) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** The id a cursor points after, or {@code 0} for the first page when the cursor is absent. */
+  public static long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!value.startsWith(PREFIX)) {
+        throw new BadRequestException("Invalid cursor");
+      }
+      return Long.parseLong(value.substring(PREFIX.length()));
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  public List<T> getContent() {
+    return content;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
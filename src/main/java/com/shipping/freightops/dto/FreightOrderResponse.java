@@ -2,6 +2,7 @@ package com.shipping.freightops.dto;
 
 import com.shipping.freightops.entity.FreightOrder;
 import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.repository.BookingCheck;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -23,6 +24,7 @@ public class FreightOrderResponse {
   private BigDecimal finalPrice;
   private String discountReason;
   private LocalDateTime createdAt;
+  private Long version;
 
   /** Factory method to map entity → response DTO. */
   public static FreightOrderResponse fromEntity(FreightOrder order) {
@@ -42,6 +44,32 @@ public class FreightOrderResponse {
     dto.finalPrice = order.getFinalPrice();
     dto.basePriceUsd = order.getBasePriceUsd();
     dto.discountReason = order.getDiscountReason();
+    dto.version = order.getVersion();
+    return dto;
+  }
+
+  /**
+   * Maps a freshly booked order whose associations are unloaded references, taking the display
+   * fields from the booking check instead.
+   */
+  public static FreightOrderResponse fromBooking(FreightOrder order, BookingCheck check) {
+    FreightOrderResponse dto = new FreightOrderResponse();
+    dto.id = order.getId();
+    dto.voyageNumber = check.getVoyageNumber();
+    dto.containerCode = check.getContainerCode();
+    dto.agentId = order.getAgent().getId();
+    dto.agentName = check.getAgentName();
+    dto.customerName = check.getCustomerName();
+    dto.customerEmail = check.getCustomerEmail();
+    dto.orderedBy = order.getOrderedBy();
+    dto.notes = order.getNotes();
+    dto.status = order.getStatus();
+    dto.createdAt = order.getCreatedAt();
+    dto.discountPercent = order.getDiscountPercent();
+    dto.finalPrice = order.getFinalPrice();
+    dto.basePriceUsd = order.getBasePriceUsd();
+    dto.discountReason = order.getDiscountReason();
+    dto.version = order.getVersion();
     return dto;
   }
 
@@ -64,6 +92,7 @@ public class FreightOrderResponse {
   public String getAgentName() {
     return agentName;
   }
+
   public String getCustomerName() {
     return customerName;
   }
@@ -88,6 +117,11 @@ public class FreightOrderResponse {
     return createdAt;
   }
 
+  /** Also sent as the ETag; pass it back in {@code If-Match} to update conditionally. */
+  public Long getVersion() {
+    return version;
+  }
+
   public BigDecimal getBasePriceUsd() {
     return basePriceUsd;
   }
@@ -104,4 +138,3 @@ public class FreightOrderResponse {
     return discountReason;
   }
 }
-
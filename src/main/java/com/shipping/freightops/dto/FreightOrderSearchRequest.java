@@ -0,0 +1,99 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.enums.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/** Query parameters of the order search; every filter is optional. */
+public class FreightOrderSearchRequest {
+
+  private OrderStatus status;
+  private Long voyageId;
+  private Long agentId;
+  private Long customerId;
+  private String containerCode;
+
+  /** Inclusive lower bound on the creation time. */
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime createdFrom;
+
+  /** Exclusive upper bound on the creation time. */
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime createdTo;
+
+  private BigDecimal minFinalPrice;
+  private BigDecimal maxFinalPrice;
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(OrderStatus status) {
+    this.status = status;
+  }
+
+  public Long getVoyageId() {
+    return voyageId;
+  }
+
+  public void setVoyageId(Long voyageId) {
+    this.voyageId = voyageId;
+  }
+
+  public Long getAgentId() {
+    return agentId;
+  }
+
+  public void setAgentId(Long agentId) {
+    this.agentId = agentId;
+  }
+
+  public Long getCustomerId() {
+    return customerId;
+  }
+
+  public void setCustomerId(Long customerId) {
+    this.customerId = customerId;
+  }
+
+  public String getContainerCode() {
+    return containerCode;
+  }
+
+  public void setContainerCode(String containerCode) {
+    this.containerCode = containerCode;
+  }
+
+  public LocalDateTime getCreatedFrom() {
+    return createdFrom;
+  }
+
+  public void setCreatedFrom(LocalDateTime createdFrom) {
+    this.createdFrom = createdFrom;
+  }
+
+  public LocalDateTime getCreatedTo() {
+    return createdTo;
+  }
+
+  public void setCreatedTo(LocalDateTime createdTo) {
+    this.createdTo = createdTo;
+  }
+
+  public BigDecimal getMinFinalPrice() {
+    return minFinalPrice;
+  }
+
+  public void setMinFinalPrice(BigDecimal minFinalPrice) {
+    this.minFinalPrice = minFinalPrice;
+  }
+
+  public BigDecimal getMaxFinalPrice() {
+    return maxFinalPrice;
+  }
+
+  public void setMaxFinalPrice(BigDecimal maxFinalPrice) {
+    this.maxFinalPrice = maxFinalPrice;
+  }
+}
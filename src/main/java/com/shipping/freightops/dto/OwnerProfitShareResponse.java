@@ -0,0 +1,44 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.OwnerProfitShare;
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+
+/** One vessel owner's part of a {@link VoyageFinancialSummaryResponse}. */
+public class OwnerProfitShareResponse {
+  private String ownerName;
+  private BigDecimal sharePercent;
+  private BigDecimal revenueShareUsd;
+  private BigDecimal costShareUsd;
+  private BigDecimal profitShareUsd;
+
+  public static OwnerProfitShareResponse of(OwnerProfitShare share) {
+    OwnerProfitShareResponse dto = new OwnerProfitShareResponse();
+    dto.ownerName = share.getOwnerName();
+    dto.sharePercent = Money.toPercent(share.getShareBasisPoints());
+    dto.revenueShareUsd = share.getRevenueShare().toBigDecimal();
+    dto.costShareUsd = share.getCostShare().toBigDecimal();
+    dto.profitShareUsd = share.getProfitShare().toBigDecimal();
+    return dto;
+  }
+
+  public String getOwnerName() {
+    return ownerName;
+  }
+
+  public BigDecimal getSharePercent() {
+    return sharePercent;
+  }
+
+  public BigDecimal getRevenueShareUsd() {
+    return revenueShareUsd;
+  }
+
+  public BigDecimal getCostShareUsd() {
+    return costShareUsd;
+  }
+
+  public BigDecimal getProfitShareUsd() {
+    return profitShareUsd;
+  }
+}
@@ -3,17 +3,12 @@ package com.shipping.freightops.dto;
 import java.util.List;
 import org.springframework.data.domain.Page;
 
-public class PageResponse<T> {
-  private List<T> content;
-  private int page;
-  private int size;
+public class PageResponse<T> extends SliceResponse<T> {
   private long totalElements;
   private int totalPages;
 
   public PageResponse(List<T> content, int page, int size, long totalElements, int totalPages) {
-    this.content = content;
-    this.page = page;
-    this.size = size;
+    super(content, page, size, page + 1 < totalPages);
     this.totalElements = totalElements;
     this.totalPages = totalPages;
   }
@@ -28,18 +23,6 @@ public class PageResponse<T> {
         page.getTotalPages());
   }
 
-  public List<T> getContent() {
-    return content;
-  }
-
-  public int getPage() {
-    return page;
-  }
-
-  public int getSize() {
-    return size;
-  }
-
   public long getTotalElements() {
     return totalElements;
   }
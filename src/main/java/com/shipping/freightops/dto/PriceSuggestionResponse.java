@@ -0,0 +1,128 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.SuggestionConfidence;
+import com.shipping.freightops.stats.PriceStatistics;
+import java.math.BigDecimal;
+
+/**
+ * A suggested price range for a voyage and container size, from the route's price history. Prices
+ * are {@code null} when the route has no history for the container size.
+ */
+public class PriceSuggestionResponse {
+  private String voyageNumber;
+  private String route;
+  private ContainerSize containerSize;
+  private BigDecimal suggestedPriceLowUsd;
+  private BigDecimal suggestedPriceUsd;
+  private BigDecimal suggestedPriceHighUsd;
+  private SuggestionConfidence confidence;
+  private BigDecimal confidenceScore;
+  private String reasoning;
+  private long dataPoints;
+  private BigDecimal historicalAvgUsd;
+  private BigDecimal historicalMinUsd;
+  private BigDecimal historicalMaxUsd;
+  private BigDecimal utilizationPercent;
+
+  /** A suggestion without prices, for a route with no history for the container size. */
+  public static PriceSuggestionResponse withoutHistory(
+      Voyage voyage, ContainerSize containerSize, BigDecimal utilizationPercent, String reasoning) {
+    PriceSuggestionResponse dto = new PriceSuggestionResponse();
+    dto.voyageNumber = voyage.getVoyageNumber();
+    dto.route = route(voyage);
+    dto.containerSize = containerSize;
+    dto.confidence = SuggestionConfidence.LOW;
+    dto.confidenceScore = BigDecimal.ZERO.setScale(2);
+    dto.reasoning = reasoning;
+    dto.utilizationPercent = utilizationPercent;
+    return dto;
+  }
+
+  public static PriceSuggestionResponse of(
+      Voyage voyage,
+      ContainerSize containerSize,
+      PriceStatistics history,
+      BigDecimal low,
+      BigDecimal suggested,
+      BigDecimal high,
+      SuggestionConfidence confidence,
+      BigDecimal confidenceScore,
+      BigDecimal utilizationPercent,
+      String reasoning) {
+    PriceSuggestionResponse dto =
+        withoutHistory(voyage, containerSize, utilizationPercent, reasoning);
+    dto.suggestedPriceLowUsd = low;
+    dto.suggestedPriceUsd = suggested;
+    dto.suggestedPriceHighUsd = high;
+    dto.confidence = confidence;
+    dto.confidenceScore = confidenceScore;
+    dto.dataPoints = history.getCount();
+    dto.historicalAvgUsd = history.getMean();
+    dto.historicalMinUsd = history.getMin();
+    dto.historicalMaxUsd = history.getMax();
+    return dto;
+  }
+
+  private static String route(Voyage voyage) {
+    return voyage.getDeparturePort().getName() + " → " + voyage.getArrivalPort().getName();
+  }
+
+  public String getVoyageNumber() {
+    return voyageNumber;
+  }
+
+  public String getRoute() {
+    return route;
+  }
+
+  public ContainerSize getContainerSize() {
+    return containerSize;
+  }
+
+  public BigDecimal getSuggestedPriceLowUsd() {
+    return suggestedPriceLowUsd;
+  }
+
+  public BigDecimal getSuggestedPriceUsd() {
+    return suggestedPriceUsd;
+  }
+
+  public BigDecimal getSuggestedPriceHighUsd() {
+    return suggestedPriceHighUsd;
+  }
+
+  public SuggestionConfidence getConfidence() {
+    return confidence;
+  }
+
+  /** From 0 to 1; see {@code SeasonalSmoothingModel.Forecast#getConfidence()}. */
+  public BigDecimal getConfidenceScore() {
+    return confidenceScore;
+  }
+
+  public String getReasoning() {
+    return reasoning;
+  }
+
+  public long getDataPoints() {
+    return dataPoints;
+  }
+
+  public BigDecimal getHistoricalAvgUsd() {
+    return historicalAvgUsd;
+  }
+
+  public BigDecimal getHistoricalMinUsd() {
+    return historicalMinUsd;
+  }
+
+  public BigDecimal getHistoricalMaxUsd() {
+    return historicalMaxUsd;
+  }
+
+  public BigDecimal getUtilizationPercent() {
+    return utilizationPercent;
+  }
+}
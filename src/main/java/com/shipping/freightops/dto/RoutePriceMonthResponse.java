@@ -0,0 +1,50 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.stats.PriceStatistics;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/** Price statistics of a route in one month of departures, a point of its price trend. */
+public class RoutePriceMonthResponse {
+  private YearMonth month;
+  private long priceCount;
+  private BigDecimal averageUsd;
+  private BigDecimal minUsd;
+  private BigDecimal maxUsd;
+  private BigDecimal medianUsd;
+
+  public static RoutePriceMonthResponse of(YearMonth month, PriceStatistics statistics) {
+    RoutePriceMonthResponse dto = new RoutePriceMonthResponse();
+    dto.month = month;
+    dto.priceCount = statistics.getCount();
+    dto.averageUsd = statistics.getMean();
+    dto.minUsd = statistics.getMin();
+    dto.maxUsd = statistics.getMax();
+    dto.medianUsd = statistics.getQuantile(0.5);
+    return dto;
+  }
+
+  public YearMonth getMonth() {
+    return month;
+  }
+
+  public long getPriceCount() {
+    return priceCount;
+  }
+
+  public BigDecimal getAverageUsd() {
+    return averageUsd;
+  }
+
+  public BigDecimal getMinUsd() {
+    return minUsd;
+  }
+
+  public BigDecimal getMaxUsd() {
+    return maxUsd;
+  }
+
+  public BigDecimal getMedianUsd() {
+    return medianUsd;
+  }
+}
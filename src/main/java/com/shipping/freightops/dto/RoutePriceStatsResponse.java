@@ -0,0 +1,126 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.RoutePriceRollup;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.stats.PriceStatistics;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Voyage price statistics of a route over a window of departure months, with the monthly trend.
+ * Amounts are {@code null} when the window has no prices; percentiles are within 1 %.
+ */
+public class RoutePriceStatsResponse {
+  private Long departurePortId;
+  private Long arrivalPortId;
+  private ContainerSize containerSize;
+  private YearMonth from;
+  private YearMonth to;
+  private long priceCount;
+  private BigDecimal averageUsd;
+  private BigDecimal minUsd;
+  private BigDecimal maxUsd;
+  private BigDecimal stdDevUsd;
+  private BigDecimal medianUsd;
+  private BigDecimal p90Usd;
+  private List<RoutePriceMonthResponse> months;
+
+  /** Sums {@code rollups}, which must be ordered by month. */
+  public static RoutePriceStatsResponse of(
+      Long departurePortId,
+      Long arrivalPortId,
+      ContainerSize containerSize,
+      YearMonth from,
+      YearMonth to,
+      List<RoutePriceRollup> rollups) {
+    PriceStatistics total = new PriceStatistics();
+    List<RoutePriceMonthResponse> months = new ArrayList<>();
+    YearMonth month = null;
+    PriceStatistics monthly = null;
+    for (RoutePriceRollup rollup : rollups) {
+      YearMonth rollupMonth = YearMonth.from(rollup.getMonth());
+      if (!rollupMonth.equals(month)) {
+        if (monthly != null) {
+          months.add(RoutePriceMonthResponse.of(month, monthly));
+        }
+        month = rollupMonth;
+        monthly = new PriceStatistics();
+      }
+      rollup.mergeInto(monthly);
+      rollup.mergeInto(total);
+    }
+    if (monthly != null) {
+      months.add(RoutePriceMonthResponse.of(month, monthly));
+    }
+
+    RoutePriceStatsResponse dto = new RoutePriceStatsResponse();
+    dto.departurePortId = departurePortId;
+    dto.arrivalPortId = arrivalPortId;
+    dto.containerSize = containerSize;
+    dto.from = from;
+    dto.to = to;
+    dto.priceCount = total.getCount();
+    dto.averageUsd = total.getMean();
+    dto.minUsd = total.getMin();
+    dto.maxUsd = total.getMax();
+    dto.stdDevUsd = total.getStandardDeviation();
+    dto.medianUsd = total.getQuantile(0.5);
+    dto.p90Usd = total.getQuantile(0.9);
+    dto.months = months;
+    return dto;
+  }
+
+  public Long getDeparturePortId() {
+    return departurePortId;
+  }
+
+  public Long getArrivalPortId() {
+    return arrivalPortId;
+  }
+
+  public ContainerSize getContainerSize() {
+    return containerSize;
+  }
+
+  public YearMonth getFrom() {
+    return from;
+  }
+
+  public YearMonth getTo() {
+    return to;
+  }
+
+  public long getPriceCount() {
+    return priceCount;
+  }
+
+  public BigDecimal getAverageUsd() {
+    return averageUsd;
+  }
+
+  public BigDecimal getMinUsd() {
+    return minUsd;
+  }
+
+  public BigDecimal getMaxUsd() {
+    return maxUsd;
+  }
+
+  public BigDecimal getStdDevUsd() {
+    return stdDevUsd;
+  }
+
+  public BigDecimal getMedianUsd() {
+    return medianUsd;
+  }
+
+  public BigDecimal getP90Usd() {
+    return p90Usd;
+  }
+
+  public List<RoutePriceMonthResponse> getMonths() {
+    return months;
+  }
+}
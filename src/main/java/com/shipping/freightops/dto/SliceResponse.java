@@ -0,0 +1,44 @@
+package com.shipping.freightops.dto;
+
+import java.util.List;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A page of results that only says whether another page follows, so no count query is needed.
+ * {@link PageResponse} extends it with the totals.
+ */
+public class SliceResponse<T> {
+  private List<T> content;
+  private int page;
+  private int size;
+  private boolean hasNext;
+
+  public SliceResponse(List<T> content, int page, int size, boolean hasNext) {
+    this.content = content;
+    this.page = page;
+    this.size = size;
+    this.hasNext = hasNext;
+  }
+
+  /** Factory method to convert from Spring Slice */
+  public static <T> SliceResponse<T> from(Slice<T> slice) {
+    return new SliceResponse<>(
+        slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+  }
+
+  public List<T> getContent() {
+    return content;
+  }
+
+  public int getPage() {
+    return page;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public boolean isHasNext() {
+    return hasNext;
+  }
+}
@@ -0,0 +1,45 @@
+package com.shipping.freightops.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/** Payload for adding an owner to a vessel. */
+public class VesselOwnerRequest {
+
+  @NotBlank private String ownerName;
+
+  @NotBlank @Email private String ownerEmail;
+
+  @NotNull
+  @DecimalMin(value = "0.01")
+  @DecimalMax(value = "100.0")
+  private BigDecimal sharePercent;
+
+  public String getOwnerName() {
+    return ownerName;
+  }
+
+  public void setOwnerName(String ownerName) {
+    this.ownerName = ownerName;
+  }
+
+  public String getOwnerEmail() {
+    return ownerEmail;
+  }
+
+  public void setOwnerEmail(String ownerEmail) {
+    this.ownerEmail = ownerEmail;
+  }
+
+  public BigDecimal getSharePercent() {
+    return sharePercent;
+  }
+
+  public void setSharePercent(BigDecimal sharePercent) {
+    this.sharePercent = sharePercent;
+  }
+}
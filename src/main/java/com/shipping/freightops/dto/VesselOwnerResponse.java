@@ -0,0 +1,42 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.VesselOwner;
+import java.math.BigDecimal;
+
+public class VesselOwnerResponse {
+  private Long id;
+  private Long vesselId;
+  private String ownerName;
+  private String ownerEmail;
+  private BigDecimal sharePercent;
+
+  public static VesselOwnerResponse fromEntity(VesselOwner owner) {
+    VesselOwnerResponse dto = new VesselOwnerResponse();
+    dto.id = owner.getId();
+    dto.vesselId = owner.getVessel().getId();
+    dto.ownerName = owner.getOwnerName();
+    dto.ownerEmail = owner.getOwnerEmail();
+    dto.sharePercent = owner.getSharePercent();
+    return dto;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getVesselId() {
+    return vesselId;
+  }
+
+  public String getOwnerName() {
+    return ownerName;
+  }
+
+  public String getOwnerEmail() {
+    return ownerEmail;
+  }
+
+  public BigDecimal getSharePercent() {
+    return sharePercent;
+  }
+}
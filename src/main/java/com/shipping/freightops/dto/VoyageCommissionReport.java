@@ -0,0 +1,44 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Commission earned by each agent on a completed voyage's DELIVERED orders. */
+public class VoyageCommissionReport {
+  private Long voyageId;
+  private String voyageNumber;
+  private List<AgentCommissionResponse> agents;
+  private BigDecimal totalCommissionsUsd;
+
+  public static VoyageCommissionReport of(
+      Long voyageId, String voyageNumber, List<VoyageAgentCommission> commissions) {
+    Money total = Money.ZERO;
+    for (VoyageAgentCommission commission : commissions) {
+      total = total.plus(commission.getCommission());
+    }
+    VoyageCommissionReport dto = new VoyageCommissionReport();
+    dto.voyageId = voyageId;
+    dto.voyageNumber = voyageNumber;
+    dto.agents = commissions.stream().map(AgentCommissionResponse::fromEntity).toList();
+    dto.totalCommissionsUsd = total.toBigDecimal();
+    return dto;
+  }
+
+  public Long getVoyageId() {
+    return voyageId;
+  }
+
+  public String getVoyageNumber() {
+    return voyageNumber;
+  }
+
+  public List<AgentCommissionResponse> getAgents() {
+    return agents;
+  }
+
+  public BigDecimal getTotalCommissionsUsd() {
+    return totalCommissionsUsd;
+  }
+}
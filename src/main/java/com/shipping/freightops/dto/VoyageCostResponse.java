@@ -0,0 +1,43 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.VoyageCost;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class VoyageCostResponse {
+  private Long id;
+  private Long voyageId;
+  private String description;
+  private BigDecimal amountUsd;
+  private LocalDateTime createdAt;
+
+  public static VoyageCostResponse fromEntity(VoyageCost cost) {
+    VoyageCostResponse dto = new VoyageCostResponse();
+    dto.id = cost.getId();
+    dto.voyageId = cost.getVoyage().getId();
+    dto.description = cost.getDescription();
+    dto.amountUsd = cost.getAmountUsd();
+    dto.createdAt = cost.getCreatedAt();
+    return dto;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getVoyageId() {
+    return voyageId;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public BigDecimal getAmountUsd() {
+    return amountUsd;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+}
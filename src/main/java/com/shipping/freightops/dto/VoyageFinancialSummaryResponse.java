@@ -0,0 +1,58 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.VoyageFinancialSummary;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Revenue, costs and per-owner profit split of a completed voyage, as last computed. */
+public class VoyageFinancialSummaryResponse {
+  private String voyageNumber;
+  private BigDecimal totalRevenueUsd;
+  private BigDecimal totalCostsUsd;
+  private BigDecimal netProfitUsd;
+  private long orderCount;
+  private List<OwnerProfitShareResponse> owners;
+  private LocalDateTime computedAt;
+
+  public static VoyageFinancialSummaryResponse fromEntity(VoyageFinancialSummary summary) {
+    VoyageFinancialSummaryResponse dto = new VoyageFinancialSummaryResponse();
+    dto.voyageNumber = summary.getVoyage().getVoyageNumber();
+    dto.totalRevenueUsd = summary.getTotalRevenue().toBigDecimal();
+    dto.totalCostsUsd = summary.getTotalCosts().toBigDecimal();
+    dto.netProfitUsd = summary.getNetProfit().toBigDecimal();
+    dto.orderCount = summary.getOrderCount();
+    dto.owners = summary.getOwners().stream().map(OwnerProfitShareResponse::of).toList();
+    dto.computedAt = summary.getCreatedAt();
+    return dto;
+  }
+
+  public String getVoyageNumber() {
+    return voyageNumber;
+  }
+
+  public BigDecimal getTotalRevenueUsd() {
+    return totalRevenueUsd;
+  }
+
+  public BigDecimal getTotalCostsUsd() {
+    return totalCostsUsd;
+  }
+
+  public BigDecimal getNetProfitUsd() {
+    return netProfitUsd;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public List<OwnerProfitShareResponse> getOwners() {
+    return owners;
+  }
+
+  /** When the snapshot was taken: on completion, or when the last late cost was added. */
+  public LocalDateTime getComputedAt() {
+    return computedAt;
+  }
+}
@@ -0,0 +1,61 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageLoad;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/** A voyage's booked load against its capacity, counting PENDING, CONFIRMED and IN_TRANSIT. */
+public class VoyageLoadResponse {
+  private String voyageNumber;
+  private int maxCapacityTeu;
+  private int currentLoadTeu;
+  private BigDecimal utilizationPercent;
+  private boolean bookingOpen;
+  private int containerCount;
+
+  public static VoyageLoadResponse of(VoyageLoad load) {
+    Voyage voyage = load.getVoyage();
+    VoyageLoadResponse dto = new VoyageLoadResponse();
+    dto.voyageNumber = voyage.getVoyageNumber();
+    dto.maxCapacityTeu = voyage.getMaxCapacityTeu();
+    dto.currentLoadTeu = load.getLoadTeu();
+    dto.utilizationPercent = utilization(load.getLoadTeu(), voyage.getMaxCapacityTeu());
+    dto.bookingOpen = voyage.isBookingOpen();
+    dto.containerCount = load.getContainerCount();
+    return dto;
+  }
+
+  /** Load as a percentage of capacity to one decimal, e.g. {@code 24.8}; 0 without capacity. */
+  private static BigDecimal utilization(int loadTeu, int maxCapacityTeu) {
+    if (maxCapacityTeu <= 0) {
+      return BigDecimal.ZERO.setScale(1);
+    }
+    return BigDecimal.valueOf(loadTeu * 100L)
+        .divide(BigDecimal.valueOf(maxCapacityTeu), 1, RoundingMode.HALF_UP);
+  }
+
+  public String getVoyageNumber() {
+    return voyageNumber;
+  }
+
+  public int getMaxCapacityTeu() {
+    return maxCapacityTeu;
+  }
+
+  public int getCurrentLoadTeu() {
+    return currentLoadTeu;
+  }
+
+  public BigDecimal getUtilizationPercent() {
+    return utilizationPercent;
+  }
+
+  public boolean isBookingOpen() {
+    return bookingOpen;
+  }
+
+  public int getContainerCount() {
+    return containerCount;
+  }
+}
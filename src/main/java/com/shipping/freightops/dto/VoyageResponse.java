@@ -1,26 +1,37 @@
 package com.shipping.freightops.dto;
 
 import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.VoyageStatus;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class VoyageResponse {
+  private Long id;
   private String voyageNumber;
+  private VoyageStatus status;
   private String vesselName;
   private String departurePortName;
   private String arrivalPortName;
   private LocalDateTime departureTime;
   private LocalDateTime arrivalTime;
+  private int maxCapacityTeu;
+  private boolean bookingOpen;
+  private Long version;
 
   // voyage response format
   public VoyageResponse(Voyage voyage) {
+    id = voyage.getId();
     voyageNumber = voyage.getVoyageNumber();
+    status = voyage.getStatus();
     vesselName = voyage.getVessel().getName();
     departurePortName = voyage.getDeparturePort().getName();
     arrivalPortName = voyage.getArrivalPort().getName();
     departureTime = voyage.getDepartureTime();
     arrivalTime = voyage.getArrivalTime();
+    maxCapacityTeu = voyage.getMaxCapacityTeu();
+    bookingOpen = voyage.isBookingOpen();
+    version = voyage.getVersion();
   }
 
   // List of voyage response format
@@ -35,6 +46,14 @@ public class VoyageResponse {
     return responses;
   }
 
+  public Long getId() {
+    return id;
+  }
+
+  public VoyageStatus getStatus() {
+    return status;
+  }
+
   public String getVoyageNumber() {
     return voyageNumber;
   }
@@ -82,4 +101,17 @@ public class VoyageResponse {
   public void setArrivalDate(LocalDateTime departureTime) {
     this.arrivalTime = arrivalTime;
   }
+
+  public int getMaxCapacityTeu() {
+    return maxCapacityTeu;
+  }
+
+  public boolean isBookingOpen() {
+    return bookingOpen;
+  }
+
+  /** Also sent as the ETag; pass it back in {@code If-Match} to update conditionally. */
+  public Long getVersion() {
+    return version;
+  }
 }
@@ -0,0 +1,27 @@
+package com.shipping.freightops.dto;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.OrderStatus;
+
+/** The voyage after a status change, plus how many of its orders followed it. */
+public class VoyageStatusChangeResponse extends VoyageResponse {
+
+  private OrderStatus orderStatus;
+  private int ordersTransitioned;
+
+  public VoyageStatusChangeResponse(
+      Voyage voyage, OrderStatus orderStatus, int ordersTransitioned) {
+    super(voyage);
+    this.orderStatus = orderStatus;
+    this.ordersTransitioned = ordersTransitioned;
+  }
+
+  /** Status the voyage's active orders were moved to; {@code null} if they were left alone. */
+  public OrderStatus getOrderStatus() {
+    return orderStatus;
+  }
+
+  public int getOrdersTransitioned() {
+    return ordersTransitioned;
+  }
+}
@@ -8,9 +8,15 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "agents")
+@Table(
+    name = "agents",
+    indexes = @Index(name = "idx_agents_type_active", columnList = "type, active"))
+@Cacheable
+@Cache(region = "agents", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Agent extends BaseEntity {
 
   @NotBlank
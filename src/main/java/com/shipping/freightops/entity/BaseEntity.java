@@ -1,21 +1,20 @@
 package com.shipping.freightops.entity;
 
+import com.shipping.freightops.entity.id.PooledSequenceId;
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 /** Shared audit fields for all entities. */
 @MappedSuperclass
 public abstract class BaseEntity {
 
-  @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
-  private Long id;
+  /** Drawn from a per-table pooled sequence so that inserts can be JDBC-batched. */
+  @Id @PooledSequenceId private Long id;
 
   @Column(nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -23,6 +22,14 @@ public abstract class BaseEntity {
   @Column(nullable = false)
   private LocalDateTime updatedAt;
 
+  /**
+   * Optimistic lock: bumped on every update, which fails if another transaction bumped it first.
+   * Clients see it as the resource's ETag.
+   */
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
@@ -49,4 +56,8 @@ public abstract class BaseEntity {
   public LocalDateTime getUpdatedAt() {
     return updatedAt;
   }
+
+  public Long getVersion() {
+    return version;
+  }
 }
@@ -0,0 +1,81 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.enums.BookingTicketStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * A booking submitted through the asynchronous intake, stored before the submission is acknowledged
+ * so it survives a restart, and settled in the transaction that books it.
+ */
+@Entity
+@Table(
+    name = "booking_tickets",
+    indexes = {
+      @Index(name = "idx_booking_tickets_status_created", columnList = "status, created_at"),
+      @Index(name = "idx_booking_tickets_expires_at", columnList = "expires_at")
+    })
+public class BookingTicket extends BaseEntity {
+
+  @NotBlank
+  @Column(unique = true, nullable = false, length = 36)
+  private String ticketId;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private BookingTicketStatus status = BookingTicketStatus.QUEUED;
+
+  /** JSON of the submitted request, booked again from here after a restart. */
+  @NotBlank
+  @Column(nullable = false, length = 4000)
+  private String requestBody;
+
+  /** JSON of the ticket response; set when the ticket is settled. */
+  @Column(length = 4000)
+  private String responseBody;
+
+  /** When a settled ticket may be purged; unset while queued. */
+  private LocalDateTime expiresAt;
+
+  public BookingTicket() {}
+
+  public BookingTicket(String ticketId, String requestBody) {
+    this.ticketId = ticketId;
+    this.requestBody = requestBody;
+  }
+
+  public String getTicketId() {
+    return ticketId;
+  }
+
+  public BookingTicketStatus getStatus() {
+    return status;
+  }
+
+  public String getRequestBody() {
+    return requestBody;
+  }
+
+  public String getResponseBody() {
+    return responseBody;
+  }
+
+  public LocalDateTime getExpiresAt() {
+    return expiresAt;
+  }
+
+  /** Records the outcome; the ticket is kept until {@code expiresAt}. */
+  public void settle(BookingTicketStatus status, String responseBody, LocalDateTime expiresAt) {
+    this.status = status;
+    this.responseBody = responseBody;
+    this.expiresAt = expiresAt;
+  }
+}
@@ -2,6 +2,7 @@ package com.shipping.freightops.entity;
 
 import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.ContainerType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -9,13 +10,18 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.util.Locale;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /** A shipping container identified by its BIC code (e.g. MSCU1234567). */
 @Entity
 @Table(name = "containers")
+@Cacheable
+@Cache(region = "containers", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Container extends BaseEntity {
 
-  /** ISO 6346 container code (owner code + serial + check digit). */
+  /** ISO 6346 container code (owner code + serial + check digit), stored upper-case. */
   @NotBlank
   @Column(unique = true, nullable = false, length = 11)
   private String containerCode;
@@ -33,7 +39,7 @@ public class Container extends BaseEntity {
   public Container() {}
 
   public Container(String containerCode, ContainerSize size, ContainerType type) {
-    this.containerCode = containerCode;
+    this.containerCode = normalize(containerCode);
     this.size = size;
     this.type = type;
   }
@@ -43,7 +49,12 @@ public class Container extends BaseEntity {
   }
 
   public void setContainerCode(String containerCode) {
-    this.containerCode = containerCode;
+    this.containerCode = normalize(containerCode);
+  }
+
+  /** The code as stored and searched: without surrounding blanks and upper-case. */
+  public static String normalize(String containerCode) {
+    return containerCode == null ? null : containerCode.strip().toUpperCase(Locale.ROOT);
   }
 
   public ContainerSize getSize() {
@@ -1,13 +1,21 @@
 package com.shipping.freightops.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "customers")
+@Table(
+    name = "customers",
+    indexes = @Index(name = "idx_customers_company_name", columnList = "company_name"))
+@Cacheable
+@Cache(region = "customers", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Customer extends BaseEntity {
 
   @NotBlank
@@ -6,17 +6,46 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /** A freight booking made by the internal ops team, assigning a container to a voyage. */
 @Entity
-@Table(name = "freight_orders")
+@Table(
+    name = "freight_orders",
+    indexes = {
+      @Index(name = "idx_freight_orders_voyage_status", columnList = "voyage_id, status"),
+      @Index(name = "idx_freight_orders_status_created", columnList = "status, created_at"),
+      @Index(name = "idx_freight_orders_agent_created", columnList = "agent_id, created_at"),
+      @Index(name = "idx_freight_orders_customer_created", columnList = "customer_id, created_at"),
+      @Index(name = "idx_freight_orders_container_status", columnList = "container_id, status"),
+      @Index(name = "idx_freight_orders_final_price", columnList = "final_price"),
+      @Index(name = "idx_freight_orders_ordered_by", columnList = "ordered_by")
+    })
+@NamedEntityGraph(
+    name = "FreightOrder.details",
+    attributeNodes = {
+      @NamedAttributeNode("voyage"),
+      @NamedAttributeNode("container"),
+      @NamedAttributeNode("agent"),
+      @NamedAttributeNode("customer")
+    })
 public class FreightOrder extends BaseEntity {
 
+  /**
+   * PostgreSQL exclusion constraint (see V4 migration): no two active orders may hold the same
+   * container for overlapping {@code [occupiedFrom, occupiedUntil)} windows.
+   */
+  public static final String CONTAINER_OCCUPANCY_CONSTRAINT =
+      "ex_freight_orders_container_occupancy";
+
   @NotNull
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "voyage_id", nullable = false)
@@ -78,6 +107,19 @@ public class FreightOrder extends BaseEntity {
   @Column(nullable = true, length = 500)
   private String discountReason;
 
+  /**
+   * Voyage departure, copied at booking time: while the order is active the container is taken from
+   * here until {@link #occupiedUntil}. Backs the container double-booking constraint.
+   */
+  @NotNull
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime occupiedFrom;
+
+  /** Voyage arrival, copied at booking time. */
+  @NotNull
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime occupiedUntil;
+
   public Customer getCustomer() {
     return customer;
   }
@@ -159,4 +201,20 @@ public class FreightOrder extends BaseEntity {
   public void setDiscountReason(String discountReason) {
     this.discountReason = discountReason;
   }
+
+  public LocalDateTime getOccupiedFrom() {
+    return occupiedFrom;
+  }
+
+  public void setOccupiedFrom(LocalDateTime occupiedFrom) {
+    this.occupiedFrom = occupiedFrom;
+  }
+
+  public LocalDateTime getOccupiedUntil() {
+    return occupiedUntil;
+  }
+
+  public void setOccupiedUntil(LocalDateTime occupiedUntil) {
+    this.occupiedUntil = occupiedUntil;
+  }
 }
@@ -0,0 +1,65 @@
+package com.shipping.freightops.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * The response stored for a client-supplied {@code Idempotency-Key}, so that a retried request is
+ * answered from here instead of being executed again.
+ */
+@Entity
+@Table(
+    name = "idempotency_keys",
+    indexes = {@Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")})
+public class IdempotencyRecord extends BaseEntity {
+
+  @NotBlank
+  @Column(unique = true, nullable = false)
+  private String idempotencyKey;
+
+  /** SHA-256 of the request body; a key may only be replayed for the same request. */
+  @NotBlank
+  @Column(nullable = false, length = 64)
+  private String requestHash;
+
+  /** JSON of the response; set in the transaction that inserts the key. */
+  @Column(length = 4000)
+  private String responseBody;
+
+  @NotNull
+  @Column(nullable = false)
+  private LocalDateTime expiresAt;
+
+  public IdempotencyRecord() {}
+
+  public IdempotencyRecord(String idempotencyKey, String requestHash, LocalDateTime expiresAt) {
+    this.idempotencyKey = idempotencyKey;
+    this.requestHash = requestHash;
+    this.expiresAt = expiresAt;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public String getRequestHash() {
+    return requestHash;
+  }
+
+  public String getResponseBody() {
+    return responseBody;
+  }
+
+  public void setResponseBody(String responseBody) {
+    this.responseBody = responseBody;
+  }
+
+  public LocalDateTime getExpiresAt() {
+    return expiresAt;
+  }
+}
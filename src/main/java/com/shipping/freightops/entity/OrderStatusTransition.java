@@ -0,0 +1,84 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.enums.OrderStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+
+/** One status change of a freight order, kept as an append-only audit log. */
+@Entity
+@Table(
+    name = "order_status_transitions",
+    indexes = {
+      @Index(name = "idx_order_status_transitions_order", columnList = "order_id, created_at"),
+      @Index(name = "idx_order_status_transitions_voyage", columnList = "voyage_id")
+    })
+public class OrderStatusTransition extends BaseEntity {
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "order_id", nullable = false)
+  private FreightOrder order;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "voyage_id", nullable = false)
+  private Voyage voyage;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private OrderStatus fromStatus;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private OrderStatus toStatus;
+
+  /** What caused the change, e.g. the voyage status that cascaded to the order. */
+  @NotNull
+  @Column(nullable = false)
+  private String reason;
+
+  public OrderStatusTransition() {}
+
+  public OrderStatusTransition(
+      FreightOrder order,
+      Voyage voyage,
+      OrderStatus fromStatus,
+      OrderStatus toStatus,
+      String reason) {
+    this.order = order;
+    this.voyage = voyage;
+    this.fromStatus = fromStatus;
+    this.toStatus = toStatus;
+    this.reason = reason;
+  }
+
+  public FreightOrder getOrder() {
+    return order;
+  }
+
+  public Voyage getVoyage() {
+    return voyage;
+  }
+
+  public OrderStatus getFromStatus() {
+    return fromStatus;
+  }
+
+  public OrderStatus getToStatus() {
+    return toStatus;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+}
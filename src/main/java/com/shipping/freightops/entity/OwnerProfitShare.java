@@ -0,0 +1,68 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.money.BasisPointsConverter;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.money.MoneyConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One owner's part of a {@link VoyageFinancialSummary}. The owner's name and share are copied, so
+ * the summary keeps the split it was computed with when ownership changes later.
+ */
+@Embeddable
+public class OwnerProfitShare {
+
+  @Column(nullable = false)
+  private String ownerName;
+
+  @Convert(converter = BasisPointsConverter.class)
+  @Column(name = "share_percent", nullable = false, precision = 5, scale = 2)
+  private int shareBasisPoints;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "revenue_share_usd", nullable = false, precision = 14, scale = 2)
+  private Money revenueShare;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "cost_share_usd", nullable = false, precision = 14, scale = 2)
+  private Money costShare;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "profit_share_usd", nullable = false, precision = 14, scale = 2)
+  private Money profitShare;
+
+  protected OwnerProfitShare() {}
+
+  /**
+   * Applies {@code shareBasisPoints} to revenue and costs; the profit share is their difference.
+   */
+  public OwnerProfitShare(String ownerName, int shareBasisPoints, Money revenue, Money costs) {
+    this.ownerName = ownerName;
+    this.shareBasisPoints = shareBasisPoints;
+    this.revenueShare = revenue.share(shareBasisPoints);
+    this.costShare = costs.share(shareBasisPoints);
+    this.profitShare = revenueShare.minus(costShare);
+  }
+
+  public String getOwnerName() {
+    return ownerName;
+  }
+
+  public int getShareBasisPoints() {
+    return shareBasisPoints;
+  }
+
+  public Money getRevenueShare() {
+    return revenueShare;
+  }
+
+  public Money getCostShare() {
+    return costShare;
+  }
+
+  public Money getProfitShare() {
+    return profitShare;
+  }
+}
@@ -1,14 +1,20 @@
 package com.shipping.freightops.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /** A port of call (e.g. AEJEA - Jebel Ali, Dubai). */
 @Entity
-@Table(name = "ports")
+@Table(name = "ports", indexes = @Index(name = "idx_ports_country", columnList = "country"))
+@Cacheable
+@Cache(region = "ports", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Port extends BaseEntity {
 
   @NotBlank
@@ -0,0 +1,177 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.stats.PriceStatistics;
+import com.shipping.freightops.stats.QuantileSketch;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Voyage prices of one route (departure and arrival port), container size and month of departure,
+ * kept as running statistics: count, sum and sum of squares for mean and deviation, min, max, and a
+ * {@link QuantileSketch} for percentiles. All of them merge across rows, so a window of months is
+ * answered from its rollups without reading {@code voyage_prices}.
+ */
+@Entity
+@Table(
+    name = "route_price_rollups",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_route_price_rollups_route_size_month",
+            columnNames = {
+              "departure_port_id",
+              "arrival_port_id",
+              "container_size",
+              "price_month"
+            }))
+public class RoutePriceRollup extends BaseEntity {
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "departure_port_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Port departurePort;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "arrival_port_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Port arrivalPort;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ContainerSize containerSize;
+
+  /** First day of the month the voyages depart in. */
+  @NotNull
+  @Column(name = "price_month", nullable = false)
+  private LocalDate month;
+
+  @Column(nullable = false)
+  private long priceCount;
+
+  @Column(nullable = false)
+  private long sumCents;
+
+  /** Sum of the squared prices in cents; a {@code double} because it outgrows {@code long}. */
+  @Column(nullable = false)
+  private double sumSquares;
+
+  @Column(nullable = false)
+  private long minCents;
+
+  @Column(nullable = false)
+  private long maxCents;
+
+  @Column(nullable = false, length = 8192)
+  private byte[] quantileSketch;
+
+  protected RoutePriceRollup() {}
+
+  public RoutePriceRollup(
+      Port departurePort, Port arrivalPort, ContainerSize containerSize, LocalDate month) {
+    this.departurePort = departurePort;
+    this.arrivalPort = arrivalPort;
+    this.containerSize = containerSize;
+    this.month = month;
+    this.quantileSketch = new byte[0];
+  }
+
+  /** The rollup month of a voyage departing at {@code departureTime}. */
+  public static LocalDate monthOf(LocalDateTime departureTime) {
+    return departureTime.toLocalDate().withDayOfMonth(1);
+  }
+
+  /** Adds one price to the statistics. */
+  public void record(Money price) {
+    long cents = price.getCents();
+    minCents = priceCount == 0 ? cents : Math.min(minCents, cents);
+    maxCents = priceCount == 0 ? cents : Math.max(maxCents, cents);
+    priceCount++;
+    sumCents = Math.addExact(sumCents, cents);
+    sumSquares += (double) cents * cents;
+    QuantileSketch sketch = getSketch();
+    sketch.add(price.toBigDecimal().doubleValue());
+    quantileSketch = sketch.toBytes();
+  }
+
+  /** Overwrites the statistics with those of {@code other}, e.g. recomputed from the prices. */
+  public void reset(RoutePriceRollup other) {
+    priceCount = other.priceCount;
+    sumCents = other.sumCents;
+    sumSquares = other.sumSquares;
+    minCents = other.minCents;
+    maxCents = other.maxCents;
+    quantileSketch = other.quantileSketch.clone();
+  }
+
+  /** Whether both hold the same prices, as far as the statistics tell. */
+  public boolean hasSameStatistics(RoutePriceRollup other) {
+    return priceCount == other.priceCount
+        && sumCents == other.sumCents
+        && minCents == other.minCents
+        && maxCents == other.maxCents
+        && Arrays.equals(quantileSketch, other.quantileSketch);
+  }
+
+  /** Adds these statistics to {@code statistics}, e.g. to sum a window of months. */
+  public void mergeInto(PriceStatistics statistics) {
+    statistics.merge(priceCount, sumCents, sumSquares, minCents, maxCents, getSketch());
+  }
+
+  public Port getDeparturePort() {
+    return departurePort;
+  }
+
+  public Port getArrivalPort() {
+    return arrivalPort;
+  }
+
+  public ContainerSize getContainerSize() {
+    return containerSize;
+  }
+
+  public LocalDate getMonth() {
+    return month;
+  }
+
+  public long getPriceCount() {
+    return priceCount;
+  }
+
+  public long getSumCents() {
+    return sumCents;
+  }
+
+  public double getSumSquares() {
+    return sumSquares;
+  }
+
+  public long getMinCents() {
+    return minCents;
+  }
+
+  public long getMaxCents() {
+    return maxCents;
+  }
+
+  /** A decoded copy of the quantile sketch; changing it does not change this rollup. */
+  public QuantileSketch getSketch() {
+    return QuantileSketch.fromBytes(quantileSketch);
+  }
+}
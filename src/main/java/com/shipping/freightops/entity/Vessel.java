@@ -1,14 +1,20 @@
 package com.shipping.freightops.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /** A cargo vessel that carries containers between ports. */
 @Entity
-@Table(name = "vessels")
+@Table(name = "vessels", indexes = @Index(name = "idx_vessels_name", columnList = "name"))
+@Cacheable
+@Cache(region = "vessels", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Vessel extends BaseEntity {
 
   @NotBlank
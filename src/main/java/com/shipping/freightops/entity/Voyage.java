@@ -6,15 +6,24 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.ColumnDefault;
 
 /** A scheduled trip of a vessel from one port to another. */
 @Entity
-@Table(name = "voyages")
+@Table(
+    name = "voyages",
+    indexes = {
+      @Index(name = "idx_voyages_status_departure", columnList = "status, departure_time"),
+      @Index(name = "idx_voyages_departure_port", columnList = "departure_port_id, departure_time"),
+      @Index(name = "idx_voyages_arrival_port", columnList = "arrival_port_id"),
+      @Index(name = "idx_voyages_vessel", columnList = "vessel_id")
+    })
 public class Voyage extends BaseEntity {
 
   @Column(unique = true, nullable = false)
@@ -48,8 +57,29 @@ public class Voyage extends BaseEntity {
   @Column(nullable = false)
   private VoyageStatus status = VoyageStatus.PLANNED;
 
+  /**
+   * TEU that may be booked on this voyage; defaults to the vessel capacity. The column default only
+   * lets the column be added to existing rows, which V1 then sets to the vessel capacity.
+   */
+  @Column(nullable = false)
+  @ColumnDefault("0")
+  private int maxCapacityTeu;
+
+  /** Whether new freight orders are accepted. Closed manually or by the capacity auto-cutoff. */
+  @Column(nullable = false)
+  @ColumnDefault("true")
+  private boolean bookingOpen = true;
+
   public Voyage() {}
 
+  @Override
+  protected void onCreate() {
+    super.onCreate();
+    if (maxCapacityTeu == 0 && vessel != null) {
+      maxCapacityTeu = vessel.getCapacityTeu();
+    }
+  }
+
   public String getVoyageNumber() {
     return voyageNumber;
   }
@@ -105,4 +135,20 @@ public class Voyage extends BaseEntity {
   public void setStatus(VoyageStatus status) {
     this.status = status;
   }
+
+  public int getMaxCapacityTeu() {
+    return maxCapacityTeu;
+  }
+
+  public void setMaxCapacityTeu(int maxCapacityTeu) {
+    this.maxCapacityTeu = maxCapacityTeu;
+  }
+
+  public boolean isBookingOpen() {
+    return bookingOpen;
+  }
+
+  public void setBookingOpen(boolean bookingOpen) {
+    this.bookingOpen = bookingOpen;
+  }
 }
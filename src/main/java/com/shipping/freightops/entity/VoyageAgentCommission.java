@@ -0,0 +1,95 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.money.BasisPointsConverter;
+import com.shipping.freightops.money.Money;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * An agent's DELIVERED orders on a completed voyage and the commission earned on them, rolled up
+ * once when the voyage completes. Amounts are whole cents, so period totals are exact integer sums
+ * in SQL; the commission rate is copied, so later rate changes do not alter past statements.
+ */
+@Entity
+@Immutable
+@Table(
+    name = "voyage_agent_commissions",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_voyage_agent_commissions_voyage_agent",
+            columnNames = {"voyage_id", "agent_id"}),
+    indexes = @Index(name = "idx_voyage_agent_commissions_agent", columnList = "agent_id"))
+public class VoyageAgentCommission extends BaseEntity {
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "voyage_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Voyage voyage;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "agent_id", nullable = false)
+  private Agent agent;
+
+  @Column(nullable = false)
+  private long orderCount;
+
+  @Column(nullable = false)
+  private long orderValueCents;
+
+  @Convert(converter = BasisPointsConverter.class)
+  @Column(name = "commission_percent", nullable = false, precision = 5, scale = 2)
+  private int commissionBasisPoints;
+
+  @Column(nullable = false)
+  private long commissionCents;
+
+  protected VoyageAgentCommission() {}
+
+  /** Applies {@code commissionBasisPoints} to the order value, rounded HALF_UP to cents. */
+  public VoyageAgentCommission(
+      Voyage voyage, Agent agent, long orderCount, Money orderValue, int commissionBasisPoints) {
+    this.voyage = voyage;
+    this.agent = agent;
+    this.orderCount = orderCount;
+    this.orderValueCents = orderValue.getCents();
+    this.commissionBasisPoints = commissionBasisPoints;
+    this.commissionCents = Money.shareCents(orderValueCents, commissionBasisPoints);
+  }
+
+  public Voyage getVoyage() {
+    return voyage;
+  }
+
+  public Agent getAgent() {
+    return agent;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public Money getOrderValue() {
+    return Money.ofCents(orderValueCents);
+  }
+
+  public int getCommissionBasisPoints() {
+    return commissionBasisPoints;
+  }
+
+  public Money getCommission() {
+    return Money.ofCents(commissionCents);
+  }
+}
@@ -0,0 +1,58 @@
+package com.shipping.freightops.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/** One cost line of a voyage, e.g. fuel, port fees or crew. */
+@Entity
+@Table(
+    name = "voyage_costs",
+    indexes = @Index(name = "idx_voyage_costs_voyage", columnList = "voyage_id"))
+public class VoyageCost extends BaseEntity {
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "voyage_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Voyage voyage;
+
+  @NotBlank
+  @Column(nullable = false)
+  private String description;
+
+  @NotNull
+  @Positive
+  @Column(nullable = false, precision = 12, scale = 2)
+  private BigDecimal amountUsd;
+
+  public VoyageCost() {}
+
+  public VoyageCost(Voyage voyage, String description, BigDecimal amountUsd) {
+    this.voyage = voyage;
+    this.description = description;
+    this.amountUsd = amountUsd;
+  }
+
+  public Voyage getVoyage() {
+    return voyage;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public BigDecimal getAmountUsd() {
+    return amountUsd;
+  }
+}
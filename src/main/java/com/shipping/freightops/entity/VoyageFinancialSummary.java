@@ -0,0 +1,102 @@
+package com.shipping.freightops.entity;
+
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.money.MoneyConverter;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Revenue, costs and owner profit split of a completed voyage, computed once when it completes. Its
+ * delivered orders no longer change, so the snapshot is never updated in place: late costs replace
+ * it with a new one.
+ */
+@Entity
+@Immutable
+@Table(name = "voyage_financial_summaries")
+public class VoyageFinancialSummary extends BaseEntity {
+
+  @NotNull
+  @OneToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "voyage_id", unique = true, nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Voyage voyage;
+
+  /** Sum of the final prices of the voyage's DELIVERED orders. */
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "total_revenue_usd", nullable = false, precision = 14, scale = 2)
+  private Money totalRevenue;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "total_costs_usd", nullable = false, precision = 14, scale = 2)
+  private Money totalCosts;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(name = "net_profit_usd", nullable = false, precision = 14, scale = 2)
+  private Money netProfit;
+
+  /** DELIVERED orders counted in the revenue. */
+  @Column(nullable = false)
+  private long orderCount;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "voyage_financial_summary_owners",
+      joinColumns = @JoinColumn(name = "summary_id"))
+  @OrderColumn(name = "owner_index")
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private List<OwnerProfitShare> owners = new ArrayList<>();
+
+  protected VoyageFinancialSummary() {}
+
+  public VoyageFinancialSummary(
+      Voyage voyage,
+      Money totalRevenue,
+      Money totalCosts,
+      long orderCount,
+      List<OwnerProfitShare> owners) {
+    this.voyage = voyage;
+    this.totalRevenue = totalRevenue;
+    this.totalCosts = totalCosts;
+    this.netProfit = totalRevenue.minus(totalCosts);
+    this.orderCount = orderCount;
+    this.owners = new ArrayList<>(owners);
+  }
+
+  public Voyage getVoyage() {
+    return voyage;
+  }
+
+  public Money getTotalRevenue() {
+    return totalRevenue;
+  }
+
+  public Money getTotalCosts() {
+    return totalCosts;
+  }
+
+  public Money getNetProfit() {
+    return netProfit;
+  }
+
+  public long getOrderCount() {
+    return orderCount;
+  }
+
+  public List<OwnerProfitShare> getOwners() {
+    return List.copyOf(owners);
+  }
+}
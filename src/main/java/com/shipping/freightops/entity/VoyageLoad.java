@@ -0,0 +1,58 @@
+package com.shipping.freightops.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * TEU and container count of a voyage's active orders (PENDING, CONFIRMED, IN_TRANSIT), kept up to
+ * date by delta updates as orders are booked and cancelled instead of being aggregated per request.
+ */
+@Entity
+@Table(name = "voyage_loads")
+public class VoyageLoad extends BaseEntity {
+
+  @NotNull
+  @OneToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "voyage_id", unique = true, nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Voyage voyage;
+
+  @Column(nullable = false)
+  private int loadTeu;
+
+  @Column(nullable = false)
+  private int containerCount;
+
+  public VoyageLoad() {}
+
+  public VoyageLoad(Voyage voyage, int loadTeu, int containerCount) {
+    this.voyage = voyage;
+    this.loadTeu = loadTeu;
+    this.containerCount = containerCount;
+  }
+
+  public Voyage getVoyage() {
+    return voyage;
+  }
+
+  public int getLoadTeu() {
+    return loadTeu;
+  }
+
+  public int getContainerCount() {
+    return containerCount;
+  }
+
+  /** Overwrites both figures, e.g. with a freshly computed aggregate. */
+  public void reset(int loadTeu, int containerCount) {
+    this.loadTeu = loadTeu;
+    this.containerCount = containerCount;
+  }
+}
@@ -0,0 +1,7 @@
+package com.shipping.freightops.enums;
+
+/** Outcome of a single line in a batch booking upload. */
+public enum BookingResultStatus {
+  CREATED,
+  REJECTED
+}
@@ -0,0 +1,8 @@
+package com.shipping.freightops.enums;
+
+/** Progress of a booking submitted through the asynchronous intake. */
+public enum BookingTicketStatus {
+  QUEUED,
+  CREATED,
+  REJECTED
+}
@@ -2,6 +2,17 @@ package com.shipping.freightops.enums;
 
 /** Standard ISO container sizes. */
 public enum ContainerSize {
-  TWENTY_FOOT,
-  FORTY_FOOT
+  TWENTY_FOOT(1),
+  FORTY_FOOT(2);
+
+  private final int teu;
+
+  ContainerSize(int teu) {
+    this.teu = teu;
+  }
+
+  /** Twenty-foot equivalent units taken up by one container of this size. */
+  public int getTeu() {
+    return teu;
+  }
 }
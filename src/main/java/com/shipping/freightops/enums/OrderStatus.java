@@ -1,10 +1,15 @@
 package com.shipping.freightops.enums;
 
+import java.util.Set;
+
 /** Lifecycle states of a freight order. */
 public enum OrderStatus {
   PENDING,
   CONFIRMED,
   IN_TRANSIT,
   DELIVERED,
-  CANCELLED
+  CANCELLED;
+
+  /** Statuses in which the order still takes up space on its voyage. */
+  public static final Set<OrderStatus> ACTIVE = Set.of(PENDING, CONFIRMED, IN_TRANSIT);
 }
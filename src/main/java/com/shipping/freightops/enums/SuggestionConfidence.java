@@ -0,0 +1,11 @@
+package com.shipping.freightops.enums;
+
+/** How far a price suggestion can be trusted, from the amount and steadiness of its history. */
+public enum SuggestionConfidence {
+  /** Fewer than 3 prices on the route for the container size. */
+  LOW,
+  /** At least 3 prices, but few, scattered or old. */
+  MEDIUM,
+  /** 10 or more recent, consistent prices. */
+  HIGH
+}
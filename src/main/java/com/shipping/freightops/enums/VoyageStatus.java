@@ -5,5 +5,18 @@ public enum VoyageStatus {
   PLANNED,
   IN_PROGRESS,
   COMPLETED,
-  CANCELLED
+  CANCELLED;
+
+  /**
+   * Whether a voyage may move from this status to {@code next}. Voyages only move forward, and
+   * COMPLETED and CANCELLED are final: their orders were delivered or cancelled and gave back their
+   * capacity. Staying in the same status is allowed.
+   */
+  public boolean canMoveTo(VoyageStatus next) {
+    return switch (this) {
+      case PLANNED -> true;
+      case IN_PROGRESS -> next != PLANNED;
+      case COMPLETED, CANCELLED -> next == this;
+    };
+  }
 }
@@ -0,0 +1,8 @@
+package com.shipping.freightops.exception;
+
+/** The request cannot be taken right now, e.g. a full queue; the client should retry later. */
+public class ServiceUnavailableException extends RuntimeException {
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,25 @@
+package com.shipping.freightops.exception;
+
+/**
+ * A conditional update found the resource changed since the client read it. Carries the current
+ * representation and version so the client can merge and retry without another GET.
+ */
+public class VersionConflictException extends RuntimeException {
+
+  private final transient Object current;
+  private final Long currentVersion;
+
+  public VersionConflictException(String message, Object current, Long currentVersion) {
+    super(message);
+    this.current = current;
+    this.currentVersion = currentVersion;
+  }
+
+  public Object getCurrent() {
+    return current;
+  }
+
+  public Long getCurrentVersion() {
+    return currentVersion;
+  }
+}
@@ -0,0 +1,23 @@
+package com.shipping.freightops.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Maps an {@code int} of basis points to a {@code numeric(5, 2)} percentage column, so 1250 is
+ * stored as 12.50. Not applied automatically; annotate the attribute with {@code @Convert}.
+ */
+@Converter
+public class BasisPointsConverter implements AttributeConverter<Integer, BigDecimal> {
+
+  @Override
+  public BigDecimal convertToDatabaseColumn(Integer basisPoints) {
+    return basisPoints == null ? null : Money.toPercent(basisPoints);
+  }
+
+  @Override
+  public Integer convertToEntityAttribute(BigDecimal percent) {
+    return percent == null ? null : Money.toBasisPoints(percent);
+  }
+}
@@ -0,0 +1,134 @@
+package com.shipping.freightops.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of US dollars held as a {@code long} number of cents.
+ *
+ * <p>Percentages are whole basis points (1 bp = 0.01 %, so a 12.5 % discount is 1250 bp), which
+ * covers every discount and commission the API stores with two decimals. All arithmetic is exact in
+ * {@code long}; the one division per operation rounds HALF_UP (half away from zero), which gives
+ * the same cents as the {@code BigDecimal} formula {@code amount * (1 - percent / 100)} rounded
+ * with {@code setScale(2, HALF_UP)}. Overflow throws {@link ArithmeticException} instead of
+ * wrapping.
+ *
+ * <p>The static methods take and return raw cents and allocate nothing, for loops over many prices;
+ * the instance methods wrap them for typed fields. {@code BigDecimal} is only needed at the edges,
+ * see {@link #of(BigDecimal)} and {@link #toBigDecimal()}.
+ */
+public final class Money implements Comparable<Money> {
+
+  /** Basis points in 100 %. */
+  public static final int FULL_BASIS_POINTS = 10_000;
+
+  public static final Money ZERO = new Money(0);
+
+  private final long cents;
+
+  private Money(long cents) {
+    this.cents = cents;
+  }
+
+  public static Money ofCents(long cents) {
+    return cents == 0 ? ZERO : new Money(cents);
+  }
+
+  /** Converts a dollar amount, rounding HALF_UP to cents if it has more than two decimals. */
+  public static Money of(BigDecimal amount) {
+    return ofCents(toCents(amount));
+  }
+
+  public long getCents() {
+    return cents;
+  }
+
+  public Money plus(Money other) {
+    return ofCents(Math.addExact(cents, other.cents));
+  }
+
+  public Money minus(Money other) {
+    return ofCents(Math.subtractExact(cents, other.cents));
+  }
+
+  public Money times(long quantity) {
+    return ofCents(Math.multiplyExact(cents, quantity));
+  }
+
+  /** This amount less a discount of {@code basisPoints}, see {@link #discountCents}. */
+  public Money discounted(int basisPoints) {
+    return ofCents(discountCents(cents, basisPoints));
+  }
+
+  /** {@code basisPoints} of this amount, e.g. a commission, see {@link #shareCents}. */
+  public Money share(int basisPoints) {
+    return ofCents(shareCents(cents, basisPoints));
+  }
+
+  public boolean isNegative() {
+    return cents < 0;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(cents, 2);
+  }
+
+  /** {@code cents} less a discount of {@code basisPoints}, rounded HALF_UP to whole cents. */
+  public static long discountCents(long cents, int basisPoints) {
+    return divideHalfUp(
+        Math.multiplyExact(cents, (long) FULL_BASIS_POINTS - basisPoints), FULL_BASIS_POINTS);
+  }
+
+  /** {@code basisPoints} of {@code cents}, rounded HALF_UP to whole cents. */
+  public static long shareCents(long cents, int basisPoints) {
+    return divideHalfUp(Math.multiplyExact(cents, (long) basisPoints), FULL_BASIS_POINTS);
+  }
+
+  /** A dollar amount in cents, rounded HALF_UP if it has more than two decimals. */
+  public static long toCents(BigDecimal amount) {
+    return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+  }
+
+  /**
+   * A percentage such as {@code 12.5} in basis points, rounded HALF_UP like the four-decimal
+   * fraction {@code percent / 100} it replaces.
+   */
+  public static int toBasisPoints(BigDecimal percent) {
+    return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+  }
+
+  /** Basis points as a percentage with two decimals, e.g. 1250 → 12.50. */
+  public static BigDecimal toPercent(int basisPoints) {
+    return BigDecimal.valueOf(basisPoints, 2);
+  }
+
+  /** {@code numerator / divisor} rounded half away from zero; {@code divisor} must be positive. */
+  static long divideHalfUp(long numerator, long divisor) {
+    long quotient = numerator / divisor;
+    long remainder = numerator % divisor;
+    if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+      quotient += Long.signum(numerator);
+    }
+    return quotient;
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(cents, other.cents);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Money other && cents == other.cents;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(cents);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
@@ -0,0 +1,17 @@
+package com.shipping.freightops.repository;
+
+/** An agent's commission rollups over a period, see {@link VoyageAgentCommissionRepository}. */
+public interface AgentCommissionTotals {
+
+  Long getAgentId();
+
+  String getAgentName();
+
+  long getVoyageCount();
+
+  long getOrderCount();
+
+  long getOrderValueCents();
+
+  long getCommissionCents();
+}
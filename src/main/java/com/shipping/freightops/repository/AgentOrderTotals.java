@@ -0,0 +1,15 @@
+package com.shipping.freightops.repository;
+
+import java.math.BigDecimal;
+
+/** An agent's orders on a voyage, summed by {@link FreightOrderRepository#sumOrdersByAgent}. */
+public interface AgentOrderTotals {
+
+  Long getAgentId();
+
+  BigDecimal getCommissionPercent();
+
+  long getOrderCount();
+
+  BigDecimal getOrderValueUsd();
+}
@@ -2,13 +2,14 @@ package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.Agent;
 import com.shipping.freightops.enums.AgentType;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface AgentRepository extends JpaRepository<Agent, Long> {
-  List<Agent> findByTypeAndActive(AgentType type, boolean active);
+  Page<Agent> findByTypeAndActive(AgentType type, boolean active, Pageable pageable);
 
-  List<Agent> findByType(AgentType type);
+  Page<Agent> findByType(AgentType type, Pageable pageable);
 
-  List<Agent> findByActive(boolean active);
+  Page<Agent> findByActive(boolean active, Pageable pageable);
 }
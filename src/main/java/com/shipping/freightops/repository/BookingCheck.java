@@ -0,0 +1,40 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.VoyageStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Projection with just the columns needed to validate and describe a booking, loaded in a single
+ * statement by {@link FreightOrderRepository#findBookingCheck}. Container, agent and customer
+ * columns are {@code null} when the referenced row does not exist. The base price comes from the
+ * price cache instead.
+ */
+public interface BookingCheck {
+
+  String getVoyageNumber();
+
+  VoyageStatus getVoyageStatus();
+
+  LocalDateTime getDepartureTime();
+
+  LocalDateTime getArrivalTime();
+
+  String getContainerCode();
+
+  ContainerSize getContainerSize();
+
+  String getAgentName();
+
+  Boolean getAgentActive();
+
+  Long getCustomerId();
+
+  String getCustomerName();
+
+  String getCustomerEmail();
+
+  Boolean getBookingOpen();
+
+  Integer getMaxCapacityTeu();
+}
@@ -0,0 +1,44 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.BookingTicket;
+import com.shipping.freightops.enums.BookingTicketStatus;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BookingTicketRepository extends JpaRepository<BookingTicket, Long> {
+
+  Optional<BookingTicket> findByTicketId(String ticketId);
+
+  /**
+   * Locks the given tickets that are still queued. A node booking the same ticket concurrently
+   * waits here and then no longer finds it queued.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "select t from BookingTicket t where t.ticketId in :ticketIds and t.status = :status"
+          + " order by t.id")
+  List<BookingTicket> lockByTicketIdInAndStatus(
+      @Param("ticketIds") Collection<String> ticketIds,
+      @Param("status") BookingTicketStatus status);
+
+  /** Oldest tickets first, so recovery books them in submission order. */
+  List<BookingTicket> findByStatusAndCreatedAtBeforeOrderByCreatedAt(
+      BookingTicketStatus status, LocalDateTime createdBefore, Pageable pageable);
+
+  @Modifying
+  @Query("delete from BookingTicket t where t.ticketId = :ticketId")
+  int deleteByTicketId(@Param("ticketId") String ticketId);
+
+  @Modifying
+  @Query("delete from BookingTicket t where t.expiresAt <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package com.shipping.freightops.repository;
+
+import java.time.LocalDateTime;
+
+/** The voyage window an active order occupies its container for. */
+public interface ContainerWindow {
+
+  Long getContainerId();
+
+  Long getVoyageId();
+
+  LocalDateTime getOccupiedFrom();
+
+  LocalDateTime getOccupiedUntil();
+}
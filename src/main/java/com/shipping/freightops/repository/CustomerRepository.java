@@ -1,6 +1,11 @@
 package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+  Page<Customer> findByCompanyNameStartingWithIgnoreCase(String prefix, Pageable pageable);
+}
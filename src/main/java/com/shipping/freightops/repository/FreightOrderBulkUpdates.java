@@ -0,0 +1,23 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.FreightOrder;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Set-based order updates that run as one UPDATE statement instead of loading each order. */
+public interface FreightOrderBulkUpdates {
+
+  /**
+   * Sets the discount of every order matching {@code filter} and recomputes its final price in SQL
+   * as {@code round(base_price_usd * discountFactor, 2)}. Bumps each row's version, so ETags handed
+   * out earlier stop matching.
+   *
+   * @param discountFactor {@code 1 - discountPercent / 100}, already rounded as the service does
+   * @return the number of orders updated
+   */
+  int applyDiscount(
+      Specification<FreightOrder> filter,
+      BigDecimal discountPercent,
+      BigDecimal discountFactor,
+      String reason);
+}
@@ -0,0 +1,57 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.FreightOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Criteria-based implementation of {@link FreightOrderBulkUpdates}. */
+class FreightOrderBulkUpdatesImpl implements FreightOrderBulkUpdates {
+
+  private final EntityManager entityManager;
+
+  FreightOrderBulkUpdatesImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public int applyDiscount(
+      Specification<FreightOrder> filter,
+      BigDecimal discountPercent,
+      BigDecimal discountFactor,
+      String reason) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<FreightOrder> update = cb.createCriteriaUpdate(FreightOrder.class);
+    Root<FreightOrder> order = update.from(FreightOrder.class);
+
+    // base (scale 2) * factor (scale 4) is exact, so rounding it once to cents matches the
+    // service's BigDecimal HALF_UP for the positive prices stored here
+    Expression<BigDecimal> discounted =
+        cb.prod(order.<BigDecimal>get("basePriceUsd"), cb.literal(discountFactor));
+    update
+        .set(order.<BigDecimal>get("discountPercent"), discountPercent)
+        .set(order.<String>get("discountReason"), reason)
+        .set(
+            order.<BigDecimal>get("finalPrice"),
+            cb.function("round", BigDecimal.class, discounted, cb.literal(2)))
+        .set(order.<Long>get("version"), cb.sum(order.<Long>get("version"), 1L))
+        .set(order.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+
+    Predicate where = filter.toPredicate(order, null, cb);
+    if (where != null) {
+      update.where(where);
+    }
+
+    // Write pending changes first and drop managed orders afterwards, so neither side goes stale
+    entityManager.flush();
+    int updated = entityManager.createQuery(update).executeUpdate();
+    entityManager.clear();
+    return updated;
+  }
+}
@@ -2,19 +2,180 @@ package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.FreightOrder;
 import com.shipping.freightops.enums.OrderStatus;
-
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FreightOrderRepository
+    extends JpaRepository<FreightOrder, Long>,
+        JpaSpecificationExecutor<FreightOrder>,
+        FreightOrderBulkUpdates {
+
+  /**
+   * Associations read by {@code FreightOrderResponse}; list and lookup queries join them in so a
+   * page of orders is a single select (plus the count query).
+   */
+  String ORDER_DETAILS_GRAPH = "FreightOrder.details";
+
+  @Override
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  Optional<FreightOrder> findById(Long id);
 
-public interface FreightOrderRepository extends JpaRepository<FreightOrder, Long> {
+  @Override
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  Page<FreightOrder> findAll(Pageable pageable);
 
+  /** Filtered order search, see {@link FreightOrderSpecifications}. */
+  @Override
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  Page<FreightOrder> findAll(Specification<FreightOrder> spec, Pageable pageable);
+
+  /** Like {@link #findAll(Pageable)} but without the count query. */
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  @Query("select o from FreightOrder o")
+  Slice<FreightOrder> findSliceBy(Pageable pageable);
+
+  @EntityGraph(ORDER_DETAILS_GRAPH)
   Page<FreightOrder> findByVoyageId(Long voyageId, Pageable pageable);
 
+  /** Like {@link #findByVoyageId} but without the count query. */
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  Slice<FreightOrder> findSliceByVoyageId(Long voyageId, Pageable pageable);
+
+  @EntityGraph(ORDER_DETAILS_GRAPH)
   Page<FreightOrder> findByStatus(OrderStatus status, Pageable pageable);
 
   List<FreightOrder> findByAgentId(Long agentId);
+
+  /** Keyset page: the first {@code limit} orders with an id above {@code afterId}. */
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  List<FreightOrder> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  /**
+   * Keyset page of one voyage's orders, seeking on id like {@link
+   * #findByIdGreaterThanOrderByIdAsc}.
+   */
+  @EntityGraph(ORDER_DETAILS_GRAPH)
+  List<FreightOrder> findByVoyageIdAndIdGreaterThanOrderByIdAsc(
+      Long voyageId, Long afterId, Limit limit);
+
+  @EntityGraph(ORDER_DETAILS_GRAPH)
   Page<FreightOrder> findByOrderedBy(String orderedBy, Pageable pageable);
+
+  /** Loads everything a single booking is validated against; empty if the voyage is unknown. */
+  @Query(
+      """
+      select v.voyageNumber as voyageNumber, v.status as voyageStatus,
+             v.departureTime as departureTime, v.arrivalTime as arrivalTime,
+             c.containerCode as containerCode, c.size as containerSize,
+             a.name as agentName, a.active as agentActive,
+             cu.id as customerId, cu.companyName as customerName, cu.email as customerEmail,
+             v.bookingOpen as bookingOpen, v.maxCapacityTeu as maxCapacityTeu
+      from Voyage v
+      left join Container c on c.id = :containerId
+      left join Agent a on a.id = :agentId
+      left join Customer cu on cu.id = :customerId
+      where v.id = :voyageId
+      """)
+  Optional<BookingCheck> findBookingCheck(
+      @Param("voyageId") Long voyageId,
+      @Param("containerId") Long containerId,
+      @Param("agentId") Long agentId,
+      @Param("customerId") Long customerId);
+
+  /** Windows of every order in {@code statuses}, to rebuild the container occupancy index. */
+  @Query(
+      """
+      select o.container.id as containerId, o.voyage.id as voyageId,
+             o.occupiedFrom as occupiedFrom, o.occupiedUntil as occupiedUntil
+      from FreightOrder o
+      where o.status in :statuses
+      """)
+  List<ContainerWindow> findContainerWindows(@Param("statuses") Collection<OrderStatus> statuses);
+
+  @Query(
+      """
+      select o.container.id as containerId, o.voyage.id as voyageId,
+             o.occupiedFrom as occupiedFrom, o.occupiedUntil as occupiedUntil
+      from FreightOrder o
+      where o.container.id in :containerIds and o.status in :statuses
+      """)
+  List<ContainerWindow> findContainerWindows(
+      @Param("containerIds") Collection<Long> containerIds,
+      @Param("statuses") Collection<OrderStatus> statuses);
+
+  /**
+   * Containers of the voyage's orders in {@code statuses}. The orders stay row-locked until the
+   * transaction ends, so the transition log and {@link #transitionOrders} see exactly these rows.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      """
+      select o.container.id from FreightOrder o
+      where o.voyage.id = :voyageId and o.status in :statuses
+      """)
+  List<Long> lockContainerIds(
+      @Param("voyageId") Long voyageId, @Param("statuses") Collection<OrderStatus> statuses);
+
+  /** Moves the voyage's orders in {@code statuses} to {@code target} in one UPDATE. */
+  @Modifying(flushAutomatically = true)
+  @Query(
+      """
+      update FreightOrder o
+      set o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+      where o.voyage.id = :voyageId and o.status in :statuses
+      """)
+  int transitionOrders(
+      @Param("voyageId") Long voyageId,
+      @Param("statuses") Collection<OrderStatus> statuses,
+      @Param("target") OrderStatus target,
+      @Param("now") LocalDateTime now);
+
+  @Query(
+      """
+      select o.voyage.id as voyageId, c.size as containerSize, count(o) as containerCount
+      from FreightOrder o join o.container c
+      where o.status in :statuses
+      group by o.voyage.id, c.size
+      """)
+  List<VoyageContainerCount> countContainersByVoyage(
+      @Param("statuses") Collection<OrderStatus> statuses);
+
+  @Query(
+      """
+      select o.voyage.id as voyageId, c.size as containerSize, count(o) as containerCount
+      from FreightOrder o join o.container c
+      where o.voyage.id = :voyageId and o.status in :statuses
+      group by o.voyage.id, c.size
+      """)
+  List<VoyageContainerCount> countContainersOnVoyage(
+      @Param("voyageId") Long voyageId, @Param("statuses") Collection<OrderStatus> statuses);
+
+  /** Orders in {@code status} on the voyage, counted and summed per agent in one GROUP BY. */
+  @Query(
+      """
+      select a.id as agentId, a.commissionPercent as commissionPercent, count(o) as orderCount,
+             sum(o.finalPrice) as orderValueUsd
+      from FreightOrder o join o.agent a
+      where o.voyage.id = :voyageId and o.status = :status
+      group by a.id, a.commissionPercent
+      """)
+  List<AgentOrderTotals> sumOrdersByAgent(
+      @Param("voyageId") Long voyageId, @Param("status") OrderStatus status);
+
+  boolean existsByAgentId(Long agentId);
 }
@@ -0,0 +1,81 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.Container;
+import com.shipping.freightops.entity.FreightOrder;
+import com.shipping.freightops.enums.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Optional filters for order search; a {@code null} argument leaves that filter out. */
+public final class FreightOrderSpecifications {
+
+  private FreightOrderSpecifications() {}
+
+  public static Specification<FreightOrder> hasStatus(OrderStatus status) {
+    return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+  }
+
+  /** Orders that can still change, i.e. neither cancelled nor delivered. */
+  public static Specification<FreightOrder> isActive() {
+    return (root, query, cb) -> root.get("status").in(OrderStatus.ACTIVE);
+  }
+
+  public static Specification<FreightOrder> onVoyage(Long voyageId) {
+    return (root, query, cb) ->
+        voyageId == null ? null : cb.equal(root.get("voyage").get("id"), voyageId);
+  }
+
+  public static Specification<FreightOrder> placedByAgent(Long agentId) {
+    return (root, query, cb) ->
+        agentId == null ? null : cb.equal(root.get("agent").get("id"), agentId);
+  }
+
+  public static Specification<FreightOrder> forCustomer(Long customerId) {
+    return (root, query, cb) ->
+        customerId == null ? null : cb.equal(root.get("customer").get("id"), customerId);
+  }
+
+  /** Exact container code, normalised like the stored codes (see {@link Container#normalize}). */
+  public static Specification<FreightOrder> hasContainerCode(String containerCode) {
+    return (root, query, cb) ->
+        containerCode == null || containerCode.isBlank()
+            ? null
+            : cb.equal(
+                root.get("container").get("containerCode"), Container.normalize(containerCode));
+  }
+
+  /** Created on or after {@code from} and before {@code to}. */
+  public static Specification<FreightOrder> createdBetween(LocalDateTime from, LocalDateTime to) {
+    return (root, query, cb) -> {
+      if (from == null && to == null) {
+        return null;
+      }
+      if (from == null) {
+        return cb.lessThan(root.get("createdAt"), to);
+      }
+      if (to == null) {
+        return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+      }
+      return cb.and(
+          cb.greaterThanOrEqualTo(root.get("createdAt"), from),
+          cb.lessThan(root.get("createdAt"), to));
+    };
+  }
+
+  /** Final price between {@code min} and {@code max}, both inclusive. */
+  public static Specification<FreightOrder> finalPriceBetween(BigDecimal min, BigDecimal max) {
+    return (root, query, cb) -> {
+      if (min == null && max == null) {
+        return null;
+      }
+      if (min == null) {
+        return cb.lessThanOrEqualTo(root.get("finalPrice"), max);
+      }
+      if (max == null) {
+        return cb.greaterThanOrEqualTo(root.get("finalPrice"), min);
+      }
+      return cb.between(root.get("finalPrice"), min, max);
+    };
+  }
+}
@@ -0,0 +1,23 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.IdempotencyRecord;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+  Optional<IdempotencyRecord> findByIdempotencyKeyAndExpiresAtAfter(
+      String idempotencyKey, LocalDateTime now);
+
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.expiresAt <= :now")
+  int deleteExpiredKey(@Param("key") String idempotencyKey, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.OrderStatusTransition;
+import com.shipping.freightops.enums.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderStatusTransitionRepository
+    extends JpaRepository<OrderStatusTransition, Long> {
+
+  List<OrderStatusTransition> findByOrderIdOrderByCreatedAtAsc(Long orderId);
+
+  long countByVoyageId(Long voyageId);
+
+  /**
+   * Logs {@code target} for each of the voyage's orders in {@code statuses} with one INSERT ...
+   * SELECT; run it before the orders' own UPDATE so that the old status is still there to copy.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(
+      """
+      insert into OrderStatusTransition
+          (order, voyage, fromStatus, toStatus, reason, createdAt, updatedAt, version)
+      select o, o.voyage, o.status, :target, :reason, :now, :now, 0
+      from FreightOrder o
+      where o.voyage.id = :voyageId and o.status in :statuses
+      """)
+  int logVoyageTransitions(
+      @Param("voyageId") Long voyageId,
+      @Param("statuses") Collection<OrderStatus> statuses,
+      @Param("target") OrderStatus target,
+      @Param("reason") String reason,
+      @Param("now") LocalDateTime now);
+}
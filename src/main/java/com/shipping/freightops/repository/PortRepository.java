@@ -1,12 +1,26 @@
 package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.Port;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface PortRepository extends JpaRepository<Port, Long> {
 
+  /**
+   * Cached in the {@code ports-by-unlocode} query region; invalidated whenever the table changes.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "ports-by-unlocode")
+  })
   Optional<Port> findByUnlocode(String unlocode);
 
   boolean existsByUnlocode(String unlocode);
+
+  Page<Port> findByCountry(String country, Pageable pageable);
 }
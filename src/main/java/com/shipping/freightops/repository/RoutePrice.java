@@ -0,0 +1,19 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.enums.ContainerSize;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** A voyage price with its route, read by {@link VoyagePriceRepository#streamRoutePrices}. */
+public interface RoutePrice {
+
+  Long getDeparturePortId();
+
+  Long getArrivalPortId();
+
+  ContainerSize getContainerSize();
+
+  LocalDateTime getDepartureTime();
+
+  BigDecimal getBasePriceUsd();
+}
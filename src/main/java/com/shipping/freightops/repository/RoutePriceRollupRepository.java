@@ -0,0 +1,95 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.RoutePriceRollup;
+import com.shipping.freightops.enums.ContainerSize;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RoutePriceRollupRepository extends JpaRepository<RoutePriceRollup, Long> {
+
+  /** The rollup a new price goes into, locked so concurrent prices are added one at a time. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      """
+      select r from RoutePriceRollup r
+      where r.departurePort.id = :departurePortId and r.arrivalPort.id = :arrivalPortId
+        and r.containerSize = :containerSize and r.month = :month
+      """)
+  Optional<RoutePriceRollup> lockByKey(
+      @Param("departurePortId") Long departurePortId,
+      @Param("arrivalPortId") Long arrivalPortId,
+      @Param("containerSize") ContainerSize containerSize,
+      @Param("month") LocalDate month);
+
+  /**
+   * Inserts an empty rollup for the key unless one exists; returns 0 if it does. A rollup inserted
+   * by a transaction that has not committed yet is waited for, so concurrent first prices of a key
+   * do not fail on the unique key.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(
+      value =
+          """
+          insert into route_price_rollups
+              (id, departure_port_id, arrival_port_id, container_size, price_month, price_count,
+               sum_cents, sum_squares, min_cents, max_cents, quantile_sketch, version, created_at,
+               updated_at)
+          values (nextval('route_price_rollups_seq'), :departurePortId, :arrivalPortId,
+                  :containerSize, :month, 0, 0, 0, 0, 0, :emptySketch, 0, :now, :now)
+          on conflict do nothing
+          """,
+      nativeQuery = true)
+  int insertIfAbsent(
+      @Param("departurePortId") Long departurePortId,
+      @Param("arrivalPortId") Long arrivalPortId,
+      @Param("containerSize") String containerSize,
+      @Param("month") LocalDate month,
+      @Param("emptySketch") byte[] emptySketch,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Rollups of a route from month {@code from} to {@code to}, both first days and inclusive, for
+   * one container size or all of them if {@code containerSize} is null.
+   */
+  @Query(
+      """
+      select r from RoutePriceRollup r
+      where r.departurePort.id = :departurePortId and r.arrivalPort.id = :arrivalPortId
+        and (:containerSize is null or r.containerSize = :containerSize)
+        and r.month between :from and :to
+      order by r.month, r.containerSize
+      """)
+  List<RoutePriceRollup> findByRoute(
+      @Param("departurePortId") Long departurePortId,
+      @Param("arrivalPortId") Long arrivalPortId,
+      @Param("containerSize") ContainerSize containerSize,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  /** All rollups of a route, oldest month first, to fit its price model. */
+  @Query(
+      """
+      select r from RoutePriceRollup r
+      where r.departurePort.id = :departurePortId and r.arrivalPort.id = :arrivalPortId
+      order by r.month
+      """)
+  List<RoutePriceRollup> findHistory(
+      @Param("departurePortId") Long departurePortId, @Param("arrivalPortId") Long arrivalPortId);
+
+  /** All rollups of all routes, oldest month first, to fit every route's price model. */
+  @Query("select r from RoutePriceRollup r order by r.month")
+  List<RoutePriceRollup> findAllHistory();
+
+  /** Every rollup, locked so new prices wait while the rows are checked against the prices. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select r from RoutePriceRollup r")
+  List<RoutePriceRollup> lockAll();
+}
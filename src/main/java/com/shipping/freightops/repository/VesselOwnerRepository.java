@@ -0,0 +1,19 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.VesselOwner;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VesselOwnerRepository extends JpaRepository<VesselOwner, Long> {
+
+  List<VesselOwner> findByVesselIdOrderByIdAsc(Long vesselId);
+
+  Optional<VesselOwner> findByIdAndVesselId(Long id, Long vesselId);
+
+  @Query("select coalesce(sum(o.sharePercent), 0) from VesselOwner o where o.vessel.id = :vesselId")
+  BigDecimal sumSharePercent(@Param("vesselId") Long vesselId);
+}
@@ -1,10 +1,31 @@
 package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.Vessel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface VesselRepository extends JpaRepository<Vessel, Long> {
 
+  /** Cached in the {@code vessels-by-imo} query region; invalidated whenever the table changes. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vessels-by-imo")
+  })
   Optional<Vessel> findByImoNumber(String imoNumber);
+
+  /** Locks the vessel row, e.g. while its owners' shares are checked and changed. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select v from Vessel v where v.id = :vesselId")
+  Optional<Vessel> lockById(@Param("vesselId") Long vesselId);
+
+  Page<Vessel> findByNameStartingWithIgnoreCase(String prefix, Pageable pageable);
 }
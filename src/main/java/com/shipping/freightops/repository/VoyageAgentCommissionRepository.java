@@ -0,0 +1,54 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VoyageAgentCommissionRepository
+    extends JpaRepository<VoyageAgentCommission, Long> {
+
+  /** A voyage's rollups with their agents, by agent name. */
+  @Query(
+      """
+      select c from VoyageAgentCommission c join fetch c.agent a
+      where c.voyage.id = :voyageId
+      order by a.name, a.id
+      """)
+  List<VoyageAgentCommission> findByVoyageId(@Param("voyageId") Long voyageId);
+
+  /** An agent's rollups of voyages arriving in {@code [from, to)}, with the voyages. */
+  @Query(
+      """
+      select c from VoyageAgentCommission c join fetch c.voyage v
+      where c.agent.id = :agentId and v.arrivalTime >= :from and v.arrivalTime < :to
+      order by v.arrivalTime, v.id
+      """)
+  List<VoyageAgentCommission> findByAgentInPeriod(
+      @Param("agentId") Long agentId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /** Every agent's rollups of voyages arriving in {@code [from, to)}, summed per agent. */
+  @Query(
+      """
+      select a.id as agentId, a.name as agentName, count(c) as voyageCount,
+             sum(c.orderCount) as orderCount, sum(c.orderValueCents) as orderValueCents,
+             sum(c.commissionCents) as commissionCents
+      from VoyageAgentCommission c join c.agent a join c.voyage v
+      where v.arrivalTime >= :from and v.arrivalTime < :to
+      group by a.id, a.name
+      order by a.name, a.id
+      """)
+  List<AgentCommissionTotals> sumByAgentInPeriod(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Modifying(flushAutomatically = true)
+  @Query("delete from VoyageAgentCommission c where c.voyage.id = :voyageId")
+  int deleteByVoyageId(@Param("voyageId") Long voyageId);
+
+  boolean existsByAgentId(Long agentId);
+}
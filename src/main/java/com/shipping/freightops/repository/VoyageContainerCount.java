@@ -0,0 +1,13 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.enums.ContainerSize;
+
+/** Number of orders of one container size on a voyage, used to derive its TEU load. */
+public interface VoyageContainerCount {
+
+  Long getVoyageId();
+
+  ContainerSize getContainerSize();
+
+  long getContainerCount();
+}
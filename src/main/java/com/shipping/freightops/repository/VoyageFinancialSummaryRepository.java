@@ -0,0 +1,40 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.VoyageFinancialSummary;
+import com.shipping.freightops.enums.OrderStatus;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VoyageFinancialSummaryRepository
+    extends JpaRepository<VoyageFinancialSummary, Long> {
+
+  /** The voyage's snapshot with the voyage and owner split, in one select. */
+  @Query(
+      """
+      select s from VoyageFinancialSummary s join fetch s.voyage left join fetch s.owners
+      where s.voyage.id = :voyageId
+      """)
+  Optional<VoyageFinancialSummary> findByVoyageId(@Param("voyageId") Long voyageId);
+
+  /**
+   * Revenue and count of the voyage's orders in {@code status}, plus the sum of its costs, in one
+   * statement over the {@code (voyage_id, status)} index.
+   */
+  @Query(
+      """
+      select coalesce(sum(o.finalPrice), 0) as revenueUsd, count(o) as orderCount,
+             (select coalesce(sum(c.amountUsd), 0) from VoyageCost c
+              where c.voyage.id = :voyageId) as costsUsd
+      from FreightOrder o
+      where o.voyage.id = :voyageId and o.status = :status
+      """)
+  VoyageFinancials aggregate(@Param("voyageId") Long voyageId, @Param("status") OrderStatus status);
+
+  /** Drops the voyage's snapshot; its owner rows go with it through the foreign key. */
+  @Modifying(flushAutomatically = true)
+  @Query("delete from VoyageFinancialSummary s where s.voyage.id = :voyageId")
+  int deleteByVoyageId(@Param("voyageId") Long voyageId);
+}
@@ -0,0 +1,13 @@
+package com.shipping.freightops.repository;
+
+import java.math.BigDecimal;
+
+/** Revenue and costs of one voyage, see {@link VoyageFinancialSummaryRepository#aggregate}. */
+public interface VoyageFinancials {
+
+  BigDecimal getRevenueUsd();
+
+  long getOrderCount();
+
+  BigDecimal getCostsUsd();
+}
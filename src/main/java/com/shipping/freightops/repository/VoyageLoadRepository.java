@@ -0,0 +1,83 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageLoad;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VoyageLoadRepository extends JpaRepository<VoyageLoad, Long> {
+
+  /** The voyage's load together with the voyage, in one select. */
+  @Query("select l from VoyageLoad l join fetch l.voyage where l.voyage.id = :voyageId")
+  Optional<VoyageLoad> findByVoyageId(@Param("voyageId") Long voyageId);
+
+  @Query("select l.loadTeu from VoyageLoad l where l.voyage.id = :voyageId")
+  Optional<Integer> findLoadTeu(@Param("voyageId") Long voyageId);
+
+  List<VoyageLoad> findByVoyageIdIn(Collection<Long> voyageIds);
+
+  /** Every load row, locked so deltas wait while the rows are checked against the orders. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select l from VoyageLoad l")
+  List<VoyageLoad> lockAll();
+
+  @Query(
+      """
+      select v from Voyage v
+      where not exists (select l from VoyageLoad l where l.voyage = v)
+      """)
+  List<Voyage> findVoyagesWithoutLoad();
+
+  /** Adds a delta to the voyage's load in place; returns 0 if the voyage has no load row yet. */
+  @Modifying(flushAutomatically = true)
+  @Query(
+      """
+      update VoyageLoad l
+      set l.loadTeu = l.loadTeu + :teu, l.containerCount = l.containerCount + :containers,
+          l.version = l.version + 1, l.updatedAt = :now
+      where l.voyage.id = :voyageId
+      """)
+  int addLoad(
+      @Param("voyageId") Long voyageId,
+      @Param("teu") int teu,
+      @Param("containers") int containers,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Inserts the voyage's load unless it has a row already; returns 0 if it has. A row inserted by a
+   * transaction that has not committed yet is waited for, so concurrent first bookings of a voyage
+   * do not fail on the unique key.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(
+      value =
+          """
+          insert into voyage_loads
+              (id, voyage_id, load_teu, container_count, version, created_at, updated_at)
+          values (nextval('voyage_loads_seq'), :voyageId, :teu, :containers, 0, :now, :now)
+          on conflict do nothing
+          """,
+      nativeQuery = true)
+  int insertIfAbsent(
+      @Param("voyageId") Long voyageId,
+      @Param("teu") int teu,
+      @Param("containers") int containers,
+      @Param("now") LocalDateTime now);
+
+  @Modifying(flushAutomatically = true)
+  @Query(
+      """
+      update VoyageLoad l
+      set l.loadTeu = 0, l.containerCount = 0, l.version = l.version + 1, l.updatedAt = :now
+      where l.voyage.id = :voyageId
+      """)
+  int clearLoad(@Param("voyageId") Long voyageId, @Param("now") LocalDateTime now);
+}
@@ -3,13 +3,41 @@ package com.shipping.freightops.repository;
 import com.shipping.freightops.entity.Voyage;
 import com.shipping.freightops.entity.VoyagePrice;
 import com.shipping.freightops.enums.ContainerSize;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface VoyagePriceRepository extends JpaRepository<VoyagePrice, Long> {
   Optional<VoyagePrice> findByVoyageAndContainerSize(Voyage voyage, ContainerSize containerSize);
 
   Page<VoyagePrice> findByVoyageId(Long voyageId, Pageable pageable);
+
+  List<VoyagePrice> findByVoyageIdIn(Collection<Long> voyageIds);
+
+  /**
+   * Every price with its voyage's route and departure, to rebuild the route price rollups. Ordered
+   * by route, container size and departure, so each rollup's prices arrive together, and fetched in
+   * chunks; the caller must close the stream inside its transaction.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      select v.departurePort.id as departurePortId, v.arrivalPort.id as arrivalPortId,
+             p.containerSize as containerSize, v.departureTime as departureTime,
+             p.basePriceUsd as basePriceUsd
+      from VoyagePrice p join p.voyage v
+      order by v.departurePort.id, v.arrivalPort.id, p.containerSize, v.departureTime
+      """)
+  Stream<RoutePrice> streamRoutePrices();
 }
@@ -2,13 +2,61 @@ package com.shipping.freightops.repository;
 
 import com.shipping.freightops.entity.Voyage;
 import com.shipping.freightops.enums.VoyageStatus;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface VoyageRepository extends JpaRepository<Voyage, Long> {
+public interface VoyageRepository
+    extends JpaRepository<Voyage, Long>, JpaSpecificationExecutor<Voyage> {
+
+  /**
+   * Filtered voyage page with the vessel and both ports joined in, as {@code VoyageResponse} reads
+   * them.
+   */
+  @Override
+  @EntityGraph(attributePaths = {"vessel", "departurePort", "arrivalPort"})
+  Page<Voyage> findAll(Specification<Voyage> spec, Pageable pageable);
+
+  /** Lookup with the associations {@code VoyageResponse} reads, which it maps after commit. */
+  @Override
+  @EntityGraph(attributePaths = {"vessel", "departurePort", "arrivalPort"})
+  Optional<Voyage> findById(Long id);
 
   Optional<Voyage> findByVoyageNumber(String voyageNumber);
 
+  /** Locks the voyage row, to serialize changes that read and rewrite data derived from it. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select v from Voyage v join fetch v.vessel where v.id = :voyageId")
+  Optional<Voyage> lockById(@Param("voyageId") Long voyageId);
+
   List<Voyage> findAllByStatus(VoyageStatus status);
+
+  @Query("select v.id from Voyage v where v.status in :statuses")
+  List<Long> findIdsByStatusIn(@Param("statuses") Collection<VoyageStatus> statuses);
+
+  /** Bumps the version too, so clients holding the voyage's old ETag see the change. */
+  @Modifying
+  @Query(
+      "update Voyage v set v.bookingOpen = :open, v.version = v.version + 1 where v.id = :voyageId")
+  int updateBookingOpen(@Param("voyageId") Long voyageId, @Param("open") boolean open);
+
+  /** Closes bookings if they are still open; returns 0 if another booking closed them first. */
+  @Modifying
+  @Query(
+      """
+      update Voyage v set v.bookingOpen = false, v.version = v.version + 1
+      where v.id = :voyageId and v.bookingOpen = true
+      """)
+  int closeBooking(@Param("voyageId") Long voyageId);
 }
@@ -0,0 +1,44 @@
+package com.shipping.freightops.repository;
+
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.VoyageStatus;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Optional filters for voyage listings; a {@code null} argument leaves that filter out. */
+public final class VoyageSpecifications {
+
+  private VoyageSpecifications() {}
+
+  public static Specification<Voyage> hasStatus(VoyageStatus status) {
+    return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+  }
+
+  public static Specification<Voyage> departsFrom(Long portId) {
+    return (root, query, cb) ->
+        portId == null ? null : cb.equal(root.get("departurePort").get("id"), portId);
+  }
+
+  public static Specification<Voyage> arrivesAt(Long portId) {
+    return (root, query, cb) ->
+        portId == null ? null : cb.equal(root.get("arrivalPort").get("id"), portId);
+  }
+
+  /** Departure on or after {@code from} and before {@code to}. */
+  public static Specification<Voyage> departsBetween(LocalDateTime from, LocalDateTime to) {
+    return (root, query, cb) -> {
+      if (from == null && to == null) {
+        return null;
+      }
+      if (from == null) {
+        return cb.lessThan(root.get("departureTime"), to);
+      }
+      if (to == null) {
+        return cb.greaterThanOrEqualTo(root.get("departureTime"), from);
+      }
+      return cb.and(
+          cb.greaterThanOrEqualTo(root.get("departureTime"), from),
+          cb.lessThan(root.get("departureTime"), to));
+    };
+  }
+}
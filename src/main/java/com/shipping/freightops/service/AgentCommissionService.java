@@ -0,0 +1,188 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.dto.AgentCommissionStatement;
+import com.shipping.freightops.dto.AgentCommissionTotalResponse;
+import com.shipping.freightops.dto.VoyageCommissionReport;
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.AgentOrderTotals;
+import com.shipping.freightops.repository.AgentRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.VoyageAgentCommissionRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Agent commissions on completed voyages.
+ *
+ * <p>When a voyage completes, its DELIVERED orders are summed per agent with one {@code GROUP BY}
+ * and stored as {@link VoyageAgentCommission} rollups, the commission computed in fixed-point
+ * {@link Money}. The per-voyage report is read from those rows and cached, see {@link CacheConfig};
+ * agent statements over a period sum the rollups instead of the orders, so a month-end run reads
+ * one row per agent and voyage.
+ */
+@Service
+public class AgentCommissionService {
+
+  private final Cache cache;
+
+  /** Ticks on every eviction; {@link #evictedAt} holds its value at each voyage's last eviction. */
+  private final AtomicLong evictionClock = new AtomicLong();
+
+  private final ConcurrentMap<Long, Long> evictedAt = new ConcurrentHashMap<>();
+  private final VoyageAgentCommissionRepository commissionRepository;
+  private final FreightOrderRepository orderRepository;
+  private final VoyageRepository voyageRepository;
+  private final AgentRepository agentRepository;
+
+  public AgentCommissionService(
+      CacheManager cacheManager,
+      VoyageAgentCommissionRepository commissionRepository,
+      FreightOrderRepository orderRepository,
+      VoyageRepository voyageRepository,
+      AgentRepository agentRepository) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.VOYAGE_COMMISSIONS));
+    this.commissionRepository = commissionRepository;
+    this.orderRepository = orderRepository;
+    this.voyageRepository = voyageRepository;
+    this.agentRepository = agentRepository;
+  }
+
+  /**
+   * Commission report of a completed voyage, from the cache or its rollups. A voyage without
+   * rollups gets them computed with the voyage row locked, so concurrent first reads store them
+   * once: the later ones wait and then find them. The report is cached on commit unless the voyage
+   * was evicted since it was read, as its rollups may have changed meanwhile.
+   *
+   * @throws IllegalStateException if the voyage is not completed
+   */
+  @Transactional
+  public VoyageCommissionReport getVoyageReport(Long voyageId) {
+    VoyageCommissionReport cached = cache.get(voyageId, VoyageCommissionReport.class);
+    if (cached != null) {
+      return cached;
+    }
+    long readAt = evictionClock.get();
+    Voyage voyage =
+        voyageRepository
+            .findById(voyageId)
+            .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+    if (voyage.getStatus() != VoyageStatus.COMPLETED) {
+      throw new IllegalStateException(
+          "Commissions are only available for completed voyages; voyage "
+              + voyage.getVoyageNumber()
+              + " is "
+              + voyage.getStatus());
+    }
+    List<VoyageAgentCommission> commissions = commissionRepository.findByVoyageId(voyageId);
+    if (commissions.isEmpty()) {
+      voyageRepository.lockById(voyageId);
+      commissions = commissionRepository.findByVoyageId(voyageId);
+      if (commissions.isEmpty()) {
+        rollUp(voyage);
+        commissions = commissionRepository.findByVoyageId(voyageId);
+      }
+    }
+    VoyageCommissionReport report =
+        VoyageCommissionReport.of(voyageId, voyage.getVoyageNumber(), commissions);
+    afterCompletion(
+        committed -> {
+          if (!committed || evictedSince(voyageId, readAt)) {
+            return;
+          }
+          cache.put(voyageId, report);
+          if (evictedSince(voyageId, readAt)) {
+            // Evicted between the check and the put
+            cache.evict(voyageId);
+          }
+        });
+    return report;
+  }
+
+  /**
+   * Per-voyage commission of an agent on the completed voyages arriving from {@code from}
+   * (inclusive) to {@code to} (exclusive).
+   */
+  @Transactional(readOnly = true)
+  public AgentCommissionStatement getStatement(Long agentId, LocalDate from, LocalDate to) {
+    checkPeriod(from, to);
+    Agent agent =
+        agentRepository
+            .findById(agentId)
+            .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId));
+    return AgentCommissionStatement.of(
+        agent,
+        from,
+        to,
+        commissionRepository.findByAgentInPeriod(agentId, from.atStartOfDay(), to.atStartOfDay()));
+  }
+
+  /** Commission totals of every agent over a period, like {@link #getStatement}, in one query. */
+  @Transactional(readOnly = true)
+  public List<AgentCommissionTotalResponse> getTotals(LocalDate from, LocalDate to) {
+    checkPeriod(from, to);
+    return commissionRepository.sumByAgentInPeriod(from.atStartOfDay(), to.atStartOfDay()).stream()
+        .map(AgentCommissionTotalResponse::of)
+        .toList();
+  }
+
+  /**
+   * Replaces the voyage's rollups with its DELIVERED orders summed per agent, at the agents'
+   * current rates. Runs in the caller's transaction, after the orders have been moved.
+   */
+  void rollUp(Voyage voyage) {
+    commissionRepository.deleteByVoyageId(voyage.getId());
+    List<VoyageAgentCommission> commissions = new ArrayList<>();
+    for (AgentOrderTotals totals :
+        orderRepository.sumOrdersByAgent(voyage.getId(), OrderStatus.DELIVERED)) {
+      commissions.add(
+          new VoyageAgentCommission(
+              voyage,
+              agentRepository.getReferenceById(totals.getAgentId()),
+              totals.getOrderCount(),
+              Money.of(totals.getOrderValueUsd()),
+              Money.toBasisPoints(totals.getCommissionPercent())));
+    }
+    commissionRepository.saveAll(commissions);
+    evict(voyage.getId());
+  }
+
+  /** Drops the cached report now and again once the transaction completes. */
+  void evict(Long voyageId) {
+    evictNow(voyageId);
+    afterCompletion(committed -> evictNow(voyageId));
+  }
+
+  private void evictNow(Long voyageId) {
+    evictedAt.put(voyageId, evictionClock.incrementAndGet());
+    cache.evict(voyageId);
+  }
+
+  private boolean evictedSince(Long voyageId, long clock) {
+    return evictedAt.getOrDefault(voyageId, 0L) > clock;
+  }
+
+  private static void checkPeriod(LocalDate from, LocalDate to) {
+    if (!from.isBefore(to)) {
+      throw new BadRequestException("from must be before to");
+    }
+  }
+}
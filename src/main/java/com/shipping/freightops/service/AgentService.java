@@ -5,7 +5,10 @@ import com.shipping.freightops.dto.AgentUpdateRequest;
 import com.shipping.freightops.entity.Agent;
 import com.shipping.freightops.enums.AgentType;
 import com.shipping.freightops.repository.AgentRepository;
-import java.util.List;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.VoyageAgentCommissionRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,9 +17,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class AgentService {
 
   private final AgentRepository agentRepository;
+  private final FreightOrderRepository orderRepository;
+  private final VoyageAgentCommissionRepository commissionRepository;
 
-  public AgentService(AgentRepository agentRepository) {
+  public AgentService(
+      AgentRepository agentRepository,
+      FreightOrderRepository orderRepository,
+      VoyageAgentCommissionRepository commissionRepository) {
     this.agentRepository = agentRepository;
+    this.orderRepository = orderRepository;
+    this.commissionRepository = commissionRepository;
   }
 
   @Transactional
@@ -37,17 +47,17 @@ public class AgentService {
   }
 
   @Transactional(readOnly = true)
-  public List<Agent> listAgents(AgentType type, Boolean active) {
+  public Page<Agent> listAgents(AgentType type, Boolean active, Pageable pageable) {
     if (type != null && active != null) {
-      return agentRepository.findByTypeAndActive(type, active);
+      return agentRepository.findByTypeAndActive(type, active, pageable);
     }
     if (type != null) {
-      return agentRepository.findByType(type);
+      return agentRepository.findByType(type, pageable);
     }
     if (active != null) {
-      return agentRepository.findByActive(active);
+      return agentRepository.findByActive(active, pageable);
     }
-    return agentRepository.findAll();
+    return agentRepository.findAll(pageable);
   }
 
   @Transactional
@@ -66,4 +76,24 @@ public class AgentService {
 
     return agentRepository.save(agent);
   }
+
+  /**
+   * Deletes an agent that never booked an order. An agent with orders or commission history is kept
+   * so its statements stay intact; deactivate it instead. The foreign keys refuse the delete as
+   * well if an order is booked concurrently.
+   *
+   * @throws IllegalStateException if the agent has orders or commission history
+   */
+  @Transactional
+  public void deleteAgent(Long id) {
+    Agent agent =
+        agentRepository
+            .findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + id));
+    if (orderRepository.existsByAgentId(id) || commissionRepository.existsByAgentId(id)) {
+      throw new IllegalStateException(
+          "Agent " + id + " has orders or commission history; deactivate it instead");
+    }
+    agentRepository.delete(agent);
+  }
 }
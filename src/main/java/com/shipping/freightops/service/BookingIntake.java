@@ -0,0 +1,179 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.dto.BookingTicketResponse;
+import com.shipping.freightops.dto.CreateFreightOrderRequest;
+import com.shipping.freightops.entity.BookingTicket;
+import com.shipping.freightops.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asynchronous booking intake: a submitted booking is stored as a ticket, queued and answered with
+ * the ticket, and a writer commits the queue in micro-batches, so peak load costs one connection
+ * per batch instead of one per booking.
+ *
+ * <p>Each drain takes up to {@code batch-size} bookings, groups them by voyage and books each group
+ * through {@link FreightOrderService#bookTickets} in one transaction, with the capacity and price
+ * checks done once per group. If a group fails as a whole, e.g. on a constraint only the database
+ * sees, its bookings are retried one by one so only the offending one is rejected.
+ *
+ * <p>Tickets live in {@link BookingTicketStore}, so a submission is only acknowledged once it is
+ * stored. The in-memory queue is just the fast path: on shutdown the intake stops taking bookings
+ * and drains the queue, and tickets still queued after {@code recover-after}, e.g. because the node
+ * that took them crashed, are queued again by {@link #recover}. A ticket is booked at most once,
+ * since booking locks it and skips it if it is no longer queued.
+ */
+@Component
+public class BookingIntake {
+
+  private static final Logger log = LoggerFactory.getLogger(BookingIntake.class);
+
+  private final BlockingQueue<QueuedBooking> queue;
+  private final BookingTicketStore ticketStore;
+  private final FreightOrderService orderService;
+  private final int batchSize;
+  private final Duration recoverAfter;
+  private volatile boolean accepting = true;
+
+  public BookingIntake(
+      BookingTicketStore ticketStore,
+      FreightOrderService orderService,
+      @Value("${app.booking.intake.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.booking.intake.batch-size:500}") int batchSize,
+      @Value("${app.booking.intake.recover-after:PT1M}") Duration recoverAfter) {
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.ticketStore = ticketStore;
+    this.orderService = orderService;
+    this.batchSize = batchSize;
+    this.recoverAfter = recoverAfter;
+  }
+
+  /**
+   * Stores and queues a booking and returns its ticket.
+   *
+   * @throws ServiceUnavailableException if the queue is full or the intake is shutting down
+   */
+  public BookingTicketResponse submit(CreateFreightOrderRequest request) {
+    if (!accepting) {
+      throw new ServiceUnavailableException("Booking intake is shutting down, please retry later");
+    }
+    if (queue.remainingCapacity() == 0) {
+      throw new ServiceUnavailableException("Booking intake is full, please retry later");
+    }
+    BookingTicketResponse ticket = ticketStore.open(request);
+    if (!queue.offer(new QueuedBooking(ticket.getTicketId(), request.getVoyageId()))) {
+      ticketStore.discard(ticket.getTicketId());
+      throw new ServiceUnavailableException("Booking intake is full, please retry later");
+    }
+    return ticket;
+  }
+
+  /** The ticket's current state; empty if unknown or purged. */
+  public Optional<BookingTicketResponse> find(String ticketId) {
+    return ticketStore.find(ticketId);
+  }
+
+  /** Books everything queued so far, one transaction per voyage and batch. */
+  @Scheduled(
+      fixedDelayString = "${app.booking.intake.drain-ms:100}",
+      initialDelayString = "${app.booking.intake.drain-ms:100}")
+  public synchronized void drain() {
+    List<QueuedBooking> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      Map<Long, List<String>> byVoyage = new LinkedHashMap<>();
+      for (QueuedBooking booking : batch) {
+        byVoyage.computeIfAbsent(booking.voyageId, id -> new ArrayList<>()).add(booking.ticketId);
+      }
+      byVoyage.values().forEach(this::book);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Queues again the tickets that are still unbooked after {@code recover-after}, e.g. those a
+   * stopped node had queued. As many as fit in the queue; the rest wait for the next run.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.booking.intake.recover-ms:60000}",
+      initialDelayString = "${app.booking.intake.recover-ms:60000}")
+  public void recover() {
+    int room = queue.remainingCapacity();
+    if (!accepting || room == 0) {
+      return;
+    }
+    List<BookingTicket> stale =
+        ticketStore.findQueued(LocalDateTime.now().minus(recoverAfter), Math.min(room, batchSize));
+    for (BookingTicket ticket : stale) {
+      Long voyageId = ticketStore.requestOf(ticket).getVoyageId();
+      if (!queue.offer(new QueuedBooking(ticket.getTicketId(), voyageId))) {
+        break;
+      }
+    }
+    if (!stale.isEmpty()) {
+      log.info("Queued {} booking tickets again that were not booked in time", stale.size());
+    }
+  }
+
+  /**
+   * Stops taking bookings and books what is still queued. Tickets left over if that fails stay
+   * stored and are recovered by the next node that runs {@link #recover}.
+   */
+  @PreDestroy
+  public void shutdown() {
+    accepting = false;
+    drain();
+  }
+
+  private void book(List<String> ticketIds) {
+    try {
+      orderService.bookTickets(ticketIds);
+    } catch (RuntimeException ex) {
+      if (ticketIds.size() == 1) {
+        reject(ticketIds.get(0), ex);
+        return;
+      }
+      log.warn(
+          "Booking {} queued orders together failed, booking them one by one", ticketIds.size());
+      for (String ticketId : ticketIds) {
+        book(List.of(ticketId));
+      }
+    }
+  }
+
+  private void reject(String ticketId, RuntimeException ex) {
+    log.warn("Queued booking {} failed", ticketId, ex);
+    String message =
+        ex instanceof DataIntegrityViolationException
+            ? "Request conflicts with existing data"
+            : "Booking could not be committed, please resubmit";
+    try {
+      ticketStore.reject(ticketId, message);
+    } catch (RuntimeException rejectFailed) {
+      log.warn("Could not reject booking ticket {}; it stays queued", ticketId, rejectFailed);
+    }
+  }
+
+  private static final class QueuedBooking {
+    final String ticketId;
+    final Long voyageId;
+
+    QueuedBooking(String ticketId, Long voyageId) {
+      this.ticketId = ticketId;
+      this.voyageId = voyageId;
+    }
+  }
+}
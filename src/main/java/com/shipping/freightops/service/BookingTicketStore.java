@@ -0,0 +1,158 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.dto.BookingTicketResponse;
+import com.shipping.freightops.dto.CreateFreightOrderRequest;
+import com.shipping.freightops.entity.BookingTicket;
+import com.shipping.freightops.enums.BookingTicketStatus;
+import com.shipping.freightops.repository.BookingTicketRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tickets of the asynchronous booking intake, stored in {@code booking_tickets}.
+ *
+ * <p>A ticket is inserted before the submission is acknowledged, so a booking that was answered
+ * with a ticket survives a restart, and is settled in the same transaction that books it. Settled
+ * tickets are also kept in a bounded in-memory cache, see {@link CacheConfig}, so polling clients
+ * rarely reach the database; the table keeps them until {@code app.booking.intake.ticket-ttl}.
+ */
+@Component
+public class BookingTicketStore {
+
+  private static final Logger log = LoggerFactory.getLogger(BookingTicketStore.class);
+
+  private final Cache cache;
+  private final BookingTicketRepository repository;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+
+  public BookingTicketStore(
+      CacheManager cacheManager,
+      BookingTicketRepository repository,
+      ObjectMapper objectMapper,
+      @Value("${app.booking.intake.ticket-ttl:PT24H}") Duration ttl) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.BOOKING_TICKETS));
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+  }
+
+  /** Stores a queued ticket for {@code request}; it is committed when this returns. */
+  @Transactional
+  public BookingTicketResponse open(CreateFreightOrderRequest request) {
+    String ticketId = UUID.randomUUID().toString();
+    repository.save(new BookingTicket(ticketId, write(request)));
+    return BookingTicketResponse.queued(ticketId);
+  }
+
+  /** Forgets a ticket that was stored but could not be queued. */
+  @Transactional
+  public void discard(String ticketId) {
+    repository.deleteByTicketId(ticketId);
+  }
+
+  /** The ticket's current state; empty if unknown or purged. */
+  @Transactional(readOnly = true)
+  public Optional<BookingTicketResponse> find(String ticketId) {
+    BookingTicketResponse cached = cache.get(ticketId, BookingTicketResponse.class);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    return repository.findByTicketId(ticketId).map(this::responseOf);
+  }
+
+  /**
+   * Locks the given tickets that are still queued, in the current transaction. Tickets another
+   * transaction settled meanwhile are left out, so each ticket is booked at most once.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public List<BookingTicket> lockQueued(Collection<String> ticketIds) {
+    return repository.lockByTicketIdInAndStatus(ticketIds, BookingTicketStatus.QUEUED);
+  }
+
+  /** Records the outcome of a locked ticket; it is cached once the transaction commits. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void settle(BookingTicket ticket, BookingTicketResponse response) {
+    ticket.settle(response.getStatus(), write(response), LocalDateTime.now().plus(ttl));
+    afterCompletion(
+        committed -> {
+          if (committed) {
+            cache.put(ticket.getTicketId(), response);
+          }
+        });
+  }
+
+  /** Rejects a ticket that could not be booked at all, unless it was settled meanwhile. */
+  @Transactional
+  public void reject(String ticketId, String message) {
+    for (BookingTicket ticket : lockQueued(List.of(ticketId))) {
+      settle(ticket, BookingTicketResponse.rejected(ticketId, message));
+    }
+  }
+
+  /** Up to {@code limit} tickets queued before {@code queuedBefore}, oldest first. */
+  @Transactional(readOnly = true)
+  public List<BookingTicket> findQueued(LocalDateTime queuedBefore, int limit) {
+    return repository.findByStatusAndCreatedAtBeforeOrderByCreatedAt(
+        BookingTicketStatus.QUEUED, queuedBefore, PageRequest.ofSize(limit));
+  }
+
+  /** The request a ticket was submitted with. */
+  public CreateFreightOrderRequest requestOf(BookingTicket ticket) {
+    return read(ticket.getRequestBody(), CreateFreightOrderRequest.class);
+  }
+
+  /** Deletes expired settled tickets; the cache expires its own entries. */
+  @Scheduled(
+      fixedDelayString = "${app.booking.intake.purge-ms:3600000}",
+      initialDelayString = "${app.booking.intake.purge-ms:3600000}")
+  @Transactional
+  public void purgeExpired() {
+    int purged = repository.deleteExpired(LocalDateTime.now());
+    if (purged > 0) {
+      log.info("Purged {} expired booking tickets", purged);
+    }
+  }
+
+  private BookingTicketResponse responseOf(BookingTicket ticket) {
+    return ticket.getResponseBody() == null
+        ? BookingTicketResponse.queued(ticket.getTicketId())
+        : read(ticket.getResponseBody(), BookingTicketResponse.class);
+  }
+
+  private String write(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot store booking ticket", ex);
+    }
+  }
+
+  private <T> T read(String json, Class<T> type) {
+    try {
+      return objectMapper.readValue(json, type);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot read stored booking ticket", ex);
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.repository.ContainerWindow;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory map from container to the voyage windows its active orders occupy, so a double booking
+ * is rejected without querying {@code freight_orders}.
+ *
+ * <p>A container cannot be on two active orders whose voyage windows overlap. A claim made inside a
+ * transaction is held as pending and dropped again if the transaction rolls back; a release (the
+ * order was cancelled or delivered) takes effect once it commits. Containers are loaded from the
+ * database on first use and periodically reconciled against it. The exclusion constraint {@code
+ * ex_freight_orders_container_occupancy} stays the source of truth, e.g. for bookings committed by
+ * other nodes in between.
+ */
+@Component
+public class ContainerOccupancyIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(ContainerOccupancyIndex.class);
+
+  private final ConcurrentMap<Long, Occupancy> occupancies = new ConcurrentHashMap<>();
+  private final FreightOrderRepository orderRepository;
+
+  public ContainerOccupancyIndex(FreightOrderRepository orderRepository) {
+    this.orderRepository = orderRepository;
+  }
+
+  /**
+   * Books {@code [from, until)} of a container for a voyage in the current transaction.
+   *
+   * @throws IllegalStateException if the container is already booked for an overlapping window
+   */
+  public void claim(Long containerId, Long voyageId, LocalDateTime from, LocalDateTime until) {
+    Occupancy occupancy = occupancyOf(containerId);
+    Window window = new Window(voyageId, from, until, true);
+    synchronized (occupancy) {
+      for (Window booked : occupancy.windows) {
+        if (booked.overlaps(window)) {
+          throw new IllegalStateException(
+              "Container "
+                  + containerId
+                  + " is already booked on voyage "
+                  + booked.voyageId
+                  + " for an overlapping period");
+        }
+      }
+      occupancy.windows.add(window);
+    }
+    afterCompletion(
+        committed -> {
+          synchronized (occupancy) {
+            if (committed) {
+              window.pending = false;
+              occupancy.completions++;
+            } else {
+              occupancy.windows.remove(window);
+            }
+          }
+        });
+  }
+
+  /**
+   * Drops a claim made earlier in the current transaction, e.g. for a batch line rejected after its
+   * container was claimed, so the window is not committed with the rest of the batch.
+   */
+  public void unclaim(Long containerId, Long voyageId) {
+    Occupancy occupancy = occupancies.get(containerId);
+    if (occupancy != null) {
+      synchronized (occupancy) {
+        occupancy.windows.removeIf(window -> window.pending && window.voyageId.equals(voyageId));
+      }
+    }
+  }
+
+  /** Frees the container's window on a voyage once the current transaction commits. */
+  public void release(Long containerId, Long voyageId) {
+    release(List.of(containerId), voyageId);
+  }
+
+  /** Frees the windows of many containers on one voyage, e.g. when the voyage completes. */
+  public void release(Collection<Long> containerIds, Long voyageId) {
+    afterCompletion(
+        committed -> {
+          if (!committed) {
+            return;
+          }
+          for (Long containerId : containerIds) {
+            Occupancy occupancy = occupancies.get(containerId);
+            if (occupancy != null) {
+              synchronized (occupancy) {
+                if (occupancy.loaded) {
+                  occupancy.windows.removeIf(
+                      window -> !window.pending && window.voyageId.equals(voyageId));
+                } else {
+                  occupancy.releasedWhileLoading.add(voyageId);
+                }
+                occupancy.completions++;
+              }
+            }
+          }
+        });
+  }
+
+  /**
+   * Loads the windows of all given containers that are not indexed yet, in one query.
+   *
+   * <p>The containers are registered as loading before the query runs, so a release that commits
+   * meanwhile is remembered and applied to the loaded windows, and a claim waits for the load.
+   */
+  public void load(Collection<Long> containerIds) {
+    Map<Long, Occupancy> loading = new HashMap<>();
+    for (Long id : containerIds) {
+      if (!occupancies.containsKey(id)) {
+        Occupancy occupancy = new Occupancy();
+        if (occupancies.putIfAbsent(id, occupancy) == null) {
+          loading.put(id, occupancy);
+        }
+      }
+    }
+    if (loading.isEmpty()) {
+      return;
+    }
+    Map<Long, List<Window>> windows = new HashMap<>();
+    try {
+      for (ContainerWindow row :
+          orderRepository.findContainerWindows(loading.keySet(), OrderStatus.ACTIVE)) {
+        windows.computeIfAbsent(row.getContainerId(), id -> new ArrayList<>()).add(windowOf(row));
+      }
+    } catch (RuntimeException ex) {
+      loading.forEach(
+          (id, occupancy) -> {
+            occupancies.remove(id, occupancy);
+            occupancy.failed();
+          });
+      throw ex;
+    }
+    loading.forEach((id, occupancy) -> occupancy.loaded(windows.getOrDefault(id, List.of())));
+  }
+
+  /**
+   * Replaces the committed windows of every loaded container with those in the database.
+   *
+   * <p>Each container's completion count is recorded before the database is read. A container with
+   * a claim or release that committed while the database was read is skipped until the next run,
+   * because the read may or may not include it.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.booking.occupancy-reconcile-ms:300000}",
+      initialDelayString = "${app.booking.occupancy-reconcile-ms:300000}")
+  public void reconcile() {
+    Map<Long, Long> completionsBeforeRead = new HashMap<>();
+    occupancies.forEach(
+        (containerId, occupancy) -> {
+          synchronized (occupancy) {
+            if (occupancy.loaded) {
+              completionsBeforeRead.put(containerId, occupancy.completions);
+            }
+          }
+        });
+    if (completionsBeforeRead.isEmpty()) {
+      return;
+    }
+
+    Map<Long, List<Window>> committed = new HashMap<>();
+    for (ContainerWindow row : orderRepository.findContainerWindows(OrderStatus.ACTIVE)) {
+      if (completionsBeforeRead.containsKey(row.getContainerId())) {
+        committed.computeIfAbsent(row.getContainerId(), id -> new ArrayList<>()).add(windowOf(row));
+      }
+    }
+
+    completionsBeforeRead.forEach(
+        (containerId, completions) -> {
+          Occupancy occupancy = occupancies.get(containerId);
+          synchronized (occupancy) {
+            if (occupancy.completions != completions) {
+              log.debug(
+                  "Skipped reconciling container {}; bookings completed during the read",
+                  containerId);
+              return;
+            }
+            occupancy.windows.removeIf(window -> !window.pending);
+            for (Window window : committed.getOrDefault(containerId, List.of())) {
+              // A claim that committed before the read but has not run its callback yet
+              if (occupancy.windows.stream().noneMatch(w -> w.voyageId.equals(window.voyageId))) {
+                occupancy.windows.add(window);
+              }
+            }
+          }
+        });
+  }
+
+  /** Returns the container's loaded occupancy, loading it or waiting for another load first. */
+  private Occupancy occupancyOf(Long containerId) {
+    while (true) {
+      Occupancy occupancy = occupancies.get(containerId);
+      if (occupancy == null) {
+        load(List.of(containerId));
+      } else if (occupancy.awaitLoaded()) {
+        return occupancy;
+      }
+    }
+  }
+
+  private static Window windowOf(ContainerWindow row) {
+    return new Window(row.getVoyageId(), row.getOccupiedFrom(), row.getOccupiedUntil(), false);
+  }
+
+  /** The windows of one container; all fields are guarded by the occupancy's monitor. */
+  private static final class Occupancy {
+    /** Committed and pending windows. */
+    final List<Window> windows = new ArrayList<>();
+
+    /** Voyages whose window was released while the database was read for the first load. */
+    final Set<Long> releasedWhileLoading = new HashSet<>();
+
+    /** Bumped after every committed claim or release. */
+    long completions;
+
+    boolean loaded;
+    boolean failed;
+
+    synchronized void loaded(List<Window> committed) {
+      for (Window window : committed) {
+        if (!releasedWhileLoading.contains(window.voyageId)) {
+          windows.add(window);
+        }
+      }
+      releasedWhileLoading.clear();
+      loaded = true;
+      notifyAll();
+    }
+
+    synchronized void failed() {
+      failed = true;
+      notifyAll();
+    }
+
+    /** Waits until the first load finished; false if it failed and the occupancy was dropped. */
+    synchronized boolean awaitLoaded() {
+      boolean interrupted = false;
+      while (!loaded && !failed) {
+        try {
+          wait();
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      return loaded;
+    }
+  }
+
+  private static final class Window {
+    final Long voyageId;
+    final LocalDateTime from;
+    final LocalDateTime until;
+
+    /** Claimed by a transaction that has not completed yet; kept across reconciliation. */
+    boolean pending;
+
+    Window(Long voyageId, LocalDateTime from, LocalDateTime until, boolean pending) {
+      this.voyageId = voyageId;
+      this.from = from;
+      this.until = until;
+      this.pending = pending;
+    }
+
+    /** Half-open windows: a voyage may depart the moment the previous one arrives. */
+    boolean overlaps(Window other) {
+      return from.isBefore(other.until) && other.from.isBefore(until);
+    }
+  }
+}
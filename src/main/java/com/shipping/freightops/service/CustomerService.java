@@ -3,7 +3,8 @@ package com.shipping.freightops.service;
 import com.shipping.freightops.dto.CreateCustomerRequest;
 import com.shipping.freightops.entity.Customer;
 import com.shipping.freightops.repository.CustomerRepository;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,8 +35,12 @@ public class CustomerService {
         .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + id));
   }
 
+  /** One page of customers, optionally only those whose company name starts with {@code name}. */
   @Transactional(readOnly = true)
-  public List<Customer> getAllCustomers() {
-    return customerRepository.findAll();
+  public Page<Customer> getAllCustomers(String name, Pageable pageable) {
+    if (name != null && !name.isBlank()) {
+      return customerRepository.findByCompanyNameStartingWithIgnoreCase(name.strip(), pageable);
+    }
+    return customerRepository.findAll(pageable);
   }
 }
@@ -1,27 +1,47 @@
 package com.shipping.freightops.service;
 
+import com.shipping.freightops.dto.BatchFreightOrderItemResult;
+import com.shipping.freightops.dto.BatchFreightOrderResponse;
+import com.shipping.freightops.dto.BookingTicketResponse;
+import com.shipping.freightops.dto.BulkDiscountRequest;
 import com.shipping.freightops.dto.CreateFreightOrderRequest;
-import com.shipping.freightops.entity.Agent;
-import com.shipping.freightops.entity.Container;
-import com.shipping.freightops.entity.FreightOrder;
-import com.shipping.freightops.entity.Voyage;
-import com.shipping.freightops.enums.VoyageStatus;
-import com.shipping.freightops.repository.AgentRepository;
-import com.shipping.freightops.repository.ContainerRepository;
-import com.shipping.freightops.repository.FreightOrderRepository;
-import com.shipping.freightops.repository.VoyageRepository;
-import java.util.List;
+import com.shipping.freightops.dto.FreightOrderResponse;
+import com.shipping.freightops.dto.FreightOrderSearchRequest;
 import com.shipping.freightops.dto.UpdateDiscountRequest;
+import com.shipping.freightops.dto.VoyagePriceResponse;
 import com.shipping.freightops.entity.*;
 import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.OrderStatus;
 import com.shipping.freightops.enums.VoyageStatus;
 import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.exception.VersionConflictException;
+import com.shipping.freightops.money.Money;
 import com.shipping.freightops.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,88 +49,192 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class FreightOrderService {
 
+  private static final Logger log = LoggerFactory.getLogger(FreightOrderService.class);
+
+  /** Largest keyset page, matching the cap on offset pages in {@code PageableConfig}. */
+  static final int MAX_SCROLL_SIZE = 100;
+
   private final FreightOrderRepository orderRepository;
   private final VoyageRepository voyageRepository;
   private final ContainerRepository containerRepository;
   private final AgentRepository agentRepository;
   private final CustomerRepository customerRepository;
-  private final VoyagePriceRepository voyagePriceRepository;
+  private final VoyagePriceCache voyagePriceCache;
+  private final Validator validator;
+  private final VoyageCapacityTracker capacityTracker;
+  private final ContainerOccupancyIndex occupancyIndex;
+  private final OrderStatusTransitionRepository transitionRepository;
+  private final IdempotencyStore idempotencyStore;
+  private final VoyageLoadSummary loadSummary;
+  private final BookingTicketStore ticketStore;
 
   public FreightOrderService(
       FreightOrderRepository orderRepository,
       VoyageRepository voyageRepository,
       ContainerRepository containerRepository,
       AgentRepository agentRepository,
-     CustomerRepository customerRepository,
-     VoyagePriceRepository voyagePriceRepository) {
+      CustomerRepository customerRepository,
+      VoyagePriceCache voyagePriceCache,
+      Validator validator,
+      VoyageCapacityTracker capacityTracker,
+      ContainerOccupancyIndex occupancyIndex,
+      OrderStatusTransitionRepository transitionRepository,
+      IdempotencyStore idempotencyStore,
+      VoyageLoadSummary loadSummary,
+      BookingTicketStore ticketStore) {
     this.orderRepository = orderRepository;
     this.voyageRepository = voyageRepository;
     this.containerRepository = containerRepository;
     this.agentRepository = agentRepository;
     this.customerRepository = customerRepository;
-    this.voyagePriceRepository = voyagePriceRepository;
+    this.voyagePriceCache = voyagePriceCache;
+    this.validator = validator;
+    this.capacityTracker = capacityTracker;
+    this.occupancyIndex = occupancyIndex;
+    this.transitionRepository = transitionRepository;
+    this.idempotencyStore = idempotencyStore;
+    this.loadSummary = loadSummary;
+    this.ticketStore = ticketStore;
   }
 
+  /**
+   * Books a single container. Validation reads one row from {@link
+   * FreightOrderRepository#findBookingCheck}, the base price comes from {@link VoyagePriceCache}
+   * and the order is inserted against reference proxies, so a booking costs one read and one write
+   * plus the delta on the voyage's {@link VoyageLoadSummary} row.
+   */
   @Transactional
   public FreightOrder createOrder(CreateFreightOrderRequest request) {
-    Voyage voyage =
-        voyageRepository
-            .findById(request.getVoyageId())
-            .orElseThrow(
-                () -> new IllegalArgumentException("Voyage not found: " + request.getVoyageId()));
+    return insertOrder(request, findBookingCheck(request));
+  }
 
-    if (voyage.getStatus() == VoyageStatus.CANCELLED) {
-      throw new IllegalStateException("Cannot book freight on a cancelled voyage");
-    }
+  /** Same as {@link #createOrder} but returns the API view, built without loading associations. */
+  @Transactional
+  public FreightOrderResponse bookOrder(CreateFreightOrderRequest request) {
+    BookingCheck check = findBookingCheck(request);
+    return FreightOrderResponse.fromBooking(insertOrder(request, check), check);
+  }
 
-    Container container =
-        containerRepository
-            .findById(request.getContainerId())
-            .orElseThrow(
-                () ->
-                    new IllegalArgumentException(
-                        "Container not found: " + request.getContainerId()));
+  /**
+   * Like {@link #bookOrder(CreateFreightOrderRequest)}, storing the response under {@code
+   * idempotencyKey} for {@link IdempotencyStore#find} to replay. The key is claimed before booking,
+   * so a concurrent request with the same key waits for this one and then fails on the key.
+   */
+  @Transactional
+  public FreightOrderResponse bookOrder(CreateFreightOrderRequest request, String idempotencyKey) {
+    IdempotencyRecord record = idempotencyStore.claim(idempotencyKey, request);
+    FreightOrderResponse response = bookOrder(request);
+    idempotencyStore.complete(record, response);
+    return response;
+  }
 
-    Agent agent =
-        agentRepository
-            .findById(request.getAgentId())
-            .orElseThrow(
-                () -> new IllegalArgumentException("Agent not found: " + request.getAgentId()));
+  /**
+   * Books many containers at once.
+   *
+   * <p>All referenced voyages, containers, agents and customers are loaded with one {@code IN}
+   * query per entity type and prices come from {@link VoyagePriceCache}; every line is validated in
+   * memory, and the valid lines are saved together with one load delta per voyage. Lines that fail
+   * validation are reported as rejected without affecting the others.
+   */
+  @Transactional
+  public BatchFreightOrderResponse createOrders(List<CreateFreightOrderRequest> requests) {
+    Map<Long, Voyage> voyages =
+        indexById(
+            voyageRepository.findAllById(
+                collectIds(requests, CreateFreightOrderRequest::getVoyageId)));
+    Map<Long, Container> containers =
+        indexById(
+            containerRepository.findAllById(
+                collectIds(requests, CreateFreightOrderRequest::getContainerId)));
+    Map<Long, Agent> agents =
+        indexById(
+            agentRepository.findAllById(
+                collectIds(requests, CreateFreightOrderRequest::getAgentId)));
+    Map<Long, Customer> customers =
+        indexById(
+            customerRepository.findAllById(
+                collectIds(requests, CreateFreightOrderRequest::getCustomerId)));
 
-    if (!agent.isActive()) {
-      throw new IllegalStateException("Cannot place order with inactive agent: " + agent.getId());
-    }
-    Customer customer =
-        customerRepository
-            .findById(request.getCustomerId())
-            .orElseThrow(
-                () ->
-                    new IllegalArgumentException("Customer not found: " + request.getCustomerId()));
+    Map<Long, Map<ContainerSize, VoyagePriceResponse>> prices =
+        voyagePriceCache.findByVoyages(voyages.keySet());
+    occupancyIndex.load(containers.keySet());
 
-    ContainerSize containerSize = container.getSize();
-    VoyagePrice voyagePrice =
-        voyagePriceRepository
-            .findByVoyageAndContainerSize(voyage, containerSize)
-            .orElseThrow(
-                () -> new BadRequestException("No price defined for voyage and container size"));
+    BatchFreightOrderItemResult[] results = new BatchFreightOrderItemResult[requests.size()];
+    List<FreightOrder> orders = new ArrayList<>();
+    List<Integer> orderIndexes = new ArrayList<>();
+    Set<Long> closedVoyageIds = new HashSet<>();
 
-    BigDecimal basePriceUsd = voyagePrice.getBasePriceUsd();
-    BigDecimal discountPercentage =
-        request.getDiscountPercent() != null ? request.getDiscountPercent() : BigDecimal.ZERO;
-    BigDecimal finalPriceUsd = calculateFinalPrice(basePriceUsd, discountPercentage);
+    for (int i = 0; i < requests.size(); i++) {
+      CreateFreightOrderRequest request = requests.get(i);
+      try {
+        validate(request);
 
-    FreightOrder order = new FreightOrder();
-    order.setVoyage(voyage);
-    order.setContainer(container);
-    order.setAgent(agent);
-    order.setCustomer(customer);
-    order.setOrderedBy(request.getOrderedBy());
-    order.setNotes(request.getNotes());
-    order.setBasePriceUsd(basePriceUsd);
-    order.setDiscountPercent(discountPercentage);
-    order.setFinalPrice(finalPriceUsd);
+        Voyage voyage = require(voyages, request.getVoyageId(), "Voyage");
+        Booking booking =
+            new Booking(
+                voyage,
+                voyage.isBookingOpen() && !closedVoyageIds.contains(voyage.getId()),
+                containers.get(request.getContainerId()),
+                agents.get(request.getAgentId()),
+                customers.get(request.getCustomerId()));
+        FreightOrder order =
+            placeOrder(
+                request,
+                booking,
+                (voyageId, size) ->
+                    Optional.ofNullable(prices.getOrDefault(voyageId, Map.of()).get(size)));
+        if (booking.cutoffReached) {
+          closedVoyageIds.add(voyage.getId());
+        }
+        orders.add(order);
+        orderIndexes.add(i);
+      } catch (IllegalArgumentException | IllegalStateException | BadRequestException ex) {
+        results[i] = BatchFreightOrderItemResult.rejected(i, ex.getMessage());
+      }
+    }
 
-    return orderRepository.save(order);
+    List<FreightOrder> saved = orderRepository.saveAll(orders);
+    Map<Long, int[]> loadDeltas = new TreeMap<>();
+    for (int j = 0; j < saved.size(); j++) {
+      int index = orderIndexes.get(j);
+      FreightOrder order = saved.get(j);
+      results[index] = BatchFreightOrderItemResult.created(index, order);
+      int[] delta = loadDeltas.computeIfAbsent(order.getVoyage().getId(), id -> new int[2]);
+      delta[0] += order.getContainer().getSize().getTeu();
+      delta[1]++;
+    }
+    // In voyage id order, so concurrent batches lock the load rows in the same order
+    loadDeltas.forEach((voyageId, delta) -> loadSummary.add(voyageId, delta[0], delta[1]));
+    return BatchFreightOrderResponse.of(List.of(results));
+  }
+
+  /**
+   * Books tickets of the asynchronous intake like {@link #createOrders} and settles each ticket in
+   * the same transaction. Tickets that are no longer queued, e.g. because another node booked them
+   * first, are skipped.
+   *
+   * @return the settled tickets
+   */
+  @Transactional
+  public List<BookingTicketResponse> bookTickets(Collection<String> ticketIds) {
+    List<BookingTicket> tickets = ticketStore.lockQueued(ticketIds);
+    if (tickets.isEmpty()) {
+      return List.of();
+    }
+    List<CreateFreightOrderRequest> requests = new ArrayList<>(tickets.size());
+    for (BookingTicket ticket : tickets) {
+      requests.add(ticketStore.requestOf(ticket));
+    }
+    List<BatchFreightOrderItemResult> results = createOrders(requests).getResults();
+    List<BookingTicketResponse> settled = new ArrayList<>(tickets.size());
+    for (int i = 0; i < tickets.size(); i++) {
+      BookingTicket ticket = tickets.get(i);
+      BookingTicketResponse response =
+          BookingTicketResponse.of(ticket.getTicketId(), results.get(i));
+      ticketStore.settle(ticket, response);
+      settled.add(response);
+    }
+    return settled;
   }
 
   @Transactional(readOnly = true)
@@ -125,20 +249,98 @@ public class FreightOrderService {
     return orderRepository.findAll(pageable);
   }
 
+  /** Orders matching every filter set on {@code criteria}. */
+  @Transactional(readOnly = true)
+  public Page<FreightOrder> searchOrders(FreightOrderSearchRequest criteria, Pageable pageable) {
+    if (criteria.getCreatedFrom() != null
+        && criteria.getCreatedTo() != null
+        && !criteria.getCreatedFrom().isBefore(criteria.getCreatedTo())) {
+      throw new BadRequestException("createdFrom must be before createdTo");
+    }
+    if (criteria.getMinFinalPrice() != null
+        && criteria.getMaxFinalPrice() != null
+        && criteria.getMinFinalPrice().compareTo(criteria.getMaxFinalPrice()) > 0) {
+      throw new BadRequestException("minFinalPrice must not exceed maxFinalPrice");
+    }
+    Specification<FreightOrder> filters =
+        Specification.where(FreightOrderSpecifications.hasStatus(criteria.getStatus()))
+            .and(FreightOrderSpecifications.onVoyage(criteria.getVoyageId()))
+            .and(FreightOrderSpecifications.placedByAgent(criteria.getAgentId()))
+            .and(FreightOrderSpecifications.forCustomer(criteria.getCustomerId()))
+            .and(FreightOrderSpecifications.hasContainerCode(criteria.getContainerCode()))
+            .and(
+                FreightOrderSpecifications.createdBetween(
+                    criteria.getCreatedFrom(), criteria.getCreatedTo()))
+            .and(
+                FreightOrderSpecifications.finalPriceBetween(
+                    criteria.getMinFinalPrice(), criteria.getMaxFinalPrice()));
+    return orderRepository.findAll(filters, pageable);
+  }
+
+  /** Orders of a voyage; the voyage is only looked up separately when the page comes back empty. */
   @Transactional(readOnly = true)
   public Page<FreightOrder> getOrdersByVoyage(Long voyageId, Pageable pageable) {
-    voyageRepository
-        .findById(voyageId)
-        .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
-    return orderRepository.findByVoyageId(voyageId, pageable);
+    Page<FreightOrder> orders = orderRepository.findByVoyageId(voyageId, pageable);
+    if (orders.isEmpty() && !voyageRepository.existsById(voyageId)) {
+      throw new IllegalArgumentException("Voyage not found");
+    }
+    return orders;
+  }
+
+  /** Same as {@link #getAllOrders} without counting the total. */
+  @Transactional(readOnly = true)
+  public Slice<FreightOrder> getAllOrdersSlice(Pageable pageable) {
+    return orderRepository.findSliceBy(pageable);
+  }
+
+  /** Same as {@link #getOrdersByVoyage} without counting the total. */
+  @Transactional(readOnly = true)
+  public Slice<FreightOrder> getOrdersByVoyageSlice(Long voyageId, Pageable pageable) {
+    Slice<FreightOrder> orders = orderRepository.findSliceByVoyageId(voyageId, pageable);
+    if (orders.isEmpty() && !voyageRepository.existsById(voyageId)) {
+      throw new IllegalArgumentException("Voyage not found");
+    }
+    return orders;
+  }
+
+  /**
+   * Keyset page of orders with an id above {@code afterId}, optionally limited to one voyage. Cost
+   * does not grow with the position in the listing and no count query is run.
+   */
+  @Transactional(readOnly = true)
+  public Slice<FreightOrder> scrollOrders(Long voyageId, long afterId, int size) {
+    int pageSize = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+    Limit limit = Limit.of(pageSize + 1);
+    List<FreightOrder> orders =
+        voyageId == null
+            ? orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit)
+            : orderRepository.findByVoyageIdAndIdGreaterThanOrderByIdAsc(voyageId, afterId, limit);
+    if (voyageId != null && orders.isEmpty() && !voyageRepository.existsById(voyageId)) {
+      throw new IllegalArgumentException("Voyage not found");
+    }
+    boolean hasNext = orders.size() > pageSize;
+    return new SliceImpl<>(
+        hasNext ? orders.subList(0, pageSize) : orders, PageRequest.ofSize(pageSize), hasNext);
   }
 
   @Transactional
   public FreightOrder updateDiscount(Long id, UpdateDiscountRequest request) {
+    return updateDiscount(id, null, request);
+  }
+
+  /**
+   * Applies a discount if the order is still at {@code expectedVersion}; {@code null} skips the
+   * check. A concurrent update committed after the read still fails on the {@code @Version} column.
+   *
+   * @throws VersionConflictException if the order has moved past {@code expectedVersion}
+   */
+  @Transactional
+  public FreightOrder updateDiscount(Long id, Long expectedVersion, UpdateDiscountRequest request) {
     FreightOrder order =
         orderRepository
             .findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Freight order not found: " + id));
+    checkVersion(order, expectedVersion);
 
     if (order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.DELIVERED)
       throw new IllegalStateException(
@@ -153,10 +355,274 @@ public class FreightOrderService {
     return orderRepository.save(order);
   }
 
+  /**
+   * Applies one discount to every active order matching the request's filters in a single UPDATE,
+   * with the final price computed in SQL and rounded like {@link #updateDiscount}. Cancelled and
+   * delivered orders are left alone.
+   *
+   * @return the number of orders updated
+   */
+  @Transactional
+  public int applyBulkDiscount(BulkDiscountRequest request) {
+    if (request.getCustomerId() == null
+        && request.getAgentId() == null
+        && request.getVoyageId() == null) {
+      throw new BadRequestException("At least one of customerId, agentId or voyageId is required");
+    }
+    Specification<FreightOrder> filters =
+        Specification.where(FreightOrderSpecifications.isActive())
+            .and(FreightOrderSpecifications.forCustomer(request.getCustomerId()))
+            .and(FreightOrderSpecifications.placedByAgent(request.getAgentId()))
+            .and(FreightOrderSpecifications.onVoyage(request.getVoyageId()));
+    return orderRepository.applyDiscount(
+        filters,
+        request.getDiscountPercent(),
+        discountFactor(request.getDiscountPercent()),
+        request.getReason());
+  }
+
+  @Transactional
+  public FreightOrder cancelOrder(Long id) {
+    return cancelOrder(id, null);
+  }
+
+  /** Cancels the order if it is still at {@code expectedVersion}, like {@link #updateDiscount}. */
+  @Transactional
+  public FreightOrder cancelOrder(Long id, Long expectedVersion) {
+    FreightOrder order =
+        orderRepository
+            .findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Freight order not found: " + id));
+    checkVersion(order, expectedVersion);
+
+    if (!OrderStatus.ACTIVE.contains(order.getStatus())) {
+      throw new IllegalStateException(
+          "Freight order cannot be cancelled in status " + order.getStatus());
+    }
+
+    transitionRepository.save(
+        new OrderStatusTransition(
+            order, order.getVoyage(), order.getStatus(), OrderStatus.CANCELLED, "Order cancelled"));
+    order.setStatus(OrderStatus.CANCELLED);
+    capacityTracker.release(order.getVoyage().getId(), order.getContainer().getSize());
+    loadSummary.remove(order.getVoyage().getId(), order.getContainer().getSize());
+    occupancyIndex.release(order.getContainer().getId(), order.getVoyage().getId());
+    return orderRepository.save(order);
+  }
+
+  private static void checkVersion(FreightOrder order, Long expectedVersion) {
+    if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+      throw new VersionConflictException(
+          "Freight order " + order.getId() + " was modified since version " + expectedVersion,
+          FreightOrderResponse.fromEntity(order),
+          order.getVersion());
+    }
+  }
+
+  private BookingCheck findBookingCheck(CreateFreightOrderRequest request) {
+    return orderRepository
+        .findBookingCheck(
+            request.getVoyageId(),
+            request.getContainerId(),
+            request.getAgentId(),
+            request.getCustomerId())
+        .orElseThrow(
+            () -> new IllegalArgumentException("Voyage not found: " + request.getVoyageId()));
+  }
+
+  /** Places a single booking and saves it together with its load delta. */
+  private FreightOrder insertOrder(CreateFreightOrderRequest request, BookingCheck check) {
+    Booking booking =
+        new Booking(
+            voyageRepository.getReferenceById(request.getVoyageId()),
+            check,
+            check.getContainerSize() == null
+                ? null
+                : containerRepository.getReferenceById(request.getContainerId()),
+            check.getAgentActive() == null
+                ? null
+                : agentRepository.getReferenceById(request.getAgentId()),
+            check.getCustomerId() == null
+                ? null
+                : customerRepository.getReferenceById(request.getCustomerId()));
+    FreightOrder order = orderRepository.save(placeOrder(request, booking, voyagePriceCache::find));
+    loadSummary.add(request.getVoyageId(), check.getContainerSize());
+    return order;
+  }
+
+  /**
+   * The booking pipeline shared by single and batch bookings: checks the voyage, container, agent
+   * and customer, prices the order, claims the container for the voyage's window and reserves its
+   * TEU, closing bookings once the auto-cutoff is reached. Returns the order unsaved.
+   */
+  private FreightOrder placeOrder(
+      CreateFreightOrderRequest request,
+      Booking booking,
+      BiFunction<Long, ContainerSize, Optional<VoyagePriceResponse>> prices) {
+    if (booking.voyageStatus == VoyageStatus.CANCELLED) {
+      throw new IllegalStateException("Cannot book freight on a cancelled voyage");
+    }
+    if (!booking.bookingOpen) {
+      throw new IllegalStateException("Bookings are closed for voyage " + booking.voyageNumber);
+    }
+    if (booking.container == null) {
+      throw new IllegalArgumentException("Container not found: " + request.getContainerId());
+    }
+    if (booking.agent == null) {
+      throw new IllegalArgumentException("Agent not found: " + request.getAgentId());
+    }
+    if (!booking.agentActive) {
+      throw new IllegalStateException(
+          "Cannot place order with inactive agent: " + request.getAgentId());
+    }
+    if (booking.customer == null) {
+      throw new IllegalArgumentException("Customer not found: " + request.getCustomerId());
+    }
+    Long voyageId = request.getVoyageId();
+    Long containerId = request.getContainerId();
+    BigDecimal basePriceUsd =
+        prices
+            .apply(voyageId, booking.containerSize)
+            .map(VoyagePriceResponse::getBasePriceUsd)
+            .orElseThrow(
+                () -> new BadRequestException("No price defined for voyage and container size"));
+
+    occupancyIndex.claim(containerId, voyageId, booking.departureTime, booking.arrivalTime);
+    boolean cutoffReached;
+    try {
+      cutoffReached =
+          capacityTracker.reserve(voyageId, booking.maxCapacityTeu, booking.containerSize);
+    } catch (IllegalStateException ex) {
+      // A batch still commits, so a rejected line must not keep its container claimed
+      occupancyIndex.unclaim(containerId, voyageId);
+      throw ex;
+    }
+    if (cutoffReached) {
+      booking.cutoffReached = true;
+      if (voyageRepository.closeBooking(voyageId) > 0) {
+        log.warn("Voyage {} reached its booking cutoff; closing bookings", voyageId);
+      }
+    }
+
+    BigDecimal discountPercentage =
+        request.getDiscountPercent() != null ? request.getDiscountPercent() : BigDecimal.ZERO;
+    FreightOrder order = new FreightOrder();
+    order.setVoyage(booking.voyage);
+    order.setContainer(booking.container);
+    order.setAgent(booking.agent);
+    order.setCustomer(booking.customer);
+    order.setOrderedBy(request.getOrderedBy());
+    order.setNotes(request.getNotes());
+    order.setBasePriceUsd(basePriceUsd);
+    order.setDiscountPercent(discountPercentage);
+    order.setFinalPrice(calculateFinalPrice(basePriceUsd, discountPercentage));
+    order.setOccupiedFrom(booking.departureTime);
+    order.setOccupiedUntil(booking.arrivalTime);
+    return order;
+  }
+
+  /** Bean-validates a single batch line, since the batch payload does not cascade validation. */
+  private void validate(CreateFreightOrderRequest request) {
+    if (request == null) {
+      throw new BadRequestException("Order line is empty");
+    }
+    Set<ConstraintViolation<CreateFreightOrderRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      throw new BadRequestException(
+          violations.stream()
+              .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+              .sorted()
+              .collect(Collectors.joining("; ")));
+    }
+  }
+
+  private static Set<Long> collectIds(
+      List<CreateFreightOrderRequest> requests, Function<CreateFreightOrderRequest, Long> getter) {
+    return requests.stream()
+        .filter(Objects::nonNull)
+        .map(getter)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+
+  private static <T extends BaseEntity> Map<Long, T> indexById(Collection<T> entities) {
+    return entities.stream().collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+  }
+
+  private static <T> T require(Map<Long, T> entities, Long id, String label) {
+    T entity = entities.get(id);
+    if (entity == null) {
+      throw new IllegalArgumentException(label + " not found: " + id);
+    }
+    return entity;
+  }
+
+  /** Computed in fixed-point cents and basis points, see {@link Money}. */
   private BigDecimal calculateFinalPrice(BigDecimal basePriceUsd, BigDecimal discountPercent) {
-    BigDecimal discount = discountPercent.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-    return basePriceUsd
-        .multiply(BigDecimal.ONE.subtract(discount))
-        .setScale(2, RoundingMode.HALF_UP);
+    long finalCents =
+        Money.discountCents(Money.toCents(basePriceUsd), Money.toBasisPoints(discountPercent));
+    return BigDecimal.valueOf(finalCents, 2);
+  }
+
+  /** Share of the base price that is charged, to 4 decimals, for the bulk UPDATE to multiply by. */
+  private static BigDecimal discountFactor(BigDecimal discountPercent) {
+    return BigDecimal.valueOf(Money.FULL_BASIS_POINTS - Money.toBasisPoints(discountPercent), 4);
+  }
+
+  /**
+   * What {@link #placeOrder} needs to know about the rows one order references, taken from a {@link
+   * BookingCheck} for single bookings or from the entities a batch loaded. A reference that does
+   * not exist is {@code null}.
+   */
+  private static final class Booking {
+    final Voyage voyage;
+    final String voyageNumber;
+    final VoyageStatus voyageStatus;
+    final boolean bookingOpen;
+    final int maxCapacityTeu;
+    final LocalDateTime departureTime;
+    final LocalDateTime arrivalTime;
+    final Container container;
+    final ContainerSize containerSize;
+    final Agent agent;
+    final boolean agentActive;
+    final Customer customer;
+
+    /** Set by {@link #placeOrder} when this booking reached the voyage's auto-cutoff. */
+    boolean cutoffReached;
+
+    /** From the booking check, with unloaded references to the rows it found. */
+    Booking(
+        Voyage voyage, BookingCheck check, Container container, Agent agent, Customer customer) {
+      this.voyage = voyage;
+      this.voyageNumber = check.getVoyageNumber();
+      this.voyageStatus = check.getVoyageStatus();
+      this.bookingOpen = check.getBookingOpen();
+      this.maxCapacityTeu = check.getMaxCapacityTeu();
+      this.departureTime = check.getDepartureTime();
+      this.arrivalTime = check.getArrivalTime();
+      this.container = container;
+      this.containerSize = check.getContainerSize();
+      this.agent = agent;
+      this.agentActive = Boolean.TRUE.equals(check.getAgentActive());
+      this.customer = customer;
+    }
+
+    /** From loaded entities; {@code bookingOpen} also reflects cutoffs earlier in the batch. */
+    Booking(
+        Voyage voyage, boolean bookingOpen, Container container, Agent agent, Customer customer) {
+      this.voyage = voyage;
+      this.voyageNumber = voyage.getVoyageNumber();
+      this.voyageStatus = voyage.getStatus();
+      this.bookingOpen = bookingOpen;
+      this.maxCapacityTeu = voyage.getMaxCapacityTeu();
+      this.departureTime = voyage.getDepartureTime();
+      this.arrivalTime = voyage.getArrivalTime();
+      this.container = container;
+      this.containerSize = container != null ? container.getSize() : null;
+      this.agent = agent;
+      this.agentActive = agent != null && agent.isActive();
+      this.customer = customer;
+    }
   }
 }
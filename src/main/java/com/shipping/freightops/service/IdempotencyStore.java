@@ -0,0 +1,172 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.entity.IdempotencyRecord;
+import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.repository.IdempotencyRecordRepository;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Responses stored per {@code Idempotency-Key}, so a retried request is answered with the first
+ * response instead of being executed again.
+ *
+ * <p>A key is inserted into {@code idempotency_keys} in the same transaction as the work it guards,
+ * before that work starts: a concurrent retry blocks on the unique key until the first request
+ * commits (and can then replay it) or rolls back (and leaves no trace). Committed responses are
+ * also kept in a bounded in-memory cache, see {@link CacheConfig}, so most replays never reach the
+ * database; the table lets keys outlive restarts and be shared across nodes.
+ */
+@Component
+public class IdempotencyStore {
+
+  private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+  /** Longest key accepted, the width of {@code idempotency_keys.idempotency_key}. */
+  static final int MAX_KEY_LENGTH = 255;
+
+  private final Cache cache;
+  private final IdempotencyRecordRepository repository;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+
+  public IdempotencyStore(
+      CacheManager cacheManager,
+      IdempotencyRecordRepository repository,
+      ObjectMapper objectMapper,
+      @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS));
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+  }
+
+  /**
+   * The response stored for {@code key}, if the key is known and has not expired.
+   *
+   * @throws IllegalStateException if the key was used for a different request
+   */
+  public <T> Optional<T> find(String key, Object request, Class<T> responseType) {
+    String requestHash = hash(key, request);
+    Stored stored = cache.get(key, Stored.class);
+    if (stored == null || stored.isExpired()) {
+      stored =
+          repository
+              .findByIdempotencyKeyAndExpiresAtAfter(key, LocalDateTime.now())
+              .filter(record -> record.getResponseBody() != null)
+              .map(Stored::new)
+              .orElse(null);
+      if (stored == null) {
+        return Optional.empty();
+      }
+      cache.put(key, stored);
+    }
+    if (!stored.requestHash.equals(requestHash)) {
+      throw new IllegalStateException(
+          "Idempotency-Key " + key + " was already used for a different request");
+    }
+    return Optional.of(read(stored.responseBody, responseType));
+  }
+
+  /**
+   * Claims {@code key} for {@code request} in the current transaction; the returned record gets the
+   * response via {@link #complete}. An expired row for the key that has not been purged yet is
+   * deleted first. Fails with a {@code DataIntegrityViolationException} if another transaction
+   * committed the key first.
+   */
+  public IdempotencyRecord claim(String key, Object request) {
+    String requestHash = hash(key, request);
+    LocalDateTime now = LocalDateTime.now();
+    repository.deleteExpiredKey(key, now);
+    IdempotencyRecord record = new IdempotencyRecord(key, requestHash, now.plus(ttl));
+    return repository.saveAndFlush(record);
+  }
+
+  /** Stores the response of a claimed key; it is cached once the transaction commits. */
+  public void complete(IdempotencyRecord record, Object response) {
+    record.setResponseBody(write(response));
+    Stored stored = new Stored(record);
+    afterCompletion(
+        committed -> {
+          if (committed) {
+            cache.put(record.getIdempotencyKey(), stored);
+          }
+        });
+  }
+
+  /** Deletes expired keys; the cache expires its own entries. */
+  @Scheduled(
+      fixedDelayString = "${app.idempotency.purge-ms:3600000}",
+      initialDelayString = "${app.idempotency.purge-ms:3600000}")
+  @Transactional
+  public void purgeExpired() {
+    int purged = repository.deleteExpired(LocalDateTime.now());
+    if (purged > 0) {
+      log.info("Purged {} expired idempotency keys", purged);
+    }
+  }
+
+  private String hash(String key, Object request) {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new BadRequestException(
+          "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+    }
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest);
+    } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("Cannot hash request", ex);
+    }
+  }
+
+  private String write(Object response) {
+    try {
+      return objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot store response", ex);
+    }
+  }
+
+  private <T> T read(String responseBody, Class<T> responseType) {
+    try {
+      return objectMapper.readValue(responseBody, responseType);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot read stored response", ex);
+    }
+  }
+
+  /** What the cache holds per key: just enough to check and replay it without the entity. */
+  private static final class Stored {
+    final String requestHash;
+    final String responseBody;
+    final LocalDateTime expiresAt;
+
+    Stored(IdempotencyRecord record) {
+      this.requestHash = record.getRequestHash();
+      this.responseBody = record.getResponseBody();
+      this.expiresAt = record.getExpiresAt();
+    }
+
+    boolean isExpired() {
+      return !expiresAt.isAfter(LocalDateTime.now());
+    }
+  }
+}
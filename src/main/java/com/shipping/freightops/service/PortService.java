@@ -3,7 +3,8 @@ package com.shipping.freightops.service;
 import com.shipping.freightops.dto.CreatePortRequest;
 import com.shipping.freightops.entity.Port;
 import com.shipping.freightops.repository.PortRepository;
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,7 +40,10 @@ public class PortService {
   }
 
   @Transactional(readOnly = true)
-  public List<Port> getAllPorts() {
-    return portRepository.findAll();
+  public Page<Port> getAllPorts(String country, Pageable pageable) {
+    if (country != null && !country.isBlank()) {
+      return portRepository.findByCountry(country.strip(), pageable);
+    }
+    return portRepository.findAll(pageable);
   }
 }
@@ -0,0 +1,292 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.dto.PriceSuggestionResponse;
+import com.shipping.freightops.entity.RoutePriceRollup;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.SuggestionConfidence;
+import com.shipping.freightops.repository.RoutePriceRollupRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import com.shipping.freightops.stats.PriceStatistics;
+import com.shipping.freightops.stats.SeasonalSmoothingModel;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Price suggestions for voyages, computed in process from the route's price history.
+ *
+ * <p>Each route gets a {@link SeasonalSmoothingModel} per container size, fitted to its monthly
+ * {@code route_price_rollups}. The models are cached per route (see {@link CacheConfig}), evicted
+ * when the route gets a new price and refitted for all routes in parallel on a schedule, so a
+ * suggestion only evaluates a fitted model. The forecast for the voyage's departure month is then
+ * moved up or down by how full the voyage is booked against its vessel's capacity.
+ */
+@Service
+public class PriceSuggestionService {
+
+  private static final Logger log = LoggerFactory.getLogger(PriceSuggestionService.class);
+
+  /** Standard deviations either side of the suggested price: an 80 % range. */
+  private static final double RANGE_Z = 1.2816;
+
+  private final Cache cache;
+
+  /** Ticks on every eviction; {@link #evictedAt} holds its value at each route's last eviction. */
+  private final AtomicLong evictionClock = new AtomicLong();
+
+  private final ConcurrentMap<String, Long> evictedAt = new ConcurrentHashMap<>();
+  private final RoutePriceRollupRepository rollupRepository;
+  private final VoyageRepository voyageRepository;
+  private final VoyageLoadSummary loadSummary;
+  private final double smoothing;
+  private final double utilizationTarget;
+  private final double utilizationSensitivity;
+
+  public PriceSuggestionService(
+      CacheManager cacheManager,
+      RoutePriceRollupRepository rollupRepository,
+      VoyageRepository voyageRepository,
+      VoyageLoadSummary loadSummary,
+      @Value("${app.price-suggestion.smoothing:0.3}") double smoothing,
+      @Value("${app.price-suggestion.utilization-target:0.5}") double utilizationTarget,
+      @Value("${app.price-suggestion.utilization-sensitivity:0.2}") double utilizationSensitivity) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.ROUTE_PRICE_MODELS));
+    this.rollupRepository = rollupRepository;
+    this.voyageRepository = voyageRepository;
+    this.loadSummary = loadSummary;
+    this.smoothing = smoothing;
+    this.utilizationTarget = utilizationTarget;
+    this.utilizationSensitivity = utilizationSensitivity;
+  }
+
+  /**
+   * Suggested price range of {@code containerSize} on the voyage. A route without history for the
+   * container size gets a LOW suggestion without prices.
+   *
+   * @throws IllegalArgumentException if the voyage does not exist
+   */
+  @Transactional(readOnly = true)
+  public PriceSuggestionResponse suggest(Long voyageId, ContainerSize containerSize) {
+    Voyage voyage =
+        voyageRepository
+            .findById(voyageId)
+            .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+    Map<ContainerSize, SeasonalSmoothingModel> models =
+        models(voyage.getDeparturePort().getId(), voyage.getArrivalPort().getId());
+
+    int capacityTeu = voyage.getVessel().getCapacityTeu();
+    double utilization =
+        capacityTeu > 0 ? Math.min(1, (double) loadSummary.loadedTeu(voyageId) / capacityTeu) : 0;
+    BigDecimal utilizationPercent = round(utilization * 100, 1);
+
+    SeasonalSmoothingModel model = models.get(containerSize);
+    if (model == null) {
+      return PriceSuggestionResponse.withoutHistory(
+          voyage, containerSize, utilizationPercent, noHistoryReasoning(containerSize, models));
+    }
+
+    YearMonth month = YearMonth.from(voyage.getDepartureTime());
+    SeasonalSmoothingModel.Forecast forecast = model.forecast(month);
+    double utilizationFactor = 1 + utilizationSensitivity * (utilization - utilizationTarget);
+    double price = forecast.getPrice() * utilizationFactor;
+    double halfRange = RANGE_Z * forecast.getSpread();
+    long dataPoints = model.getHistory().getCount();
+    return PriceSuggestionResponse.of(
+        voyage,
+        containerSize,
+        model.getHistory(),
+        round(price * Math.max(0.01, 1 - halfRange), 2),
+        round(price, 2),
+        round(price * (1 + halfRange), 2),
+        confidence(dataPoints, forecast.getConfidence()),
+        round(forecast.getConfidence(), 2),
+        utilizationPercent,
+        reasoning(model, forecast, month, utilization, utilizationFactor));
+  }
+
+  /**
+   * Refits the models of every route with prices, in parallel, and replaces them in the cache. The
+   * rollups are copied into plain statistics first, so the parallel fits never touch entities. A
+   * route evicted while this runs keeps its eviction: its refitted model could miss the new price.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.price-suggestion.refit-ms:3600000}",
+      initialDelayString = "${app.price-suggestion.refit-ms:3600000}")
+  @Transactional(readOnly = true)
+  public void refitAll() {
+    long startedAt = evictionClock.get();
+    Map<String, List<RoutePriceRollup>> rollupsByRoute =
+        rollupRepository.findAllHistory().stream()
+            .collect(
+                Collectors.groupingBy(
+                    rollup ->
+                        routeKey(
+                            rollup.getDeparturePort().getId(), rollup.getArrivalPort().getId()),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
+    Map<String, Map<ContainerSize, TreeMap<YearMonth, PriceStatistics>>> seriesByRoute =
+        new LinkedHashMap<>();
+    rollupsByRoute.forEach((key, rollups) -> seriesByRoute.put(key, series(rollups)));
+
+    Map<String, Map<ContainerSize, SeasonalSmoothingModel>> models =
+        seriesByRoute.entrySet().parallelStream()
+            .collect(Collectors.toConcurrentMap(Map.Entry::getKey, e -> fit(e.getValue())));
+    models.forEach(
+        (key, routeModels) -> {
+          if (evictedSince(key, startedAt)) {
+            return;
+          }
+          cache.put(key, routeModels);
+          if (evictedSince(key, startedAt)) {
+            // Evicted between the check and the put
+            cache.evict(key);
+          }
+        });
+    log.debug("Refitted price models of {} routes", models.size());
+  }
+
+  /** Drops the route's models now and again once the transaction completes. */
+  void evictRoute(Long departurePortId, Long arrivalPortId) {
+    String key = routeKey(departurePortId, arrivalPortId);
+    evict(key);
+    afterCompletion(committed -> evict(key));
+  }
+
+  private void evict(String key) {
+    evictedAt.put(key, evictionClock.incrementAndGet());
+    cache.evict(key);
+  }
+
+  private boolean evictedSince(String key, long clock) {
+    return evictedAt.getOrDefault(key, 0L) > clock;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<ContainerSize, SeasonalSmoothingModel> models(
+      Long departurePortId, Long arrivalPortId) {
+    return cache.get(
+        routeKey(departurePortId, arrivalPortId),
+        () -> fit(series(rollupRepository.findHistory(departurePortId, arrivalPortId))));
+  }
+
+  /** Monthly statistics per container size, from rollups ordered by month. */
+  private static Map<ContainerSize, TreeMap<YearMonth, PriceStatistics>> series(
+      List<RoutePriceRollup> rollups) {
+    Map<ContainerSize, TreeMap<YearMonth, PriceStatistics>> months =
+        new EnumMap<>(ContainerSize.class);
+    for (RoutePriceRollup rollup : rollups) {
+      rollup.mergeInto(
+          months
+              .computeIfAbsent(rollup.getContainerSize(), size -> new TreeMap<>())
+              .computeIfAbsent(YearMonth.from(rollup.getMonth()), month -> new PriceStatistics()));
+    }
+    return months;
+  }
+
+  /** One model per container size with prices. */
+  private Map<ContainerSize, SeasonalSmoothingModel> fit(
+      Map<ContainerSize, TreeMap<YearMonth, PriceStatistics>> months) {
+    Map<ContainerSize, SeasonalSmoothingModel> models = new EnumMap<>(ContainerSize.class);
+    months.forEach(
+        (size, series) -> models.put(size, SeasonalSmoothingModel.fit(series, smoothing)));
+    return models;
+  }
+
+  private static SuggestionConfidence confidence(long dataPoints, double score) {
+    if (dataPoints >= 10 && score >= 0.5) {
+      return SuggestionConfidence.HIGH;
+    }
+    return dataPoints >= 3 ? SuggestionConfidence.MEDIUM : SuggestionConfidence.LOW;
+  }
+
+  private static String reasoning(
+      SeasonalSmoothingModel model,
+      SeasonalSmoothingModel.Forecast forecast,
+      YearMonth month,
+      double utilization,
+      double utilizationFactor) {
+    PriceStatistics history = model.getHistory();
+    StringBuilder reasoning =
+        new StringBuilder()
+            .append("Based on ")
+            .append(history.getCount())
+            .append(history.getCount() == 1 ? " price" : " prices")
+            .append(" over ")
+            .append(model.getMonthCount())
+            .append(model.getMonthCount() == 1 ? " month" : " months")
+            .append(" on this route up to ")
+            .append(model.getLastMonth())
+            .append(", averaging $")
+            .append(history.getMean())
+            .append(". ")
+            .append(month.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+            .append(" prices run ")
+            .append(percentChange(forecast.getSeasonalFactor()))
+            .append(" against the route's average; the voyage is ")
+            .append(round(utilization * 100, 1))
+            .append(" % booked, which moves the price ")
+            .append(percentChange(utilizationFactor))
+            .append(".");
+    if (history.getCount() < 3) {
+      reasoning.append(" Too few prices for a reliable range; review it manually.");
+    }
+    return reasoning.toString();
+  }
+
+  private static String noHistoryReasoning(
+      ContainerSize containerSize, Map<ContainerSize, SeasonalSmoothingModel> models) {
+    StringBuilder reasoning =
+        new StringBuilder("No ")
+            .append(containerSize)
+            .append(" prices on this route yet; price this voyage manually.");
+    models.forEach(
+        (size, model) ->
+            reasoning
+                .append(" The route has ")
+                .append(model.getHistory().getCount())
+                .append(' ')
+                .append(size)
+                .append(" prices averaging $")
+                .append(model.getHistory().getMean())
+                .append("."));
+    return reasoning.toString();
+  }
+
+  /** A factor as a signed percentage, e.g. {@code +8.0 %} for 1.08. */
+  private static String percentChange(double factor) {
+    BigDecimal percent = round((factor - 1) * 100, 1);
+    return (percent.signum() >= 0 ? "+" : "") + percent + " %";
+  }
+
+  private static BigDecimal round(double value, int scale) {
+    return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+  }
+
+  private static String routeKey(Long departurePortId, Long arrivalPortId) {
+    return departurePortId + "-" + arrivalPortId;
+  }
+}
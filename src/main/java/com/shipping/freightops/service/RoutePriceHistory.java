@@ -0,0 +1,199 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.dto.RoutePriceStatsResponse;
+import com.shipping.freightops.entity.RoutePriceRollup;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.RoutePrice;
+import com.shipping.freightops.repository.RoutePriceRollupRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code route_price_rollups} in step with {@code voyage_prices}, so historical price
+ * statistics of a route are read from one row per month and container size instead of scanning the
+ * prices joined with their voyages.
+ *
+ * <p>A new voyage price is added to its rollup in the caller's transaction, the row locked so
+ * concurrent prices on the route add up. Prices removed with their voyage stay in the rollups until
+ * the nightly job recomputes every row from the prices and repairs drift.
+ */
+@Component
+public class RoutePriceHistory {
+
+  private static final Logger log = LoggerFactory.getLogger(RoutePriceHistory.class);
+
+  private final RoutePriceRollupRepository rollupRepository;
+  private final VoyagePriceRepository voyagePriceRepository;
+  private final PortRepository portRepository;
+  private final PriceSuggestionService priceSuggestions;
+
+  public RoutePriceHistory(
+      RoutePriceRollupRepository rollupRepository,
+      VoyagePriceRepository voyagePriceRepository,
+      PortRepository portRepository,
+      PriceSuggestionService priceSuggestions) {
+    this.rollupRepository = rollupRepository;
+    this.voyagePriceRepository = voyagePriceRepository;
+    this.portRepository = portRepository;
+    this.priceSuggestions = priceSuggestions;
+  }
+
+  /**
+   * Adds a new price of {@code voyage} to its route's rollup in the current transaction and drops
+   * the route's cached price models.
+   */
+  public void record(Voyage voyage, ContainerSize containerSize, Money price) {
+    Long departurePortId = voyage.getDeparturePort().getId();
+    Long arrivalPortId = voyage.getArrivalPort().getId();
+    LocalDate month = RoutePriceRollup.monthOf(voyage.getDepartureTime());
+    lock(departurePortId, arrivalPortId, containerSize, month).record(price);
+    priceSuggestions.evictRoute(departurePortId, arrivalPortId);
+  }
+
+  /** The rollup of a route, size and month, locked; created empty first if it does not exist. */
+  private RoutePriceRollup lock(
+      Long departurePortId, Long arrivalPortId, ContainerSize containerSize, LocalDate month) {
+    return rollupRepository
+        .lockByKey(departurePortId, arrivalPortId, containerSize, month)
+        .orElseGet(
+            () -> {
+              // Inserted empty here or by a concurrent first price, then locked like any other
+              rollupRepository.insertIfAbsent(
+                  departurePortId,
+                  arrivalPortId,
+                  containerSize.name(),
+                  month,
+                  new byte[0],
+                  LocalDateTime.now());
+              return rollupRepository
+                  .lockByKey(departurePortId, arrivalPortId, containerSize, month)
+                  .orElseThrow();
+            });
+  }
+
+  /**
+   * Price statistics of a route over the departure months {@code from} to {@code to}, inclusive,
+   * for one container size or all of them if {@code containerSize} is null.
+   */
+  @Transactional(readOnly = true)
+  public RoutePriceStatsResponse getStats(
+      Long departurePortId,
+      Long arrivalPortId,
+      ContainerSize containerSize,
+      YearMonth from,
+      YearMonth to) {
+    if (from.isAfter(to)) {
+      throw new BadRequestException("from must not be after to");
+    }
+    List<RoutePriceRollup> rollups =
+        rollupRepository.findByRoute(
+            departurePortId, arrivalPortId, containerSize, from.atDay(1), to.atDay(1));
+    return RoutePriceStatsResponse.of(
+        departurePortId, arrivalPortId, containerSize, from, to, rollups);
+  }
+
+  /**
+   * Recomputes every rollup from the voyage prices and overwrites, adds or deletes the rows that
+   * drifted. The rows are locked first, so new prices wait instead of adding to a stale row; a
+   * missing row is created and locked like a first price does, so one a new price inserts meanwhile
+   * is reused. The prices are streamed in rollup order, so only the rollup being rebuilt is held in
+   * memory.
+   */
+  @Scheduled(cron = "${app.route-prices.reconcile-cron:0 45 2 * * *}")
+  @Transactional
+  public void reconcile() {
+    Map<String, RoutePriceRollup> stored = new HashMap<>();
+    for (RoutePriceRollup rollup : rollupRepository.lockAll()) {
+      stored.put(key(rollup), rollup);
+    }
+
+    RoutePriceRollup expected = null;
+    String expectedKey = null;
+    try (Stream<RoutePrice> prices = voyagePriceRepository.streamRoutePrices()) {
+      for (RoutePrice price : (Iterable<RoutePrice>) prices::iterator) {
+        LocalDate month = RoutePriceRollup.monthOf(price.getDepartureTime());
+        String priceKey =
+            key(
+                price.getDeparturePortId(),
+                price.getArrivalPortId(),
+                price.getContainerSize(),
+                month);
+        if (!priceKey.equals(expectedKey)) {
+          if (expected != null) {
+            reconcile(stored.remove(expectedKey), expected);
+          }
+          expectedKey = priceKey;
+          expected =
+              new RoutePriceRollup(
+                  portRepository.getReferenceById(price.getDeparturePortId()),
+                  portRepository.getReferenceById(price.getArrivalPortId()),
+                  price.getContainerSize(),
+                  month);
+        }
+        expected.record(Money.of(price.getBasePriceUsd()));
+      }
+    }
+    if (expected != null) {
+      reconcile(stored.remove(expectedKey), expected);
+    }
+
+    for (RoutePriceRollup rollup : stored.values()) {
+      log.warn("Deleted route price rollup {} without prices", key(rollup));
+      rollupRepository.delete(rollup);
+    }
+  }
+
+  /** Repairs one stored rollup, or adds it if {@code rollup} is null, from the recomputed one. */
+  private void reconcile(RoutePriceRollup rollup, RoutePriceRollup actual) {
+    if (rollup == null) {
+      rollup =
+          lock(
+              actual.getDeparturePort().getId(),
+              actual.getArrivalPort().getId(),
+              actual.getContainerSize(),
+              actual.getMonth());
+    }
+    if (!rollup.hasSameStatistics(actual)) {
+      log.warn(
+          "Reconciled route price rollup {} from {} to {} prices",
+          key(rollup),
+          rollup.getPriceCount(),
+          actual.getPriceCount());
+      rollup.reset(actual);
+    }
+  }
+
+  private static String key(RoutePriceRollup rollup) {
+    return key(
+        rollup.getDeparturePort().getId(),
+        rollup.getArrivalPort().getId(),
+        rollup.getContainerSize(),
+        rollup.getMonth());
+  }
+
+  private static String key(
+      Long departurePortId, Long arrivalPortId, ContainerSize containerSize, LocalDate month) {
+    return departurePortId
+        + "-"
+        + arrivalPortId
+        + "/"
+        + containerSize
+        + "/"
+        + YearMonth.from(month);
+  }
+}
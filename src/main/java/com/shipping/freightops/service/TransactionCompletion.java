@@ -0,0 +1,30 @@
+package com.shipping.freightops.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Runs in-memory bookkeeping once the surrounding transaction has committed or rolled back. */
+final class TransactionCompletion {
+
+  private TransactionCompletion() {}
+
+  /** Calls {@code callback} after completion, or right away when no transaction is active. */
+  static void afterCompletion(Callback callback) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      callback.completed(true);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            callback.completed(status == STATUS_COMMITTED);
+          }
+        });
+  }
+
+  @FunctionalInterface
+  interface Callback {
+    void completed(boolean committed);
+  }
+}
@@ -1,21 +1,31 @@
 package com.shipping.freightops.service;
 
 import com.shipping.freightops.dto.CreateVesselRequest;
+import com.shipping.freightops.dto.VesselOwnerRequest;
 import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.VesselOwner;
+import com.shipping.freightops.repository.VesselOwnerRepository;
 import com.shipping.freightops.repository.VesselRepository;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-/** Handles vessel creation and queries. */
+/** Handles vessel creation, queries and ownership. */
 @Service
 public class VesselService {
 
+  private static final BigDecimal FULL_OWNERSHIP = BigDecimal.valueOf(100);
+
   private final VesselRepository vesselRepository;
+  private final VesselOwnerRepository ownerRepository;
 
-  public VesselService(VesselRepository vesselRepository) {
+  public VesselService(VesselRepository vesselRepository, VesselOwnerRepository ownerRepository) {
     this.vesselRepository = vesselRepository;
+    this.ownerRepository = ownerRepository;
   }
 
   @Transactional
@@ -33,8 +43,11 @@ public class VesselService {
   }
 
   @Transactional(readOnly = true)
-  public List<Vessel> getAllVessels() {
-    return vesselRepository.findAll();
+  public Page<Vessel> getAllVessels(String name, Pageable pageable) {
+    if (name != null && !name.isBlank()) {
+      return vesselRepository.findByNameStartingWithIgnoreCase(name.strip(), pageable);
+    }
+    return vesselRepository.findAll(pageable);
   }
 
   @Transactional(readOnly = true)
@@ -43,4 +56,48 @@ public class VesselService {
         .findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Vessel not found: " + id));
   }
+
+  /**
+   * Adds a part owner to the vessel. The vessel row is locked while the shares are summed, so two
+   * concurrent additions cannot together push the total past 100 %.
+   *
+   * @throws IllegalStateException if the owners' shares would exceed 100 %
+   */
+  @Transactional
+  public VesselOwner addOwner(Long vesselId, @Valid VesselOwnerRequest request) {
+    Vessel vessel =
+        vesselRepository
+            .lockById(vesselId)
+            .orElseThrow(() -> new IllegalArgumentException("Vessel not found: " + vesselId));
+    BigDecimal total = ownerRepository.sumSharePercent(vesselId).add(request.getSharePercent());
+    if (total.compareTo(FULL_OWNERSHIP) > 0) {
+      throw new IllegalStateException(
+          "Owner shares of vessel " + vesselId + " would add up to " + total + "%");
+    }
+
+    VesselOwner owner = new VesselOwner();
+    owner.setVessel(vessel);
+    owner.setOwnerName(request.getOwnerName());
+    owner.setOwnerEmail(request.getOwnerEmail());
+    owner.setSharePercent(request.getSharePercent());
+    return ownerRepository.save(owner);
+  }
+
+  @Transactional(readOnly = true)
+  public List<VesselOwner> getOwners(Long vesselId) {
+    List<VesselOwner> owners = ownerRepository.findByVesselIdOrderByIdAsc(vesselId);
+    if (owners.isEmpty() && !vesselRepository.existsById(vesselId)) {
+      throw new IllegalArgumentException("Vessel not found: " + vesselId);
+    }
+    return owners;
+  }
+
+  @Transactional
+  public void removeOwner(Long vesselId, Long ownerId) {
+    VesselOwner owner =
+        ownerRepository
+            .findByIdAndVesselId(ownerId, vesselId)
+            .orElseThrow(() -> new IllegalArgumentException("Vessel owner not found: " + ownerId));
+    ownerRepository.delete(owner);
+  }
 }
@@ -0,0 +1,224 @@
+package com.shipping.freightops.service;
+
+import static com.shipping.freightops.service.TransactionCompletion.afterCompletion;
+
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory TEU load per voyage, so bookings can reserve capacity without aggregating {@code
+ * freight_orders} or locking the voyage row.
+ *
+ * <p>Each voyage has a counter of reserved TEU that is updated with compare-and-set. A reservation
+ * made inside a transaction is released again if that transaction rolls back; a cancellation is
+ * released once it commits. Counters are seeded from the {@link VoyageLoadSummary} rows at startup
+ * (or on first use) and periodically reconciled against them to repair drift, e.g. from writes made
+ * by other nodes.
+ */
+@Component
+public class VoyageCapacityTracker {
+
+  private static final Logger log = LoggerFactory.getLogger(VoyageCapacityTracker.class);
+
+  private static final List<VoyageStatus> TRACKED_VOYAGE_STATUSES =
+      List.of(VoyageStatus.PLANNED, VoyageStatus.IN_PROGRESS);
+
+  private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+  private final VoyageLoadSummary loadSummary;
+  private final VoyageRepository voyageRepository;
+  private final int autoCutoffPercent;
+
+  public VoyageCapacityTracker(
+      VoyageLoadSummary loadSummary,
+      VoyageRepository voyageRepository,
+      @Value("${app.booking.auto-cutoff-percent:95}") int autoCutoffPercent) {
+    this.loadSummary = loadSummary;
+    this.voyageRepository = voyageRepository;
+    this.autoCutoffPercent = autoCutoffPercent;
+  }
+
+  /**
+   * Reserves room for one container on a voyage for the current transaction.
+   *
+   * @return {@code true} if the voyage is at or past the auto-cutoff threshold with this
+   *     reservation, in which case the caller should close bookings if they are still open. Not
+   *     only on crossing it: reconciliation can move the counter past the threshold on its own.
+   * @throws IllegalStateException if the container does not fit in the remaining capacity
+   */
+  public boolean reserve(Long voyageId, int maxCapacityTeu, ContainerSize size) {
+    Counter counter = counterFor(voyageId);
+    int teu = size.getTeu();
+    // In flight before it is reserved, so reconcile never sees the reservation without it
+    counter.inFlightTeu.addAndGet(teu);
+    int current;
+    do {
+      current = counter.reservedTeu.get();
+      int remaining = maxCapacityTeu - current;
+      if (teu > remaining) {
+        counter.inFlightTeu.addAndGet(-teu);
+        throw new IllegalStateException(
+            "Voyage has "
+                + Math.max(remaining, 0)
+                + " TEU remaining; a "
+                + size
+                + " container needs "
+                + teu
+                + " TEU");
+      }
+    } while (!counter.reservedTeu.compareAndSet(current, current + teu));
+
+    afterCompletion(
+        committed -> {
+          if (!committed) {
+            counter.reservedTeu.addAndGet(-teu);
+          }
+          counter.inFlightTeu.addAndGet(-teu);
+          counter.completions.incrementAndGet();
+        });
+
+    int cutoffTeu = (int) Math.ceil(maxCapacityTeu * autoCutoffPercent / 100.0);
+    return current + teu >= cutoffTeu;
+  }
+
+  /** Gives back the capacity of a cancelled order once the current transaction commits. */
+  public void release(Long voyageId, ContainerSize size) {
+    afterCompletion(
+        committed -> {
+          Counter counter = counters.get(voyageId);
+          if (committed && counter != null) {
+            counter.reservedTeu.addAndGet(-size.getTeu());
+            counter.completions.incrementAndGet();
+          }
+        });
+  }
+
+  /**
+   * Forgets a voyage's counter once the current transaction commits, because its orders were all
+   * delivered or cancelled. A later booking attempt re-seeds it from the database.
+   */
+  public void releaseVoyage(Long voyageId) {
+    afterCompletion(
+        committed -> {
+          if (committed) {
+            counters.remove(voyageId);
+          }
+        });
+  }
+
+  /** Currently reserved TEU on a voyage, including bookings that have not committed yet. */
+  public int reservedTeu(Long voyageId) {
+    return counterFor(voyageId).reservedTeu.get();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void seed() {
+    reconcile();
+  }
+
+  /**
+   * Corrects every counter by its drift from the committed load in the database plus in-flight
+   * reservations.
+   *
+   * <p>Counters are snapshotted before the database is read and the drift is added with
+   * compare-and-set, so bookings reserved meanwhile are kept. A counter whose bookings completed or
+   * were released while the database was read is skipped until the next run, because the read may
+   * or may not include them.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.booking.capacity-reconcile-ms:300000}",
+      initialDelayString = "${app.booking.capacity-reconcile-ms:300000}")
+  public void reconcile() {
+    List<Long> openVoyageIds = voyageRepository.findIdsByStatusIn(TRACKED_VOYAGE_STATUSES);
+    counters.keySet().retainAll(new HashSet<>(openVoyageIds));
+    Map<Long, Snapshot> snapshots = new HashMap<>();
+    for (Long voyageId : openVoyageIds) {
+      Counter counter = counters.computeIfAbsent(voyageId, id -> new Counter(0));
+      snapshots.put(voyageId, new Snapshot(counter));
+    }
+
+    Map<Long, Integer> committedTeu = loadSummary.loadedTeu(openVoyageIds);
+
+    snapshots.forEach(
+        (voyageId, snapshot) -> {
+          Counter counter = snapshot.counter;
+          if (counter.completions.get() != snapshot.completions) {
+            log.debug(
+                "Skipped reconciling voyage {}; bookings completed during the read", voyageId);
+            return;
+          }
+          int drift =
+              committedTeu.getOrDefault(voyageId, 0) + snapshot.inFlightTeu - snapshot.reservedTeu;
+          if (drift == 0) {
+            return;
+          }
+          int current;
+          do {
+            current = counter.reservedTeu.get();
+          } while (!counter.reservedTeu.compareAndSet(current, current + drift));
+          log.info(
+              "Reconciled TEU load of voyage {} from {} to {}", voyageId, current, current + drift);
+        });
+  }
+
+  /** The voyage's counter; a new one is seeded outside the map, so no bin is held during I/O. */
+  private Counter counterFor(Long voyageId) {
+    Counter counter = counters.get(voyageId);
+    if (counter != null) {
+      return counter;
+    }
+    Counter seeded = new Counter(loadSummary.loadedTeu(voyageId));
+    counter = counters.putIfAbsent(voyageId, seeded);
+    return counter != null ? counter : seeded;
+  }
+
+  private static final class Counter {
+    /** Committed plus in-flight TEU; the value bookings compare-and-set against. */
+    final AtomicInteger reservedTeu;
+
+    /** TEU reserved by transactions that have not completed yet. */
+    final AtomicInteger inFlightTeu = new AtomicInteger();
+
+    /** Bumped after every completed reservation or committed release. */
+    final AtomicLong completions = new AtomicLong();
+
+    Counter(int committedTeu) {
+      this.reservedTeu = new AtomicInteger(committedTeu);
+    }
+  }
+
+  /**
+   * A counter as seen before the database read. {@code completions} is read first and {@code
+   * reservedTeu} before {@code inFlightTeu}: a reservation is in flight before it is reserved and
+   * reserved until it is no longer in flight, so a racing one is at worst counted twice, never
+   * missed.
+   */
+  private static final class Snapshot {
+    final Counter counter;
+    final long completions;
+    final int reservedTeu;
+    final int inFlightTeu;
+
+    Snapshot(Counter counter) {
+      this.counter = counter;
+      this.completions = counter.completions.get();
+      this.reservedTeu = counter.reservedTeu.get();
+      this.inFlightTeu = counter.inFlightTeu.get();
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.dto.VoyageCostRequest;
+import com.shipping.freightops.dto.VoyageFinancialSummaryResponse;
+import com.shipping.freightops.entity.OwnerProfitShare;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageCost;
+import com.shipping.freightops.entity.VoyageFinancialSummary;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.VesselOwnerRepository;
+import com.shipping.freightops.repository.VoyageCostRepository;
+import com.shipping.freightops.repository.VoyageFinancialSummaryRepository;
+import com.shipping.freightops.repository.VoyageFinancials;
+import com.shipping.freightops.repository.VoyageRepository;
+import jakarta.validation.Valid;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Voyage costs and the financial summary of completed voyages.
+ *
+ * <p>A completed voyage's delivered orders no longer change, so its summary is computed once, with
+ * a single aggregate over its orders and costs, when the voyage completes; reads are served from
+ * that {@link VoyageFinancialSummary} snapshot. Only a cost added afterwards replaces it.
+ */
+@Service
+public class VoyageFinanceService {
+
+  private final VoyageRepository voyageRepository;
+  private final VoyageCostRepository costRepository;
+  private final VoyageFinancialSummaryRepository summaryRepository;
+  private final VesselOwnerRepository ownerRepository;
+
+  public VoyageFinanceService(
+      VoyageRepository voyageRepository,
+      VoyageCostRepository costRepository,
+      VoyageFinancialSummaryRepository summaryRepository,
+      VesselOwnerRepository ownerRepository) {
+    this.voyageRepository = voyageRepository;
+    this.costRepository = costRepository;
+    this.summaryRepository = summaryRepository;
+    this.ownerRepository = ownerRepository;
+  }
+
+  /**
+   * Adds a cost line. On a completed voyage this is a late cost and the summary is recomputed; the
+   * voyage row is locked so concurrent late costs replace the snapshot one after another.
+   */
+  @Transactional
+  public VoyageCost addCost(Long voyageId, @Valid VoyageCostRequest request) {
+    Voyage voyage =
+        voyageRepository
+            .lockById(voyageId)
+            .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+    VoyageCost cost =
+        costRepository.save(
+            new VoyageCost(voyage, request.getDescription(), request.getAmountUsd()));
+    if (voyage.getStatus() == VoyageStatus.COMPLETED) {
+      snapshot(voyage);
+    }
+    return cost;
+  }
+
+  @Transactional(readOnly = true)
+  public List<VoyageCost> getCosts(Long voyageId) {
+    List<VoyageCost> costs = costRepository.findByVoyageIdOrderByIdAsc(voyageId);
+    if (costs.isEmpty() && !voyageRepository.existsById(voyageId)) {
+      throw new IllegalArgumentException("Voyage not found");
+    }
+    return costs;
+  }
+
+  /**
+   * The stored summary of a completed voyage. Voyages completed before summaries were kept get
+   * theirs computed on first read, with the voyage row locked so concurrent first reads store it
+   * once: the later ones wait and then find it.
+   *
+   * @throws IllegalStateException if the voyage is not completed
+   */
+  @Transactional
+  public VoyageFinancialSummaryResponse getSummary(Long voyageId) {
+    VoyageFinancialSummary summary = summaryRepository.findByVoyageId(voyageId).orElse(null);
+    if (summary == null) {
+      Voyage voyage =
+          voyageRepository
+              .lockById(voyageId)
+              .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+      requireCompleted(voyage);
+      summary = summaryRepository.findByVoyageId(voyageId).orElseGet(() -> snapshot(voyage));
+    }
+    requireCompleted(summary.getVoyage());
+    return VoyageFinancialSummaryResponse.fromEntity(summary);
+  }
+
+  private static void requireCompleted(Voyage voyage) {
+    if (voyage.getStatus() != VoyageStatus.COMPLETED) {
+      throw new IllegalStateException(
+          "Financial summary is only available for completed voyages; voyage "
+              + voyage.getVoyageNumber()
+              + " is "
+              + voyage.getStatus());
+    }
+  }
+
+  /**
+   * Computes the voyage's summary from its DELIVERED orders, its costs and the vessel's current
+   * owners, replacing any earlier snapshot. Runs in the caller's transaction, after the orders have
+   * been moved.
+   */
+  VoyageFinancialSummary snapshot(Voyage voyage) {
+    VoyageFinancials totals = summaryRepository.aggregate(voyage.getId(), OrderStatus.DELIVERED);
+    Money revenue = Money.of(totals.getRevenueUsd());
+    Money costs = Money.of(totals.getCostsUsd());
+    List<OwnerProfitShare> owners =
+        ownerRepository.findByVesselIdOrderByIdAsc(voyage.getVessel().getId()).stream()
+            .map(
+                owner ->
+                    new OwnerProfitShare(
+                        owner.getOwnerName(),
+                        Money.toBasisPoints(owner.getSharePercent()),
+                        revenue,
+                        costs))
+            .toList();
+
+    summaryRepository.deleteByVoyageId(voyage.getId());
+    return summaryRepository.save(
+        new VoyageFinancialSummary(voyage, revenue, costs, totals.getOrderCount(), owners));
+  }
+}
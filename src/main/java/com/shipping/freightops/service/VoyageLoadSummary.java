@@ -0,0 +1,186 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.dto.VoyageLoadResponse;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageLoad;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.VoyageContainerCount;
+import com.shipping.freightops.repository.VoyageLoadRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code voyage_loads} in step with the voyages' active orders, so a voyage's load is read
+ * from one row instead of aggregating {@code freight_orders}.
+ *
+ * <p>Bookings and cancellations add their TEU and container delta to the row in the caller's
+ * transaction, so the summary commits or rolls back together with the orders. Voyages without a row
+ * yet get one computed from their orders on first use, and a nightly job compares every row with
+ * the full aggregate and repairs drift, e.g. from orders changed outside the service.
+ */
+@Component
+public class VoyageLoadSummary {
+
+  private static final Logger log = LoggerFactory.getLogger(VoyageLoadSummary.class);
+
+  private final VoyageLoadRepository loadRepository;
+  private final FreightOrderRepository orderRepository;
+  private final VoyageRepository voyageRepository;
+
+  public VoyageLoadSummary(
+      VoyageLoadRepository loadRepository,
+      FreightOrderRepository orderRepository,
+      VoyageRepository voyageRepository) {
+    this.loadRepository = loadRepository;
+    this.orderRepository = orderRepository;
+    this.voyageRepository = voyageRepository;
+  }
+
+  /** Starts an empty summary for a newly created voyage. */
+  public void track(Voyage voyage) {
+    loadRepository.save(new VoyageLoad(voyage, 0, 0));
+  }
+
+  /** Adds one booked container to the voyage's load in the current transaction. */
+  public void add(Long voyageId, ContainerSize size) {
+    add(voyageId, size.getTeu(), 1);
+  }
+
+  /**
+   * Adds {@code teu} and {@code containers} to the voyage's load in the current transaction, e.g.
+   * the sum of a batch's bookings; negative values take load off.
+   */
+  public void add(Long voyageId, int teu, int containers) {
+    LocalDateTime now = LocalDateTime.now();
+    if (loadRepository.addLoad(voyageId, teu, containers, now) == 0 && !create(voyageId)) {
+      // A concurrent transaction created the row first, from an aggregate without these orders
+      loadRepository.addLoad(voyageId, teu, containers, now);
+    }
+  }
+
+  /** Takes a cancelled container off the voyage's load in the current transaction. */
+  public void remove(Long voyageId, ContainerSize size) {
+    add(voyageId, -size.getTeu(), -1);
+  }
+
+  /** Empties the voyage's load, once its orders have all been delivered or cancelled. */
+  public void clear(Long voyageId) {
+    loadRepository.clearLoad(voyageId, LocalDateTime.now());
+  }
+
+  /**
+   * The voyage's current load, as committed.
+   *
+   * @throws IllegalArgumentException if the voyage does not exist
+   */
+  @Transactional
+  public VoyageLoadResponse get(Long voyageId) {
+    VoyageLoad load =
+        loadRepository
+            .findByVoyageId(voyageId)
+            .orElseGet(
+                () -> {
+                  if (!voyageRepository.existsById(voyageId)) {
+                    throw new IllegalArgumentException("Voyage not found");
+                  }
+                  // Created here or by a concurrent first read; either way it is there now
+                  create(voyageId);
+                  return loadRepository.findByVoyageId(voyageId).orElseThrow();
+                });
+    return VoyageLoadResponse.of(load);
+  }
+
+  /** Committed TEU on the voyage; aggregated from its orders if it has no row yet. */
+  @Transactional(readOnly = true)
+  public int loadedTeu(Long voyageId) {
+    return loadRepository.findLoadTeu(voyageId).orElseGet(() -> aggregate(voyageId).loadTeu);
+  }
+
+  /** Committed TEU per voyage, like {@link #loadedTeu(Long)}, read in one query. */
+  @Transactional(readOnly = true)
+  public Map<Long, Integer> loadedTeu(Collection<Long> voyageIds) {
+    Map<Long, Integer> teuByVoyage = new HashMap<>();
+    for (VoyageLoad load : loadRepository.findByVoyageIdIn(voyageIds)) {
+      teuByVoyage.put(load.getVoyage().getId(), load.getLoadTeu());
+    }
+    for (Long voyageId : voyageIds) {
+      teuByVoyage.computeIfAbsent(voyageId, id -> aggregate(id).loadTeu);
+    }
+    return teuByVoyage;
+  }
+
+  /**
+   * Recomputes every voyage's load from its orders and overwrites the rows that drifted. The rows
+   * are locked first, so bookings wait instead of applying a delta to a stale figure.
+   */
+  @Scheduled(cron = "${app.voyage-load.reconcile-cron:0 30 2 * * *}")
+  @Transactional
+  public void reconcile() {
+    List<VoyageLoad> loads = loadRepository.lockAll();
+    Map<Long, Aggregate> actual = new HashMap<>();
+    for (VoyageContainerCount count : orderRepository.countContainersByVoyage(OrderStatus.ACTIVE)) {
+      actual.computeIfAbsent(count.getVoyageId(), id -> new Aggregate()).add(count);
+    }
+
+    for (VoyageLoad load : loads) {
+      Long voyageId = load.getVoyage().getId();
+      Aggregate expected = actual.getOrDefault(voyageId, new Aggregate());
+      if (load.getLoadTeu() != expected.loadTeu
+          || load.getContainerCount() != expected.containerCount) {
+        log.warn(
+            "Reconciled load of voyage {} from {} TEU / {} containers to {} TEU / {} containers",
+            voyageId,
+            load.getLoadTeu(),
+            load.getContainerCount(),
+            expected.loadTeu,
+            expected.containerCount);
+        load.reset(expected.loadTeu, expected.containerCount);
+      }
+    }
+    for (Voyage voyage : loadRepository.findVoyagesWithoutLoad()) {
+      Aggregate expected = actual.getOrDefault(voyage.getId(), new Aggregate());
+      loadRepository.insertIfAbsent(
+          voyage.getId(), expected.loadTeu, expected.containerCount, LocalDateTime.now());
+    }
+  }
+
+  /**
+   * Inserts the voyage's row from the aggregate of its active orders, which includes this
+   * transaction's flushed ones; returns {@code false} if another transaction created it first.
+   */
+  private boolean create(Long voyageId) {
+    Aggregate aggregate = aggregate(voyageId);
+    return loadRepository.insertIfAbsent(
+            voyageId, aggregate.loadTeu, aggregate.containerCount, LocalDateTime.now())
+        == 1;
+  }
+
+  private Aggregate aggregate(Long voyageId) {
+    Aggregate aggregate = new Aggregate();
+    orderRepository.countContainersOnVoyage(voyageId, OrderStatus.ACTIVE).forEach(aggregate::add);
+    return aggregate;
+  }
+
+  /** TEU and containers of a voyage's active orders, summed from per-size counts. */
+  private static final class Aggregate {
+    int loadTeu;
+    int containerCount;
+
+    void add(VoyageContainerCount count) {
+      int containers = Math.toIntExact(count.getContainerCount());
+      loadTeu += containers * count.getContainerSize().getTeu();
+      containerCount += containers;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.dto.VoyagePriceResponse;
+import com.shipping.freightops.entity.VoyagePrice;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.repository.VoyagePriceRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Base prices keyed by voyage and container size, so bookings and rate quotes rarely read {@code
+ * voyage_prices}.
+ *
+ * <p>A miss loads every price of the voyage in one query and caches each container size, including
+ * sizes without a price. Evictions inside a transaction are repeated when it completes, so an entry
+ * cached from the old or the uncommitted row while the price was being written does not survive.
+ * Size and expiry are configured in {@link CacheConfig}.
+ */
+@Component
+public class VoyagePriceCache {
+
+  private final Cache cache;
+  private final VoyagePriceRepository voyagePriceRepository;
+
+  public VoyagePriceCache(CacheManager cacheManager, VoyagePriceRepository voyagePriceRepository) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.VOYAGE_PRICES));
+    this.voyagePriceRepository = voyagePriceRepository;
+  }
+
+  /** The price for one container size on a voyage, if one is defined. */
+  public Optional<VoyagePriceResponse> find(Long voyageId, ContainerSize size) {
+    return Optional.ofNullable(findByVoyages(List.of(voyageId)).get(voyageId).get(size));
+  }
+
+  /** All prices defined for a voyage, ordered by container size. */
+  public List<VoyagePriceResponse> findByVoyage(Long voyageId) {
+    return new ArrayList<>(findByVoyages(List.of(voyageId)).get(voyageId).values());
+  }
+
+  /**
+   * Prices of several voyages by container size. Voyages missing from the cache are loaded together
+   * with one {@code IN} query; every requested voyage has an entry, empty if it has no prices.
+   */
+  public Map<Long, Map<ContainerSize, VoyagePriceResponse>> findByVoyages(
+      Collection<Long> voyageIds) {
+    Map<Long, Map<ContainerSize, VoyagePriceResponse>> prices = new HashMap<>();
+    Set<Long> misses = new LinkedHashSet<>();
+    for (Long voyageId : voyageIds) {
+      Map<ContainerSize, VoyagePriceResponse> cached = lookup(voyageId);
+      if (cached == null) {
+        misses.add(voyageId);
+      } else {
+        prices.put(voyageId, cached);
+      }
+    }
+    if (misses.isEmpty()) {
+      return prices;
+    }
+
+    for (Long voyageId : misses) {
+      prices.put(voyageId, new EnumMap<>(ContainerSize.class));
+    }
+    for (VoyagePrice price : voyagePriceRepository.findByVoyageIdIn(misses)) {
+      prices
+          .get(price.getVoyage().getId())
+          .put(price.getContainerSize(), VoyagePriceResponse.fromEntity(price));
+    }
+    for (Long voyageId : misses) {
+      Map<ContainerSize, VoyagePriceResponse> loaded = prices.get(voyageId);
+      for (ContainerSize size : ContainerSize.values()) {
+        cache.put(new Key(voyageId, size), loaded.get(size));
+      }
+    }
+    return prices;
+  }
+
+  /** Drops one cached price; call when it is created or changed. */
+  public void evict(Long voyageId, ContainerSize size) {
+    Key key = new Key(voyageId, size);
+    cache.evict(key);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              cache.evict(key);
+            }
+          });
+    }
+  }
+
+  /** Drops every cached price of a voyage; call when the voyage is deleted. */
+  public void evictVoyage(Long voyageId) {
+    for (ContainerSize size : ContainerSize.values()) {
+      evict(voyageId, size);
+    }
+  }
+
+  /** Cached prices of a voyage, or {@code null} unless every container size is cached. */
+  private Map<ContainerSize, VoyagePriceResponse> lookup(Long voyageId) {
+    Map<ContainerSize, VoyagePriceResponse> prices = new EnumMap<>(ContainerSize.class);
+    for (ContainerSize size : ContainerSize.values()) {
+      Cache.ValueWrapper entry = cache.get(new Key(voyageId, size));
+      if (entry == null) {
+        return null;
+      }
+      if (entry.get() != null) {
+        prices.put(size, (VoyagePriceResponse) entry.get());
+      }
+    }
+    return prices;
+  }
+
+  /** Cache key; container sizes without a price are cached as {@code null}. */
+  private static final class Key {
+    private final Long voyageId;
+    private final ContainerSize size;
+
+    Key(Long voyageId, ContainerSize size) {
+      this.voyageId = voyageId;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key other && voyageId.equals(other.voyageId) && size == other.size;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * voyageId.hashCode() + size.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return voyageId + ":" + size;
+    }
+  }
+}
@@ -1,23 +1,37 @@
 package com.shipping.freightops.service;
 
 import com.shipping.freightops.dto.CreateVoyageRequest;
+import com.shipping.freightops.dto.VoyageLoadResponse;
 import com.shipping.freightops.dto.VoyagePriceRequest;
+import com.shipping.freightops.dto.VoyagePriceResponse;
+import com.shipping.freightops.dto.VoyageResponse;
+import com.shipping.freightops.dto.VoyageStatusChangeResponse;
 import com.shipping.freightops.entity.Port;
 import com.shipping.freightops.entity.Vessel;
 import com.shipping.freightops.entity.Voyage;
 import com.shipping.freightops.entity.VoyagePrice;
+import com.shipping.freightops.enums.OrderStatus;
 import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.exception.VersionConflictException;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
 import com.shipping.freightops.repository.PortRepository;
 import com.shipping.freightops.repository.VesselRepository;
 import com.shipping.freightops.repository.VoyagePriceRepository;
 import com.shipping.freightops.repository.VoyageRepository;
+import com.shipping.freightops.repository.VoyageSpecifications;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +41,16 @@ public class VoyageService {
   private final VesselRepository vesselRepository;
   private final PortRepository portRepository;
   private final VoyagePriceRepository voyagePriceRepository;
+  private final VoyagePriceCache voyagePriceCache;
+  private final FreightOrderRepository orderRepository;
+  private final OrderStatusTransitionRepository transitionRepository;
+  private final VoyageCapacityTracker capacityTracker;
+  private final ContainerOccupancyIndex occupancyIndex;
+  private final VoyageLoadSummary loadSummary;
+  private final VoyageFinanceService financeService;
+  private final AgentCommissionService commissionService;
+  private final RoutePriceHistory priceHistory;
+  private final PriceSuggestionService priceSuggestions;
 
   private Voyage mapCreateVoyageRequestToVoyage(CreateVoyageRequest voyageRequest) {
     Voyage voyage = new Voyage();
@@ -64,19 +88,54 @@ public class VoyageService {
       VoyageRepository voyageRepository,
       VesselRepository vesselRepository,
       PortRepository portRepository,
-      VoyagePriceRepository voyagePriceRepository) {
+      VoyagePriceRepository voyagePriceRepository,
+      VoyagePriceCache voyagePriceCache,
+      FreightOrderRepository orderRepository,
+      OrderStatusTransitionRepository transitionRepository,
+      VoyageCapacityTracker capacityTracker,
+      ContainerOccupancyIndex occupancyIndex,
+      VoyageLoadSummary loadSummary,
+      VoyageFinanceService financeService,
+      AgentCommissionService commissionService,
+      RoutePriceHistory priceHistory,
+      PriceSuggestionService priceSuggestions) {
     this.voyageRepository = voyageRepository;
     this.vesselRepository = vesselRepository;
     this.portRepository = portRepository;
     this.voyagePriceRepository = voyagePriceRepository;
+    this.voyagePriceCache = voyagePriceCache;
+    this.orderRepository = orderRepository;
+    this.transitionRepository = transitionRepository;
+    this.capacityTracker = capacityTracker;
+    this.occupancyIndex = occupancyIndex;
+    this.loadSummary = loadSummary;
+    this.financeService = financeService;
+    this.commissionService = commissionService;
+    this.priceHistory = priceHistory;
+    this.priceSuggestions = priceSuggestions;
   }
 
-  public List<Voyage> getAll() {
-    return voyageRepository.findAll();
-  }
-
-  public List<Voyage> getAllByStatus(VoyageStatus status) {
-    return voyageRepository.findAllByStatus(status);
+  /**
+   * One page of voyages matching the given filters; {@code null} filters are ignored. The departure
+   * window is {@code [departureFrom, departureTo)}.
+   */
+  @Transactional(readOnly = true)
+  public Page<Voyage> search(
+      VoyageStatus status,
+      Long departurePortId,
+      Long arrivalPortId,
+      LocalDateTime departureFrom,
+      LocalDateTime departureTo,
+      Pageable pageable) {
+    if (departureFrom != null && departureTo != null && !departureFrom.isBefore(departureTo)) {
+      throw new BadRequestException("departureFrom must be before departureTo");
+    }
+    Specification<Voyage> filters =
+        Specification.where(VoyageSpecifications.hasStatus(status))
+            .and(VoyageSpecifications.departsFrom(departurePortId))
+            .and(VoyageSpecifications.arrivesAt(arrivalPortId))
+            .and(VoyageSpecifications.departsBetween(departureFrom, departureTo));
+    return voyageRepository.findAll(filters, pageable);
   }
 
   public Voyage getById(Long id) {
@@ -85,27 +144,149 @@ public class VoyageService {
         .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
   }
 
+  /** The voyage's booked load, read from its {@link VoyageLoadSummary} row. */
+  public VoyageLoadResponse getLoad(Long voyageId) {
+    return loadSummary.get(voyageId);
+  }
+
   @Transactional
   public Voyage addVoyage(@Valid CreateVoyageRequest voyageRequest) {
-    Voyage voyage = mapCreateVoyageRequestToVoyage(voyageRequest);
-    return voyageRepository.save(voyage);
+    Voyage voyage = voyageRepository.save(mapCreateVoyageRequestToVoyage(voyageRequest));
+    loadSummary.track(voyage);
+    return voyage;
+  }
+
+  @Transactional
+  public VoyageStatusChangeResponse updateStatus(VoyageStatus status, Long voyageId) {
+    return updateStatus(status, voyageId, null);
   }
 
-  public Voyage updateStatus(VoyageStatus status, Long voyageId) {
+  /**
+   * Sets the status if the voyage is still at {@code expectedVersion}; {@code null} skips the
+   * check. A concurrent update committed after the read still fails on the {@code @Version} column.
+   * The voyage's active orders follow in the same transaction, see {@link #orderStatusFor}; a
+   * completed voyage also gets its financial summary and agent commissions computed, see {@link
+   * VoyageFinanceService} and {@link AgentCommissionService}.
+   *
+   * @throws VersionConflictException if the voyage has moved past {@code expectedVersion}
+   * @throws IllegalStateException if the voyage cannot move to {@code status}, see {@link
+   *     VoyageStatus#canMoveTo}
+   */
+  @Transactional
+  public VoyageStatusChangeResponse updateStatus(
+      VoyageStatus status, Long voyageId, Long expectedVersion) {
     Voyage voyage =
         voyageRepository
             .findById(voyageId)
             .orElseThrow(() -> new IllegalArgumentException("voyage not found"));
+    checkVersion(voyage, expectedVersion);
+    if (!voyage.getStatus().canMoveTo(status)) {
+      throw new IllegalStateException(
+          "Voyage "
+              + voyage.getVoyageNumber()
+              + " cannot move from "
+              + voyage.getStatus()
+              + " to "
+              + status);
+    }
     voyage.setStatus(status);
+    // Write the voyage first: that takes its row lock and fails a lost update before the cascade
+    voyage = voyageRepository.saveAndFlush(voyage);
+    int transitioned = cascadeToOrders(voyage);
+    if (status == VoyageStatus.COMPLETED) {
+      financeService.snapshot(voyage);
+      commissionService.rollUp(voyage);
+    }
+    return new VoyageStatusChangeResponse(voyage, orderStatusFor(status), transitioned);
+  }
+
+  /** Status a voyage status moves its active orders to, or {@code null} to leave them alone. */
+  static OrderStatus orderStatusFor(VoyageStatus status) {
+    return switch (status) {
+      case PLANNED -> null;
+      case IN_PROGRESS -> OrderStatus.IN_TRANSIT;
+      case COMPLETED -> OrderStatus.DELIVERED;
+      case CANCELLED -> OrderStatus.CANCELLED;
+    };
+  }
+
+  /**
+   * Moves the voyage's active orders to the matching status without loading them: after locking the
+   * rows, one INSERT ... SELECT logs a transition per order and one UPDATE moves them. Delivered
+   * and cancelled orders leave the voyage's load and give back their container windows on commit.
+   *
+   * @return the number of orders moved
+   */
+  private int cascadeToOrders(Voyage voyage) {
+    OrderStatus target = orderStatusFor(voyage.getStatus());
+    if (target == null) {
+      return 0;
+    }
+    EnumSet<OrderStatus> from = EnumSet.copyOf(OrderStatus.ACTIVE);
+    from.remove(target);
+    List<Long> containerIds = orderRepository.lockContainerIds(voyage.getId(), from);
+    if (containerIds.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    String reason = "Voyage " + voyage.getVoyageNumber() + " " + voyage.getStatus();
+    transitionRepository.logVoyageTransitions(voyage.getId(), from, target, reason, now);
+    int transitioned = orderRepository.transitionOrders(voyage.getId(), from, target, now);
+
+    if (!OrderStatus.ACTIVE.contains(target)) {
+      capacityTracker.releaseVoyage(voyage.getId());
+      loadSummary.clear(voyage.getId());
+      occupancyIndex.release(containerIds, voyage.getId());
+    }
+    return transitioned;
+  }
+
+  /** Manually opens or closes bookings, overriding the capacity auto-cutoff. */
+  @Transactional
+  public Voyage updateBookingOpen(Long voyageId, boolean open) {
+    return updateBookingOpen(voyageId, open, null);
+  }
+
+  /** Like {@link #updateBookingOpen(Long, boolean)}, if the voyage is still at the version. */
+  @Transactional
+  public Voyage updateBookingOpen(Long voyageId, boolean open, Long expectedVersion) {
+    Voyage voyage =
+        voyageRepository
+            .findById(voyageId)
+            .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+    checkVersion(voyage, expectedVersion);
+    voyage.setBookingOpen(open);
     return voyageRepository.save(voyage);
   }
 
+  private static void checkVersion(Voyage voyage, Long expectedVersion) {
+    if (expectedVersion != null && !expectedVersion.equals(voyage.getVersion())) {
+      throw new VersionConflictException(
+          "Voyage " + voyage.getId() + " was modified since version " + expectedVersion,
+          new VoyageResponse(voyage),
+          voyage.getVersion());
+    }
+  }
+
+  /**
+   * Deletes the voyage and drops what is cached for it, including its route's price models: its
+   * prices stay in the route's rollups until {@link RoutePriceHistory#reconcile} removes them.
+   */
+  @Transactional
   public void delete(Long voyageId) {
-    boolean exists = voyageRepository.existsById(voyageId);
-    if (!exists) throw new IllegalArgumentException("Voyage not found");
-    voyageRepository.deleteById(voyageId);
+    Voyage voyage =
+        voyageRepository
+            .findById(voyageId)
+            .orElseThrow(() -> new IllegalArgumentException("Voyage not found"));
+    voyageRepository.delete(voyage);
+    voyagePriceCache.evictVoyage(voyageId);
+    commissionService.evict(voyageId);
+    priceSuggestions.evictRoute(voyage.getDeparturePort().getId(), voyage.getArrivalPort().getId());
   }
 
+  /**
+   * Adds a price for one container size; it also goes into its route's {@link RoutePriceHistory}.
+   */
   @Transactional
   public VoyagePrice createVoyagePrice(
       Long voyageId, @Valid VoyagePriceRequest voyagePriceRequest) {
@@ -125,14 +306,27 @@ public class VoyageService {
     voyagePrice.setContainerSize(voyagePriceRequest.getContainerSize());
     voyagePrice.setBasePriceUsd(voyagePriceRequest.getBasePriceUsd());
 
-    return voyagePriceRepository.save(voyagePrice);
+    VoyagePrice saved = voyagePriceRepository.save(voyagePrice);
+    voyagePriceCache.evict(voyageId, saved.getContainerSize());
+    priceHistory.record(voyage, saved.getContainerSize(), Money.of(saved.getBasePriceUsd()));
+    return saved;
   }
 
+  /**
+   * Prices of a voyage ordered by container size, served from {@link VoyagePriceCache}. A voyage
+   * has at most one price per container size, so the page is cut from the full list in memory.
+   */
   @Transactional(readOnly = true)
-  public Page<VoyagePrice> getAllPricesByVoyageId(Long voyageId, Pageable pageable) {
-    if (!voyageRepository.existsById(voyageId)) {
+  public Page<VoyagePriceResponse> getAllPricesByVoyageId(Long voyageId, Pageable pageable) {
+    List<VoyagePriceResponse> prices = voyagePriceCache.findByVoyage(voyageId);
+    if (prices.isEmpty() && !voyageRepository.existsById(voyageId)) {
       throw new IllegalArgumentException("Voyage not found");
     }
-    return voyagePriceRepository.findByVoyageId(voyageId, pageable);
+    if (pageable.isUnpaged()) {
+      return new PageImpl<>(prices);
+    }
+    int from = (int) Math.min(pageable.getOffset(), prices.size());
+    int to = Math.min(from + pageable.getPageSize(), prices.size());
+    return new PageImpl<>(prices.subList(from, to), pageable, prices.size());
   }
 }
@@ -0,0 +1,98 @@
+package com.shipping.freightops.stats;
+
+import com.shipping.freightops.money.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Count, mean, deviation, extremes and percentiles of a set of prices, merged from running sums
+ * such as {@code route_price_rollups} rows. Amounts are in cents; results in dollars rounded
+ * HALF_UP to cents. Percentiles come from a {@link QuantileSketch} and are clamped to the exact min
+ * and max.
+ */
+public final class PriceStatistics {
+
+  private long count;
+  private long sumCents;
+  private double sumSquares;
+  private long minCents = Long.MAX_VALUE;
+  private long maxCents = Long.MIN_VALUE;
+  private final QuantileSketch sketch = new QuantileSketch();
+
+  /** Merges the statistics of {@code count} prices; {@code sumSquares} is in cents squared. */
+  public void merge(
+      long count,
+      long sumCents,
+      double sumSquares,
+      long minCents,
+      long maxCents,
+      QuantileSketch sketch) {
+    if (count == 0) {
+      return;
+    }
+    this.count += count;
+    this.sumCents = Math.addExact(this.sumCents, sumCents);
+    this.sumSquares += sumSquares;
+    this.minCents = Math.min(this.minCents, minCents);
+    this.maxCents = Math.max(this.maxCents, maxCents);
+    this.sketch.merge(sketch);
+  }
+
+  /** Merges all prices of {@code other}. */
+  public void merge(PriceStatistics other) {
+    merge(
+        other.count,
+        other.sumCents,
+        other.sumSquares,
+        other.minCents,
+        other.maxCents,
+        other.sketch);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /** Mean price, or {@code null} without prices. */
+  public BigDecimal getMean() {
+    if (count == 0) {
+      return null;
+    }
+    return BigDecimal.valueOf(sumCents)
+        .divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_UP)
+        .movePointLeft(2);
+  }
+
+  public BigDecimal getMin() {
+    return count == 0 ? null : Money.ofCents(minCents).toBigDecimal();
+  }
+
+  public BigDecimal getMax() {
+    return count == 0 ? null : Money.ofCents(maxCents).toBigDecimal();
+  }
+
+  /** Population standard deviation, or {@code null} without prices. */
+  public BigDecimal getStandardDeviation() {
+    if (count == 0) {
+      return null;
+    }
+    double mean = (double) sumCents / count;
+    double variance = Math.max(0, sumSquares / count - mean * mean);
+    return toDollars(Math.sqrt(variance) / 100);
+  }
+
+  /**
+   * Price at quantile {@code q} within {@link QuantileSketch#RELATIVE_ACCURACY}, or {@code null}.
+   */
+  public BigDecimal getQuantile(double q) {
+    if (sketch.isEmpty()) {
+      return null;
+    }
+    double value = sketch.quantile(q);
+    return toDollars(Math.min(Math.max(value, minCents / 100.0), maxCents / 100.0));
+  }
+
+  private static BigDecimal toDollars(double value) {
+    return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,142 @@
+package com.shipping.freightops.stats;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A mergeable quantile sketch of positive values with a fixed relative accuracy.
+ *
+ * <p>Values are counted in logarithmic buckets: bucket {@code i} holds the values in {@code
+ * (gamma^(i-1), gamma^i]} with {@code gamma = (1 + a) / (1 - a)}, so any quantile is answered
+ * within {@link #RELATIVE_ACCURACY} of a value of that rank. Prices from one cent to the largest
+ * {@code numeric(10, 2)} fit in about 1,200 buckets, and a route's prices cluster in a few dozen of
+ * them. Two sketches merge by adding bucket counts, which is what lets monthly rollups answer any
+ * window of months. {@link #toBytes()} stores the occupied buckets as delta-encoded varints, a few
+ * bytes each.
+ */
+public final class QuantileSketch {
+
+  /** Largest relative error of a quantile: 1 %. */
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+  private long count;
+
+  public QuantileSketch() {}
+
+  /** Reads a sketch written by {@link #toBytes()}; {@code null} or empty is an empty sketch. */
+  public static QuantileSketch fromBytes(byte[] bytes) {
+    QuantileSketch sketch = new QuantileSketch();
+    if (bytes == null) {
+      return sketch;
+    }
+    int[] position = {0};
+    int index = 0;
+    while (position[0] < bytes.length) {
+      index += zigZagDecode(readVarLong(bytes, position));
+      long bucketCount = readVarLong(bytes, position);
+      sketch.buckets.merge(index, bucketCount, Long::sum);
+      sketch.count += bucketCount;
+    }
+    return sketch;
+  }
+
+  /**
+   * Counts one value.
+   *
+   * @throws IllegalArgumentException if {@code value} is not positive
+   */
+  public void add(double value) {
+    if (!(value > 0) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException("Sketch values must be positive: " + value);
+    }
+    buckets.merge((int) Math.ceil(Math.log(value) / LOG_GAMMA), 1L, Long::sum);
+    count++;
+  }
+
+  /** Adds the counts of {@code other} to this sketch. */
+  public void merge(QuantileSketch other) {
+    other.buckets.forEach((index, bucketCount) -> buckets.merge(index, bucketCount, Long::sum));
+    count += other.count;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  /**
+   * The value at quantile {@code q}, from 0 (the smallest value) to 1 (the largest), within {@link
+   * #RELATIVE_ACCURACY}.
+   *
+   * @throws IllegalStateException if the sketch is empty
+   */
+  public double quantile(double q) {
+    if (q < 0 || q > 1) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+    }
+    if (count == 0) {
+      throw new IllegalStateException("Empty sketch has no quantiles");
+    }
+    long rank = (long) Math.floor(q * (count - 1));
+    long seen = 0;
+    for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+      seen += bucket.getValue();
+      if (seen > rank) {
+        return 2 * Math.pow(GAMMA, bucket.getKey()) / (GAMMA + 1);
+      }
+    }
+    throw new AssertionError("Bucket counts do not add up to " + count);
+  }
+
+  /** The occupied buckets in index order as varint pairs of index delta and count. */
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(buckets.size() * 3);
+    int previous = 0;
+    for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+      writeVarLong(out, zigZagEncode(bucket.getKey() - previous));
+      writeVarLong(out, bucket.getValue());
+      previous = bucket.getKey();
+    }
+    return out.toByteArray();
+  }
+
+  private static long zigZagEncode(int value) {
+    return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+  }
+
+  private static int zigZagDecode(long value) {
+    int bits = (int) value;
+    return (bits >>> 1) ^ -(bits & 1);
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(byte[] bytes, int[] position) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position[0] >= bytes.length) {
+        throw new IllegalArgumentException("Truncated quantile sketch");
+      }
+      byte b = bytes[position[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed quantile sketch");
+  }
+}
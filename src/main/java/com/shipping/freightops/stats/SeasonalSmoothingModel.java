@@ -0,0 +1,179 @@
+package com.shipping.freightops.stats;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * A price forecast fitted to monthly price statistics: a seasonal index per calendar month and
+ * simple exponential smoothing of the deseasonalized monthly means.
+ *
+ * <p>A month's seasonal index is its mean over the overall mean, shrunk towards 1 by how few prices
+ * back it, so a single odd month does not become a season. The smoothed level is the forecast for
+ * any later month before its seasonal index is applied. The spread of a forecast combines the
+ * relative one-step-ahead errors of the smoothing with the spread of prices within a month; the
+ * confidence score falls with fewer prices, a wider spread and older data.
+ */
+public final class SeasonalSmoothingModel {
+
+  /** Prices a calendar month needs for half of its own seasonal deviation to count. */
+  private static final double SEASONAL_SHRINKAGE = 6;
+
+  /** Smallest relative spread a forecast is given, however steady the history. */
+  private static final double MIN_SPREAD = 0.03;
+
+  /** Prices at which the data half-supports a confident forecast. */
+  private static final double CONFIDENCE_HALF_COUNT = 5;
+
+  private final Map<Month, Double> seasonalIndex;
+  private final double level;
+  private final double spread;
+  private final YearMonth lastMonth;
+  private final int monthCount;
+  private final PriceStatistics history;
+
+  private SeasonalSmoothingModel(
+      Map<Month, Double> seasonalIndex,
+      double level,
+      double spread,
+      YearMonth lastMonth,
+      int monthCount,
+      PriceStatistics history) {
+    this.seasonalIndex = seasonalIndex;
+    this.level = level;
+    this.spread = spread;
+    this.lastMonth = lastMonth;
+    this.monthCount = monthCount;
+    this.history = history;
+  }
+
+  /**
+   * Fits a model to the price statistics of consecutive or gapped months.
+   *
+   * @param months statistics per month, at least one with prices
+   * @param smoothing weight of the newest month in the smoothed level, in (0, 1]
+   */
+  public static SeasonalSmoothingModel fit(
+      SortedMap<YearMonth, PriceStatistics> months, double smoothing) {
+    if (!(smoothing > 0 && smoothing <= 1)) {
+      throw new IllegalArgumentException("Smoothing must be in (0, 1]: " + smoothing);
+    }
+    PriceStatistics history = new PriceStatistics();
+    Map<Month, double[]> byCalendarMonth = new EnumMap<>(Month.class);
+    double withinVariance = 0;
+    for (Map.Entry<YearMonth, PriceStatistics> entry : months.entrySet()) {
+      PriceStatistics month = entry.getValue();
+      if (month.getCount() == 0) {
+        continue;
+      }
+      history.merge(month);
+      double mean = month.getMean().doubleValue();
+      double[] sums =
+          byCalendarMonth.computeIfAbsent(entry.getKey().getMonth(), m -> new double[2]);
+      sums[0] += month.getCount() * mean;
+      sums[1] += month.getCount();
+      double relativeDeviation = month.getStandardDeviation().doubleValue() / mean;
+      withinVariance += month.getCount() * relativeDeviation * relativeDeviation;
+    }
+    if (history.getCount() == 0) {
+      throw new IllegalArgumentException("No prices to fit");
+    }
+    double overallMean = history.getMean().doubleValue();
+    withinVariance /= history.getCount();
+
+    Map<Month, Double> seasonalIndex = new EnumMap<>(Month.class);
+    byCalendarMonth.forEach(
+        (month, sums) -> {
+          double raw = sums[0] / sums[1] / overallMean;
+          seasonalIndex.put(month, 1 + (raw - 1) * sums[1] / (sums[1] + SEASONAL_SHRINKAGE));
+        });
+
+    double level = Double.NaN;
+    double squaredErrors = 0;
+    int errors = 0;
+    int monthCount = 0;
+    YearMonth lastMonth = null;
+    for (Map.Entry<YearMonth, PriceStatistics> entry : months.entrySet()) {
+      if (entry.getValue().getCount() == 0) {
+        continue;
+      }
+      double deseasonalized =
+          entry.getValue().getMean().doubleValue() / seasonalIndex.get(entry.getKey().getMonth());
+      if (Double.isNaN(level)) {
+        level = deseasonalized;
+      } else {
+        double error = (deseasonalized - level) / level;
+        squaredErrors += error * error;
+        errors++;
+        level += smoothing * (deseasonalized - level);
+      }
+      monthCount++;
+      lastMonth = entry.getKey();
+    }
+    double forecastVariance = errors == 0 ? 0 : squaredErrors / errors;
+    double spread = Math.max(MIN_SPREAD, Math.sqrt(forecastVariance + withinVariance));
+    return new SeasonalSmoothingModel(seasonalIndex, level, spread, lastMonth, monthCount, history);
+  }
+
+  /** The forecast for {@code month}: a point price, its relative spread and a confidence. */
+  public Forecast forecast(YearMonth month) {
+    double seasonal = seasonalIndex.getOrDefault(month.getMonth(), 1.0);
+    long monthsAhead = Math.max(0, ChronoUnit.MONTHS.between(lastMonth, month));
+    double confidence =
+        history.getCount()
+            / (history.getCount() + CONFIDENCE_HALF_COUNT)
+            / (1 + 4 * spread)
+            / (1 + monthsAhead / 12.0);
+    return new Forecast(level * seasonal, spread, seasonal, confidence);
+  }
+
+  /** All prices the model was fitted to. */
+  public PriceStatistics getHistory() {
+    return history;
+  }
+
+  /** Months with prices the model was fitted to. */
+  public int getMonthCount() {
+    return monthCount;
+  }
+
+  public YearMonth getLastMonth() {
+    return lastMonth;
+  }
+
+  /** A forecast price; {@code spread} is one standard deviation relative to {@code price}. */
+  public static final class Forecast {
+    private final double price;
+    private final double spread;
+    private final double seasonalFactor;
+    private final double confidence;
+
+    private Forecast(double price, double spread, double seasonalFactor, double confidence) {
+      this.price = price;
+      this.spread = spread;
+      this.seasonalFactor = seasonalFactor;
+      this.confidence = confidence;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+
+    public double getSpread() {
+      return spread;
+    }
+
+    /** Seasonal index applied for the month, e.g. 1.08 for a month 8 % above the average. */
+    public double getSeasonalFactor() {
+      return seasonalFactor;
+    }
+
+    /** From 0 (no basis) towards 1 (many steady, recent prices). */
+    public double getConfidence() {
+      return confidence;
+    }
+  }
+}
@@ -1,3 +1,5 @@
+-- Sample reference data for local development (dev profile only); safe to re-apply.
+
 -- Ports
 INSERT INTO ports (unlocode, name, country, created_at, updated_at)
 VALUES ('AEJEA', 'Jebel Ali', 'UAE', NOW(), NOW()),
@@ -19,9 +21,11 @@ VALUES ('MSCU1234567', 'TWENTY_FOOT', 'DRY', NOW(), NOW()),
        ('HLCU9988776', 'TWENTY_FOOT', 'OPEN_TOP', NOW(), NOW())
 ON CONFLICT DO NOTHING;
 
--- Agents
+-- Agents (no unique key on agents, so each row is guarded by its email)
 INSERT INTO agents (name, email, commission_percent, type, active, created_at, updated_at)
-VALUES ('Alice Johnson', 'alice@freightops.com', 5.00, 'INTERNAL', true, NOW(), NOW()),
-       ('Bob Smith', 'bob@externalagents.com', 7.50, 'EXTERNAL', true, NOW(), NOW()),
-       ('Carol White', 'carol@freightops.com', 4.25, 'INTERNAL', false, NOW(), NOW())
-ON CONFLICT DO NOTHING;
+SELECT a.name, a.email, a.commission_percent, a.type, a.active, NOW(), NOW()
+FROM (VALUES ('Alice Johnson', 'alice@freightops.com', 5.00, 'INTERNAL', true),
+             ('Bob Smith', 'bob@externalagents.com', 7.50, 'EXTERNAL', true),
+             ('Carol White', 'carol@freightops.com', 4.25, 'INTERNAL', false))
+         AS a (name, email, commission_percent, type, active)
+WHERE NOT EXISTS (SELECT 1 FROM agents existing WHERE existing.email = a.email);
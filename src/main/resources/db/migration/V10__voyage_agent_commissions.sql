@@ -0,0 +1,54 @@
+-- Agent commission rollups of completed voyages: one row per voyage and agent with the agent's
+-- DELIVERED order count and value and the commission earned, in whole cents, at the rate in
+-- force when the voyage completed. Period statements sum these rows instead of the orders, so
+-- voyages that completed earlier are backfilled at the end.
+
+CREATE SEQUENCE IF NOT EXISTS voyage_agent_commissions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS voyage_agent_commissions (
+    id                 BIGINT        NOT NULL DEFAULT nextval('voyage_agent_commissions_seq'),
+    voyage_id          BIGINT        NOT NULL,
+    agent_id           BIGINT        NOT NULL,
+    order_count        BIGINT        NOT NULL,
+    order_value_cents  BIGINT        NOT NULL,
+    commission_percent NUMERIC(5, 2) NOT NULL,
+    commission_cents   BIGINT        NOT NULL,
+    created_at         TIMESTAMP(6)  NOT NULL,
+    updated_at         TIMESTAMP(6)  NOT NULL,
+    version            BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_voyage_agent_commissions PRIMARY KEY (id),
+    CONSTRAINT uk_voyage_agent_commissions_voyage_agent UNIQUE (voyage_id, agent_id),
+    CONSTRAINT fk_voyage_agent_commissions_voyage
+        FOREIGN KEY (voyage_id) REFERENCES voyages (id) ON DELETE CASCADE,
+    -- Commission history is a financial record: an agent that has any cannot be deleted
+    CONSTRAINT fk_voyage_agent_commissions_agent
+        FOREIGN KEY (agent_id) REFERENCES agents (id) ON DELETE RESTRICT
+);
+
+CREATE INDEX IF NOT EXISTS idx_voyage_agent_commissions_agent
+    ON voyage_agent_commissions (agent_id);
+
+-- Voyages completed before this migration, rolled up like AgentCommissionService.rollUp: DELIVERED
+-- orders summed per agent, commission at the agent's current rate rounded HALF_UP to whole cents.
+INSERT INTO voyage_agent_commissions (voyage_id, agent_id, order_count, order_value_cents,
+                                      commission_percent, commission_cents, created_at, updated_at)
+SELECT t.voyage_id,
+       t.agent_id,
+       t.order_count,
+       t.order_value_cents,
+       t.commission_percent,
+       ROUND(t.order_value_cents * ROUND(t.commission_percent * 100) / 10000)::BIGINT,
+       NOW(),
+       NOW()
+FROM (SELECT o.voyage_id,
+             o.agent_id,
+             a.commission_percent,
+             COUNT(o.id)                              AS order_count,
+             ROUND(SUM(o.final_price) * 100)::BIGINT AS order_value_cents
+      FROM freight_orders o
+               JOIN voyages v ON v.id = o.voyage_id
+               JOIN agents a ON a.id = o.agent_id
+      WHERE v.status = 'COMPLETED'
+        AND o.status = 'DELIVERED'
+      GROUP BY o.voyage_id, o.agent_id, a.commission_percent) t
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,32 @@
+-- Voyage price statistics per route (departure and arrival port), container size and month of
+-- departure: count, sum and sum of squares (in cents), min, max and a quantile sketch, all
+-- mergeable across months. The rows are added to as prices are created; a nightly job rebuilds
+-- them from voyage_prices, which also fills them for the prices created before this migration.
+
+CREATE SEQUENCE IF NOT EXISTS route_price_rollups_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS route_price_rollups (
+    id                BIGINT           NOT NULL DEFAULT nextval('route_price_rollups_seq'),
+    departure_port_id BIGINT           NOT NULL,
+    arrival_port_id   BIGINT           NOT NULL,
+    container_size    VARCHAR(255)     NOT NULL,
+    price_month       DATE             NOT NULL,
+    price_count       BIGINT           NOT NULL,
+    sum_cents         BIGINT           NOT NULL,
+    sum_squares       DOUBLE PRECISION NOT NULL,
+    min_cents         BIGINT           NOT NULL,
+    max_cents         BIGINT           NOT NULL,
+    quantile_sketch   BYTEA            NOT NULL,
+    created_at        TIMESTAMP(6)     NOT NULL,
+    updated_at        TIMESTAMP(6)     NOT NULL,
+    version           BIGINT           NOT NULL DEFAULT 0,
+    CONSTRAINT pk_route_price_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_route_price_rollups_route_size_month
+        UNIQUE (departure_port_id, arrival_port_id, container_size, price_month),
+    CONSTRAINT fk_route_price_rollups_departure_port
+        FOREIGN KEY (departure_port_id) REFERENCES ports (id) ON DELETE CASCADE,
+    CONSTRAINT fk_route_price_rollups_arrival_port
+        FOREIGN KEY (arrival_port_id) REFERENCES ports (id) ON DELETE CASCADE,
+    CONSTRAINT ck_route_price_rollups_container_size
+        CHECK (container_size IN ('TWENTY_FOOT', 'FORTY_FOOT'))
+);
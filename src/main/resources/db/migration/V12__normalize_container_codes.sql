@@ -0,0 +1,11 @@
+-- Container codes are stored stripped and upper-case (Container.normalize), which is also how the
+-- order search compares them. Rewrites codes stored as submitted before that; a code whose
+-- normalized form is already taken by another container is left for manual cleanup.
+
+UPDATE containers c
+SET container_code = UPPER(TRIM(c.container_code)),
+    updated_at     = NOW()
+WHERE c.container_code <> UPPER(TRIM(c.container_code))
+  AND NOT EXISTS (SELECT 1
+                  FROM containers other
+                  WHERE other.container_code = UPPER(TRIM(c.container_code)));
@@ -0,0 +1,24 @@
+-- Bookings submitted through the asynchronous intake. A ticket is stored before the submission is
+-- acknowledged and settled in the transaction that books it, so queued bookings survive a restart
+-- and are booked at most once. Settled tickets are purged by BookingTicketStore once they expire.
+
+CREATE SEQUENCE IF NOT EXISTS booking_tickets_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS booking_tickets (
+    id            BIGINT        NOT NULL DEFAULT nextval('booking_tickets_seq'),
+    ticket_id     VARCHAR(36)   NOT NULL,
+    status        VARCHAR(255)  NOT NULL,
+    request_body  VARCHAR(4000) NOT NULL,
+    response_body VARCHAR(4000),
+    expires_at    TIMESTAMP(6),
+    created_at    TIMESTAMP(6)  NOT NULL,
+    updated_at    TIMESTAMP(6)  NOT NULL,
+    version       BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_tickets PRIMARY KEY (id),
+    CONSTRAINT uk_booking_tickets_ticket_id UNIQUE (ticket_id),
+    CONSTRAINT ck_booking_tickets_status CHECK (status IN ('QUEUED', 'CREATED', 'REJECTED'))
+);
+
+-- Recovery of queued tickets, oldest first
+CREATE INDEX IF NOT EXISTS idx_booking_tickets_status_created ON booking_tickets (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_booking_tickets_expires_at ON booking_tickets (expires_at);
@@ -0,0 +1,184 @@
+-- Baseline schema, matching the JPA mappings (Hibernate validates against it at startup).
+--
+-- Ids come from pooled <table>_seq sequences (see PooledSequenceGenerator); the increment must
+-- match freightops.id.allocation-size. Each id column also defaults to its sequence so plain SQL
+-- inserts draw from the same pool.
+--
+-- Databases created earlier by ddl-auto=update are baselined at version 0, so this script also
+-- runs there: CREATE ... IF NOT EXISTS leaves their tables alone, so each table is followed by
+-- ADD COLUMN IF NOT EXISTS for the columns it gained since, and the last section moves them from
+-- IDENTITY ids onto the sequences (formerly db/pooled-sequences.sql).
+
+CREATE SEQUENCE IF NOT EXISTS ports_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS vessels_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS containers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS agents_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS voyages_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS voyage_prices_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS freight_orders_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS ports (
+    id         BIGINT       NOT NULL DEFAULT nextval('ports_seq'),
+    unlocode   VARCHAR(5)   NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    country    VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_ports PRIMARY KEY (id),
+    CONSTRAINT uk_ports_unlocode UNIQUE (unlocode)
+);
+
+CREATE TABLE IF NOT EXISTS vessels (
+    id           BIGINT       NOT NULL DEFAULT nextval('vessels_seq'),
+    name         VARCHAR(255) NOT NULL,
+    imo_number   VARCHAR(7)   NOT NULL,
+    capacity_teu INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_vessels PRIMARY KEY (id),
+    CONSTRAINT uk_vessels_imo_number UNIQUE (imo_number)
+);
+
+CREATE TABLE IF NOT EXISTS containers (
+    id             BIGINT       NOT NULL DEFAULT nextval('containers_seq'),
+    container_code VARCHAR(11)  NOT NULL,
+    size           VARCHAR(255) NOT NULL,
+    type           VARCHAR(255) NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_containers PRIMARY KEY (id),
+    CONSTRAINT uk_containers_container_code UNIQUE (container_code),
+    CONSTRAINT ck_containers_size CHECK (size IN ('TWENTY_FOOT', 'FORTY_FOOT')),
+    CONSTRAINT ck_containers_type
+        CHECK (type IN ('DRY', 'REEFER', 'OPEN_TOP', 'FLAT_RACK', 'TANK'))
+);
+
+CREATE TABLE IF NOT EXISTS agents (
+    id                 BIGINT         NOT NULL DEFAULT nextval('agents_seq'),
+    name               VARCHAR(255)   NOT NULL,
+    email              VARCHAR(255)   NOT NULL,
+    commission_percent NUMERIC(38, 2) NOT NULL,
+    type               VARCHAR(255)   NOT NULL,
+    active             BOOLEAN        NOT NULL,
+    created_at         TIMESTAMP(6)   NOT NULL,
+    updated_at         TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_agents PRIMARY KEY (id),
+    CONSTRAINT ck_agents_type CHECK (type IN ('INTERNAL', 'EXTERNAL'))
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id           BIGINT       NOT NULL DEFAULT nextval('customers_seq'),
+    company_name VARCHAR(255) NOT NULL,
+    contact_name VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL,
+    phone        VARCHAR(255),
+    address      VARCHAR(255),
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_customers PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS voyages (
+    id                BIGINT       NOT NULL DEFAULT nextval('voyages_seq'),
+    voyage_number     VARCHAR(255) NOT NULL,
+    vessel_id         BIGINT       NOT NULL,
+    departure_port_id BIGINT       NOT NULL,
+    arrival_port_id   BIGINT       NOT NULL,
+    departure_time    TIMESTAMP(6) NOT NULL,
+    arrival_time      TIMESTAMP(6) NOT NULL,
+    status            VARCHAR(255) NOT NULL,
+    booking_open      BOOLEAN      NOT NULL DEFAULT TRUE,
+    max_capacity_teu  INTEGER      NOT NULL DEFAULT 0,
+    created_at        TIMESTAMP(6) NOT NULL,
+    updated_at        TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_voyages PRIMARY KEY (id),
+    CONSTRAINT uk_voyages_voyage_number UNIQUE (voyage_number),
+    CONSTRAINT fk_voyages_vessel FOREIGN KEY (vessel_id) REFERENCES vessels (id),
+    CONSTRAINT fk_voyages_departure_port FOREIGN KEY (departure_port_id) REFERENCES ports (id),
+    CONSTRAINT fk_voyages_arrival_port FOREIGN KEY (arrival_port_id) REFERENCES ports (id),
+    CONSTRAINT ck_voyages_status
+        CHECK (status IN ('PLANNED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'))
+);
+
+ALTER TABLE voyages ADD COLUMN IF NOT EXISTS booking_open BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE voyages ADD COLUMN IF NOT EXISTS max_capacity_teu INTEGER NOT NULL DEFAULT 0;
+-- Voyage.onCreate defaults the capacity to the vessel's; do the same for voyages that predate it
+UPDATE voyages v
+SET max_capacity_teu = s.capacity_teu
+FROM vessels s
+WHERE s.id = v.vessel_id
+  AND v.max_capacity_teu = 0;
+
+CREATE TABLE IF NOT EXISTS voyage_prices (
+    id             BIGINT         NOT NULL DEFAULT nextval('voyage_prices_seq'),
+    voyage_id      BIGINT         NOT NULL,
+    container_size VARCHAR(255)   NOT NULL,
+    base_price_usd NUMERIC(10, 2) NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_voyage_prices PRIMARY KEY (id),
+    CONSTRAINT uc_voyage_container_size UNIQUE (voyage_id, container_size),
+    CONSTRAINT fk_voyage_prices_voyage FOREIGN KEY (voyage_id) REFERENCES voyages (id),
+    CONSTRAINT ck_voyage_prices_container_size
+        CHECK (container_size IN ('TWENTY_FOOT', 'FORTY_FOOT'))
+);
+
+CREATE TABLE IF NOT EXISTS freight_orders (
+    id               BIGINT         NOT NULL DEFAULT nextval('freight_orders_seq'),
+    voyage_id        BIGINT         NOT NULL,
+    container_id     BIGINT         NOT NULL,
+    agent_id         BIGINT         NOT NULL,
+    customer_id      BIGINT         NOT NULL,
+    ordered_by       VARCHAR(255)   NOT NULL,
+    notes            VARCHAR(500),
+    status           VARCHAR(255)   NOT NULL,
+    base_price_usd   NUMERIC(10, 2) NOT NULL,
+    discount_percent NUMERIC(5, 2)  NOT NULL,
+    final_price      NUMERIC(10, 2) NOT NULL,
+    discount_reason  VARCHAR(500),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_freight_orders PRIMARY KEY (id),
+    CONSTRAINT fk_freight_orders_voyage FOREIGN KEY (voyage_id) REFERENCES voyages (id),
+    CONSTRAINT fk_freight_orders_container FOREIGN KEY (container_id) REFERENCES containers (id),
+    CONSTRAINT fk_freight_orders_agent FOREIGN KEY (agent_id) REFERENCES agents (id),
+    CONSTRAINT fk_freight_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT ck_freight_orders_status
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED'))
+);
+
+-- ── Tables from ddl-auto: drop leftover IDENTITY ids, default to the sequence and move each
+-- ── sequence past the highest existing id so pooled blocks never collide. No-ops on a new schema.
+
+ALTER TABLE ports ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE ports ALTER COLUMN id SET DEFAULT nextval('ports_seq');
+SELECT setval('ports_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM ports), (SELECT last_value FROM ports_seq)));
+
+ALTER TABLE vessels ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vessels ALTER COLUMN id SET DEFAULT nextval('vessels_seq');
+SELECT setval('vessels_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM vessels), (SELECT last_value FROM vessels_seq)));
+
+ALTER TABLE containers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE containers ALTER COLUMN id SET DEFAULT nextval('containers_seq');
+SELECT setval('containers_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM containers), (SELECT last_value FROM containers_seq)));
+
+ALTER TABLE agents ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE agents ALTER COLUMN id SET DEFAULT nextval('agents_seq');
+SELECT setval('agents_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM agents), (SELECT last_value FROM agents_seq)));
+
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE customers ALTER COLUMN id SET DEFAULT nextval('customers_seq');
+SELECT setval('customers_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM customers), (SELECT last_value FROM customers_seq)));
+
+ALTER TABLE voyages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE voyages ALTER COLUMN id SET DEFAULT nextval('voyages_seq');
+SELECT setval('voyages_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM voyages), (SELECT last_value FROM voyages_seq)));
+
+ALTER TABLE voyage_prices ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE voyage_prices ALTER COLUMN id SET DEFAULT nextval('voyage_prices_seq');
+SELECT setval('voyage_prices_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM voyage_prices), (SELECT last_value FROM voyage_prices_seq)));
+
+ALTER TABLE freight_orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE freight_orders ALTER COLUMN id SET DEFAULT nextval('freight_orders_seq');
+SELECT setval('freight_orders_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM freight_orders), (SELECT last_value FROM freight_orders_seq)));
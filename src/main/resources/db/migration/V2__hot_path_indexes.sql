@@ -0,0 +1,44 @@
+-- Indexes for the foreign keys and filters the API queries by. PostgreSQL does not index foreign
+-- keys on its own; each composite below leads with the foreign key it also serves.
+-- Plain indexes are mirrored in the entities' @Table(indexes = ...) so the H2 test schema has them
+-- too; partial and expression indexes exist only here.
+--
+-- voyage_prices(voyage_id, container_size) is already covered by uc_voyage_container_size.
+
+-- ── freight_orders ──
+-- Orders of a voyage, optionally by status (manifest, order list, status cascades)
+CREATE INDEX IF NOT EXISTS idx_freight_orders_voyage_status ON freight_orders (voyage_id, status);
+-- Order search by status, newest first
+CREATE INDEX IF NOT EXISTS idx_freight_orders_status_created ON freight_orders (status, created_at);
+-- Order search by agent / customer with a creation window
+CREATE INDEX IF NOT EXISTS idx_freight_orders_agent_created ON freight_orders (agent_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_freight_orders_customer_created
+    ON freight_orders (customer_id, created_at);
+-- Container lookups and the container double-booking check
+CREATE INDEX IF NOT EXISTS idx_freight_orders_container_status
+    ON freight_orders (container_id, status);
+CREATE INDEX IF NOT EXISTS idx_freight_orders_final_price ON freight_orders (final_price);
+CREATE INDEX IF NOT EXISTS idx_freight_orders_ordered_by ON freight_orders (ordered_by);
+-- Active orders per voyage: TEU capacity counts only read PENDING, CONFIRMED and IN_TRANSIT rows,
+-- which stay a small share of the table once voyages complete.
+CREATE INDEX IF NOT EXISTS idx_freight_orders_active_by_voyage
+    ON freight_orders (voyage_id, container_id)
+    WHERE status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT');
+
+-- ── voyages ──
+CREATE INDEX IF NOT EXISTS idx_voyages_status_departure ON voyages (status, departure_time);
+CREATE INDEX IF NOT EXISTS idx_voyages_departure_port ON voyages (departure_port_id, departure_time);
+CREATE INDEX IF NOT EXISTS idx_voyages_arrival_port ON voyages (arrival_port_id);
+CREATE INDEX IF NOT EXISTS idx_voyages_vessel ON voyages (vessel_id);
+
+-- ── reference data ──
+CREATE INDEX IF NOT EXISTS idx_agents_type_active ON agents (type, active);
+CREATE INDEX IF NOT EXISTS idx_ports_country ON ports (country);
+-- Default sort of the customer and vessel listings
+CREATE INDEX IF NOT EXISTS idx_customers_company_name ON customers (company_name);
+CREATE INDEX IF NOT EXISTS idx_vessels_name ON vessels (name);
+-- Case-insensitive prefix search (upper(col) LIKE 'ABC%'); text_pattern_ops makes LIKE prefixes
+-- indexable regardless of the database collation.
+CREATE INDEX IF NOT EXISTS idx_customers_company_name_upper
+    ON customers (upper(company_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_vessels_name_upper ON vessels (upper(name) text_pattern_ops);
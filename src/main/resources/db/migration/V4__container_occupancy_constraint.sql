@@ -0,0 +1,29 @@
+-- A container cannot be on two active orders whose voyage windows overlap.
+--
+-- Overlap is not expressible as a unique index, so this is a partial exclusion constraint over the
+-- voyage window each order copies at booking time (voyage times do not change after creation).
+-- ContainerOccupancyIndex rejects conflicts in memory first; this constraint catches the races it
+-- cannot see, such as bookings committed concurrently on another node.
+--
+-- Existing overlapping active orders must be cancelled before this migration can apply.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE freight_orders
+    ADD COLUMN occupied_from  TIMESTAMP(6),
+    ADD COLUMN occupied_until TIMESTAMP(6);
+
+UPDATE freight_orders o
+SET occupied_from  = v.departure_time,
+    occupied_until = v.arrival_time
+FROM voyages v
+WHERE v.id = o.voyage_id;
+
+ALTER TABLE freight_orders
+    ALTER COLUMN occupied_from SET NOT NULL,
+    ALTER COLUMN occupied_until SET NOT NULL;
+
+ALTER TABLE freight_orders
+    ADD CONSTRAINT ex_freight_orders_container_occupancy
+        EXCLUDE USING gist (container_id WITH =, tsrange(occupied_from, occupied_until) WITH &&)
+        WHERE (status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT'));
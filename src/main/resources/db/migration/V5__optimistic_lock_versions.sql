@@ -0,0 +1,13 @@
+-- Optimistic lock column of BaseEntity (@Version). Every update is written as
+-- "... WHERE id = ? AND version = ?" and bumps it, so concurrent read-modify-write edits of the same
+-- row fail with a conflict instead of silently overwriting each other. It doubles as the ETag the
+-- API checks If-Match headers against.
+
+ALTER TABLE ports          ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE vessels        ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE containers     ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE agents         ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customers      ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE voyages        ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE voyage_prices  ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE freight_orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
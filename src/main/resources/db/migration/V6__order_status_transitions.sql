@@ -0,0 +1,29 @@
+-- Audit log of order status changes. Voyage status cascades write one row per order with a single
+-- INSERT ... SELECT; ids come from a pooled sequence like every other table.
+
+CREATE SEQUENCE IF NOT EXISTS order_status_transitions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_status_transitions (
+    id          BIGINT       NOT NULL DEFAULT nextval('order_status_transitions_seq'),
+    order_id    BIGINT       NOT NULL,
+    voyage_id   BIGINT       NOT NULL,
+    from_status VARCHAR(255) NOT NULL,
+    to_status   VARCHAR(255) NOT NULL,
+    reason      VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_order_status_transitions PRIMARY KEY (id),
+    CONSTRAINT fk_order_status_transitions_order
+        FOREIGN KEY (order_id) REFERENCES freight_orders (id),
+    CONSTRAINT fk_order_status_transitions_voyage FOREIGN KEY (voyage_id) REFERENCES voyages (id),
+    CONSTRAINT ck_order_status_transitions_from_status
+        CHECK (from_status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED')),
+    CONSTRAINT ck_order_status_transitions_to_status
+        CHECK (to_status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT', 'DELIVERED', 'CANCELLED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_order
+    ON order_status_transitions (order_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_voyage
+    ON order_status_transitions (voyage_id);
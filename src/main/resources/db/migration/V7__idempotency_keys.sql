@@ -0,0 +1,19 @@
+-- Responses stored per Idempotency-Key of booking requests, so retries across restarts and nodes
+-- replay the first response. Expired rows are purged by IdempotencyStore.
+
+CREATE SEQUENCE IF NOT EXISTS idempotency_keys_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              BIGINT        NOT NULL DEFAULT nextval('idempotency_keys_seq'),
+    idempotency_key VARCHAR(255)  NOT NULL,
+    request_hash    VARCHAR(64)   NOT NULL,
+    response_body   VARCHAR(4000),
+    expires_at      TIMESTAMP(6)  NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    updated_at      TIMESTAMP(6)  NOT NULL,
+    version         BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,32 @@
+-- Per-voyage load summary maintained by delta updates on booking and cancellation, so the load
+-- endpoint and the capacity counters read one row instead of aggregating freight_orders.
+-- Backfilled here from the active orders; VoyageLoadSummary repairs drift nightly.
+
+CREATE SEQUENCE IF NOT EXISTS voyage_loads_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS voyage_loads (
+    id              BIGINT       NOT NULL DEFAULT nextval('voyage_loads_seq'),
+    voyage_id       BIGINT       NOT NULL,
+    load_teu        INTEGER      NOT NULL,
+    container_count INTEGER      NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL,
+    version         BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_voyage_loads PRIMARY KEY (id),
+    CONSTRAINT uk_voyage_loads_voyage_id UNIQUE (voyage_id),
+    CONSTRAINT fk_voyage_loads_voyage
+        FOREIGN KEY (voyage_id) REFERENCES voyages (id) ON DELETE CASCADE
+);
+
+INSERT INTO voyage_loads (voyage_id, load_teu, container_count, created_at, updated_at)
+SELECT v.id,
+       COALESCE(SUM(CASE c.size WHEN 'FORTY_FOOT' THEN 2 WHEN 'TWENTY_FOOT' THEN 1 END), 0),
+       COUNT(o.id),
+       NOW(),
+       NOW()
+FROM voyages v
+         LEFT JOIN freight_orders o
+                   ON o.voyage_id = v.id AND o.status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT')
+         LEFT JOIN containers c ON c.id = o.container_id
+GROUP BY v.id
+ON CONFLICT DO NOTHING;
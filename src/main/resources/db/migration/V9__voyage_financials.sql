@@ -0,0 +1,71 @@
+-- Vessel owners, voyage cost lines and the financial summary snapshot of completed voyages.
+-- A summary is written once when its voyage completes and replaced, never updated, when late
+-- costs arrive; its owner rows copy the shares it was computed with.
+
+CREATE SEQUENCE IF NOT EXISTS vessel_owners_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS vessel_owners (
+    id            BIGINT        NOT NULL DEFAULT nextval('vessel_owners_seq'),
+    vessel_id     BIGINT        NOT NULL,
+    owner_name    VARCHAR(255)  NOT NULL,
+    owner_email   VARCHAR(255)  NOT NULL,
+    share_percent NUMERIC(5, 2) NOT NULL,
+    created_at    TIMESTAMP(6)  NOT NULL,
+    updated_at    TIMESTAMP(6)  NOT NULL,
+    version       BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_vessel_owners PRIMARY KEY (id),
+    CONSTRAINT fk_vessel_owners_vessel
+        FOREIGN KEY (vessel_id) REFERENCES vessels (id) ON DELETE CASCADE,
+    CONSTRAINT ck_vessel_owners_share_percent CHECK (share_percent > 0 AND share_percent <= 100)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vessel_owners_vessel ON vessel_owners (vessel_id);
+
+CREATE SEQUENCE IF NOT EXISTS voyage_costs_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS voyage_costs (
+    id          BIGINT         NOT NULL DEFAULT nextval('voyage_costs_seq'),
+    voyage_id   BIGINT         NOT NULL,
+    description VARCHAR(255)   NOT NULL,
+    amount_usd  NUMERIC(12, 2) NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6)   NOT NULL,
+    version     BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_voyage_costs PRIMARY KEY (id),
+    CONSTRAINT fk_voyage_costs_voyage
+        FOREIGN KEY (voyage_id) REFERENCES voyages (id) ON DELETE CASCADE,
+    CONSTRAINT ck_voyage_costs_amount_usd CHECK (amount_usd > 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_voyage_costs_voyage ON voyage_costs (voyage_id);
+
+CREATE SEQUENCE IF NOT EXISTS voyage_financial_summaries_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS voyage_financial_summaries (
+    id                BIGINT         NOT NULL DEFAULT nextval('voyage_financial_summaries_seq'),
+    voyage_id         BIGINT         NOT NULL,
+    total_revenue_usd NUMERIC(14, 2) NOT NULL,
+    total_costs_usd   NUMERIC(14, 2) NOT NULL,
+    net_profit_usd    NUMERIC(14, 2) NOT NULL,
+    order_count       BIGINT         NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6)   NOT NULL,
+    version           BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_voyage_financial_summaries PRIMARY KEY (id),
+    CONSTRAINT uk_voyage_financial_summaries_voyage_id UNIQUE (voyage_id),
+    CONSTRAINT fk_voyage_financial_summaries_voyage
+        FOREIGN KEY (voyage_id) REFERENCES voyages (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS voyage_financial_summary_owners (
+    summary_id        BIGINT         NOT NULL,
+    owner_index       INTEGER        NOT NULL,
+    owner_name        VARCHAR(255)   NOT NULL,
+    share_percent     NUMERIC(5, 2)  NOT NULL,
+    revenue_share_usd NUMERIC(14, 2) NOT NULL,
+    cost_share_usd    NUMERIC(14, 2) NOT NULL,
+    profit_share_usd  NUMERIC(14, 2) NOT NULL,
+    CONSTRAINT pk_voyage_financial_summary_owners PRIMARY KEY (summary_id, owner_index),
+    CONSTRAINT fk_voyage_financial_summary_owners_summary
+        FOREIGN KEY (summary_id) REFERENCES voyage_financial_summaries (id) ON DELETE CASCADE
+);
@@ -0,0 +1,46 @@
+package com.shipping.freightops.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+/** Unit tests for {@link CacheProperties}. */
+class CachePropertiesTest {
+
+  @Test
+  @DisplayName("a cache's spec is bound from its kebab-case name")
+  void bindsSpecByKebabCaseName() {
+    CacheProperties properties =
+        bind(
+            Map.of(
+                "app.cache.specs.voyage-prices.max-size", "42",
+                "app.cache.specs.voyage-prices.ttl", "PT5M"));
+
+    CacheProperties.Spec spec = properties.spec(CacheConfig.VOYAGE_PRICES);
+
+    assertThat(spec.getMaxSize()).isEqualTo(42);
+    assertThat(spec.getTtl()).isEqualTo(Duration.ofMinutes(5));
+  }
+
+  @Test
+  @DisplayName("a cache without properties gets the defaults")
+  void unconfiguredCacheGetsDefaults() {
+    CacheProperties properties = bind(Map.of("app.cache.specs.voyage-prices.ttl", "PT5M"));
+
+    CacheProperties.Spec spec = properties.spec(CacheConfig.ROUTE_PRICE_MODELS);
+
+    assertThat(spec.getMaxSize()).isEqualTo(10_000);
+    assertThat(spec.getTtl()).isEqualTo(Duration.ofHours(1));
+    assertThat(properties.spec(CacheConfig.VOYAGE_PRICES).getMaxSize()).isEqualTo(10_000);
+  }
+
+  private static CacheProperties bind(Map<String, String> source) {
+    return new Binder(new MapConfigurationPropertySource(source))
+        .bindOrCreate("app.cache", CacheProperties.class);
+  }
+}
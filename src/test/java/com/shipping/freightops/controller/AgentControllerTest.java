@@ -1,5 +1,6 @@
 package com.shipping.freightops.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -13,6 +14,7 @@ import com.shipping.freightops.entity.Agent;
 import com.shipping.freightops.enums.AgentType;
 import com.shipping.freightops.repository.AgentRepository;
 import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
 import java.math.BigDecimal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,9 +34,11 @@ class AgentControllerTest {
   @Autowired private ObjectMapper objectMapper;
   @Autowired private AgentRepository agentRepository;
   @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
 
   @BeforeEach
   void setUp() {
+    transitionRepository.deleteAll();
     freightOrderRepository.deleteAll();
     agentRepository.deleteAll();
   }
@@ -130,7 +134,22 @@ class AgentControllerTest {
     mockMvc
         .perform(get("/api/v1/agents"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(2));
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.totalElements").value(2));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/agents?size=1&page=1 → second page sorted by name")
+  void listAgents_paged() throws Exception {
+    saveAgent("Agent B", "b@test.com", AgentType.INTERNAL, true);
+    saveAgent("Agent A", "a@test.com", AgentType.EXTERNAL, true);
+
+    mockMvc
+        .perform(get("/api/v1/agents").param("size", "1").param("page", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value("Agent B"))
+        .andExpect(jsonPath("$.totalPages").value(2));
   }
 
   @Test
@@ -142,8 +161,8 @@ class AgentControllerTest {
     mockMvc
         .perform(get("/api/v1/agents").param("type", "INTERNAL"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(1))
-        .andExpect(jsonPath("$[0].name").value("Internal"));
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value("Internal"));
   }
 
   @Test
@@ -155,8 +174,8 @@ class AgentControllerTest {
     mockMvc
         .perform(get("/api/v1/agents").param("active", "true"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(1))
-        .andExpect(jsonPath("$[0].name").value("Active"));
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value("Active"));
   }
 
   @Test
@@ -169,8 +188,8 @@ class AgentControllerTest {
     mockMvc
         .perform(get("/api/v1/agents").param("type", "EXTERNAL").param("active", "true"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.length()").value(1))
-        .andExpect(jsonPath("$[0].name").value("Ext Active"));
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value("Ext Active"));
   }
 
   // ── PATCH ──
@@ -224,6 +243,17 @@ class AgentControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  @DisplayName("DELETE /api/v1/agents/{id} → 204 for an agent without orders, then 404")
+  void deleteAgent_withoutOrders() throws Exception {
+    Agent agent = saveAgent("Short Lived", "s@test.com", AgentType.EXTERNAL, true);
+
+    mockMvc.perform(delete("/api/v1/agents/" + agent.getId())).andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/api/v1/agents/" + agent.getId())).andExpect(status().isNotFound());
+    mockMvc.perform(delete("/api/v1/agents/" + agent.getId())).andExpect(status().isNotFound());
+  }
+
   // ── HELPER ──
 
   private Agent saveAgent(String name, String email, AgentType type, boolean active) {
@@ -235,4 +265,26 @@ class AgentControllerTest {
     agent.setActive(active);
     return agentRepository.save(agent);
   }
+
+  // ── COMMISSIONS ──
+
+  @Test
+  @DisplayName("GET /api/v1/agents/{id}/commission-statement → 404 for an unknown agent")
+  void commissionStatement_unknownAgent_returnsNotFound() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/agents/{id}/commission-statement", 99999L)
+                .param("from", "2026-01-01")
+                .param("to", "2026-02-01"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/agents/commissions → 400 for an empty period")
+  void commissionTotals_emptyPeriod_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/agents/commissions").param("from", "2026-02-01").param("to", "2026-02-01"))
+        .andExpect(status().isBadRequest());
+  }
 }
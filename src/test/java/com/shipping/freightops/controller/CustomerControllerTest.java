@@ -9,6 +9,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shipping.freightops.dto.CreateCustomerRequest;
 import com.shipping.freightops.entity.Customer;
 import com.shipping.freightops.repository.CustomerRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,9 +27,14 @@ class CustomerControllerTest {
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper objectMapper;
   @Autowired private CustomerRepository customerRepository;
+  @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
 
   @BeforeEach
   void setUp() {
+    // Orders left by other test classes reference customers
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
     customerRepository.deleteAll();
   }
 
@@ -112,9 +119,32 @@ class CustomerControllerTest {
     mockMvc
         .perform(get("/api/v1/customers"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray())
-        .andExpect(jsonPath("$.length()").value(2))
-        .andExpect(jsonPath("$[0].companyName").value("Acme Corp"))
-        .andExpect(jsonPath("$[1].companyName").value("Beta Ltd"));
+        .andExpect(jsonPath("$.content").isArray())
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.content[0].companyName").value("Acme Corp"))
+        .andExpect(jsonPath("$.content[1].companyName").value("Beta Ltd"))
+        .andExpect(jsonPath("$.totalElements").value(2));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers?name=ac → case-insensitive company name prefix")
+  void listCustomers_filterByNamePrefix() throws Exception {
+    customerRepository.save(new Customer("Acme Corp", "John Doe", "john@acme.com"));
+    customerRepository.save(new Customer("Beta Ltd", "Jane Smith", "jane@beta.com"));
+
+    mockMvc
+        .perform(get("/api/v1/customers").param("name", "ac"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.content[0].companyName").value("Acme Corp"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/customers?size=500 → capped at the maximum page size")
+  void listCustomers_capsPageSize() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/customers").param("size", "500"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size").value(100));
   }
 }
@@ -1,28 +1,46 @@
 package com.shipping.freightops.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.shipping.freightops.dto.BatchFreightOrderRequest;
+import com.shipping.freightops.dto.BulkDiscountRequest;
 import com.shipping.freightops.dto.CreateFreightOrderRequest;
 import com.shipping.freightops.dto.UpdateDiscountRequest;
 import com.shipping.freightops.entity.*;
+import com.shipping.freightops.enums.AgentType;
 import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.ContainerType;
 import com.shipping.freightops.enums.OrderStatus;
 import com.shipping.freightops.repository.*;
+import com.shipping.freightops.service.BookingIntake;
+import com.shipping.freightops.service.BookingTicketStore;
 import com.shipping.freightops.service.FreightOrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -44,16 +62,24 @@ class FreightOrderControllerTest {
   @Autowired private CustomerRepository customerRepository;
   @Autowired private VoyageRepository voyageRepository;
   @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
   @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private AgentRepository agentRepository;
+  @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
   @Autowired private FreightOrderService freightOrderService;
+  @Autowired private BookingTicketStore bookingTicketStore;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
 
   private Voyage savedVoyage;
   private Container savedContainer;
   private Customer savedCustomer;
+  private Agent savedAgent;
 
   @BeforeEach
   void setUp() {
     // Clear state between tests — children first to respect FK constraints
+    transitionRepository.deleteAll();
     freightOrderRepository.deleteAll();
     voyagePriceRepository.deleteAll();
     voyageRepository.deleteAll();
@@ -61,6 +87,9 @@ class FreightOrderControllerTest {
     customerRepository.deleteAll();
     vesselRepository.deleteAll();
     portRepository.deleteAll();
+    agentRepository.deleteAll();
+    // Run the queued deletes before the fixture inserts below
+    portRepository.flush();
     Port departure = portRepository.save(new Port("AEJEA", "Jebel Ali", "UAE"));
     Port arrival = portRepository.save(new Port("CNSHA", "Shanghai", "China"));
     Vessel vessel = vesselRepository.save(new Vessel("MV Test", "9999999", 3000));
@@ -89,6 +118,13 @@ class FreightOrderControllerTest {
     price.setContainerSize(ContainerSize.TWENTY_FOOT);
     price.setBasePriceUsd(BigDecimal.valueOf(1000));
     voyagePriceRepository.save(price);
+
+    Agent agent = new Agent();
+    agent.setName("Test Agent");
+    agent.setEmail("agent@test.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    savedAgent = agentRepository.save(agent);
   }
 
   @Test
@@ -98,6 +134,7 @@ class FreightOrderControllerTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("ops-team");
     request.setNotes("Urgent delivery");
 
@@ -129,22 +166,165 @@ class FreightOrderControllerTest {
         .andExpect(status().isBadRequest());
   }
 
+  @Test
+  @DisplayName("POST /api/v1/freight-orders retried with its Idempotency-Key → first response")
+  void createOrder_retriedWithIdempotencyKey_replaysFirstResponse() throws Exception {
+    String body = objectMapper.writeValueAsString(orderRequest());
+    String first =
+        mockMvc
+            .perform(
+                post("/api/v1/freight-orders")
+                    .header("Idempotency-Key", "booking-42")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Integer id = JsonPath.read(first, "$.id");
+
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .header("Idempotency-Key", "booking-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", "true"))
+        .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/freight-orders/" + id))
+        .andExpect(jsonPath("$.id").value(id))
+        .andExpect(jsonPath("$.containerCode").value("TSTU1234567"));
+
+    assertThat(freightOrderRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders reusing an Idempotency-Key for another body → 409")
+  void createOrder_idempotencyKeyReusedForOtherRequest_returnsConflict() throws Exception {
+    CreateFreightOrderRequest request = orderRequest();
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .header("Idempotency-Key", "booking-43")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+
+    request.setNotes("Different booking");
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .header("Idempotency-Key", "booking-43")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.message").value(containsString("booking-43")));
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders reusing an expired, unpurged Idempotency-Key → 201")
+  void createOrder_expiredIdempotencyKeyReused_createsOrder() throws Exception {
+    IdempotencyRecord expired =
+        new IdempotencyRecord("booking-44", "stale-hash", LocalDateTime.now().minusMinutes(1));
+    expired.setResponseBody("{}");
+    idempotencyRecordRepository.saveAndFlush(expired);
+
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .header("Idempotency-Key", "booking-44")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(orderRequest())))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+    assertThat(freightOrderRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders with a blank Idempotency-Key → 400 Bad Request")
+  void createOrder_blankIdempotencyKey_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .header("Idempotency-Key", " ")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(orderRequest())))
+        .andExpect(status().isBadRequest());
+
+    assertThat(freightOrderRepository.count()).isZero();
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders/async → 202 Accepted with a queued ticket")
+  void submitOrder_returnsQueuedTicket() throws Exception {
+    String ticket =
+        mockMvc
+            .perform(
+                post("/api/v1/freight-orders/async")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(orderRequest())))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status").value("QUEUED"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String ticketId = JsonPath.read(ticket, "$.ticketId");
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders/tickets/" + ticketId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.ticketId").value(ticketId));
+  }
+
+  @Test
+  @DisplayName("a stored ticket whose queue was lost is booked once by recovery")
+  void storedTicket_isBookedAfterRestart() throws Exception {
+    // Stored but never queued, as if the node that took it stopped before draining
+    String ticketId = bookingTicketStore.open(orderRequest()).getTicketId();
+    BookingIntake restarted =
+        new BookingIntake(bookingTicketStore, freightOrderService, 10, 10, Duration.ZERO);
+
+    restarted.recover();
+    restarted.drain();
+    restarted.recover();
+    restarted.drain();
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders/tickets/" + ticketId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("CREATED"))
+        .andExpect(jsonPath("$.order.voyageNumber").value("VOY-001"));
+    assertThat(freightOrderRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders/async with missing fields → 400, nothing queued")
+  void submitOrder_withMissingFields_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateFreightOrderRequest())))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/tickets/{ticketId} for an unknown ticket → 404")
+  void getTicket_unknown_returnsNotFound() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/freight-orders/tickets/no-such-ticket"))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   @DisplayName("GET /api/v1/freight-orders → 200 OK with paged result")
   void listOrders_returnsOk() throws Exception {
     int totalOrders = 25;
     int pageSize = 10;
 
-    for (int i = 0; i < totalOrders; i++) {
-      CreateFreightOrderRequest request = new CreateFreightOrderRequest();
-      request.setVoyageId(savedVoyage.getId());
-      request.setContainerId(savedContainer.getId());
-      request.setCustomerId(savedCustomer.getId());
-      request.setOrderedBy("user-" + i);
-      request.setNotes("order-" + i);
-
-      freightOrderService.createOrder(request);
-    }
+    bookDistinctOrders(totalOrders);
     mockMvc
         .perform(
             get("/api/v1/freight-orders")
@@ -164,16 +344,7 @@ class FreightOrderControllerTest {
   void listOrders_withoutPageSize_returnsOk() throws Exception {
     int totalOrders = 25;
 
-    for (int i = 0; i < totalOrders; i++) {
-      CreateFreightOrderRequest request = new CreateFreightOrderRequest();
-      request.setVoyageId(savedVoyage.getId());
-      request.setContainerId(savedContainer.getId());
-      request.setCustomerId(savedCustomer.getId());
-      request.setOrderedBy("user-" + i);
-      request.setNotes("order-" + i);
-
-      freightOrderService.createOrder(request);
-    }
+    bookDistinctOrders(totalOrders);
     mockMvc
         .perform(get("/api/v1/freight-orders").param("page", "0"))
         .andExpect(status().isOk())
@@ -190,16 +361,7 @@ class FreightOrderControllerTest {
   void listOrders_withoutPage_returnsOk() throws Exception {
     int totalOrders = 25;
 
-    for (int i = 0; i < totalOrders; i++) {
-      CreateFreightOrderRequest request = new CreateFreightOrderRequest();
-      request.setVoyageId(savedVoyage.getId());
-      request.setContainerId(savedContainer.getId());
-      request.setCustomerId(savedCustomer.getId());
-      request.setOrderedBy("user-" + i);
-      request.setNotes("order-" + i);
-
-      freightOrderService.createOrder(request);
-    }
+    bookDistinctOrders(totalOrders);
     mockMvc
         .perform(get("/api/v1/freight-orders"))
         .andExpect(status().isOk())
@@ -217,16 +379,7 @@ class FreightOrderControllerTest {
   void listOrders_pageSize101_returnsOk() throws Exception {
     int totalOrders = 25;
 
-    for (int i = 0; i < totalOrders; i++) {
-      CreateFreightOrderRequest request = new CreateFreightOrderRequest();
-      request.setVoyageId(savedVoyage.getId());
-      request.setContainerId(savedContainer.getId());
-      request.setCustomerId(savedCustomer.getId());
-      request.setOrderedBy("user-" + i);
-      request.setNotes("order-" + i);
-
-      freightOrderService.createOrder(request);
-    }
+    bookDistinctOrders(totalOrders);
     mockMvc
         .perform(get("/api/v1/freight-orders").param("page", "0").param("size", "101"))
         .andExpect(status().isOk())
@@ -245,6 +398,7 @@ class FreightOrderControllerTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("ops-team");
     request.setNotes("Urgent delivery");
     FreightOrder order = freightOrderService.createOrder(request);
@@ -286,6 +440,7 @@ class FreightOrderControllerTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("ops-team");
     request.setNotes("Urgent delivery");
     FreightOrder order = freightOrderService.createOrder(request);
@@ -309,6 +464,7 @@ class FreightOrderControllerTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("ops-team");
     request.setNotes("Urgent delivery");
     FreightOrder order = freightOrderService.createOrder(request);
@@ -327,4 +483,441 @@ class FreightOrderControllerTest {
                 .content(objectMapper.writeValueAsString(updateDiscountRequest)))
         .andExpect(status().isConflict());
   }
+
+  @Test
+  @DisplayName("PATCH /api/v1/freight-orders/discount → 200 with the number of orders updated")
+  void applyBulkDiscount_returnsUpdatedCount() throws Exception {
+    FreightOrder order = freightOrderService.createOrder(orderRequest());
+    BulkDiscountRequest request = new BulkDiscountRequest();
+    request.setAgentId(savedAgent.getId());
+    request.setDiscountPercent(BigDecimal.valueOf(10));
+    request.setReason("Agent promotion");
+
+    mockMvc
+        .perform(
+            patch("/api/v1/freight-orders/discount")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(1));
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders/{id}", order.getId()))
+        .andExpect(jsonPath("$.finalPrice").value(900.00))
+        .andExpect(jsonPath("$.discountReason").value("Agent promotion"))
+        .andExpect(jsonPath("$.version").value(1));
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/freight-orders/discount without a filter → 400 Bad Request")
+  void applyBulkDiscount_withoutFilter_returnsBadRequest() throws Exception {
+    BulkDiscountRequest request = new BulkDiscountRequest();
+    request.setDiscountPercent(BigDecimal.valueOf(10));
+    request.setReason("Everyone");
+
+    mockMvc
+        .perform(
+            patch("/api/v1/freight-orders/discount")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/{id} → ETag carries the order version")
+  void getById_returnsVersionAsETag() throws Exception {
+    FreightOrder order = freightOrderService.createOrder(orderRequest());
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders/{id}", order.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+        .andExpect(jsonPath("$.version").value(0));
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/freight-orders/{id}/discount with stale If-Match → 409 with current")
+  void updateDiscount_staleIfMatch_returnsCurrentOrder() throws Exception {
+    FreightOrder order = freightOrderService.createOrder(orderRequest());
+    UpdateDiscountRequest update = new UpdateDiscountRequest();
+    update.setDiscountPercent(BigDecimal.valueOf(10));
+    update.setReason("Loyal customer");
+
+    mockMvc
+        .perform(
+            patch("/api/v1/freight-orders/{id}/discount", order.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isConflict())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+        .andExpect(jsonPath("$.current.id").value(order.getId()))
+        .andExpect(jsonPath("$.current.version").value(0))
+        .andExpect(jsonPath("$.current.finalPrice").value(1000.00));
+
+    assertThat(freightOrderRepository.findById(order.getId()).orElseThrow().getDiscountReason())
+        .isNull();
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/freight-orders/{id}/cancel with malformed If-Match → 400")
+  void cancel_malformedIfMatch_returnsBadRequest() throws Exception {
+    FreightOrder order = freightOrderService.createOrder(orderRequest());
+
+    mockMvc
+        .perform(
+            patch("/api/v1/freight-orders/{id}/cancel", order.getId())
+                .header(HttpHeaders.IF_MATCH, "W/\"0\""))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders/batch → 200 OK with per-line results")
+  void createBatch_reportsEachLine() throws Exception {
+    CreateFreightOrderRequest good = new CreateFreightOrderRequest();
+    good.setVoyageId(savedVoyage.getId());
+    good.setContainerId(savedContainer.getId());
+    good.setCustomerId(savedCustomer.getId());
+    good.setAgentId(savedAgent.getId());
+    good.setOrderedBy("ops-team");
+
+    CreateFreightOrderRequest unknownContainer = new CreateFreightOrderRequest();
+    unknownContainer.setVoyageId(savedVoyage.getId());
+    unknownContainer.setContainerId(99999L);
+    unknownContainer.setCustomerId(savedCustomer.getId());
+    unknownContainer.setAgentId(savedAgent.getId());
+    unknownContainer.setOrderedBy("ops-team");
+
+    CreateFreightOrderRequest missingOrderedBy = new CreateFreightOrderRequest();
+    missingOrderedBy.setVoyageId(savedVoyage.getId());
+    missingOrderedBy.setContainerId(savedContainer.getId());
+    missingOrderedBy.setCustomerId(savedCustomer.getId());
+    missingOrderedBy.setAgentId(savedAgent.getId());
+
+    BatchFreightOrderRequest batch = new BatchFreightOrderRequest();
+    batch.setOrders(List.of(good, unknownContainer, missingOrderedBy));
+
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.requested").value(3))
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.rejected").value(2))
+        .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.results[0].order.containerCode").value("TSTU1234567"))
+        .andExpect(jsonPath("$.results[0].order.finalPrice").value(1000))
+        .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+        .andExpect(jsonPath("$.results[1].message").value("Container not found: 99999"))
+        .andExpect(jsonPath("$.results[2].index").value(2))
+        .andExpect(jsonPath("$.results[2].status").value("REJECTED"));
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/freight-orders/batch with no orders → 400 Bad Request")
+  void createBatch_empty_returnsBadRequest() throws Exception {
+    BatchFreightOrderRequest batch = new BatchFreightOrderRequest();
+    batch.setOrders(List.of());
+
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders → one select plus one count per page")
+  void listOrders_usesOneSelectAndOneCount() throws Exception {
+    bookDistinctOrders(8);
+    Statistics stats = freshStatistics();
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders").param("page", "0").param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(5))
+        .andExpect(jsonPath("$.content[0].voyageNumber").value("VOY-001"))
+        .andExpect(jsonPath("$.totalElements").value(8));
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders?count=false → slice without a count query")
+  void listOrders_withoutCount_skipsCountQuery() throws Exception {
+    bookDistinctOrders(8);
+    Statistics stats = freshStatistics();
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders")
+                .param("count", "false")
+                .param("page", "0")
+                .param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(5))
+        .andExpect(jsonPath("$.hasNext").value(true))
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{id}/containers?count=false → last slice has no next")
+  void listVoyageContainers_withoutCount_reportsLastSlice() throws Exception {
+    bookDistinctOrders(3);
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/containers", savedVoyage.getId())
+                .param("count", "false")
+                .param("page", "1")
+                .param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.hasNext").value(false))
+        .andExpect(jsonPath("$.totalPages").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders?voyageId → one select plus one count per page")
+  void listOrdersByVoyage_usesOneSelectAndOneCount() throws Exception {
+    bookDistinctOrders(8);
+    Statistics stats = freshStatistics();
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders")
+                .param("voyageId", String.valueOf(savedVoyage.getId()))
+                .param("page", "0")
+                .param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(5))
+        .andExpect(jsonPath("$.content[4].customerName").exists());
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{id}/containers → one select plus one count per page")
+  void listVoyageContainers_usesOneSelectAndOneCount() throws Exception {
+    bookDistinctOrders(8);
+    Statistics stats = freshStatistics();
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/containers", savedVoyage.getId())
+                .param("page", "0")
+                .param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(5))
+        .andExpect(jsonPath("$.content[0].containerCode").exists());
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName(
+      "GET /api/v1/freight-orders/scroll → walks every order by cursor, one select per page")
+  void scrollOrders_followsCursorWithoutCount() throws Exception {
+    bookDistinctOrders(5);
+    Statistics stats = freshStatistics();
+
+    String cursor = null;
+    int seen = 0;
+    int pages = 0;
+    do {
+      MockHttpServletRequestBuilder request =
+          get("/api/v1/freight-orders/scroll").param("size", "2");
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      String body =
+          mockMvc
+              .perform(request)
+              .andExpect(status().isOk())
+              .andExpect(jsonPath("$.totalElements").doesNotExist())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      seen += JsonPath.<Integer>read(body, "$.content.length()");
+      cursor = JsonPath.read(body, "$.nextCursor");
+      pages++;
+    } while (cursor != null);
+
+    assertThat(seen).isEqualTo(5);
+    assertThat(pages).isEqualTo(3);
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{id}/containers/scroll → manifest page by cursor")
+  void scrollVoyageContainers_returnsNextCursor() throws Exception {
+    bookDistinctOrders(3);
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/containers/scroll", savedVoyage.getId())
+                .param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.content[0].containerCode").value("LSTU1000000"))
+        .andExpect(jsonPath("$.nextCursor").isString());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/scroll → 400 for a malformed cursor")
+  void scrollOrders_invalidCursor_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/freight-orders/scroll").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/search → combines status, agent and container filters")
+  void searchOrders_combinesFilters() throws Exception {
+    bookDistinctOrders(4);
+    List<FreightOrder> orders = freightOrderRepository.findAll(Sort.by("id"));
+    freightOrderService.cancelOrder(orders.get(1).getId());
+    Long agentId = orders.get(1).getAgent().getId();
+    Statistics stats = freshStatistics();
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("status", "CANCELLED")
+                .param("agentId", agentId.toString())
+                .param("containerCode", "lstu1000001"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.content[0].containerCode").value("LSTU1000001"))
+        .andExpect(jsonPath("$.content[0].status").value("CANCELLED"));
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("status", "PENDING")
+                .param("agentId", agentId.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/search → finds a container registered in lower case")
+  void searchOrders_containerRegisteredLowerCase_isFound() throws Exception {
+    Container container =
+        containerRepository.save(
+            new Container(" mscu7654321", ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+    CreateFreightOrderRequest request = orderRequest();
+    request.setContainerId(container.getId());
+    freightOrderService.createOrder(request);
+
+    mockMvc
+        .perform(get("/api/v1/freight-orders/search").param("containerCode", "MSCU7654321"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.content[0].containerCode").value("MSCU7654321"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/search → filters by customer, voyage and price range")
+  void searchOrders_byCustomerAndPriceRange() throws Exception {
+    bookDistinctOrders(3);
+    List<FreightOrder> orders = freightOrderRepository.findAll(Sort.by("id"));
+    UpdateDiscountRequest discount = new UpdateDiscountRequest();
+    discount.setDiscountPercent(BigDecimal.valueOf(50));
+    discount.setReason("Loyalty");
+    freightOrderService.updateDiscount(orders.get(2).getId(), discount);
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("voyageId", savedVoyage.getId().toString())
+                .param("minFinalPrice", "400")
+                .param("maxFinalPrice", "600"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.content[0].finalPrice").value(500.0));
+
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("customerId", orders.get(0).getCustomer().getId().toString())
+                .param("createdFrom", LocalDateTime.now().minusHours(1).toString())
+                .param("createdTo", LocalDateTime.now().plusHours(1).toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.content[0].containerCode").value("LSTU1000000"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/freight-orders/search → 400 for an empty window or price range")
+  void searchOrders_invalidRanges_returnBadRequest() throws Exception {
+    LocalDateTime now = LocalDateTime.now();
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("createdFrom", now.toString())
+                .param("createdTo", now.minusDays(1).toString()))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(
+            get("/api/v1/freight-orders/search")
+                .param("minFinalPrice", "900")
+                .param("maxFinalPrice", "100"))
+        .andExpect(status().isBadRequest());
+  }
+
+  /** Books orders that each reference their own container, customer and agent. */
+  private CreateFreightOrderRequest orderRequest() {
+    CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+    request.setVoyageId(savedVoyage.getId());
+    request.setContainerId(savedContainer.getId());
+    request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
+    request.setOrderedBy("ops-team");
+    return request;
+  }
+
+  private void bookDistinctOrders(int count) {
+    for (int i = 0; i < count; i++) {
+      Container container =
+          containerRepository.save(
+              new Container("LSTU" + (1000000 + i), ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+      Customer customer =
+          customerRepository.save(
+              new Customer("Customer " + i, "Contact " + i, "customer" + i + "@test.com"));
+      Agent agent = new Agent();
+      agent.setName("Agent " + i);
+      agent.setEmail("agent" + i + "@test.com");
+      agent.setCommissionPercent(BigDecimal.valueOf(5));
+      agent.setType(AgentType.EXTERNAL);
+      agent = agentRepository.save(agent);
+
+      CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+      request.setVoyageId(savedVoyage.getId());
+      request.setContainerId(container.getId());
+      request.setCustomerId(customer.getId());
+      request.setAgentId(agent.getId());
+      request.setOrderedBy("ops-team");
+      freightOrderService.createOrder(request);
+    }
+  }
+
+  /**
+   * Detaches everything and empties the second-level cache, so lazy associations would have to be
+   * selected again, then resets the statement counters.
+   */
+  private Statistics freshStatistics() {
+    entityManager.flush();
+    entityManager.clear();
+    entityManagerFactory.getCache().evictAll();
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    return stats;
+  }
 }
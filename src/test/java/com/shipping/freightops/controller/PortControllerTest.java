@@ -11,7 +11,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shipping.freightops.dto.CreatePortRequest;
 import com.shipping.freightops.entity.Port;
 import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
 import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
 import com.shipping.freightops.repository.VoyageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -31,11 +33,15 @@ class PortControllerTest {
   @Autowired private ObjectMapper objectMapper;
   @Autowired private PortRepository portRepository;
   @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
   @Autowired private VoyageRepository voyageRepository;
 
   @BeforeEach
   void setUp() {
+    transitionRepository.deleteAll();
     freightOrderRepository.deleteAll();
+    voyagePriceRepository.deleteAll();
     voyageRepository.deleteAll();
     portRepository.deleteAll();
   }
@@ -67,7 +73,22 @@ class PortControllerTest {
     mockMvc
         .perform(get("/api/v1/ports"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray());
+        .andExpect(jsonPath("$.content").isArray());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/ports?country=UAE → only ports in that country")
+  void listPorts_filterByCountry() throws Exception {
+    portRepository.save(new Port("AEJEA", "Jebel Ali", "UAE"));
+    portRepository.save(new Port("AEAUH", "Abu Dhabi", "UAE"));
+    portRepository.save(new Port("CNSHA", "Shanghai", "China"));
+
+    mockMvc
+        .perform(get("/api/v1/ports").param("country", "UAE"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(2))
+        .andExpect(jsonPath("$.content[0].unlocode").value("AEAUH"))
+        .andExpect(jsonPath("$.content[1].unlocode").value("AEJEA"));
   }
 
   @Test
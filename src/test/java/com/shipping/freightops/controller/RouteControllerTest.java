@@ -0,0 +1,213 @@
+package com.shipping.freightops.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.freightops.dto.VoyagePriceRequest;
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
+import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.VesselRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import com.shipping.freightops.service.RoutePriceHistory;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/** Integration tests for {@link RouteController}. */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RouteControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private PortRepository portRepository;
+  @Autowired private VesselRepository vesselRepository;
+  @Autowired private VoyageRepository voyageRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
+  @Autowired private RoutePriceHistory priceHistory;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Port departurePort;
+  private Port arrivalPort;
+  private Vessel vessel;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
+    voyagePriceRepository.deleteAll();
+    voyageRepository.deleteAll();
+    vesselRepository.deleteAll();
+    portRepository.deleteAll();
+    departurePort = portRepository.save(new Port("CNSHA", "Shanghai", "China"));
+    arrivalPort = portRepository.save(new Port("NLRTM", "Rotterdam", "Netherlands"));
+    vessel = vesselRepository.save(new Vessel("Ever Route", "9811000", 5000));
+
+    Voyage early = saveVoyage("VOY-JAN-1", LocalDateTime.of(2026, 1, 5, 8, 0));
+    Voyage late = saveVoyage("VOY-JAN-2", LocalDateTime.of(2026, 1, 28, 8, 0));
+    Voyage february = saveVoyage("VOY-FEB-1", LocalDateTime.of(2026, 2, 10, 8, 0));
+    addPrice(early, ContainerSize.TWENTY_FOOT, "1000");
+    addPrice(early, ContainerSize.FORTY_FOOT, "2000");
+    addPrice(late, ContainerSize.TWENTY_FOOT, "1200");
+    addPrice(february, ContainerSize.TWENTY_FOOT, "1400");
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/routes/price-stats → statistics and monthly trend of one size")
+  void priceStats_forContainerSize() throws Exception {
+    priceStats("2026-01", "2026-02", ContainerSize.TWENTY_FOOT)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.containerSize").value("TWENTY_FOOT"))
+        .andExpect(jsonPath("$.from").value("2026-01"))
+        .andExpect(jsonPath("$.priceCount").value(3))
+        .andExpect(jsonPath("$.averageUsd").value(1200.0))
+        .andExpect(jsonPath("$.minUsd").value(1000.0))
+        .andExpect(jsonPath("$.maxUsd").value(1400.0))
+        .andExpect(jsonPath("$.stdDevUsd").value(163.3))
+        .andExpect(jsonPath("$.medianUsd", closeTo(1200.0, 12.0)))
+        .andExpect(jsonPath("$.p90Usd", closeTo(1200.0, 12.0)))
+        .andExpect(jsonPath("$.months.length()").value(2))
+        .andExpect(jsonPath("$.months[0].month").value("2026-01"))
+        .andExpect(jsonPath("$.months[0].priceCount").value(2))
+        .andExpect(jsonPath("$.months[0].averageUsd").value(1100.0))
+        .andExpect(jsonPath("$.months[1].month").value("2026-02"))
+        .andExpect(jsonPath("$.months[1].maxUsd").value(1400.0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/routes/price-stats → all sizes merged, read from the rollups alone")
+  void priceStats_allSizes_readsOnlyRollups() throws Exception {
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+
+    priceStats("2026-01", "2026-01", null)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.priceCount").value(3))
+        .andExpect(jsonPath("$.maxUsd").value(2000.0))
+        .andExpect(jsonPath("$.months.length()").value(1))
+        .andExpect(jsonPath("$.months[0].priceCount").value(3));
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/routes/price-stats → empty window and reversed route have no prices")
+  void priceStats_withoutPrices() throws Exception {
+    priceStats("2026-03", "2026-06", null)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.priceCount").value(0))
+        .andExpect(jsonPath("$.averageUsd").value(nullValue()))
+        .andExpect(jsonPath("$.months.length()").value(0));
+    mockMvc
+        .perform(
+            get("/api/v1/routes/price-stats")
+                .param("departurePortId", arrivalPort.getId().toString())
+                .param("arrivalPortId", departurePort.getId().toString())
+                .param("from", "2026-01")
+                .param("to", "2026-12"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.priceCount").value(0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/routes/price-stats → 400 when from is after to")
+  void priceStats_reversedWindow_returnsBadRequest() throws Exception {
+    priceStats("2026-02", "2026-01", null).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("reconcile rebuilds the rollups from the voyage prices")
+  void reconcile_rebuildsRollups() throws Exception {
+    jdbcTemplate.update("delete from route_price_rollups where container_size = 'FORTY_FOOT'");
+    jdbcTemplate.update(
+        "update voyage_prices set base_price_usd = 1600 where base_price_usd = 1400");
+
+    priceHistory.reconcile();
+
+    priceStats("2026-01", "2026-02", null)
+        .andExpect(jsonPath("$.priceCount").value(4))
+        .andExpect(jsonPath("$.maxUsd").value(2000.0))
+        .andExpect(jsonPath("$.months[1].maxUsd").value(1600.0));
+  }
+
+  @Test
+  @DisplayName("reconcile deletes rollups whose prices are gone and keeps the others")
+  void reconcile_deletesRollupsWithoutPrices() throws Exception {
+    jdbcTemplate.update("delete from voyage_prices where base_price_usd in (1000, 1200, 2000)");
+
+    priceHistory.reconcile();
+
+    priceStats("2026-01", "2026-02", null)
+        .andExpect(jsonPath("$.priceCount").value(1))
+        .andExpect(jsonPath("$.months.length()").value(1))
+        .andExpect(jsonPath("$.months[0].month").value("2026-02"));
+    assertThat(
+            jdbcTemplate.queryForObject("select count(*) from route_price_rollups", Integer.class))
+        .isEqualTo(1);
+  }
+
+  private ResultActions priceStats(String from, String to, ContainerSize containerSize)
+      throws Exception {
+    var request =
+        get("/api/v1/routes/price-stats")
+            .param("departurePortId", departurePort.getId().toString())
+            .param("arrivalPortId", arrivalPort.getId().toString())
+            .param("from", from)
+            .param("to", to);
+    if (containerSize != null) {
+      request.param("containerSize", containerSize.name());
+    }
+    return mockMvc.perform(request);
+  }
+
+  private Voyage saveVoyage(String voyageNumber, LocalDateTime departureTime) {
+    Voyage voyage = new Voyage();
+    voyage.setVoyageNumber(voyageNumber);
+    voyage.setVessel(vessel);
+    voyage.setDeparturePort(departurePort);
+    voyage.setArrivalPort(arrivalPort);
+    voyage.setDepartureTime(departureTime);
+    voyage.setArrivalTime(departureTime.plusDays(30));
+    return voyageRepository.save(voyage);
+  }
+
+  private void addPrice(Voyage voyage, ContainerSize containerSize, String basePriceUsd)
+      throws Exception {
+    VoyagePriceRequest request = new VoyagePriceRequest();
+    request.setContainerSize(containerSize);
+    request.setBasePriceUsd(new BigDecimal(basePriceUsd));
+    mockMvc
+        .perform(
+            post("/api/v1/voyages/{voyageId}/prices", voyage.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+  }
+}
@@ -1,5 +1,6 @@
 package com.shipping.freightops.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -7,9 +8,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shipping.freightops.dto.CreateVesselRequest;
+import com.shipping.freightops.dto.VesselOwnerRequest;
 import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
 import com.shipping.freightops.repository.VesselRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
 import com.shipping.freightops.repository.VoyageRepository;
+import java.math.BigDecimal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,12 +38,18 @@ public class VesselControllerTest {
   @Autowired private MockMvc mockMvc;
   @Autowired private VoyageRepository voyageRepository;
   @Autowired private VesselRepository vesselRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
   @Autowired private ObjectMapper objectMapper;
 
   private Vessel savedVessel;
 
   @BeforeEach
   void setUp() {
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
+    voyagePriceRepository.deleteAll();
     voyageRepository.deleteAll();
     vesselRepository.deleteAll();
     Vessel vessel = new Vessel("MV Test", "9999999", 3000);
@@ -116,6 +128,77 @@ public class VesselControllerTest {
     mockMvc
         .perform(get("/api/v1/vessels"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray());
+        .andExpect(jsonPath("$.content").isArray());
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/vessels/{id}/owners → owners added, listed and removed")
+  void owners_addListAndRemove() throws Exception {
+    String location =
+        mockMvc
+            .perform(
+                post("/api/v1/vessels/{id}/owners", savedVessel.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(owner("Alpha Shipping Ltd", "60"))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.sharePercent").value(60))
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+    mockMvc
+        .perform(
+            post("/api/v1/vessels/{id}/owners", savedVessel.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(owner("Beta Maritime Co", "40"))))
+        .andExpect(status().isCreated());
+
+    mockMvc
+        .perform(get("/api/v1/vessels/{id}/owners", savedVessel.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].ownerName").value("Alpha Shipping Ltd"));
+
+    mockMvc.perform(delete(location)).andExpect(status().isNoContent());
+    mockMvc
+        .perform(get("/api/v1/vessels/{id}/owners", savedVessel.getId()))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].ownerName").value("Beta Maritime Co"));
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/vessels/{id}/owners → 409 when shares would exceed 100%")
+  void addOwner_exceedingFullOwnership_returnsConflict() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/vessels/{id}/owners", savedVessel.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(owner("Alpha Shipping Ltd", "70"))))
+        .andExpect(status().isCreated());
+
+    mockMvc
+        .perform(
+            post("/api/v1/vessels/{id}/owners", savedVessel.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(owner("Beta Maritime Co", "30.01"))))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/vessels/{id}/owners → 400 for a zero share")
+  void addOwner_zeroShare_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/vessels/{id}/owners", savedVessel.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(owner("Alpha Shipping Ltd", "0"))))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static VesselOwnerRequest owner(String name, String sharePercent) {
+    VesselOwnerRequest request = new VesselOwnerRequest();
+    request.setOwnerName(name);
+    request.setOwnerEmail("finance@owner.test");
+    request.setSharePercent(new BigDecimal(sharePercent));
+    return request;
   }
 }
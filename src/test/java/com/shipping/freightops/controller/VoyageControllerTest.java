@@ -1,27 +1,51 @@
 package com.shipping.freightops.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.freightops.dto.CreateFreightOrderRequest;
 import com.shipping.freightops.dto.CreateVoyageRequest;
+import com.shipping.freightops.dto.VoyageCostRequest;
 import com.shipping.freightops.dto.VoyagePriceRequest;
 import com.shipping.freightops.entity.*;
+import com.shipping.freightops.enums.AgentType;
 import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.ContainerType;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.enums.VoyageStatus;
 import com.shipping.freightops.repository.*;
+import com.shipping.freightops.service.ContainerOccupancyIndex;
+import com.shipping.freightops.service.VoyageCapacityTracker;
+import com.shipping.freightops.service.VoyageLoadSummary;
+import com.shipping.freightops.service.VoyageService;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import org.hamcrest.CoreMatchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -36,7 +60,16 @@ public class VoyageControllerTest {
   @Autowired private VoyagePriceRepository voyagePriceRepository;
   @Autowired private ContainerRepository containerRepository;
   @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
   @Autowired private CustomerRepository customerRepository;
+  @Autowired private AgentRepository agentRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private ContainerOccupancyIndex occupancyIndex;
+  @Autowired private VoyageCapacityTracker capacityTracker;
+  @Autowired private VoyageLoadSummary loadSummary;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private VesselOwnerRepository ownerRepository;
+  @Autowired private VoyageService voyageService;
 
   private Vessel vessel;
   private Port arrivalPort;
@@ -46,6 +79,7 @@ public class VoyageControllerTest {
 
   @BeforeEach
   void setUp() {
+    transitionRepository.deleteAll();
     freightOrderRepository.deleteAll();
     voyagePriceRepository.deleteAll();
     voyageRepository.deleteAll();
@@ -75,18 +109,78 @@ public class VoyageControllerTest {
     mockMvc
         .perform(MockMvcRequestBuilders.get("/api/v1/voyages"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray());
+        .andExpect(jsonPath("$.content").isArray())
+        .andExpect(jsonPath("$.content[0].vesselName").value("SeeFox"))
+        .andExpect(jsonPath("$.totalElements").value(1));
   }
 
   @Test
-  @DisplayName("GET: /api/v1/voyages -> Ok")
+  @DisplayName("GET: /api/v1/voyages?status -> Ok")
   public void getAllByStatus() throws Exception {
     mockMvc
         .perform(
             MockMvcRequestBuilders.get("/api/v1/voyages")
                 .param("status", voyage.getStatus().toString()))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray());
+        .andExpect(jsonPath("$.content").isArray())
+        .andExpect(jsonPath("$.content.length()").value(1));
+  }
+
+  @Test
+  @DisplayName("GET: /api/v1/voyages with filters -> only matching voyages")
+  public void getAll_filtersByPortAndDepartureWindow() throws Exception {
+    Voyage later = new Voyage();
+    later.setVoyageNumber("VOY-LATER");
+    later.setVessel(voyage.getVessel());
+    later.setDeparturePort(voyage.getArrivalPort());
+    later.setArrivalPort(voyage.getDeparturePort());
+    later.setDepartureTime(voyage.getDepartureTime().plusDays(30));
+    later.setArrivalTime(voyage.getArrivalTime().plusDays(30));
+    voyageRepository.save(later);
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/v1/voyages")
+                .param("departurePortId", voyage.getArrivalPort().getId().toString())
+                .param("departureFrom", voyage.getDepartureTime().plusDays(1).toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].voyageNumber").value("VOY-LATER"));
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/v1/voyages")
+                .param("status", "CANCELLED")
+                .param("arrivalPortId", voyage.getArrivalPort().getId().toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("GET: /api/v1/voyages -> vessel and ports are joined into the page query")
+  public void getAll_usesSingleQuery() throws Exception {
+    entityManagerFactory.getCache().evictAll();
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+
+    mockMvc
+        .perform(MockMvcRequestBuilders.get("/api/v1/voyages"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].departurePortName").value("kalgary"));
+
+    // One page smaller than the page size: Spring Data skips the count query
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("GET: /api/v1/voyages with an empty departure window -> 400")
+  public void getAll_invalidWindow_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/v1/voyages")
+                .param("departureFrom", "2030-01-02T00:00:00")
+                .param("departureTo", "2030-01-01T00:00:00"))
+        .andExpect(status().isBadRequest());
   }
 
   @Test
@@ -168,6 +262,615 @@ public class VoyageControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/{status} with current If-Match → new ETag")
+  void updateStatus_matchingIfMatch_bumpsVersion() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/voyages/" + voyage.getId()))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+    mockMvc
+        .perform(
+            patch("/api/v1/voyages/" + voyage.getId() + "/IN_PROGRESS")
+                .header(HttpHeaders.IF_MATCH, "\"0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+        .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+        .andExpect(jsonPath("$.version").value(1));
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/{status} with stale If-Match → 409 with current")
+  void updateStatus_staleIfMatch_returnsCurrentVoyage() throws Exception {
+    mockMvc
+        .perform(
+            patch("/api/v1/voyages/" + voyage.getId() + "/IN_PROGRESS")
+                .header(HttpHeaders.IF_MATCH, "\"0\""))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            patch("/api/v1/voyages/" + voyage.getId() + "/CANCELLED")
+                .header(HttpHeaders.IF_MATCH, "\"0\""))
+        .andExpect(status().isConflict())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+        .andExpect(jsonPath("$.current.status").value("IN_PROGRESS"))
+        .andExpect(jsonPath("$.current.version").value(1));
+
+    assertThat(voyageRepository.findById(voyage.getId()).orElseThrow().getStatus())
+        .isEqualTo(VoyageStatus.IN_PROGRESS);
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/COMPLETED → active orders delivered and logged")
+  void updateStatus_completed_deliversActiveOrders() throws Exception {
+    List<FreightOrder> orders =
+        saveOrders(OrderStatus.PENDING, OrderStatus.IN_TRANSIT, OrderStatus.CANCELLED);
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.orderStatus").value("DELIVERED"))
+        .andExpect(jsonPath("$.ordersTransitioned").value(2));
+
+    assertThat(freightOrderRepository.findAll())
+        .extracting(FreightOrder::getStatus)
+        .containsExactlyInAnyOrder(
+            OrderStatus.DELIVERED, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    assertThat(transitionRepository.countByVoyageId(voyage.getId())).isEqualTo(2);
+    List<OrderStatusTransition> log =
+        transitionRepository.findByOrderIdOrderByCreatedAtAsc(orders.get(0).getId());
+    assertThat(log).hasSize(1);
+    assertThat(log.get(0).getFromStatus()).isEqualTo(OrderStatus.PENDING);
+    assertThat(log.get(0).getToStatus()).isEqualTo(OrderStatus.DELIVERED);
+    assertThat(log.get(0).getReason()).isEqualTo("Voyage E-228 COMPLETED");
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/IN_PROGRESS → orders in transit, still booked")
+  void updateStatus_inProgress_movesOrdersInTransit() throws Exception {
+    List<FreightOrder> orders = saveOrders(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+    Long containerId = orders.get(0).getContainer().getId();
+    occupancyIndex.load(List.of(containerId));
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/IN_PROGRESS"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orderStatus").value("IN_TRANSIT"))
+        .andExpect(jsonPath("$.ordersTransitioned").value(2));
+
+    assertThat(freightOrderRepository.findAll())
+        .extracting(FreightOrder::getStatus)
+        .containsOnly(OrderStatus.IN_TRANSIT);
+    assertThatThrownBy(
+            () ->
+                occupancyIndex.claim(
+                    containerId, -1L, voyage.getDepartureTime(), voyage.getArrivalTime()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/CANCELLED → containers and capacity released")
+  void updateStatus_cancelled_releasesContainersAndCapacity() throws Exception {
+    List<FreightOrder> orders = saveOrders(OrderStatus.CONFIRMED);
+    Long containerId = orders.get(0).getContainer().getId();
+    occupancyIndex.load(List.of(containerId));
+    assertThat(capacityTracker.reservedTeu(voyage.getId())).isEqualTo(1);
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/CANCELLED"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.ordersTransitioned").value(1));
+
+    assertThat(freightOrderRepository.findAll())
+        .extracting(FreightOrder::getStatus)
+        .containsOnly(OrderStatus.CANCELLED);
+    assertThat(capacityTracker.reservedTeu(voyage.getId())).isZero();
+    assertThatCode(
+            () ->
+                occupancyIndex.claim(
+                    containerId, -1L, voyage.getDepartureTime(), voyage.getArrivalTime()))
+        .doesNotThrowAnyException();
+    occupancyIndex.release(containerId, -1L);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/load → active orders summed against capacity")
+  void getLoad_sumsActiveOrders() throws Exception {
+    voyage.setMaxCapacityTeu(8);
+    voyage = voyageRepository.save(voyage);
+    saveOrders(OrderStatus.PENDING, OrderStatus.IN_TRANSIT, OrderStatus.CANCELLED);
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyageNumber").value("E-228"))
+        .andExpect(jsonPath("$.maxCapacityTeu").value(8))
+        .andExpect(jsonPath("$.currentLoadTeu").value(2))
+        .andExpect(jsonPath("$.utilizationPercent").value(25.0))
+        .andExpect(jsonPath("$.bookingOpen").value(true))
+        .andExpect(jsonPath("$.containerCount").value(2));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/load → follows bookings, cancellations and status")
+  void getLoad_followsOrderChanges() throws Exception {
+    voyage.setMaxCapacityTeu(8);
+    voyage = voyageRepository.save(voyage);
+    FreightOrder existing = saveOrders(OrderStatus.CONFIRMED).get(0);
+    loadSummary.get(voyage.getId());
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(ContainerSize.FORTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(1800));
+    voyagePriceRepository.save(price);
+    Container fortyFoot =
+        containerRepository.save(
+            new Container("MSCU7654321", ContainerSize.FORTY_FOOT, ContainerType.DRY));
+    CreateFreightOrderRequest booking = new CreateFreightOrderRequest();
+    booking.setVoyageId(voyage.getId());
+    booking.setContainerId(fortyFoot.getId());
+    booking.setCustomerId(existing.getCustomer().getId());
+    booking.setAgentId(existing.getAgent().getId());
+    booking.setOrderedBy("ops-team");
+
+    mockMvc
+        .perform(
+            post("/api/v1/freight-orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(booking)))
+        .andExpect(status().isCreated());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", voyage.getId()))
+        .andExpect(jsonPath("$.currentLoadTeu").value(3))
+        .andExpect(jsonPath("$.utilizationPercent").value(37.5))
+        .andExpect(jsonPath("$.containerCount").value(2));
+
+    mockMvc
+        .perform(patch("/api/v1/freight-orders/{id}/cancel", existing.getId()))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", voyage.getId()))
+        .andExpect(jsonPath("$.currentLoadTeu").value(2))
+        .andExpect(jsonPath("$.containerCount").value(1));
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", voyage.getId()))
+        .andExpect(jsonPath("$.currentLoadTeu").value(0))
+        .andExpect(jsonPath("$.containerCount").value(0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/load → 404 Not Found")
+  void getLoad_returnsNotFound() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", 99999L))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("reconcile repairs a load summary that drifted from the orders")
+  void reconcileLoad_repairsDrift() throws Exception {
+    saveOrders(OrderStatus.CONFIRMED, OrderStatus.CONFIRMED);
+    loadSummary.get(voyage.getId());
+    jdbcTemplate.update(
+        "update voyage_loads set load_teu = 7, container_count = 5 where voyage_id = ?",
+        voyage.getId());
+
+    loadSummary.reconcile();
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/load", voyage.getId()))
+        .andExpect(jsonPath("$.currentLoadTeu").value(2))
+        .andExpect(jsonPath("$.containerCount").value(2));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/financial-summary → split by owner on completion")
+  void financialSummary_splitsProfitByOwner() throws Exception {
+    saveOwner("Alpha Shipping Ltd", "60");
+    saveOwner("Beta Maritime Co", "40");
+    saveOrders(OrderStatus.CONFIRMED, OrderStatus.IN_TRANSIT, OrderStatus.CANCELLED);
+    addCost("Fuel", "450.50");
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyageNumber").value("E-228"))
+        .andExpect(jsonPath("$.totalRevenueUsd").value(2000.0))
+        .andExpect(jsonPath("$.totalCostsUsd").value(450.5))
+        .andExpect(jsonPath("$.netProfitUsd").value(1549.5))
+        .andExpect(jsonPath("$.orderCount").value(2))
+        .andExpect(jsonPath("$.owners.length()").value(2))
+        .andExpect(jsonPath("$.owners[0].ownerName").value("Alpha Shipping Ltd"))
+        .andExpect(jsonPath("$.owners[0].sharePercent").value(60.0))
+        .andExpect(jsonPath("$.owners[0].revenueShareUsd").value(1200.0))
+        .andExpect(jsonPath("$.owners[0].costShareUsd").value(270.3))
+        .andExpect(jsonPath("$.owners[0].profitShareUsd").value(929.7))
+        .andExpect(jsonPath("$.owners[1].revenueShareUsd").value(800.0))
+        .andExpect(jsonPath("$.owners[1].costShareUsd").value(180.2))
+        .andExpect(jsonPath("$.owners[1].profitShareUsd").value(619.8));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/financial-summary → served from the snapshot")
+  void financialSummary_isNotReaggregated() throws Exception {
+    saveOrders(OrderStatus.CONFIRMED);
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+    jdbcTemplate.update(
+        "update freight_orders set final_price = 1 where voyage_id = ?", voyage.getId());
+
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalRevenueUsd").value(1000.0));
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/voyages/{voyageId}/costs → a late cost replaces the summary")
+  void lateCost_recomputesFinancialSummary() throws Exception {
+    saveOwner("Alpha Shipping Ltd", "100");
+    saveOrders(OrderStatus.CONFIRMED);
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+
+    addCost("Port fees", "250");
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", voyage.getId()))
+        .andExpect(jsonPath("$.totalCostsUsd").value(250.0))
+        .andExpect(jsonPath("$.netProfitUsd").value(750.0))
+        .andExpect(jsonPath("$.owners.length()").value(1))
+        .andExpect(jsonPath("$.owners[0].profitShareUsd").value(750.0));
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/costs", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].description").value("Port fees"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/financial-summary → 409 before completion")
+  void financialSummary_notCompleted_returnsConflict() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", voyage.getId()))
+        .andExpect(status().isConflict());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", 99999L))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/IN_PROGRESS → 409 once the voyage is completed")
+  void updateStatus_completedToInProgress_returnsConflict() throws Exception {
+    FreightOrder order = saveOrders(OrderStatus.CONFIRMED).get(0);
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/IN_PROGRESS"))
+        .andExpect(status().isConflict());
+
+    Voyage current = voyageRepository.findById(voyage.getId()).orElseThrow();
+    assertThat(current.getStatus()).isEqualTo(VoyageStatus.COMPLETED);
+    assertThat(freightOrderRepository.findById(order.getId()).orElseThrow().getStatus())
+        .isEqualTo(OrderStatus.DELIVERED);
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/financial-summary", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalRevenueUsd").value(1000.0));
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalCommissionsUsd").value(50.0));
+  }
+
+  @Test
+  @DisplayName("PATCH /api/v1/voyages/{voyageId}/PLANNED → 409 once the voyage is cancelled")
+  void updateStatus_cancelledToPlanned_returnsConflict() throws Exception {
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/CANCELLED"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/PLANNED"))
+        .andExpect(status().isConflict());
+
+    assertThat(voyageRepository.findById(voyage.getId()).orElseThrow().getStatus())
+        .isEqualTo(VoyageStatus.CANCELLED);
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/commissions → delivered orders per agent")
+  void commissions_rolledUpPerAgentOnCompletion() throws Exception {
+    List<FreightOrder> orders =
+        saveOrders(OrderStatus.CONFIRMED, OrderStatus.IN_TRANSIT, OrderStatus.CONFIRMED);
+    Agent broker = new Agent();
+    broker.setName("Broker Two");
+    broker.setEmail("broker@test.com");
+    broker.setCommissionPercent(new BigDecimal("7.5"));
+    broker.setType(AgentType.EXTERNAL);
+    broker = agentRepository.save(broker);
+    orders.get(2).setAgent(broker);
+    orders.get(2).setFinalPrice(new BigDecimal("333.33"));
+    freightOrderRepository.save(orders.get(2));
+
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyageNumber").value("E-228"))
+        .andExpect(jsonPath("$.agents.length()").value(2))
+        .andExpect(jsonPath("$.agents[0].agentName").value("Broker Two"))
+        .andExpect(jsonPath("$.agents[0].commissionPercent").value(7.5))
+        .andExpect(jsonPath("$.agents[0].orderCount").value(1))
+        .andExpect(jsonPath("$.agents[0].totalOrderValueUsd").value(333.33))
+        .andExpect(jsonPath("$.agents[0].commissionEarnedUsd").value(25.0))
+        .andExpect(jsonPath("$.agents[1].agentName").value("Test Agent"))
+        .andExpect(jsonPath("$.agents[1].orderCount").value(2))
+        .andExpect(jsonPath("$.agents[1].totalOrderValueUsd").value(2000.0))
+        .andExpect(jsonPath("$.agents[1].commissionEarnedUsd").value(100.0))
+        .andExpect(jsonPath("$.totalCommissionsUsd").value(125.0));
+
+    mockMvc
+        .perform(
+            get("/api/v1/agents/{id}/commission-statement", broker.getId())
+                .param("from", "2026-11-01")
+                .param("to", "2026-12-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyages.length()").value(1))
+        .andExpect(jsonPath("$.voyages[0].voyageNumber").value("E-228"))
+        .andExpect(jsonPath("$.totalCommissionUsd").value(25.0));
+    mockMvc
+        .perform(
+            get("/api/v1/agents/{id}/commission-statement", broker.getId())
+                .param("from", "2026-12-01")
+                .param("to", "2027-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyages.length()").value(0))
+        .andExpect(jsonPath("$.totalCommissionUsd").value(0.0));
+    mockMvc
+        .perform(
+            get("/api/v1/agents/commissions").param("from", "2026-11-01").param("to", "2026-12-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].agentName").value("Broker Two"))
+        .andExpect(jsonPath("$[0].voyageCount").value(1))
+        .andExpect(jsonPath("$[1].orderCount").value(2))
+        .andExpect(jsonPath("$[1].totalCommissionUsd").value(100.0));
+  }
+
+  @Test
+  @DisplayName("DELETE /api/v1/agents/{id} → 409 while the agent has commission history")
+  void deleteAgent_keepsCommissionHistory() throws Exception {
+    Long agentId = saveOrders(OrderStatus.CONFIRMED).get(0).getAgent().getId();
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+    // Only the commission rollup still refers to the agent
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
+
+    mockMvc.perform(delete("/api/v1/agents/{id}", agentId)).andExpect(status().isConflict());
+    assertThatThrownBy(() -> jdbcTemplate.update("delete from agents where id = ?", agentId))
+        .isInstanceOf(DataIntegrityViolationException.class);
+
+    mockMvc
+        .perform(
+            get("/api/v1/agents/{id}/commission-statement", agentId)
+                .param("from", "2026-11-01")
+                .param("to", "2026-12-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyages.length()").value(1))
+        .andExpect(jsonPath("$.totalCommissionUsd").value(50.0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/commissions → cached, not re-aggregated")
+  void commissions_areServedFromCache() throws Exception {
+    saveOrders(OrderStatus.CONFIRMED);
+    mockMvc
+        .perform(patch("/api/v1/voyages/" + voyage.getId() + "/COMPLETED"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", voyage.getId()))
+        .andExpect(jsonPath("$.totalCommissionsUsd").value(50.0));
+
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.agents[0].commissionEarnedUsd").value(50.0));
+
+    assertThat(stats.getPrepareStatementCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/commissions → 409 before completion")
+  void commissions_notCompleted_returnsConflict() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", voyage.getId()))
+        .andExpect(status().isConflict());
+    mockMvc
+        .perform(get("/api/v1/voyages/{voyageId}/commissions", 99999L))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/price-suggestion → range from the route history")
+  void priceSuggestion_fromRouteHistory() throws Exception {
+    Voyage target = savePricedHistory();
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.voyageNumber").value("VOY-TARGET"))
+        .andExpect(jsonPath("$.route").value("kalgary → tokyo"))
+        .andExpect(jsonPath("$.dataPoints").value(12))
+        .andExpect(jsonPath("$.historicalAvgUsd").value(1000.0))
+        .andExpect(jsonPath("$.utilizationPercent").value(0.0))
+        .andExpect(jsonPath("$.suggestedPriceUsd").value(900.0))
+        .andExpect(jsonPath("$.suggestedPriceLowUsd").value(865.4))
+        .andExpect(jsonPath("$.suggestedPriceHighUsd").value(934.6))
+        .andExpect(jsonPath("$.confidence").value("HIGH"))
+        .andExpect(jsonPath("$.reasoning", CoreMatchers.containsString("12 prices")));
+
+    Container container =
+        containerRepository.save(
+            new Container("MSCU7777777", ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+    Customer customer =
+        customerRepository.save(new Customer("Acme Corp", "John Doe", "john@acme.com"));
+    Agent agent = new Agent();
+    agent.setName("Test Agent");
+    agent.setEmail("agent@test.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    FreightOrder order = new FreightOrder();
+    order.setAgent(agentRepository.save(agent));
+    order.setVoyage(target);
+    order.setContainer(container);
+    order.setCustomer(customer);
+    order.setOrderedBy("ops-team");
+    order.setStatus(OrderStatus.CONFIRMED);
+    order.setBasePriceUsd(BigDecimal.valueOf(1000));
+    order.setDiscountPercent(BigDecimal.ZERO);
+    order.setFinalPrice(BigDecimal.valueOf(1000));
+    order.setOccupiedFrom(target.getDepartureTime());
+    order.setOccupiedUntil(target.getArrivalTime());
+    freightOrderRepository.save(order);
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.utilizationPercent").value(100.0))
+        .andExpect(jsonPath("$.suggestedPriceUsd").value(1100.0));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/price-suggestion → cached model, evicted by a price")
+  void priceSuggestion_modelCachedUntilRouteGetsPrice() throws Exception {
+    Voyage target = savePricedHistory();
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.dataPoints").value(12));
+
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.dataPoints").value(12));
+    assertThat(stats.getQueries()).noneMatch(query -> query.contains("RoutePriceRollup"));
+
+    addPrice(target, "1300");
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.dataPoints").value(13))
+        .andExpect(jsonPath("$.historicalMaxUsd").value(1300.0));
+  }
+
+  @Test
+  @DisplayName("VoyageService.delete → evicts the cached price models of the voyage's route")
+  void delete_evictsRoutePriceModels() throws Exception {
+    Voyage target = savePricedHistory();
+    Voyage extra = saveVoyageOnRoute("VOY-EXTRA", LocalDateTime.of(2026, 6, 1, 8, 0));
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.dataPoints").value(12));
+
+    voyageService.delete(extra.getId());
+
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", target.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(jsonPath("$.dataPoints").value(12));
+    assertThat(stats.getQueries()).anyMatch(query -> query.contains("RoutePriceRollup"));
+  }
+
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/price-suggestion → LOW without history")
+  void priceSuggestion_withoutHistory() throws Exception {
+    addPrice(voyage, "2500", ContainerSize.FORTY_FOOT);
+
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", voyage.getId())
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.confidence").value("LOW"))
+        .andExpect(jsonPath("$.dataPoints").value(0))
+        .andExpect(jsonPath("$.suggestedPriceUsd").doesNotExist())
+        .andExpect(jsonPath("$.reasoning", CoreMatchers.containsString("1 FORTY_FOOT prices")));
+    mockMvc
+        .perform(
+            get("/api/v1/voyages/{voyageId}/price-suggestion", 99999L)
+                .param("containerSize", "TWENTY_FOOT"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("POST /api/v1/voyages/{voyageId}/costs → 400 for a non-positive amount")
+  void addCost_invalidAmount_returnsBadRequest() throws Exception {
+    VoyageCostRequest request = new VoyageCostRequest();
+    request.setDescription("Fuel");
+    request.setAmountUsd(BigDecimal.ZERO);
+
+    mockMvc
+        .perform(
+            post("/api/v1/voyages/{voyageId}/costs", voyage.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("saving a voyage read before a concurrent update fails instead of overwriting it")
+  void staleVoyageSave_failsOnVersion() {
+    Voyage first = voyageRepository.findById(voyage.getId()).orElseThrow();
+    Voyage second = voyageRepository.findById(voyage.getId()).orElseThrow();
+
+    first.setStatus(VoyageStatus.IN_PROGRESS);
+    voyageRepository.save(first);
+    second.setBookingOpen(false);
+
+    assertThatThrownBy(() -> voyageRepository.save(second))
+        .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    assertThat(voyageRepository.findById(voyage.getId()).orElseThrow().isBookingOpen()).isTrue();
+  }
+
   @Test
   @DisplayName("POST /api/v1/voyages/{voyageId}/prices → 201 Created")
   void createVoyagePrice_returnsCreated() throws Exception {
@@ -272,6 +975,23 @@ public class VoyageControllerTest {
         .andExpect(jsonPath("$.totalPages").value(1));
   }
 
+  @Test
+  @DisplayName("GET /api/v1/voyages/{voyageId}/prices?count=false → slice without totals")
+  void getVoyagePrices_withoutCount_returnsSlice() throws Exception {
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(ContainerSize.TWENTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(1000));
+    voyagePriceRepository.save(price);
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{id}/prices", voyage.getId()).param("count", "false"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.hasNext").value(false))
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+  }
+
   @Test
   @DisplayName("GET /api/v1/voyages/{voyageId}/prices → 200 OK with empty content")
   void getVoyagePrices_returnsEmptyPage() throws Exception {
@@ -287,6 +1007,30 @@ public class VoyageControllerTest {
         .andExpect(jsonPath("$.totalElements").value(0));
   }
 
+  @Test
+  @DisplayName("POST /api/v1/voyages/{voyageId}/prices → invalidates the cached prices")
+  void createVoyagePrice_invalidatesCachedPrices() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/voyages/{id}/prices", voyage.getId()))
+        .andExpect(jsonPath("$.content.length()").value(0));
+
+    VoyagePriceRequest request = new VoyagePriceRequest();
+    request.setContainerSize(ContainerSize.FORTY_FOOT);
+    request.setBasePriceUsd(BigDecimal.valueOf(1500));
+    mockMvc
+        .perform(
+            post("/api/v1/voyages/" + voyage.getId() + "/prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+
+    mockMvc
+        .perform(get("/api/v1/voyages/{id}/prices", voyage.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].basePriceUsd").value(1500));
+  }
+
   @Test
   @DisplayName("GET /api/v1/voyages/{voyageId}/prices → 404 Not Found if voyage does not exist")
   void getVoyagePrices_returnsNotFound() throws Exception {
@@ -306,14 +1050,24 @@ public class VoyageControllerTest {
     Customer customer =
         customerRepository.save(new Customer("Acme Corp", "John Doe", "john@acme.com"));
 
+    Agent agent = new Agent();
+    agent.setName("Test Agent");
+    agent.setEmail("agent@test.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    agent = agentRepository.save(agent);
+
     FreightOrder order = new FreightOrder();
     order.setVoyage(voyage);
     order.setContainer(container);
     order.setCustomer(customer);
+    order.setAgent(agent);
     order.setOrderedBy("ops-team");
     order.setBasePriceUsd(BigDecimal.valueOf(1000));
     order.setDiscountPercent(BigDecimal.ZERO);
     order.setFinalPrice(BigDecimal.valueOf(1000));
+    order.setOccupiedFrom(voyage.getDepartureTime());
+    order.setOccupiedUntil(voyage.getArrivalTime());
     freightOrderRepository.save(order);
 
     mockMvc
@@ -331,6 +1085,101 @@ public class VoyageControllerTest {
         .andExpect(jsonPath("$.content[0].orderStatus").value("PENDING"));
   }
 
+  /**
+   * Prices a TWENTY_FOOT container at $1,000 on twelve monthly voyages of the route and returns an
+   * unpriced voyage departing the month after.
+   */
+  private Voyage savePricedHistory() throws Exception {
+    LocalDateTime departure = LocalDateTime.of(2025, 3, 10, 8, 0);
+    for (int i = 0; i < 12; i++) {
+      addPrice(saveVoyageOnRoute("VOY-HIST-" + i, departure.plusMonths(i)), "1000");
+    }
+    return saveVoyageOnRoute("VOY-TARGET", departure.plusMonths(12));
+  }
+
+  private Voyage saveVoyageOnRoute(String voyageNumber, LocalDateTime departureTime) {
+    Voyage onRoute = new Voyage();
+    onRoute.setVoyageNumber(voyageNumber);
+    onRoute.setVessel(vessel);
+    onRoute.setDeparturePort(departurePort);
+    onRoute.setArrivalPort(arrivalPort);
+    onRoute.setDepartureTime(departureTime);
+    onRoute.setArrivalTime(departureTime.plusDays(20));
+    return voyageRepository.save(onRoute);
+  }
+
+  private void addPrice(Voyage priced, String basePriceUsd) throws Exception {
+    addPrice(priced, basePriceUsd, ContainerSize.TWENTY_FOOT);
+  }
+
+  private void addPrice(Voyage priced, String basePriceUsd, ContainerSize containerSize)
+      throws Exception {
+    VoyagePriceRequest request = new VoyagePriceRequest();
+    request.setContainerSize(containerSize);
+    request.setBasePriceUsd(new BigDecimal(basePriceUsd));
+    mockMvc
+        .perform(
+            post("/api/v1/voyages/{voyageId}/prices", priced.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+  }
+
+  private void saveOwner(String name, String sharePercent) {
+    VesselOwner owner = new VesselOwner();
+    owner.setVessel(vessel);
+    owner.setOwnerName(name);
+    owner.setOwnerEmail("finance@" + name.toLowerCase().replace(' ', '-') + ".test");
+    owner.setSharePercent(new BigDecimal(sharePercent));
+    ownerRepository.save(owner);
+  }
+
+  private void addCost(String description, String amountUsd) throws Exception {
+    VoyageCostRequest request = new VoyageCostRequest();
+    request.setDescription(description);
+    request.setAmountUsd(new BigDecimal(amountUsd));
+    mockMvc
+        .perform(
+            post("/api/v1/voyages/{voyageId}/costs", voyage.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.description").value(description));
+  }
+
+  /** Saves one order per status on the voyage, each on its own container. */
+  private List<FreightOrder> saveOrders(OrderStatus... statuses) {
+    Customer customer =
+        customerRepository.save(new Customer("Acme Corp", "John Doe", "john@acme.com"));
+    Agent agent = new Agent();
+    agent.setName("Test Agent");
+    agent.setEmail("agent@test.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    agent = agentRepository.save(agent);
+
+    List<FreightOrder> orders = new ArrayList<>();
+    for (int i = 0; i < statuses.length; i++) {
+      Container container =
+          containerRepository.save(
+              new Container("MSCU000000" + i, ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+      FreightOrder order = new FreightOrder();
+      order.setVoyage(voyage);
+      order.setContainer(container);
+      order.setCustomer(customer);
+      order.setAgent(agent);
+      order.setOrderedBy("ops-team");
+      order.setStatus(statuses[i]);
+      order.setBasePriceUsd(BigDecimal.valueOf(1000));
+      order.setDiscountPercent(BigDecimal.ZERO);
+      order.setFinalPrice(BigDecimal.valueOf(1000));
+      order.setOccupiedFrom(voyage.getDepartureTime());
+      order.setOccupiedUntil(voyage.getArrivalTime());
+      orders.add(freightOrderRepository.save(order));
+    }
+    return orders;
+  }
+
   @Test
   @DisplayName("GET /api/v1/voyages/{voyageId}/containers → 200 OK with empty list")
   void getContainersByVoyageId_returnsEmptyList() throws Exception {
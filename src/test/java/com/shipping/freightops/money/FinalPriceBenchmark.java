@@ -0,0 +1,76 @@
+package com.shipping.freightops.money;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Final price of an order: the {@code BigDecimal} formula against {@link Money}'s fixed-point
+ * cents. Run with {@code mvn -Pbenchmark test-compile exec:exec}; the gc profiler's {@code
+ * gc.alloc.rate.norm} column shows bytes allocated per price.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(FinalPriceBenchmark.ORDERS)
+public class FinalPriceBenchmark {
+
+  static final int ORDERS = 1024;
+
+  private final BigDecimal[] basePrices = new BigDecimal[ORDERS];
+  private final BigDecimal[] discountPercents = new BigDecimal[ORDERS];
+  private final long[] baseCents = new long[ORDERS];
+  private final int[] discountBasisPoints = new int[ORDERS];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < ORDERS; i++) {
+      baseCents[i] = 50_000 + random.nextInt(1_000_000);
+      discountBasisPoints[i] = random.nextInt(2_501);
+      basePrices[i] = BigDecimal.valueOf(baseCents[i], 2);
+      discountPercents[i] = BigDecimal.valueOf(discountBasisPoints[i], 2);
+    }
+  }
+
+  @Benchmark
+  public void bigDecimal(Blackhole blackhole) {
+    for (int i = 0; i < ORDERS; i++) {
+      blackhole.consume(MoneyTest.bigDecimalFinalPrice(basePrices[i], discountPercents[i]));
+    }
+  }
+
+  /** Cents and basis points end to end, as bulk quoting and reporting loops run. */
+  @Benchmark
+  public void fixedPoint(Blackhole blackhole) {
+    for (int i = 0; i < ORDERS; i++) {
+      blackhole.consume(Money.discountCents(baseCents[i], discountBasisPoints[i]));
+    }
+  }
+
+  /** What {@code calculateFinalPrice} does: fixed-point math between BigDecimal entity fields. */
+  @Benchmark
+  public void fixedPointFromBigDecimal(Blackhole blackhole) {
+    for (int i = 0; i < ORDERS; i++) {
+      long cents =
+          Money.discountCents(
+              Money.toCents(basePrices[i]), Money.toBasisPoints(discountPercents[i]));
+      blackhole.consume(BigDecimal.valueOf(cents, 2));
+    }
+  }
+}
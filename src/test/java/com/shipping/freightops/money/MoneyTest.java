@@ -0,0 +1,111 @@
+package com.shipping.freightops.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link Money}, checked against the {@code BigDecimal} formulas it replaces. */
+class MoneyTest {
+
+  /** Largest amount a {@code numeric(10, 2)} price column holds, in cents. */
+  private static final long MAX_PRICE_CENTS = 9_999_999_999L;
+
+  @Test
+  @DisplayName("discountCents matches the BigDecimal final price for every whole basis point")
+  void discountCents_matchesBigDecimalForAllBasisPoints() {
+    Random random = new Random(17);
+    for (int i = 0; i < 200; i++) {
+      long baseCents = i < 100 ? i : (long) (random.nextDouble() * MAX_PRICE_CENTS);
+      BigDecimal base = BigDecimal.valueOf(baseCents, 2);
+      for (int bp = 0; bp <= Money.FULL_BASIS_POINTS; bp++) {
+        BigDecimal expected = bigDecimalFinalPrice(base, BigDecimal.valueOf(bp, 2));
+
+        assertThat(BigDecimal.valueOf(Money.discountCents(baseCents, bp), 2))
+            .as("%s at %d bp", base, bp)
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("finer percentages round to basis points exactly as the four-decimal fraction did")
+  void toBasisPoints_matchesFourDecimalRounding() {
+    Random random = new Random(23);
+    for (int i = 0; i < 100_000; i++) {
+      BigDecimal percent = BigDecimal.valueOf(random.nextInt(100_001), 3);
+      BigDecimal base = BigDecimal.valueOf((long) (random.nextDouble() * MAX_PRICE_CENTS), 2);
+
+      long cents = Money.discountCents(Money.toCents(base), Money.toBasisPoints(percent));
+
+      assertThat(BigDecimal.valueOf(cents, 2))
+          .as("%s at %s %%", base, percent)
+          .isEqualTo(bigDecimalFinalPrice(base, percent));
+    }
+  }
+
+  @Test
+  @DisplayName("ties round half up, and away from zero for negative amounts")
+  void ties_roundHalfUp() {
+    assertThat(Money.of(new BigDecimal("17.49")).discounted(5_000))
+        .isEqualTo(Money.of(new BigDecimal("8.75")));
+    assertThat(Money.ofCents(-1_749).discounted(5_000).getCents()).isEqualTo(-875);
+    assertThat(Money.divideHalfUp(14, 10)).isEqualTo(1);
+    assertThat(Money.divideHalfUp(-15, 10)).isEqualTo(-2);
+  }
+
+  @Test
+  @DisplayName("share matches amount * percent / 100 rounded to cents")
+  void share_matchesBigDecimal() {
+    Random random = new Random(31);
+    for (int i = 0; i < 100_000; i++) {
+      long cents = (long) (random.nextDouble() * MAX_PRICE_CENTS);
+      int bp = random.nextInt(Money.FULL_BASIS_POINTS + 1);
+      BigDecimal expected =
+          BigDecimal.valueOf(cents, 2)
+              .multiply(BigDecimal.valueOf(bp, 4))
+              .setScale(2, RoundingMode.HALF_UP);
+
+      assertThat(Money.ofCents(cents).share(bp).toBigDecimal()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("arithmetic that leaves the long range throws instead of wrapping")
+  void overflow_throws() {
+    Money huge = Money.ofCents(Long.MAX_VALUE);
+
+    assertThatThrownBy(() -> huge.plus(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> huge.discounted(1)).isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Money.of(new BigDecimal("1e30")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  @DisplayName("converters round-trip the numeric(…, 2) column values")
+  void converters_roundTrip() {
+    MoneyConverter money = new MoneyConverter();
+    BasisPointsConverter basisPoints = new BasisPointsConverter();
+
+    assertThat(money.convertToEntityAttribute(new BigDecimal("1234.50")).getCents())
+        .isEqualTo(123_450);
+    assertThat(money.convertToDatabaseColumn(Money.ofCents(123_450)))
+        .isEqualTo(new BigDecimal("1234.50"));
+    assertThat(basisPoints.convertToEntityAttribute(new BigDecimal("12.50"))).isEqualTo(1_250);
+    assertThat(basisPoints.convertToDatabaseColumn(1_250)).isEqualTo(new BigDecimal("12.50"));
+    assertThat(money.convertToEntityAttribute(null)).isNull();
+    assertThat(basisPoints.convertToDatabaseColumn(null)).isNull();
+  }
+
+  /** The final price formula {@code FreightOrderService} used before {@link Money}. */
+  static BigDecimal bigDecimalFinalPrice(BigDecimal basePriceUsd, BigDecimal discountPercent) {
+    BigDecimal discount = discountPercent.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+    return basePriceUsd
+        .multiply(BigDecimal.ONE.subtract(discount))
+        .setScale(2, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,45 @@
+package com.shipping.freightops.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The order search filters are served by the composite indexes on {@code freight_orders}.
+ *
+ * <p>Checks the H2 plan of the predicate shapes {@link FreightOrderSpecifications} produces, so a
+ * renamed column or dropped index fails here rather than as a full scan in production.
+ */
+@SpringBootTest
+class FreightOrderSearchPlanTest {
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @ParameterizedTest(name = "{0}")
+  @DisplayName("search predicate → planned on its composite index")
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "voyage_id = 1 and status = 'PENDING' | IDX_FREIGHT_ORDERS_VOYAGE_STATUS",
+        "status = 'CANCELLED' and created_at >= timestamp '2026-01-01 00:00:00'"
+            + " | IDX_FREIGHT_ORDERS_STATUS_CREATED",
+        "agent_id = 1 and created_at >= timestamp '2026-01-01 00:00:00'"
+            + " | IDX_FREIGHT_ORDERS_AGENT_CREATED",
+        "customer_id = 1 and created_at < timestamp '2026-01-01 00:00:00'"
+            + " | IDX_FREIGHT_ORDERS_CUSTOMER_CREATED",
+        "container_id = 1 and status = 'IN_TRANSIT' | IDX_FREIGHT_ORDERS_CONTAINER_STATUS",
+        "final_price between 100 and 200 | IDX_FREIGHT_ORDERS_FINAL_PRICE"
+      })
+  void searchPredicate_usesIndex(String predicate, String index) {
+    String plan =
+        jdbcTemplate.queryForObject(
+            "explain select id from freight_orders where " + predicate, String.class);
+
+    assertThat(plan).containsIgnoringCase(index);
+  }
+}
@@ -0,0 +1,84 @@
+package com.shipping.freightops.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shipping.freightops.entity.Voyage;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The Flyway migrations upgrade a database created by the former {@code ddl-auto=update}.
+ *
+ * <p>Unlike {@link SchemaMigrationTest}, the database starts from the pre-Flyway schema with data
+ * in it, is baselined at version 0 and migrated, and Hibernate then validates the entities against
+ * the result. Skipped when Docker is not available.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.driver-class-name=org.postgresql.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Testcontainers(disabledWithoutDocker = true)
+class LegacySchemaMigrationTest {
+
+  @Container @ServiceConnection
+  static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Autowired private Flyway flyway;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private VoyageRepository voyageRepository;
+
+  @TestConfiguration
+  static class PreFlywaySchema {
+
+    /** Creates the pre-Flyway schema before the migrations run on it. */
+    @Bean
+    FlywayMigrationStrategy preFlywaySchemaFirst(DataSource dataSource) {
+      return flyway -> {
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy/pre_flyway_schema.sql"))
+            .execute(dataSource);
+        flyway.migrate();
+      };
+    }
+  }
+
+  @Test
+  @DisplayName("the existing schema is baselined and every migration applies on top of it")
+  void migratesExistingSchema() {
+    assertThat(flyway.info().pending()).isEmpty();
+    assertThat(flyway.info().current().getVersion().getVersion()).isNotEqualTo("0");
+  }
+
+  @Test
+  @DisplayName("existing voyages get the columns added since, with their defaults")
+  void backfillsVoyageColumns() {
+    Voyage voyage = voyageRepository.findAll().get(0);
+
+    assertThat(voyage.isBookingOpen()).isTrue();
+    assertThat(voyage.getMaxCapacityTeu()).isEqualTo(4000);
+    assertThat(voyage.getVersion()).isZero();
+  }
+
+  @Test
+  @DisplayName("ids continue after the existing rows")
+  void sequencesContinueAfterExistingIds() {
+    Long next = jdbcTemplate.queryForObject("select nextval('voyages_seq')", Long.class);
+
+    assertThat(next).isGreaterThan(2);
+  }
+}
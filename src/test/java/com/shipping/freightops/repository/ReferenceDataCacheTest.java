@@ -0,0 +1,76 @@
+package com.shipping.freightops.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.Vessel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Reference entities and their lookups are served from the second-level cache. */
+@SpringBootTest
+class ReferenceDataCacheTest {
+
+  @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private VoyageRepository voyageRepository;
+  @Autowired private PortRepository portRepository;
+  @Autowired private VesselRepository vesselRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics stats;
+
+  @BeforeEach
+  void setUp() {
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
+    voyagePriceRepository.deleteAll();
+    voyageRepository.deleteAll();
+    portRepository.deleteAll();
+    vesselRepository.deleteAll();
+    stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  @DisplayName("findById → second read of a port comes from the cache")
+  void findById_hitsSecondLevelCache() {
+    Port port = portRepository.save(new Port("DEHAM", "Hamburg", "Germany"));
+    stats.clear();
+
+    portRepository.findById(port.getId()).orElseThrow();
+    portRepository.findById(port.getId()).orElseThrow();
+
+    assertThat(stats.getPrepareStatementCount()).isZero();
+    assertThat(stats.getDomainDataRegionStatistics("ports").getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("findByUnlocode → repeated lookups reuse the cached query result")
+  void findByUnlocode_hitsQueryCache() {
+    portRepository.save(new Port("BEANR", "Antwerp", "Belgium"));
+    stats.clear();
+
+    portRepository.findByUnlocode("BEANR").orElseThrow();
+    portRepository.findByUnlocode("BEANR").orElseThrow();
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(stats.getQueryRegionStatistics("ports-by-unlocode").getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("findByImoNumber → a new vessel invalidates the cached miss")
+  void findByImoNumber_invalidatedOnInsert() {
+    assertThat(vesselRepository.findByImoNumber("1234567")).isEmpty();
+
+    vesselRepository.save(new Vessel("MV Cached", "1234567", 1500));
+
+    assertThat(vesselRepository.findByImoNumber("1234567")).isPresent();
+  }
+}
@@ -0,0 +1,70 @@
+package com.shipping.freightops.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The Flyway migrations build the schema the entities expect.
+ *
+ * <p>The other tests let Hibernate create an H2 schema from the mappings, so only this one runs the
+ * PostgreSQL migrations, with {@code ddl-auto=validate} as in production: the context fails to
+ * start if an entity change lacks its migration. Skipped when Docker is not available.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.driver-class-name=org.postgresql.Driver",
+      "spring.flyway.enabled=true",
+      "spring.jpa.hibernate.ddl-auto=validate"
+    })
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+  @Container @ServiceConnection
+  static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Autowired private Flyway flyway;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private DataSource dataSource;
+
+  @Test
+  @DisplayName("every migration applies and Hibernate validates the entities against the result")
+  void migrationsMatchEntities() {
+    assertThat(flyway.info().pending()).isEmpty();
+    assertThat(flyway.info().applied())
+        .extracting(MigrationInfo::getState)
+        .allMatch(state -> state.isApplied() && !state.isFailed());
+  }
+
+  @Test
+  @DisplayName("the dev location seeds sample data once, however often it is re-applied")
+  void devLocationSeedsSampleData() {
+    Flyway.configure()
+        .configuration(flyway.getConfiguration())
+        .locations("classpath:db/migration", "classpath:db/dev")
+        .load()
+        .migrate();
+
+    assertThat(jdbcTemplate.queryForObject("select count(*) from ports", Integer.class))
+        .isPositive();
+
+    // Flyway re-applies the script whenever its checksum changes
+    new ResourceDatabasePopulator(new ClassPathResource("db/dev/R__sample_data.sql"))
+        .execute(dataSource);
+    assertThat(jdbcTemplate.queryForObject("select count(*) from agents", Integer.class))
+        .isEqualTo(3);
+  }
+}
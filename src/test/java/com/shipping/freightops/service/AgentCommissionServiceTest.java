@@ -0,0 +1,89 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyageAgentCommission;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.AgentRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.VoyageAgentCommissionRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/** Unit tests for the report cache of {@link AgentCommissionService}. */
+@ExtendWith(MockitoExtension.class)
+class AgentCommissionServiceTest {
+
+  private static final Long VOYAGE_ID = 1L;
+
+  @Mock private VoyageAgentCommissionRepository commissionRepository;
+  @Mock private FreightOrderRepository orderRepository;
+  @Mock private VoyageRepository voyageRepository;
+  @Mock private AgentRepository agentRepository;
+
+  private Cache cache;
+  private AgentCommissionService service;
+  private Voyage voyage;
+
+  @BeforeEach
+  void setUp() {
+    ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager(CacheConfig.VOYAGE_COMMISSIONS);
+    cache = cacheManager.getCache(CacheConfig.VOYAGE_COMMISSIONS);
+    service =
+        new AgentCommissionService(
+            cacheManager, commissionRepository, orderRepository, voyageRepository, agentRepository);
+
+    voyage = new Voyage();
+    voyage.setId(VOYAGE_ID);
+    voyage.setVoyageNumber("VOY-1");
+    voyage.setStatus(VoyageStatus.COMPLETED);
+    when(voyageRepository.findById(VOYAGE_ID)).thenReturn(Optional.of(voyage));
+  }
+
+  @Test
+  @DisplayName("getVoyageReport caches the report")
+  void cachesReport() {
+    when(commissionRepository.findByVoyageId(VOYAGE_ID)).thenReturn(List.of(commission()));
+
+    service.getVoyageReport(VOYAGE_ID);
+
+    assertThat(cache.get(VOYAGE_ID)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("getVoyageReport does not cache a report of a voyage evicted while it was read")
+  void keepsConcurrentEviction() {
+    when(commissionRepository.findByVoyageId(VOYAGE_ID))
+        .thenAnswer(
+            invocation -> {
+              service.evict(VOYAGE_ID);
+              return List.of(commission());
+            });
+
+    service.getVoyageReport(VOYAGE_ID);
+
+    assertThat(cache.get(VOYAGE_ID)).isNull();
+  }
+
+  private VoyageAgentCommission commission() {
+    Agent agent = new Agent();
+    agent.setId(2L);
+    agent.setName("Alice");
+    return new VoyageAgentCommission(voyage, agent, 1, Money.ofCents(100_000), 500);
+  }
+}
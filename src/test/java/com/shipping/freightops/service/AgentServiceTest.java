@@ -3,6 +3,7 @@ package com.shipping.freightops.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -11,6 +12,8 @@ import com.shipping.freightops.dto.AgentUpdateRequest;
 import com.shipping.freightops.entity.Agent;
 import com.shipping.freightops.enums.AgentType;
 import com.shipping.freightops.repository.AgentRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.VoyageAgentCommissionRepository;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -22,12 +25,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 /** Unit tests for {@link AgentService}. */
 @ExtendWith(MockitoExtension.class)
 class AgentServiceTest {
 
+  private static final Pageable PAGE = PageRequest.of(0, 20);
+
   @Mock private AgentRepository agentRepository;
+  @Mock private FreightOrderRepository orderRepository;
+  @Mock private VoyageAgentCommissionRepository commissionRepository;
 
   @InjectMocks private AgentService agentService;
 
@@ -103,48 +114,50 @@ class AgentServiceTest {
     void noFilters_callsFindAll() {
       Agent a = buildAgent(1L, "A", "a@test.com", AgentType.INTERNAL, true);
       Agent b = buildAgent(2L, "B", "b@test.com", AgentType.EXTERNAL, false);
-      when(agentRepository.findAll()).thenReturn(List.of(a, b));
+      when(agentRepository.findAll(PAGE)).thenReturn(new PageImpl<>(List.of(a, b)));
 
-      List<Agent> result = agentService.listAgents(null, null);
+      Page<Agent> result = agentService.listAgents(null, null, PAGE);
 
-      assertThat(result).hasSize(2);
-      verify(agentRepository).findAll();
+      assertThat(result.getContent()).hasSize(2);
+      verify(agentRepository).findAll(PAGE);
     }
 
     @Test
     @DisplayName("type filter only → findByType")
     void typeFilterOnly() {
       Agent a = buildAgent(1L, "A", "a@test.com", AgentType.INTERNAL, true);
-      when(agentRepository.findByType(AgentType.INTERNAL)).thenReturn(List.of(a));
+      when(agentRepository.findByType(AgentType.INTERNAL, PAGE))
+          .thenReturn(new PageImpl<>(List.of(a)));
 
-      List<Agent> result = agentService.listAgents(AgentType.INTERNAL, null);
+      Page<Agent> result = agentService.listAgents(AgentType.INTERNAL, null, PAGE);
 
-      assertThat(result).hasSize(1);
-      verify(agentRepository).findByType(AgentType.INTERNAL);
+      assertThat(result.getContent()).hasSize(1);
+      verify(agentRepository).findByType(AgentType.INTERNAL, PAGE);
     }
 
     @Test
     @DisplayName("active filter only → findByActive")
     void activeFilterOnly() {
       Agent a = buildAgent(1L, "A", "a@test.com", AgentType.INTERNAL, true);
-      when(agentRepository.findByActive(true)).thenReturn(List.of(a));
+      when(agentRepository.findByActive(true, PAGE)).thenReturn(new PageImpl<>(List.of(a)));
 
-      List<Agent> result = agentService.listAgents(null, true);
+      Page<Agent> result = agentService.listAgents(null, true, PAGE);
 
-      assertThat(result).hasSize(1);
-      verify(agentRepository).findByActive(true);
+      assertThat(result.getContent()).hasSize(1);
+      verify(agentRepository).findByActive(true, PAGE);
     }
 
     @Test
     @DisplayName("both filters → findByTypeAndActive")
     void bothFilters() {
       Agent a = buildAgent(1L, "A", "a@test.com", AgentType.EXTERNAL, true);
-      when(agentRepository.findByTypeAndActive(AgentType.EXTERNAL, true)).thenReturn(List.of(a));
+      when(agentRepository.findByTypeAndActive(AgentType.EXTERNAL, true, PAGE))
+          .thenReturn(new PageImpl<>(List.of(a)));
 
-      List<Agent> result = agentService.listAgents(AgentType.EXTERNAL, true);
+      Page<Agent> result = agentService.listAgents(AgentType.EXTERNAL, true, PAGE);
 
-      assertThat(result).hasSize(1);
-      verify(agentRepository).findByTypeAndActive(AgentType.EXTERNAL, true);
+      assertThat(result.getContent()).hasSize(1);
+      verify(agentRepository).findByTypeAndActive(AgentType.EXTERNAL, true, PAGE);
     }
   }
 
@@ -220,6 +233,47 @@ class AgentServiceTest {
     }
   }
 
+  // ── DELETE ────────────────────────────────────────────────
+
+  @Nested
+  @DisplayName("deleteAgent")
+  class DeleteAgent {
+
+    @Test
+    @DisplayName("deletes an agent without orders or commissions")
+    void deletesAgentWithoutHistory() {
+      Agent agent = buildAgent(1L, "Eve", "eve@test.com", AgentType.EXTERNAL, true);
+      when(agentRepository.findById(1L)).thenReturn(Optional.of(agent));
+
+      agentService.deleteAgent(1L);
+
+      verify(agentRepository).delete(agent);
+    }
+
+    @Test
+    @DisplayName("keeps an agent with commission history")
+    void keepsAgentWithCommissions() {
+      Agent agent = buildAgent(1L, "Eve", "eve@test.com", AgentType.EXTERNAL, true);
+      when(agentRepository.findById(1L)).thenReturn(Optional.of(agent));
+      when(commissionRepository.existsByAgentId(1L)).thenReturn(true);
+
+      assertThatThrownBy(() -> agentService.deleteAgent(1L))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("deactivate it instead");
+      verify(agentRepository, never()).delete(any(Agent.class));
+    }
+
+    @Test
+    @DisplayName("throws when agent not found")
+    void throwsWhenNotFound() {
+      when(agentRepository.findById(99L)).thenReturn(Optional.empty());
+
+      assertThatThrownBy(() -> agentService.deleteAgent(99L))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Agent not found: 99");
+    }
+  }
+
   // ── HELPERS ───────────────────────────────────────────────
 
   private Agent buildAgent(Long id, String name, String email, AgentType type, boolean active) {
@@ -0,0 +1,160 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shipping.freightops.dto.BookingTicketResponse;
+import com.shipping.freightops.dto.CreateFreightOrderRequest;
+import com.shipping.freightops.entity.BookingTicket;
+import com.shipping.freightops.exception.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/** Unit tests for {@link BookingIntake}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingIntakeTest {
+
+  @Mock private BookingTicketStore ticketStore;
+  @Mock private FreightOrderService orderService;
+
+  private final List<List<String>> booked = new ArrayList<>();
+  private final AtomicInteger ticketIds = new AtomicInteger();
+  private BookingIntake intake;
+
+  @BeforeEach
+  void setUp() {
+    intake = intake(100, 10);
+    when(ticketStore.open(any()))
+        .thenAnswer(invocation -> BookingTicketResponse.queued("t" + ticketIds.incrementAndGet()));
+    when(orderService.bookTickets(anyList()))
+        .thenAnswer(
+            invocation -> {
+              booked.add(List.copyOf(invocation.<List<String>>getArgument(0)));
+              return List.of();
+            });
+  }
+
+  @Test
+  @DisplayName("a submitted booking is stored and queued until the writer drains it")
+  void submitStoresQueuedTicket() {
+    BookingTicketResponse ticket = intake.submit(request(1L));
+
+    assertThat(ticket.getTicketId()).isEqualTo("t1");
+    verify(ticketStore).open(any());
+    assertThat(booked).isEmpty();
+  }
+
+  @Test
+  @DisplayName("drain books each voyage's tickets in one batch")
+  void drainGroupsByVoyage() {
+    intake.submit(request(1L));
+    intake.submit(request(2L));
+    intake.submit(request(1L));
+
+    intake.drain();
+
+    assertThat(booked).containsExactly(List.of("t1", "t3"), List.of("t2"));
+  }
+
+  @Test
+  @DisplayName("drain takes at most batch-size bookings per transaction")
+  void drainSplitsIntoBatches() {
+    intake = intake(100, 2);
+    for (int i = 0; i < 5; i++) {
+      intake.submit(request(1L));
+    }
+
+    intake.drain();
+
+    assertThat(booked).extracting(List::size).containsExactly(2, 2, 1);
+  }
+
+  @Test
+  @DisplayName("a batch failing as a whole is retried one booking at a time")
+  void failedBatchFallsBackToSingleBookings() {
+    when(orderService.bookTickets(anyList()))
+        .thenThrow(new DataIntegrityViolationException("ex_freight_orders_container_occupancy"))
+        .thenReturn(List.of())
+        .thenThrow(new DataIntegrityViolationException("ex_freight_orders_container_occupancy"));
+    intake.submit(request(1L));
+    intake.submit(request(1L));
+
+    intake.drain();
+
+    verify(orderService, times(3)).bookTickets(anyList());
+    verify(ticketStore, never()).reject(eq("t1"), any());
+    verify(ticketStore).reject("t2", "Request conflicts with existing data");
+  }
+
+  @Test
+  @DisplayName("a full queue turns submissions away without storing them")
+  void fullQueueRejectsSubmission() {
+    intake = intake(1, 10);
+    intake.submit(request(1L));
+
+    assertThatThrownBy(() -> intake.submit(request(1L)))
+        .isInstanceOf(ServiceUnavailableException.class);
+    verify(ticketStore, times(1)).open(any());
+  }
+
+  @Test
+  @DisplayName("shutdown books what is still queued and turns new submissions away")
+  void shutdownDrainsQueue() {
+    intake.submit(request(1L));
+
+    intake.shutdown();
+
+    assertThat(booked).containsExactly(List.of("t1"));
+    assertThatThrownBy(() -> intake.submit(request(1L)))
+        .isInstanceOf(ServiceUnavailableException.class)
+        .hasMessageContaining("shutting down");
+  }
+
+  @Test
+  @DisplayName("recover queues stored tickets that were not booked in time")
+  void recoverQueuesStaleTickets() {
+    BookingTicket stale = new BookingTicket("lost", "{}");
+    when(ticketStore.findQueued(any(), anyInt())).thenReturn(List.of(stale));
+    when(ticketStore.requestOf(stale)).thenReturn(request(7L));
+
+    intake.recover();
+    intake.drain();
+
+    assertThat(booked).containsExactly(List.of("lost"));
+  }
+
+  private BookingIntake intake(int queueCapacity, int batchSize) {
+    return new BookingIntake(
+        ticketStore, orderService, queueCapacity, batchSize, Duration.ofMinutes(1));
+  }
+
+  private static CreateFreightOrderRequest request(Long voyageId) {
+    CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+    request.setVoyageId(voyageId);
+    request.setContainerId(2L);
+    request.setAgentId(3L);
+    request.setCustomerId(4L);
+    request.setOrderedBy("ops-team");
+    return request;
+  }
+}
@@ -0,0 +1,231 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import com.shipping.freightops.repository.ContainerWindow;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit tests for {@link ContainerOccupancyIndex}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContainerOccupancyIndexTest {
+
+  private static final Long CONTAINER_ID = 7L;
+  private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 8, 0);
+
+  @Mock private FreightOrderRepository orderRepository;
+
+  private ContainerOccupancyIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ContainerOccupancyIndex(orderRepository);
+    when(orderRepository.findContainerWindows(anyCollection(), anyCollection()))
+        .thenReturn(List.of(window(CONTAINER_ID, 1L, T0, T0.plusDays(10))));
+  }
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("rejects a booking overlapping a window loaded from the database")
+  void rejectsOverlapWithCommittedBooking() {
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 2L, T0.plusDays(5), T0.plusDays(15)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("already booked on voyage 1");
+  }
+
+  @Test
+  @DisplayName("allows a voyage departing when the previous one arrives")
+  void allowsAdjacentWindows() {
+    assertThatCode(() -> index.claim(CONTAINER_ID, 2L, T0.plusDays(10), T0.plusDays(20)))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 3L, T0.plusDays(19), T0.plusDays(25)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("voyage 2");
+  }
+
+  @Test
+  @DisplayName("drops a pending claim when its transaction rolls back")
+  void rollbackDropsClaim() {
+    TransactionSynchronizationManager.initSynchronization();
+    index.claim(CONTAINER_ID, 2L, T0.plusDays(10), T0.plusDays(20));
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertThatCode(() -> index.claim(CONTAINER_ID, 3L, T0.plusDays(10), T0.plusDays(20)))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("release frees the window only once it commits")
+  void releaseAppliesOnCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    index.claim(CONTAINER_ID, 2L, T0.plusDays(10), T0.plusDays(20));
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    TransactionSynchronizationManager.initSynchronization();
+    index.release(CONTAINER_ID, 1L);
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 3L, T0, T0.plusDays(1)))
+        .isInstanceOf(IllegalStateException.class);
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    assertThatCode(() -> index.claim(CONTAINER_ID, 3L, T0, T0.plusDays(1)))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("reconcile replaces committed windows and keeps pending ones")
+  void reconcileKeepsPendingClaims() {
+    TransactionSynchronizationManager.initSynchronization();
+    index.claim(CONTAINER_ID, 2L, T0.plusDays(10), T0.plusDays(20));
+    when(orderRepository.findContainerWindows(any()))
+        .thenReturn(List.of(window(CONTAINER_ID, 4L, T0.plusDays(30), T0.plusDays(40))));
+
+    index.reconcile();
+
+    assertThatCode(() -> index.claim(CONTAINER_ID, 5L, T0, T0.plusDays(10)))
+        .doesNotThrowAnyException();
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 6L, T0.plusDays(15), T0.plusDays(16)))
+        .hasMessageContaining("voyage 2");
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 6L, T0.plusDays(35), T0.plusDays(36)))
+        .hasMessageContaining("voyage 4");
+  }
+
+  @Test
+  @DisplayName("reconcile keeps a claim that commits while the database is read")
+  void reconcileKeepsClaimCommittedDuringRead() {
+    TransactionSynchronizationManager.initSynchronization();
+    index.claim(CONTAINER_ID, 2L, T0.plusDays(10), T0.plusDays(20));
+    when(orderRepository.findContainerWindows(any()))
+        .thenAnswer(
+            read -> {
+              complete(TransactionSynchronization.STATUS_COMMITTED);
+              return List.of(window(CONTAINER_ID, 1L, T0, T0.plusDays(10)));
+            });
+
+    index.reconcile();
+
+    assertThatThrownBy(() -> index.claim(CONTAINER_ID, 3L, T0.plusDays(15), T0.plusDays(16)))
+        .hasMessageContaining("voyage 2");
+  }
+
+  @Test
+  @DisplayName("reconcile does not restore a window released while the database is read")
+  void reconcileKeepsReleaseCommittedDuringRead() {
+    index.load(List.of(CONTAINER_ID));
+    when(orderRepository.findContainerWindows(any()))
+        .thenAnswer(
+            read -> {
+              index.release(CONTAINER_ID, 1L);
+              return List.of(window(CONTAINER_ID, 1L, T0, T0.plusDays(10)));
+            });
+
+    index.reconcile();
+
+    assertThatCode(() -> index.claim(CONTAINER_ID, 3L, T0, T0.plusDays(1)))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("a release committed during the first load is applied to the loaded windows")
+  void releaseDuringFirstLoad() {
+    when(orderRepository.findContainerWindows(anyCollection(), anyCollection()))
+        .thenAnswer(
+            read -> {
+              index.release(CONTAINER_ID, 1L);
+              return List.of(window(CONTAINER_ID, 1L, T0, T0.plusDays(10)));
+            });
+
+    assertThatCode(() -> index.claim(CONTAINER_ID, 3L, T0, T0.plusDays(1)))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("concurrent claims on overlapping windows let exactly one through")
+  void concurrentClaimsNeverDoubleBook() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Callable<Boolean>> attempts = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      long voyageId = 100 + i;
+      attempts.add(
+          () -> {
+            try {
+              index.claim(CONTAINER_ID, voyageId, T0.plusDays(20), T0.plusDays(30));
+              return true;
+            } catch (IllegalStateException taken) {
+              return false;
+            }
+          });
+    }
+
+    int booked = 0;
+    for (Future<Boolean> result : pool.invokeAll(attempts)) {
+      if (result.get()) {
+        booked++;
+      }
+    }
+    pool.shutdown();
+
+    assertThat(booked).isEqualTo(1);
+  }
+
+  private static void complete(int status) {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+
+  private static ContainerWindow window(
+      Long containerId, Long voyageId, LocalDateTime from, LocalDateTime until) {
+    return new ContainerWindow() {
+      @Override
+      public Long getContainerId() {
+        return containerId;
+      }
+
+      @Override
+      public Long getVoyageId() {
+        return voyageId;
+      }
+
+      @Override
+      public LocalDateTime getOccupiedFrom() {
+        return from;
+      }
+
+      @Override
+      public LocalDateTime getOccupiedUntil() {
+        return until;
+      }
+    };
+  }
+}
@@ -0,0 +1,216 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shipping.freightops.dto.VoyagePriceRequest;
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.Container;
+import com.shipping.freightops.entity.Customer;
+import com.shipping.freightops.entity.FreightOrder;
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.AgentType;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.ContainerType;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.repository.AgentRepository;
+import com.shipping.freightops.repository.ContainerRepository;
+import com.shipping.freightops.repository.CustomerRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.RoutePriceRollupRepository;
+import com.shipping.freightops.repository.VesselRepository;
+import com.shipping.freightops.repository.VoyageAgentCommissionRepository;
+import com.shipping.freightops.repository.VoyageLoadRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Rows created on first access, by concurrent first callers. Each of them must succeed and find the
+ * one row, instead of the losers failing on its unique key. Not transactional, so the callers
+ * commit against each other.
+ */
+@SpringBootTest
+class FirstAccessConcurrencyTest {
+
+  private static final int CALLERS = 8;
+
+  @Autowired private VoyageLoadSummary loadSummary;
+  @Autowired private VoyageFinanceService financeService;
+  @Autowired private AgentCommissionService commissionService;
+  @Autowired private VoyageService voyageService;
+  @Autowired private PortRepository portRepository;
+  @Autowired private VesselRepository vesselRepository;
+  @Autowired private VoyageRepository voyageRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private VoyageLoadRepository loadRepository;
+  @Autowired private RoutePriceRollupRepository rollupRepository;
+  @Autowired private FreightOrderRepository orderRepository;
+  @Autowired private ContainerRepository containerRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private AgentRepository agentRepository;
+  @Autowired private VoyageAgentCommissionRepository commissionRepository;
+
+  private Port departure;
+  private Port arrival;
+  private Vessel vessel;
+  private ExecutorService pool;
+  private final List<FreightOrder> orders = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    departure = portRepository.save(new Port("ESVLC", "Valencia", "Spain"));
+    arrival = portRepository.save(new Port("EGPSD", "Port Said", "Egypt"));
+    vessel = vesselRepository.save(new Vessel("MV Race", "7777777", 3000));
+    pool = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+    orderRepository.deleteAll(orders);
+    voyagePriceRepository.deleteAll();
+    voyageRepository.deleteAll();
+    for (FreightOrder order : orders) {
+      containerRepository.delete(order.getContainer());
+      customerRepository.delete(order.getCustomer());
+      agentRepository.delete(order.getAgent());
+    }
+    vesselRepository.delete(vessel);
+    portRepository.deleteAll(List.of(departure, arrival));
+  }
+
+  @Test
+  @DisplayName("concurrent first reads of a voyage's load all succeed and create one row")
+  void concurrentFirstLoadReads() throws Exception {
+    Voyage voyage = voyage("RACE-LOAD", VoyageStatus.PLANNED);
+
+    race(() -> loadSummary.get(voyage.getId()));
+
+    assertThat(loadRepository.findByVoyageId(voyage.getId())).isPresent();
+  }
+
+  @Test
+  @DisplayName("concurrent first reads of a financial summary all succeed")
+  void concurrentFirstSummaryReads() throws Exception {
+    Voyage voyage = voyage("RACE-FIN", VoyageStatus.COMPLETED);
+
+    race(() -> financeService.getSummary(voyage.getId()));
+  }
+
+  @Test
+  @DisplayName("concurrent first reads of a commission report all succeed and roll up once")
+  void concurrentFirstCommissionReports() throws Exception {
+    Voyage voyage = voyage("RACE-COMM", VoyageStatus.COMPLETED);
+    deliveredOrder(voyage);
+
+    race(() -> commissionService.getVoyageReport(voyage.getId()));
+
+    assertThat(commissionRepository.findByVoyageId(voyage.getId())).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("concurrent first prices of a route and month all land in one rollup")
+  void concurrentFirstRoutePrices() throws Exception {
+    List<Voyage> voyages = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      voyages.add(voyage("RACE-PRICE-" + i, VoyageStatus.PLANNED));
+    }
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<>();
+    for (Voyage voyage : voyages) {
+      results.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return voyageService.createVoyagePrice(voyage.getId(), priceRequest());
+              }));
+    }
+    start.countDown();
+    for (Future<Object> result : results) {
+      result.get();
+    }
+
+    assertThat(rollupRepository.findHistory(departure.getId(), arrival.getId()))
+        .singleElement()
+        .satisfies(rollup -> assertThat(rollup.getPriceCount()).isEqualTo(CALLERS));
+  }
+
+  /** Runs {@code call} from all callers at once and rethrows the first failure. */
+  private void race(Callable<?> call) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return call.call();
+              }));
+    }
+    start.countDown();
+    for (Future<Object> result : results) {
+      result.get();
+    }
+  }
+
+  private Voyage voyage(String voyageNumber, VoyageStatus status) {
+    Voyage voyage = new Voyage();
+    voyage.setVoyageNumber(voyageNumber);
+    voyage.setVessel(vessel);
+    voyage.setDeparturePort(departure);
+    voyage.setArrivalPort(arrival);
+    voyage.setDepartureTime(LocalDateTime.of(2026, 11, 10, 8, 0));
+    voyage.setArrivalTime(LocalDateTime.of(2026, 11, 20, 8, 0));
+    voyage.setStatus(status);
+    return voyageRepository.save(voyage);
+  }
+
+  private void deliveredOrder(Voyage voyage) {
+    Agent agent = new Agent();
+    agent.setName("Race Agent");
+    agent.setEmail("race@agents.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    FreightOrder order = new FreightOrder();
+    order.setVoyage(voyage);
+    order.setContainer(
+        containerRepository.save(
+            new Container("RACU1234567", ContainerSize.TWENTY_FOOT, ContainerType.DRY)));
+    order.setCustomer(
+        customerRepository.save(new Customer("Race Corp", "Jane Doe", "jane@race.com")));
+    order.setAgent(agentRepository.save(agent));
+    order.setOrderedBy("ops-team");
+    order.setStatus(OrderStatus.DELIVERED);
+    order.setBasePriceUsd(BigDecimal.valueOf(1000));
+    order.setDiscountPercent(BigDecimal.ZERO);
+    order.setFinalPrice(BigDecimal.valueOf(1000));
+    order.setOccupiedFrom(voyage.getDepartureTime());
+    order.setOccupiedUntil(voyage.getArrivalTime());
+    orders.add(orderRepository.save(order));
+  }
+
+  private static VoyagePriceRequest priceRequest() {
+    VoyagePriceRequest request = new VoyagePriceRequest();
+    request.setContainerSize(ContainerSize.TWENTY_FOOT);
+    request.setBasePriceUsd(BigDecimal.valueOf(1500));
+    return request;
+  }
+}
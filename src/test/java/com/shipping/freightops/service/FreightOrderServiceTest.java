@@ -3,17 +3,27 @@ package com.shipping.freightops.service;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
+import com.shipping.freightops.dto.BatchFreightOrderItemResult;
+import com.shipping.freightops.dto.BatchFreightOrderResponse;
+import com.shipping.freightops.dto.BulkDiscountRequest;
 import com.shipping.freightops.dto.CreateFreightOrderRequest;
 import com.shipping.freightops.dto.UpdateDiscountRequest;
 import com.shipping.freightops.entity.*;
+import com.shipping.freightops.enums.AgentType;
+import com.shipping.freightops.enums.BookingResultStatus;
 import com.shipping.freightops.enums.ContainerSize;
 import com.shipping.freightops.enums.ContainerType;
 import com.shipping.freightops.enums.OrderStatus;
 import com.shipping.freightops.enums.VoyageStatus;
 import com.shipping.freightops.exception.BadRequestException;
 import com.shipping.freightops.repository.*;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,14 +41,20 @@ public class FreightOrderServiceTest {
   @Autowired private PortRepository portRepository;
   @Autowired private VesselRepository vesselRepository;
   @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private AgentRepository agentRepository;
   @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private ContainerOccupancyIndex occupancyIndex;
 
   private Voyage savedVoyage;
   private Container savedContainer;
   private Customer savedCustomer;
+  private Agent savedAgent;
 
   @BeforeEach
   void setUp() {
+    transitionRepository.deleteAll();
     freightOrderRepository.deleteAll();
     voyagePriceRepository.deleteAll();
     voyageRepository.deleteAll();
@@ -46,6 +62,9 @@ public class FreightOrderServiceTest {
     customerRepository.deleteAll();
     vesselRepository.deleteAll();
     portRepository.deleteAll();
+    agentRepository.deleteAll();
+    // Run the queued deletes before the fixture inserts below
+    portRepository.flush();
 
     Port departure = portRepository.save(new Port("AEJEA", "Jebel Ali", "UAE"));
     Port arrival = portRepository.save(new Port("CNSHA", "Shanghai", "China"));
@@ -76,6 +95,13 @@ public class FreightOrderServiceTest {
     price.setContainerSize(ContainerSize.TWENTY_FOOT);
     price.setBasePriceUsd(BigDecimal.valueOf(1000));
     voyagePriceRepository.save(price);
+
+    Agent agent = new Agent();
+    agent.setName("Test Agent");
+    agent.setEmail("agent@test.com");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    savedAgent = agentRepository.save(agent);
   }
 
   @Test
@@ -85,6 +111,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
     request.setDiscountPercent(BigDecimal.valueOf(10)); // 10%
 
@@ -102,6 +129,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
 
     FreightOrder order = freightOrderService.createOrder(request);
@@ -119,6 +147,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
 
     assertThatThrownBy(() -> freightOrderService.createOrder(request))
         .isInstanceOf(BadRequestException.class);
@@ -134,6 +163,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
 
     assertThatThrownBy(() -> freightOrderService.createOrder(request))
         .isInstanceOf(IllegalStateException.class);
@@ -146,6 +176,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(999L);
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
 
     assertThatThrownBy(() -> freightOrderService.createOrder(request))
         .isInstanceOf(IllegalArgumentException.class);
@@ -158,6 +189,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
 
     FreightOrder order = freightOrderService.createOrder(request);
@@ -180,6 +212,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
 
     FreightOrder order = freightOrderService.createOrder(request);
@@ -213,6 +246,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
 
     FreightOrder order = freightOrderService.createOrder(request);
@@ -243,6 +277,7 @@ public class FreightOrderServiceTest {
     request.setVoyageId(savedVoyage.getId());
     request.setContainerId(savedContainer.getId());
     request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
     request.setOrderedBy("tester");
 
     FreightOrder order = freightOrderService.createOrder(request);
@@ -255,4 +290,367 @@ public class FreightOrderServiceTest {
 
     assertThat(updated.getFinalPrice()).isEqualByComparingTo("0");
   }
+
+  @Test
+  @DisplayName("createOrders → books valid lines and rejects the rest")
+  void createOrders_isolatesFailingLines() {
+    Container fortyFoot =
+        containerRepository.save(
+            new Container("TSTU7654321", ContainerSize.FORTY_FOOT, ContainerType.DRY));
+
+    CreateFreightOrderRequest discounted = new CreateFreightOrderRequest();
+    discounted.setVoyageId(savedVoyage.getId());
+    discounted.setContainerId(savedContainer.getId());
+    discounted.setCustomerId(savedCustomer.getId());
+    discounted.setAgentId(savedAgent.getId());
+    discounted.setOrderedBy("tester");
+    discounted.setDiscountPercent(BigDecimal.valueOf(10));
+
+    CreateFreightOrderRequest unpriced = new CreateFreightOrderRequest();
+    unpriced.setVoyageId(savedVoyage.getId());
+    unpriced.setContainerId(fortyFoot.getId());
+    unpriced.setCustomerId(savedCustomer.getId());
+    unpriced.setAgentId(savedAgent.getId());
+    unpriced.setOrderedBy("tester");
+
+    CreateFreightOrderRequest unknownVoyage = new CreateFreightOrderRequest();
+    unknownVoyage.setVoyageId(999L);
+    unknownVoyage.setContainerId(savedContainer.getId());
+    unknownVoyage.setCustomerId(savedCustomer.getId());
+    unknownVoyage.setAgentId(savedAgent.getId());
+    unknownVoyage.setOrderedBy("tester");
+
+    BatchFreightOrderResponse response =
+        freightOrderService.createOrders(List.of(discounted, unpriced, unknownVoyage));
+
+    assertThat(response.getCreated()).isEqualTo(1);
+    assertThat(response.getRejected()).isEqualTo(2);
+    assertThat(response.getResults().get(0).getStatus()).isEqualTo(BookingResultStatus.CREATED);
+    assertThat(response.getResults().get(0).getOrder().getFinalPrice()).isEqualByComparingTo("900");
+    assertThat(response.getResults().get(1).getMessage())
+        .isEqualTo("No price defined for voyage and container size");
+    assertThat(response.getResults().get(2).getMessage()).isEqualTo("Voyage not found: 999");
+    assertThat(freightOrderRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("createOrder → one read, one insert and one load delta per booking")
+  void createOrder_usesOneReadAndOneWrite() {
+    CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+    request.setVoyageId(savedVoyage.getId());
+    request.setContainerId(savedContainer.getId());
+    request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
+    request.setOrderedBy("tester");
+
+    // Warm up the pooled id sequence and the second container's occupancy entry so the measured
+    // booking does not hit either
+    freightOrderService.createOrder(request);
+    Container second =
+        containerRepository.save(
+            new Container("TSTU7654321", ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+    occupancyIndex.load(List.of(second.getId()));
+    freightOrderRepository.flush();
+    request.setContainerId(second.getId());
+
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+
+    freightOrderService.createOrder(request);
+    freightOrderRepository.flush();
+
+    // Previously: 4 entity loads + 1 price query + 1 insert = 6 statements; the third is the
+    // in-place UPDATE of the voyage's load summary
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+    assertThat(stats.getQueryExecutionCount()).isEqualTo(1);
+    assertThat(stats.getEntityLoadCount()).isZero();
+    assertThat(stats.getEntityInsertCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("createOrder → rejects a container that exceeds the voyage capacity")
+  void createOrder_whenVoyageFull_throwsException() {
+    savedVoyage.setMaxCapacityTeu(1);
+    voyageRepository.save(savedVoyage);
+    Container fortyFoot =
+        containerRepository.save(
+            new Container("TSTU7654321", ContainerSize.FORTY_FOOT, ContainerType.DRY));
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(savedVoyage);
+    price.setContainerSize(ContainerSize.FORTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(1800));
+    voyagePriceRepository.save(price);
+
+    CreateFreightOrderRequest request = bookingRequest();
+    request.setContainerId(fortyFoot.getId());
+
+    assertThatThrownBy(() -> freightOrderService.createOrder(request))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("1 TEU remaining");
+  }
+
+  @Test
+  @DisplayName("createOrder → closes bookings once the auto-cutoff is reached")
+  void createOrder_atCutoff_closesBookings() {
+    savedVoyage.setMaxCapacityTeu(2);
+    voyageRepository.save(savedVoyage);
+
+    freightOrderService.createOrder(bookingRequest());
+    CreateFreightOrderRequest second = bookingRequest();
+    second.setContainerId(
+        containerRepository
+            .save(new Container("TSTU7654321", ContainerSize.TWENTY_FOOT, ContainerType.DRY))
+            .getId());
+    freightOrderService.createOrder(second);
+
+    assertThatThrownBy(() -> freightOrderService.createOrder(bookingRequest()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Bookings are closed");
+  }
+
+  @Test
+  @DisplayName("createOrders → closes bookings at the auto-cutoff like single bookings")
+  void createOrders_atCutoff_closesBookings() {
+    savedVoyage.setMaxCapacityTeu(2);
+    voyageRepository.save(savedVoyage);
+    List<CreateFreightOrderRequest> lines = new ArrayList<>();
+    for (String code : List.of("TSTU1111111", "TSTU2222222", "TSTU3333333")) {
+      CreateFreightOrderRequest line = bookingRequest();
+      line.setContainerId(saveContainer(code).getId());
+      lines.add(line);
+    }
+
+    BatchFreightOrderResponse response = freightOrderService.createOrders(lines);
+
+    assertThat(response.getResults().stream().map(BatchFreightOrderItemResult::getStatus).toList())
+        .isEqualTo(
+            List.of(
+                BookingResultStatus.CREATED,
+                BookingResultStatus.CREATED,
+                BookingResultStatus.REJECTED));
+    assertThat(response.getResults().get(2).getMessage()).contains("Bookings are closed");
+    CreateFreightOrderRequest next = bookingRequest();
+    next.setContainerId(saveContainer("TSTU4444444").getId());
+    assertThatThrownBy(() -> freightOrderService.createOrder(next))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Bookings are closed");
+  }
+
+  @Test
+  @DisplayName("cancelOrder → cancels once and rejects a second cancellation")
+  void cancelOrder_setsCancelled() {
+    FreightOrder order = freightOrderService.createOrder(bookingRequest());
+
+    FreightOrder cancelled = freightOrderService.cancelOrder(order.getId());
+
+    assertThat(cancelled.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    assertThatThrownBy(() -> freightOrderService.cancelOrder(order.getId()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("applyBulkDiscount → one UPDATE for the customer's active orders, HALF_UP cents")
+  void applyBulkDiscount_updatesActiveOrdersInOneStatement() {
+    FreightOrder full = freightOrderService.createOrder(bookingRequest());
+    FreightOrder odd = bookOn("TSTU0000001");
+    odd.setBasePriceUsd(new BigDecimal("17.49"));
+    FreightOrder cancelled = freightOrderService.cancelOrder(bookOn("TSTU0000002").getId());
+    Customer other = new Customer();
+    other.setCompanyName("Other Customer Ltd.");
+    other.setContactName("Jane Roe");
+    other.setEmail("jane@other.com");
+    CreateFreightOrderRequest otherRequest = bookingRequest();
+    otherRequest.setCustomerId(customerRepository.save(other).getId());
+    otherRequest.setContainerId(saveContainer("TSTU0000003").getId());
+    FreightOrder otherCustomers = freightOrderService.createOrder(otherRequest);
+    freightOrderRepository.flush();
+
+    BulkDiscountRequest request = new BulkDiscountRequest();
+    request.setCustomerId(savedCustomer.getId());
+    request.setDiscountPercent(BigDecimal.valueOf(50));
+    request.setReason("Volume deal");
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+
+    int updated = freightOrderService.applyBulkDiscount(request);
+
+    assertThat(updated).isEqualTo(2);
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(reload(full).getFinalPrice()).isEqualByComparingTo("500.00");
+    assertThat(reload(full).getDiscountReason()).isEqualTo("Volume deal");
+    // 17.49 * 0.5 = 8.745, which HALF_UP takes to 8.75 (HALF_EVEN would give 8.74)
+    assertThat(reload(odd).getFinalPrice()).isEqualByComparingTo("8.75");
+    assertThat(reload(cancelled).getFinalPrice()).isEqualByComparingTo("1000");
+    assertThat(reload(otherCustomers).getFinalPrice()).isEqualByComparingTo("1000");
+  }
+
+  @Test
+  @DisplayName("applyBulkDiscount → same final prices as the per-order discount")
+  void applyBulkDiscount_matchesPerOrderRounding() {
+    FreightOrder bulk = freightOrderService.createOrder(bookingRequest());
+    FreightOrder single = bookOn("TSTU0000001");
+    bulk.setBasePriceUsd(new BigDecimal("1234.57"));
+    single.setBasePriceUsd(new BigDecimal("1234.57"));
+    freightOrderRepository.flush();
+
+    for (String percent : List.of("0.01", "12.5", "33.33", "66.67", "99.99")) {
+      BulkDiscountRequest request = new BulkDiscountRequest();
+      request.setVoyageId(savedVoyage.getId());
+      request.setCustomerId(savedCustomer.getId());
+      request.setDiscountPercent(new BigDecimal(percent));
+      request.setReason("Rate review");
+      freightOrderService.applyBulkDiscount(request);
+      UpdateDiscountRequest update = new UpdateDiscountRequest();
+      update.setDiscountPercent(new BigDecimal(percent));
+      update.setReason("Rate review");
+      BigDecimal expected =
+          freightOrderService.updateDiscount(single.getId(), update).getFinalPrice();
+
+      assertThat(reload(bulk).getFinalPrice()).isEqualByComparingTo(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("applyBulkDiscount → rejects a request without any filter")
+  void applyBulkDiscount_withoutFilter_throwsBadRequest() {
+    BulkDiscountRequest request = new BulkDiscountRequest();
+    request.setDiscountPercent(BigDecimal.TEN);
+    request.setReason("Everyone");
+
+    assertThatThrownBy(() -> freightOrderService.applyBulkDiscount(request))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  @DisplayName("createOrder → rejects a container already booked on an overlapping voyage")
+  void createOrder_whenContainerDoubleBooked_throwsException() {
+    freightOrderService.createOrder(bookingRequest());
+    Voyage overlapping =
+        saveVoyage(
+            "VOY-002",
+            savedVoyage.getDepartureTime().plusDays(2),
+            savedVoyage.getArrivalTime().plusDays(2));
+    CreateFreightOrderRequest request = bookingRequest();
+    request.setVoyageId(overlapping.getId());
+
+    assertThatThrownBy(() -> freightOrderService.createOrder(request))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("already booked on voyage " + savedVoyage.getId());
+  }
+
+  @Test
+  @DisplayName("createOrder → books the same container on a voyage departing after arrival")
+  void createOrder_onFollowingVoyage_succeeds() {
+    freightOrderService.createOrder(bookingRequest());
+    Voyage following =
+        saveVoyage(
+            "VOY-002", savedVoyage.getArrivalTime(), savedVoyage.getArrivalTime().plusDays(7));
+    CreateFreightOrderRequest request = bookingRequest();
+    request.setVoyageId(following.getId());
+
+    FreightOrder order = freightOrderService.createOrder(request);
+
+    assertThat(order.getVoyage().getId()).isEqualTo(following.getId());
+    assertThat(order.getOccupiedFrom()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("createOrders → rejects the second line booking the same container")
+  void createOrders_rejectsDoubleBookedContainer() {
+    BatchFreightOrderResponse response =
+        freightOrderService.createOrders(List.of(bookingRequest(), bookingRequest()));
+
+    assertThat(response.getResults().get(0).getStatus()).isEqualTo(BookingResultStatus.CREATED);
+    assertThat(response.getResults().get(1).getStatus()).isEqualTo(BookingResultStatus.REJECTED);
+    assertThat(response.getResults().get(1).getMessage()).contains("already booked");
+  }
+
+  @Test
+  @DisplayName("createOrders → a line over capacity leaves its container free to book")
+  void createOrders_overCapacity_releasesContainerClaim() {
+    Voyage small = new Voyage();
+    small.setVoyageNumber("VOY-SMALL");
+    small.setVessel(savedVoyage.getVessel());
+    small.setDeparturePort(savedVoyage.getDeparturePort());
+    small.setArrivalPort(savedVoyage.getArrivalPort());
+    small.setDepartureTime(savedVoyage.getDepartureTime());
+    small.setArrivalTime(savedVoyage.getArrivalTime());
+    small.setMaxCapacityTeu(2);
+    small = voyageRepository.save(small);
+    savePrice(small, ContainerSize.TWENTY_FOOT);
+    savePrice(small, ContainerSize.FORTY_FOOT);
+    savePrice(savedVoyage, ContainerSize.FORTY_FOOT);
+    Container fortyFoot =
+        containerRepository.save(
+            new Container("TSTU7654321", ContainerSize.FORTY_FOOT, ContainerType.DRY));
+
+    CreateFreightOrderRequest fits = bookingRequest();
+    fits.setVoyageId(small.getId());
+    CreateFreightOrderRequest overflows = bookingRequest();
+    overflows.setVoyageId(small.getId());
+    overflows.setContainerId(fortyFoot.getId());
+    BatchFreightOrderResponse response = freightOrderService.createOrders(List.of(fits, overflows));
+
+    assertThat(response.getResults().get(0).getStatus()).isEqualTo(BookingResultStatus.CREATED);
+    assertThat(response.getResults().get(1).getStatus()).isEqualTo(BookingResultStatus.REJECTED);
+    assertThat(response.getResults().get(1).getMessage()).contains("TEU remaining");
+
+    CreateFreightOrderRequest sameWindow = bookingRequest();
+    sameWindow.setContainerId(fortyFoot.getId());
+    FreightOrder order = freightOrderService.createOrder(sameWindow);
+
+    assertThat(order.getContainer().getId()).isEqualTo(fortyFoot.getId());
+  }
+
+  private void savePrice(Voyage voyage, ContainerSize size) {
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(size);
+    price.setBasePriceUsd(BigDecimal.valueOf(1000));
+    voyagePriceRepository.save(price);
+  }
+
+  private Voyage saveVoyage(String voyageNumber, LocalDateTime departure, LocalDateTime arrival) {
+    Voyage voyage = new Voyage();
+    voyage.setVoyageNumber(voyageNumber);
+    voyage.setVessel(savedVoyage.getVessel());
+    voyage.setDeparturePort(savedVoyage.getDeparturePort());
+    voyage.setArrivalPort(savedVoyage.getArrivalPort());
+    voyage.setDepartureTime(departure);
+    voyage.setArrivalTime(arrival);
+    voyage = voyageRepository.save(voyage);
+
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(ContainerSize.TWENTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(1000));
+    voyagePriceRepository.save(price);
+    return voyage;
+  }
+
+  private Container saveContainer(String code) {
+    return containerRepository.save(
+        new Container(code, ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+  }
+
+  /** Books another container on the default voyage for the default customer. */
+  private FreightOrder bookOn(String containerCode) {
+    CreateFreightOrderRequest request = bookingRequest();
+    request.setContainerId(saveContainer(containerCode).getId());
+    return freightOrderService.createOrder(request);
+  }
+
+  private FreightOrder reload(FreightOrder order) {
+    return freightOrderRepository.findById(order.getId()).orElseThrow();
+  }
+
+  private CreateFreightOrderRequest bookingRequest() {
+    CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+    request.setVoyageId(savedVoyage.getId());
+    request.setContainerId(savedContainer.getId());
+    request.setCustomerId(savedCustomer.getId());
+    request.setAgentId(savedAgent.getId());
+    request.setOrderedBy("tester");
+    return request;
+  }
 }
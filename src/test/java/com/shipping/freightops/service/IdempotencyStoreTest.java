@@ -0,0 +1,157 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.config.CacheProperties;
+import com.shipping.freightops.dto.CreateFreightOrderRequest;
+import com.shipping.freightops.entity.IdempotencyRecord;
+import com.shipping.freightops.exception.BadRequestException;
+import com.shipping.freightops.repository.IdempotencyRecordRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit tests for {@link IdempotencyStore}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyStoreTest {
+
+  @Mock private IdempotencyRecordRepository repository;
+
+  private IdempotencyStore store;
+
+  @BeforeEach
+  void setUp() {
+    CacheConfig cacheConfig = new CacheConfig();
+    store =
+        new IdempotencyStore(
+            cacheConfig.cacheManager(new CacheProperties()),
+            repository,
+            new ObjectMapper().findAndRegisterModules(),
+            Duration.ofHours(1));
+    when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(repository.findByIdempotencyKeyAndExpiresAtAfter(anyString(), any()))
+        .thenReturn(Optional.empty());
+  }
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("a committed response is replayed from memory without reading the table")
+  void committedResponseIsReplayedFromMemory() {
+    CreateFreightOrderRequest request = request("ops-team");
+    IdempotencyRecord record = store.claim("key-1", request);
+    store.complete(record, response("BASE"));
+
+    Optional<Map> replayed = store.find("key-1", request, Map.class);
+
+    assertThat(replayed).contains(Map.of("voyageNumber", "BASE"));
+    verify(repository, never()).findByIdempotencyKeyAndExpiresAtAfter(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("a rolled-back booking leaves its key unused")
+  void rolledBackClaimIsNotCached() {
+    TransactionSynchronizationManager.initSynchronization();
+    CreateFreightOrderRequest request = request("ops-team");
+    store.complete(store.claim("key-2", request), response("BASE"));
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertThat(store.find("key-2", request, Map.class)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("a key found in the table, e.g. after a restart, is cached for later retries")
+  void storedKeyIsLoadedOnce() {
+    CreateFreightOrderRequest request = request("ops-team");
+    IdempotencyRecord stored = store.claim("key-3", request);
+    stored.setResponseBody("{\"voyageNumber\":\"STORED\"}");
+    when(repository.findByIdempotencyKeyAndExpiresAtAfter(eq("key-3"), any()))
+        .thenReturn(Optional.of(stored));
+
+    assertThat(store.find("key-3", request, Map.class)).isPresent();
+    assertThat(store.find("key-3", request, Map.class)).contains(Map.of("voyageNumber", "STORED"));
+    verify(repository, times(1)).findByIdempotencyKeyAndExpiresAtAfter(eq("key-3"), any());
+  }
+
+  @Test
+  @DisplayName("a key is only replayed for the request it was first used with")
+  void keyReusedForOtherRequestIsRejected() {
+    store.complete(store.claim("key-4", request("ops-team")), response("BASE"));
+
+    assertThatThrownBy(() -> store.find("key-4", request("sales"), Map.class))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("different request");
+  }
+
+  @Test
+  @DisplayName("claiming a key deletes its expired row before inserting")
+  void claimDeletesExpiredRowFirst() {
+    store.claim("key-5", request("ops-team"));
+
+    InOrder inOrder = inOrder(repository);
+    inOrder.verify(repository).deleteExpiredKey(eq("key-5"), any());
+    inOrder.verify(repository).saveAndFlush(any());
+  }
+
+  @Test
+  @DisplayName("rejects blank and oversized keys")
+  void rejectsInvalidKeys() {
+    assertThatThrownBy(() -> store.claim("", request("ops-team")))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> store.claim("k".repeat(256), request("ops-team")))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  private static CreateFreightOrderRequest request(String orderedBy) {
+    CreateFreightOrderRequest request = new CreateFreightOrderRequest();
+    request.setVoyageId(1L);
+    request.setContainerId(2L);
+    request.setAgentId(3L);
+    request.setCustomerId(4L);
+    request.setOrderedBy(orderedBy);
+    return request;
+  }
+
+  /** The store is not tied to the booking response; any JSON value round-trips. */
+  private static Map<String, Object> response(String voyageNumber) {
+    return Map.of("voyageNumber", voyageNumber);
+  }
+
+  private static void complete(int status) {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+}
@@ -0,0 +1,88 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.RoutePriceRollup;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.money.Money;
+import com.shipping.freightops.repository.RoutePriceRollupRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/** Unit tests for the model refresh of {@link PriceSuggestionService}. */
+@ExtendWith(MockitoExtension.class)
+class PriceSuggestionServiceTest {
+
+  @Mock private RoutePriceRollupRepository rollupRepository;
+  @Mock private VoyageRepository voyageRepository;
+  @Mock private VoyageLoadSummary loadSummary;
+
+  private Cache cache;
+  private PriceSuggestionService service;
+
+  @BeforeEach
+  void setUp() {
+    ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager(CacheConfig.ROUTE_PRICE_MODELS);
+    cache = cacheManager.getCache(CacheConfig.ROUTE_PRICE_MODELS);
+    service =
+        new PriceSuggestionService(
+            cacheManager, rollupRepository, voyageRepository, loadSummary, 0.3, 0.5, 0.2);
+  }
+
+  @Test
+  @DisplayName("refitAll caches the models of every route with prices")
+  void refitAllCachesModels() {
+    when(rollupRepository.findAllHistory()).thenReturn(List.of(rollup(1L, 2L), rollup(3L, 4L)));
+
+    service.refitAll();
+
+    assertThat(cache.get("1-2")).isNotNull();
+    assertThat(cache.get("3-4")).isNotNull();
+  }
+
+  @Test
+  @DisplayName("refitAll does not cache a model for a route evicted while it ran")
+  void refitAllKeepsConcurrentEviction() {
+    when(rollupRepository.findAllHistory())
+        .thenAnswer(
+            invocation -> {
+              service.evictRoute(1L, 2L);
+              return List.of(rollup(1L, 2L), rollup(3L, 4L));
+            });
+
+    service.refitAll();
+
+    assertThat(cache.get("1-2")).isNull();
+    assertThat(cache.get("3-4")).isNotNull();
+  }
+
+  private static RoutePriceRollup rollup(Long departurePortId, Long arrivalPortId) {
+    RoutePriceRollup rollup =
+        new RoutePriceRollup(
+            port(departurePortId),
+            port(arrivalPortId),
+            ContainerSize.TWENTY_FOOT,
+            LocalDate.of(2026, 5, 1));
+    rollup.record(Money.ofCents(100_000));
+    return rollup;
+  }
+
+  private static Port port(Long id) {
+    Port port = new Port("P" + id, "Port " + id, "Country");
+    port.setId(id);
+    return port;
+  }
+}
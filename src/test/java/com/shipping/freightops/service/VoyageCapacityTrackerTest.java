@@ -0,0 +1,185 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.repository.VoyageRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Unit tests for {@link VoyageCapacityTracker}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VoyageCapacityTrackerTest {
+
+  private static final Long VOYAGE_ID = 1L;
+
+  @Mock private VoyageLoadSummary loadSummary;
+  @Mock private VoyageRepository voyageRepository;
+
+  private VoyageCapacityTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new VoyageCapacityTracker(loadSummary, voyageRepository, 95);
+    when(loadSummary.loadedTeu(VOYAGE_ID)).thenReturn(6);
+  }
+
+  @Test
+  @DisplayName("seeds the counter from the database on first use")
+  void seedsFromDatabase() {
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("rejects a container that does not fit the remaining TEU")
+  void rejectsWhenFull() {
+    tracker.reserve(VOYAGE_ID, 8, ContainerSize.TWENTY_FOOT);
+
+    assertThatThrownBy(() -> tracker.reserve(VOYAGE_ID, 8, ContainerSize.FORTY_FOOT))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("1 TEU remaining");
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("reports the reservation that reaches the auto-cutoff threshold")
+  void reportsCutoff() {
+    // 95% of 10 TEU → cutoff at 10 TEU
+    assertThat(tracker.reserve(VOYAGE_ID, 10, ContainerSize.TWENTY_FOOT)).isFalse();
+    assertThat(tracker.reserve(VOYAGE_ID, 10, ContainerSize.TWENTY_FOOT)).isFalse();
+    assertThat(tracker.reserve(VOYAGE_ID, 10, ContainerSize.FORTY_FOOT)).isTrue();
+  }
+
+  @Test
+  @DisplayName("keeps reporting the cutoff once reconciliation moved the voyage past it")
+  void reportsCutoffPastThreshold() {
+    when(voyageRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(VOYAGE_ID));
+    when(loadSummary.loadedTeu(List.of(VOYAGE_ID))).thenReturn(Map.of(VOYAGE_ID, 19));
+    tracker.reconcile();
+
+    // 95% of 20 TEU → cutoff at 19 TEU, already reached without a reservation crossing it
+    assertThat(tracker.reserve(VOYAGE_ID, 20, ContainerSize.TWENTY_FOOT)).isTrue();
+  }
+
+  @Test
+  @DisplayName("release gives capacity back")
+  void releaseFreesCapacity() {
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(6);
+
+    tracker.release(VOYAGE_ID, ContainerSize.FORTY_FOOT);
+
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("reconcile resets counters to the database load")
+  void reconcileRepairsDrift() {
+    tracker.reserve(VOYAGE_ID, 100, ContainerSize.FORTY_FOOT);
+    when(voyageRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(VOYAGE_ID));
+    when(loadSummary.loadedTeu(List.of(VOYAGE_ID))).thenReturn(Map.of(VOYAGE_ID, 5));
+
+    tracker.reconcile();
+
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("reconcile keeps a reservation made while the database is read")
+  void reconcileKeepsConcurrentReservation() {
+    tracker.reserve(VOYAGE_ID, 100, ContainerSize.TWENTY_FOOT);
+    when(voyageRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(VOYAGE_ID));
+    when(loadSummary.loadedTeu(List.of(VOYAGE_ID)))
+        .thenAnswer(
+            invocation -> {
+              TransactionSynchronizationManager.initSynchronization();
+              tracker.reserve(VOYAGE_ID, 100, ContainerSize.FORTY_FOOT);
+              return Map.of(VOYAGE_ID, 5);
+            });
+
+    try {
+      tracker.reconcile();
+
+      assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(7);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("reconcile does not count a rejected reservation as in flight")
+  void reconcileIgnoresRejectedReservation() {
+    assertThatThrownBy(() -> tracker.reserve(VOYAGE_ID, 7, ContainerSize.FORTY_FOOT))
+        .isInstanceOf(IllegalStateException.class);
+    when(voyageRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(VOYAGE_ID));
+    when(loadSummary.loadedTeu(List.of(VOYAGE_ID))).thenReturn(Map.of(VOYAGE_ID, 6));
+
+    tracker.reconcile();
+
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("reconcile skips a counter whose release committed while the database is read")
+  void reconcileSkipsConcurrentRelease() {
+    tracker.reservedTeu(VOYAGE_ID);
+    when(voyageRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(VOYAGE_ID));
+    when(loadSummary.loadedTeu(List.of(VOYAGE_ID)))
+        .thenAnswer(
+            invocation -> {
+              tracker.release(VOYAGE_ID, ContainerSize.FORTY_FOOT);
+              return Map.of(VOYAGE_ID, 6);
+            });
+
+    tracker.reconcile();
+
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("concurrent bookings never exceed capacity")
+  void concurrentReservationsRespectCapacity() throws Exception {
+    int maxCapacityTeu = 1_006;
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Callable<Boolean>> attempts = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      attempts.add(
+          () -> {
+            try {
+              tracker.reserve(VOYAGE_ID, maxCapacityTeu, ContainerSize.TWENTY_FOOT);
+              return true;
+            } catch (IllegalStateException full) {
+              return false;
+            }
+          });
+    }
+
+    int booked = 0;
+    for (Future<Boolean> result : pool.invokeAll(attempts)) {
+      if (result.get()) {
+        booked++;
+      }
+    }
+    pool.shutdown();
+
+    assertThat(booked).isEqualTo(1_000);
+    assertThat(tracker.reservedTeu(VOYAGE_ID)).isEqualTo(maxCapacityTeu);
+  }
+}
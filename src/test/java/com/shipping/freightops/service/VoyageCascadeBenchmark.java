@@ -0,0 +1,182 @@
+package com.shipping.freightops.service;
+
+import com.shipping.freightops.FreightOpsApplication;
+import com.shipping.freightops.entity.Agent;
+import com.shipping.freightops.entity.Container;
+import com.shipping.freightops.entity.Customer;
+import com.shipping.freightops.entity.FreightOrder;
+import com.shipping.freightops.entity.OrderStatusTransition;
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.enums.AgentType;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.enums.ContainerType;
+import com.shipping.freightops.enums.OrderStatus;
+import com.shipping.freightops.enums.VoyageStatus;
+import com.shipping.freightops.repository.AgentRepository;
+import com.shipping.freightops.repository.ContainerRepository;
+import com.shipping.freightops.repository.CustomerRepository;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
+import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.VesselRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Completing a voyage with {@link #ORDERS} active orders on the H2 test database: the set-based
+ * cascade in {@link VoyageService#updateStatus} against moving the orders one entity at a time. Run
+ * with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=VoyageCascadeBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class VoyageCascadeBenchmark {
+
+  static final int ORDERS = 10_000;
+
+  private ConfigurableApplicationContext context;
+  private VoyageService voyageService;
+  private FreightOrderRepository orderRepository;
+  private OrderStatusTransitionRepository transitionRepository;
+  private TransactionTemplate transaction;
+  private JdbcTemplate jdbc;
+  private EntityManagerFactory entityManagerFactory;
+  private Long voyageId;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context =
+        new SpringApplicationBuilder(FreightOpsApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+            .run();
+    voyageService = context.getBean(VoyageService.class);
+    orderRepository = context.getBean(FreightOrderRepository.class);
+    transitionRepository = context.getBean(OrderStatusTransitionRepository.class);
+    transaction = context.getBean(TransactionTemplate.class);
+    jdbc = context.getBean(JdbcTemplate.class);
+    entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    voyageId = transaction.execute(status -> seedVoyage());
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  /** Puts the voyage back to PLANNED with all orders CONFIRMED and an empty transition log. */
+  @Setup(Level.Invocation)
+  public void resetVoyage() {
+    jdbc.update("delete from order_status_transitions");
+    jdbc.update("update freight_orders set status = 'CONFIRMED'");
+    jdbc.update("update voyages set status = 'PLANNED'");
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Benchmark
+  public int setBased() {
+    return voyageService.updateStatus(VoyageStatus.COMPLETED, voyageId).getOrdersTransitioned();
+  }
+
+  /** The order-at-a-time loop the cascade replaces: load, change and log each order. */
+  @Benchmark
+  public int perOrder() {
+    return transaction.execute(
+        status -> {
+          Voyage voyage = context.getBean(VoyageRepository.class).findById(voyageId).orElseThrow();
+          voyage.setStatus(VoyageStatus.COMPLETED);
+          List<FreightOrder> orders = orderRepository.findAll();
+          for (FreightOrder order : orders) {
+            transitionRepository.save(
+                new OrderStatusTransition(
+                    order, voyage, order.getStatus(), OrderStatus.DELIVERED, "Voyage completed"));
+            order.setStatus(OrderStatus.DELIVERED);
+            orderRepository.save(order);
+          }
+          return orders.size();
+        });
+  }
+
+  private Long seedVoyage() {
+    Port from = context.getBean(PortRepository.class).save(new Port("NLRTM", "Rotterdam", "NL"));
+    Port to = context.getBean(PortRepository.class).save(new Port("SGSIN", "Singapore", "SG"));
+    Vessel vessel =
+        context
+            .getBean(VesselRepository.class)
+            .save(new Vessel("Bench Carrier", "9000001", ORDERS));
+    Voyage voyage = new Voyage();
+    voyage.setVoyageNumber("BENCH-001");
+    voyage.setVessel(vessel);
+    voyage.setDeparturePort(from);
+    voyage.setArrivalPort(to);
+    voyage.setDepartureTime(LocalDateTime.of(2027, 1, 1, 8, 0));
+    voyage.setArrivalTime(LocalDateTime.of(2027, 2, 1, 8, 0));
+    voyage.setMaxCapacityTeu(ORDERS);
+    voyage = context.getBean(VoyageRepository.class).save(voyage);
+
+    Customer customer =
+        context
+            .getBean(CustomerRepository.class)
+            .save(new Customer("Bench Shipper", "Jane Doe", "jane@bench.test"));
+    Agent agent = new Agent();
+    agent.setName("Bench Agent");
+    agent.setEmail("agent@bench.test");
+    agent.setCommissionPercent(BigDecimal.valueOf(5));
+    agent.setType(AgentType.INTERNAL);
+    agent = context.getBean(AgentRepository.class).save(agent);
+
+    List<Container> containers = new ArrayList<>(ORDERS);
+    for (int i = 0; i < ORDERS; i++) {
+      containers.add(
+          new Container(
+              String.format("BNCU%07d", i), ContainerSize.TWENTY_FOOT, ContainerType.DRY));
+    }
+    containers = context.getBean(ContainerRepository.class).saveAll(containers);
+
+    List<FreightOrder> orders = new ArrayList<>(ORDERS);
+    for (Container container : containers) {
+      FreightOrder order = new FreightOrder();
+      order.setVoyage(voyage);
+      order.setContainer(container);
+      order.setCustomer(customer);
+      order.setAgent(agent);
+      order.setOrderedBy("benchmark");
+      order.setStatus(OrderStatus.CONFIRMED);
+      order.setBasePriceUsd(BigDecimal.valueOf(1000));
+      order.setDiscountPercent(BigDecimal.ZERO);
+      order.setFinalPrice(BigDecimal.valueOf(1000));
+      order.setOccupiedFrom(voyage.getDepartureTime());
+      order.setOccupiedUntil(voyage.getArrivalTime());
+      orders.add(order);
+    }
+    orderRepository.saveAll(orders);
+    return voyage.getId();
+  }
+}
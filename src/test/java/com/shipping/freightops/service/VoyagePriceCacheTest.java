@@ -0,0 +1,118 @@
+package com.shipping.freightops.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shipping.freightops.config.CacheConfig;
+import com.shipping.freightops.entity.Port;
+import com.shipping.freightops.entity.Vessel;
+import com.shipping.freightops.entity.Voyage;
+import com.shipping.freightops.entity.VoyagePrice;
+import com.shipping.freightops.enums.ContainerSize;
+import com.shipping.freightops.repository.FreightOrderRepository;
+import com.shipping.freightops.repository.OrderStatusTransitionRepository;
+import com.shipping.freightops.repository.PortRepository;
+import com.shipping.freightops.repository.VesselRepository;
+import com.shipping.freightops.repository.VoyagePriceRepository;
+import com.shipping.freightops.repository.VoyageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class VoyagePriceCacheTest {
+
+  @Autowired private VoyagePriceCache voyagePriceCache;
+  @Autowired private FreightOrderRepository freightOrderRepository;
+  @Autowired private OrderStatusTransitionRepository transitionRepository;
+  @Autowired private VoyagePriceRepository voyagePriceRepository;
+  @Autowired private VoyageRepository voyageRepository;
+  @Autowired private VesselRepository vesselRepository;
+  @Autowired private PortRepository portRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Voyage voyage;
+
+  @BeforeEach
+  void setUp() {
+    transitionRepository.deleteAll();
+    freightOrderRepository.deleteAll();
+    voyagePriceRepository.deleteAll();
+    voyageRepository.deleteAll();
+    vesselRepository.deleteAll();
+    portRepository.deleteAll();
+    portRepository.flush();
+
+    Port departure = portRepository.save(new Port("NLRTM", "Rotterdam", "Netherlands"));
+    Port arrival = portRepository.save(new Port("SGSIN", "Singapore", "Singapore"));
+    Vessel vessel = vesselRepository.save(new Vessel("MV Cache", "7777777", 2000));
+
+    Voyage newVoyage = new Voyage();
+    newVoyage.setVoyageNumber("VOY-CACHE");
+    newVoyage.setVessel(vessel);
+    newVoyage.setDeparturePort(departure);
+    newVoyage.setArrivalPort(arrival);
+    newVoyage.setDepartureTime(LocalDateTime.now().plusDays(2));
+    newVoyage.setArrivalTime(LocalDateTime.now().plusDays(20));
+    voyage = voyageRepository.save(newVoyage);
+
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(ContainerSize.TWENTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(1200));
+    voyagePriceRepository.saveAndFlush(price);
+  }
+
+  @Test
+  @DisplayName("repeated lookups are served without querying voyage_prices")
+  void find_secondLookupHitsCache() {
+    Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    stats.clear();
+    double hitsBefore = gets("hit");
+
+    assertThat(voyagePriceCache.find(voyage.getId(), ContainerSize.TWENTY_FOOT))
+        .hasValueSatisfying(p -> assertThat(p.getBasePriceUsd()).isEqualByComparingTo("1200"));
+    assertThat(voyagePriceCache.find(voyage.getId(), ContainerSize.FORTY_FOOT)).isEmpty();
+    assertThat(voyagePriceCache.findByVoyage(voyage.getId())).hasSize(1);
+
+    assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(gets("hit") - hitsBefore).isGreaterThanOrEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("evict forces the next lookup to reload the price")
+  void evict_reloadsPrice() {
+    assertThat(voyagePriceCache.find(voyage.getId(), ContainerSize.FORTY_FOOT)).isEmpty();
+
+    VoyagePrice price = new VoyagePrice();
+    price.setVoyage(voyage);
+    price.setContainerSize(ContainerSize.FORTY_FOOT);
+    price.setBasePriceUsd(BigDecimal.valueOf(2100));
+    voyagePriceRepository.saveAndFlush(price);
+    voyagePriceCache.evict(voyage.getId(), ContainerSize.FORTY_FOOT);
+
+    assertThat(voyagePriceCache.find(voyage.getId(), ContainerSize.FORTY_FOOT)).isPresent();
+    assertThat(voyagePriceCache.findByVoyages(List.of(voyage.getId())).get(voyage.getId()))
+        .hasSize(2);
+  }
+
+  private double gets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", CacheConfig.VOYAGE_PRICES)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+}
@@ -0,0 +1,80 @@
+package com.shipping.freightops.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link QuantileSketch}, checked against exact quantiles of sorted values. */
+class QuantileSketchTest {
+
+  private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+  @Test
+  @DisplayName("every quantile is within the relative accuracy of the exact value")
+  void quantile_withinRelativeAccuracy() {
+    Random random = new Random(31);
+    double[] values = new double[10_000];
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Math.round(Math.exp(6 + random.nextGaussian()) * 100) / 100.0 + 0.01;
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double q : QUANTILES) {
+      double exact = values[(int) Math.floor(q * (values.length - 1))];
+      assertThat(sketch.quantile(q))
+          .as("quantile %s", q)
+          .isCloseTo(exact, within(exact * QuantileSketch.RELATIVE_ACCURACY));
+    }
+  }
+
+  @Test
+  @DisplayName("merged sketches answer like one sketch of all values, also after a round trip")
+  void merge_andBytes_matchSingleSketch() {
+    Random random = new Random(37);
+    QuantileSketch all = new QuantileSketch();
+    QuantileSketch january = new QuantileSketch();
+    QuantileSketch february = new QuantileSketch();
+    for (int i = 0; i < 1_000; i++) {
+      double value = 0.01 + random.nextDouble() * 50_000;
+      all.add(value);
+      (i % 3 == 0 ? january : february).add(value);
+    }
+
+    QuantileSketch merged = QuantileSketch.fromBytes(january.toBytes());
+    merged.merge(QuantileSketch.fromBytes(february.toBytes()));
+
+    assertThat(merged.getCount()).isEqualTo(1_000);
+    assertThat(merged.toBytes()).isEqualTo(all.toBytes());
+    for (double q : QUANTILES) {
+      assertThat(merged.quantile(q)).isEqualTo(all.quantile(q));
+    }
+  }
+
+  @Test
+  @DisplayName("a route's prices take a few bytes per occupied bucket")
+  void toBytes_isCompact() {
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = 0; i < 10_000; i++) {
+      sketch.add(1_000 + i % 500);
+    }
+
+    assertThat(sketch.toBytes().length).isLessThan(200);
+    assertThat(QuantileSketch.fromBytes(new byte[0]).isEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("non-positive values and quantiles of an empty sketch are rejected")
+  void rejectsInvalidUse() {
+    QuantileSketch sketch = new QuantileSketch();
+
+    assertThatThrownBy(() -> sketch.add(0)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> sketch.quantile(0.5)).isInstanceOf(IllegalStateException.class);
+  }
+}
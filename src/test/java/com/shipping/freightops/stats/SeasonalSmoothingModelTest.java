@@ -0,0 +1,100 @@
+package com.shipping.freightops.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SeasonalSmoothingModel} on synthetic monthly price series. */
+class SeasonalSmoothingModelTest {
+
+  @Test
+  @DisplayName("a steady route forecasts its price with the minimum spread and high confidence")
+  void steadyPrices_narrowConfidentForecast() {
+    SortedMap<YearMonth, PriceStatistics> months = new TreeMap<>();
+    for (int i = 0; i < 12; i++) {
+      months.put(YearMonth.of(2025, 1).plusMonths(i), prices(1000_00, 1000_00));
+    }
+
+    SeasonalSmoothingModel.Forecast forecast =
+        SeasonalSmoothingModel.fit(months, 0.3).forecast(YearMonth.of(2026, 1));
+
+    assertThat(forecast.getPrice()).isCloseTo(1000, within(0.01));
+    assertThat(forecast.getSpread()).isEqualTo(0.03);
+    assertThat(forecast.getConfidence()).isGreaterThan(0.6);
+  }
+
+  @Test
+  @DisplayName("a peak month recurring every year shows as its seasonal index, shrunk a little")
+  void recurringPeak_raisesThatMonth() {
+    SortedMap<YearMonth, PriceStatistics> months = new TreeMap<>();
+    for (int i = 0; i < 36; i++) {
+      YearMonth month = YearMonth.of(2023, 1).plusMonths(i);
+      long cents = month.getMonth() == Month.AUGUST ? 1300_00 : 1000_00;
+      months.put(month, prices(cents, cents, cents, cents, cents, cents));
+    }
+    SeasonalSmoothingModel model = SeasonalSmoothingModel.fit(months, 0.3);
+
+    SeasonalSmoothingModel.Forecast august = model.forecast(YearMonth.of(2026, 8));
+    SeasonalSmoothingModel.Forecast march = model.forecast(YearMonth.of(2026, 3));
+
+    assertThat(august.getSeasonalFactor()).isCloseTo(1.2, within(0.01));
+    assertThat(march.getSeasonalFactor()).isCloseTo(0.98, within(0.01));
+    assertThat(august.getPrice()).isCloseTo(1230, within(30.0));
+    assertThat(march.getPrice()).isCloseTo(1000, within(30.0));
+  }
+
+  @Test
+  @DisplayName("the level follows a price shift and noisy history widens the spread")
+  void shiftAndNoise() {
+    Random random = new Random(41);
+    SortedMap<YearMonth, PriceStatistics> steady = new TreeMap<>();
+    SortedMap<YearMonth, PriceStatistics> noisy = new TreeMap<>();
+    for (int i = 0; i < 24; i++) {
+      YearMonth month = YearMonth.of(2024, 1).plusMonths(i);
+      long base = i < 12 ? 1000_00 : 1500_00;
+      steady.put(month, prices(base, base));
+      long noise = (long) (random.nextGaussian() * 150_00);
+      noisy.put(month, prices(base + noise, base - noise / 2));
+    }
+
+    SeasonalSmoothingModel.Forecast shifted =
+        SeasonalSmoothingModel.fit(steady, 0.3).forecast(YearMonth.of(2026, 1));
+    SeasonalSmoothingModel.Forecast scattered =
+        SeasonalSmoothingModel.fit(noisy, 0.3).forecast(YearMonth.of(2026, 1));
+
+    assertThat(shifted.getPrice()).isCloseTo(1500, within(30.0));
+    assertThat(scattered.getSpread()).isGreaterThan(shifted.getSpread());
+    assertThat(scattered.getConfidence()).isLessThan(shifted.getConfidence());
+  }
+
+  @Test
+  @DisplayName("one old price gives a forecast with low confidence")
+  void singleOldPrice_lowConfidence() {
+    SortedMap<YearMonth, PriceStatistics> months = new TreeMap<>();
+    months.put(YearMonth.of(2024, 5), prices(800_00));
+
+    SeasonalSmoothingModel model = SeasonalSmoothingModel.fit(months, 0.3);
+    SeasonalSmoothingModel.Forecast forecast = model.forecast(YearMonth.of(2026, 5));
+
+    assertThat(model.getMonthCount()).isEqualTo(1);
+    assertThat(forecast.getPrice()).isCloseTo(800, within(0.01));
+    assertThat(forecast.getConfidence()).isLessThan(0.1);
+  }
+
+  private static PriceStatistics prices(long... cents) {
+    PriceStatistics statistics = new PriceStatistics();
+    for (long price : cents) {
+      QuantileSketch sketch = new QuantileSketch();
+      sketch.add(price / 100.0);
+      statistics.merge(1, price, (double) price * price, price, price, sketch);
+    }
+    return statistics;
+  }
+}
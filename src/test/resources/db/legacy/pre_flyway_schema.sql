@@ -0,0 +1,123 @@
+-- The schema ddl-auto=update created for the entities before the Flyway migrations, with a little
+-- data. LegacySchemaMigrationTest migrates it to check V1 upgrades such databases in place.
+
+create table agents (
+    active boolean not null,
+    commission_percent numeric(38,2) not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    type varchar(255) not null check (type in ('INTERNAL','EXTERNAL')),
+    primary key (id)
+);
+create table containers (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    container_code varchar(11) not null unique,
+    size varchar(255) not null check (size in ('TWENTY_FOOT','FORTY_FOOT')),
+    type varchar(255) not null check (type in ('DRY','REEFER','OPEN_TOP','FLAT_RACK','TANK')),
+    primary key (id)
+);
+create table customers (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    address varchar(255),
+    company_name varchar(255) not null,
+    contact_name varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(255),
+    primary key (id)
+);
+create table ports (
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    unlocode varchar(5) not null unique,
+    country varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+create table vessels (
+    capacity_teu integer not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    imo_number varchar(7) not null unique,
+    name varchar(255) not null,
+    primary key (id)
+);
+create table voyages (
+    arrival_port_id bigint not null,
+    arrival_time timestamp(6) not null,
+    created_at timestamp(6) not null,
+    departure_port_id bigint not null,
+    departure_time timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    vessel_id bigint not null,
+    status varchar(255) not null check (status in ('PLANNED','IN_PROGRESS','COMPLETED','CANCELLED')),
+    voyage_number varchar(255) not null unique,
+    primary key (id),
+    foreign key (arrival_port_id) references ports,
+    foreign key (departure_port_id) references ports,
+    foreign key (vessel_id) references vessels
+);
+create table voyage_prices (
+    base_price_usd numeric(10,2) not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    voyage_id bigint not null,
+    container_size varchar(255) not null check (container_size in ('TWENTY_FOOT','FORTY_FOOT')),
+    primary key (id),
+    constraint uc_voyage_container_size unique (voyage_id, container_size),
+    foreign key (voyage_id) references voyages
+);
+create table freight_orders (
+    base_price_usd numeric(10,2) not null,
+    discount_percent numeric(5,2) not null,
+    final_price numeric(10,2) not null,
+    agent_id bigint not null,
+    container_id bigint not null,
+    created_at timestamp(6) not null,
+    customer_id bigint not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    voyage_id bigint not null,
+    discount_reason varchar(500),
+    notes varchar(500),
+    ordered_by varchar(255) not null,
+    status varchar(255) not null check (status in ('PENDING','CONFIRMED','IN_TRANSIT','DELIVERED','CANCELLED')),
+    primary key (id),
+    foreign key (agent_id) references agents,
+    foreign key (container_id) references containers,
+    foreign key (customer_id) references customers,
+    foreign key (voyage_id) references voyages
+);
+
+insert into ports (unlocode, name, country, created_at, updated_at)
+values ('NLRTM', 'Rotterdam', 'Netherlands', now(), now()),
+       ('SGSIN', 'Singapore', 'Singapore', now(), now());
+insert into vessels (name, imo_number, capacity_teu, created_at, updated_at)
+values ('MV Legacy', '1234567', 4000, now(), now());
+insert into containers (container_code, size, type, created_at, updated_at)
+values ('MSCU1234567', 'TWENTY_FOOT', 'DRY', now(), now());
+insert into agents (name, email, commission_percent, type, active, created_at, updated_at)
+values ('Alice Johnson', 'alice@freightops.com', 5.00, 'INTERNAL', true, now(), now());
+insert into customers (company_name, contact_name, email, created_at, updated_at)
+values ('Acme', 'Jane Doe', 'jane@acme.com', now(), now());
+insert into voyages (voyage_number, vessel_id, departure_port_id, arrival_port_id, departure_time,
+                     arrival_time, status, created_at, updated_at)
+values ('LEG-001', 1, 1, 2, '2025-01-01 08:00', '2025-01-20 08:00', 'COMPLETED', now(), now()),
+       ('LEG-002', 1, 2, 1, '2025-02-01 08:00', '2025-02-20 08:00', 'PLANNED', now(), now());
+insert into voyage_prices (voyage_id, container_size, base_price_usd, created_at, updated_at)
+values (1, 'TWENTY_FOOT', 1500.00, now(), now()),
+       (2, 'TWENTY_FOOT', 1600.00, now(), now());
+insert into freight_orders (voyage_id, container_id, agent_id, customer_id, ordered_by, status,
+                            base_price_usd, discount_percent, final_price, created_at, updated_at)
+values (1, 1, 1, 1, 'ops', 'DELIVERED', 1500.00, 0, 1500.00, now(), now()),
+       (2, 1, 1, 1, 'ops', 'PENDING', 1600.00, 0, 1600.00, now(), now());